@@ -7,14 +7,21 @@
  */
 package org.duracloud.account.app.controller;
 
-import java.util.Collection;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 import javax.validation.Valid;
 
@@ -22,8 +29,10 @@ import org.duracloud.account.app.controller.GroupsForm.Action;
 import org.duracloud.account.db.model.AccountInfo;
 import org.duracloud.account.db.model.DuracloudGroup;
 import org.duracloud.account.db.model.DuracloudUser;
+import org.duracloud.account.db.util.AccountMember;
 import org.duracloud.account.db.util.AccountService;
 import org.duracloud.account.db.util.DuracloudGroupService;
+import org.duracloud.account.db.util.GroupImportReport;
 import org.duracloud.account.db.util.error.DuracloudGroupAlreadyExistsException;
 import org.duracloud.account.db.util.error.DuracloudGroupNotFoundException;
 import org.duracloud.account.db.util.error.InvalidGroupNameException;
@@ -38,6 +47,8 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
 
 /**
  * @author Daniel Bernstein Date: Nov 9, 2011
@@ -60,6 +71,9 @@ public class AccountGroupsController extends AbstractAccountController {
     protected static final String GROUPS_PATH = ACCOUNT_PATH + "/groups";
     protected static final String GROUP_PATH = GROUPS_PATH + "/{groupName:[a-z0-9._\\-@]+}";
     protected static final String GROUP_EDIT_PATH = GROUP_PATH + "/edit";
+    protected static final String GROUPS_EXPORT_PATH = GROUPS_PATH + "/export";
+    protected static final String GROUPS_IMPORT_PATH = GROUPS_PATH + "/import";
+    protected static final String IMPORT_REPORT_KEY = "importReport";
 
     private static final String GROUP_NAME_RESERVED_ERROR_CODE = "error.groupName.reserved";
     private static final String GROUP_NAME_INVALID_ERROR_CODE = "error.groupName.invalid";
@@ -132,6 +146,41 @@ public class AccountGroupsController extends AbstractAccountController {
         return GROUPS_VIEW_ID;
     }
 
+    /**
+     * Streams the memberships of all of the account's groups as CSV.
+     */
+    @RequestMapping(value = GROUPS_EXPORT_PATH, method = RequestMethod.GET)
+    public void exportGroups(@PathVariable Long accountId,
+                             HttpServletResponse response) throws Exception {
+        AccountInfo account = getAccountService(accountId).retrieveAccountInfo();
+        response.setContentType("text/csv;charset=UTF-8");
+        response.setHeader("Content-Disposition",
+                           "attachment; filename=\"" + account.getSubdomain() + "-groups.csv\"");
+        duracloudGroupService.exportGroupMembers(response.getWriter(), accountId);
+    }
+
+    /**
+     * Imports group memberships from an uploaded CSV file, in the format
+     * written by the export.
+     */
+    @RequestMapping(value = GROUPS_IMPORT_PATH, method = RequestMethod.POST)
+    @Transactional
+    public String importGroups(@PathVariable Long accountId,
+                               @RequestParam("file") MultipartFile file,
+                               @RequestParam(value = "replace", defaultValue = "false") boolean replace,
+                               Model model) throws Exception {
+        AccountService as = getAccountService(accountId);
+        GroupImportReport report;
+        try (Reader reader = new InputStreamReader(file.getInputStream(),
+                                                   StandardCharsets.UTF_8)) {
+            report = duracloudGroupService.importGroupMembers(reader, replace, accountId);
+        }
+        model.addAttribute(IMPORT_REPORT_KEY, report);
+
+        addGroupsObjectsToModel(as, model);
+        return GROUPS_VIEW_ID;
+    }
+
     @RequestMapping(value = GROUP_PATH, method = RequestMethod.GET)
     public String getGroup(@PathVariable Long accountId,
                            @PathVariable String groupName, Model model) throws Exception {
@@ -139,11 +188,10 @@ public class AccountGroupsController extends AbstractAccountController {
         addUserToModel(model);
         model.addAttribute(GROUPS_FORM_KEY, new GroupsForm());
         AccountService as = getAccountService(accountId);
-        List<DuracloudGroup> groups = getGroups(accountId);
-        DuracloudGroup group = getGroup(groupName, groups);
+        DuracloudGroup group = getGroup(groupName, accountId);
         addGroupToModel(group, model);
 
-        addGroupsObjectsToModel(as, groups, model);
+        addGroupsObjectsToModel(as, getGroups(accountId), model);
         return GROUP_VIEW_ID;
     }
 
@@ -164,20 +212,21 @@ public class AccountGroupsController extends AbstractAccountController {
                             Model model) throws Exception {
 
         AccountService as = getAccountService(accountId);
+        addGroupsObjectsToModel(as, getGroups(accountId), model);
 
-        List<DuracloudGroup> groups = getGroups(accountId);
-        addGroupsObjectsToModel(as, groups, model);
-
-        DuracloudGroup group = getGroup(groupName, groups);
+        DuracloudGroup group = getGroup(groupName, accountId);
         addGroupToModel(group, model);
 
         model.addAttribute(GROUP_FORM_KEY, new GroupForm());
-        Set<DuracloudUser> groupUsers = group.getUsers();
 
-        addAvailableUsersToModel(as, groupUsers, model);
-        HttpSession session = request.getSession();
-        session.removeAttribute(GROUP_USERS_KEY);
-        addGroupUsersIfNotAlreadyInSession(group, model, session);
+        // Editing starts over from the group's saved users
+        Set<Long> groupUserIds = new HashSet<Long>();
+        for (DuracloudUser user : group.getUsers()) {
+            groupUserIds.add(user.getId());
+        }
+        request.getSession().setAttribute(GROUP_USERS_KEY, groupUserIds);
+
+        addGroupMembersToModel(getMembers(as, group), groupUserIds, model);
         return GROUP_EDIT_VIEW_ID;
     }
 
@@ -191,33 +240,35 @@ public class AccountGroupsController extends AbstractAccountController {
 
         GroupForm.Action action = form.getAction();
         AccountService as = getAccountService(accountId);
-        List<DuracloudGroup> groups = getGroups(accountId);
-        DuracloudGroup group = getGroup(groupName, groups);
+        DuracloudGroup group = getGroup(groupName, accountId);
         addGroupToModel(group, model);
 
         HttpSession session = request.getSession();
-
-        List<DuracloudUser> groupUsers = addGroupUsersIfNotAlreadyInSession(group, model, session);
+        Set<Long> groupUserIds = getGroupUserIds(group, session);
 
         // handle save case
         if (action == GroupForm.Action.SAVE) {
-            Set<DuracloudUser> users = new HashSet<DuracloudUser>(groupUsers);
-            save(group, users, accountId, form);
+            duracloudGroupService.updateGroupUserIds(group, groupUserIds, accountId);
+            form.reset();
             session.removeAttribute(GROUP_USERS_KEY);
 
             return formatGroupRedirect(accountId, groupName, null);
         }
 
-        Collection<DuracloudUser> availableUsers = getAvailableUsers(as, groupUsers);
+        Map<Long, AccountMember> members = getMembers(as, group);
+        Map<String, Long> userIds = new HashMap<String, Long>();
+        for (AccountMember member : members.values()) {
+            userIds.put(member.getUsername(), member.getId());
+        }
 
         if (action == GroupForm.Action.ADD) {
             // handle add
             String[] availableUsernames = form.getAvailableUsernames();
             if (availableUsernames != null) {
                 for (String username : availableUsernames) {
-                    DuracloudUser user = getUser(username, availableUsers);
-                    if (user != null) {
-                        groupUsers.add(user);
+                    Long userId = userIds.get(username);
+                    if (userId != null && !members.get(userId).isRoot()) {
+                        groupUserIds.add(userId);
                     }
                 }
 
@@ -229,10 +280,9 @@ public class AccountGroupsController extends AbstractAccountController {
             String[] groupUsernames = form.getGroupUsernames();
             if (groupUsernames != null) {
                 for (String username : groupUsernames) {
-                    DuracloudUser user = getUser(username, groupUsers);
-                    if (user != null) {
-                        groupUsers.remove(user);
-                        availableUsers.add(user);
+                    Long userId = userIds.get(username);
+                    if (userId != null) {
+                        groupUserIds.remove(userId);
                     }
                 }
 
@@ -242,10 +292,11 @@ public class AccountGroupsController extends AbstractAccountController {
         } else {
             throw new DuraCloudRuntimeException("[" + action + "] not supported.");
         }
+        session.setAttribute(GROUP_USERS_KEY, groupUserIds);
 
         model.addAttribute(GROUP_FORM_KEY, form);
-        addAvailableUsersToModel(availableUsers, groupUsers, model);
-        addGroupsObjectsToModel(as, groups, model);
+        addGroupMembersToModel(members, groupUserIds, model);
+        addGroupsObjectsToModel(as, getGroups(accountId), model);
 
         return GROUP_EDIT_VIEW_ID;
     }
@@ -258,47 +309,67 @@ public class AccountGroupsController extends AbstractAccountController {
         return redirect;
     }
 
-    private void addAvailableUsersToModel(Collection<DuracloudUser> allUsers,
-                                          Collection<DuracloudUser> groupUsers,
-                                          Model model) {
-        if (allUsers != null && groupUsers != null) {
-            allUsers.removeAll(groupUsers);
-        }
-        model.addAttribute(AVAILABLE_USERS_KEY, allUsers);
-    }
-
-    private DuracloudUser getUser(String username, Collection<DuracloudUser> users) {
-        for (DuracloudUser user : users) {
-            if (user.getUsername().equals(username)) {
-                return user;
+    /**
+     * Splits the members into the group's users and the users who may be
+     * added to it, both ordered by username.
+     */
+    private void addGroupMembersToModel(Map<Long, AccountMember> members,
+                                        Set<Long> groupUserIds,
+                                        Model model) {
+        List<AccountMember> groupUsers = new ArrayList<AccountMember>(groupUserIds.size());
+        List<AccountMember> availableUsers = new ArrayList<AccountMember>();
+        for (AccountMember member : members.values()) {
+            if (groupUserIds.contains(member.getId())) {
+                groupUsers.add(member);
+            } else if (!member.isRoot()) {
+                availableUsers.add(member);
             }
         }
+        Collections.sort(groupUsers, USERNAME_COMPARATOR);
+        Collections.sort(availableUsers, USERNAME_COMPARATOR);
 
-        return null;
+        model.addAttribute(GROUP_USERS_KEY, groupUsers);
+        model.addAttribute(AVAILABLE_USERS_KEY, availableUsers);
     }
 
-    private List<DuracloudUser> addGroupUsersIfNotAlreadyInSession(
-        DuracloudGroup group, Model model, HttpSession session) {
-        List<DuracloudUser> groupUsers = (List<DuracloudUser>) session.getAttribute(GROUP_USERS_KEY);
-        if (groupUsers == null) {
-            groupUsers = new LinkedList<DuracloudUser>();
-            groupUsers.addAll(group.getUsers());
-            Collections.sort(groupUsers, USERNAME_COMPARATOR);
-            session.setAttribute(GROUP_USERS_KEY, groupUsers);
+    /**
+     * @return the members of the account, along with any users of the group
+     * who are not members (such as root users), keyed by user id
+     */
+    private Map<Long, AccountMember> getMembers(AccountService as, DuracloudGroup group) {
+        Map<Long, AccountMember> members = new LinkedHashMap<Long, AccountMember>();
+        for (AccountMember member : as.getMembers()) {
+            members.put(member.getId(), member);
         }
-
-        model.addAttribute(GROUP_USERS_KEY, groupUsers);
-
-        return groupUsers;
+        for (DuracloudUser user : group.getUsers()) {
+            if (!members.containsKey(user.getId())) {
+                members.put(user.getId(), new AccountMember(user.getId(),
+                                                            user.getUsername(),
+                                                            user.getFirstName(),
+                                                            user.getLastName(),
+                                                            user.getEmail(),
+                                                            user.getAllowableIPAddressRange(),
+                                                            user.isRoot(),
+                                                            null));
+            }
+        }
+        return members;
     }
 
-    private void save(DuracloudGroup group,
-                      Set<DuracloudUser> groupUsers,
-                      Long accountId,
-                      GroupForm form)
-        throws DuracloudGroupNotFoundException {
-        duracloudGroupService.updateGroupUsers(group, groupUsers, accountId);
-        form.reset();
+    /**
+     * @return the ids of the users of the group being edited, as kept in
+     * the session
+     */
+    private Set<Long> getGroupUserIds(DuracloudGroup group, HttpSession session) {
+        Set<Long> groupUserIds = (Set<Long>) session.getAttribute(GROUP_USERS_KEY);
+        if (groupUserIds == null) {
+            groupUserIds = new HashSet<Long>();
+            for (DuracloudUser user : group.getUsers()) {
+                groupUserIds.add(user.getId());
+            }
+            session.setAttribute(GROUP_USERS_KEY, groupUserIds);
+        }
+        return groupUserIds;
     }
 
     private void removeGroup(DuracloudGroup group, Long accountId) {
@@ -329,36 +400,10 @@ public class AccountGroupsController extends AbstractAccountController {
         addGroupsToModel(model, groups);
     }
 
-    private void addAvailableUsersToModel(AccountService as,
-                                          Collection<DuracloudUser> groupUsers,
-                                          Model model) {
-        Collection<DuracloudUser> availableUsers = getAvailableUsers(as, groupUsers);
-        addAvailableUsersToModel(availableUsers, groupUsers, model);
-    }
-
-    private Collection<DuracloudUser> getAvailableUsers(AccountService as,
-                                                        Collection<DuracloudUser> groupUsers) {
-        Set<DuracloudUser> allUsers = as.getUsers();
-        LinkedList<DuracloudUser> list = new LinkedList<DuracloudUser>();
-        list.addAll(allUsers);
-        for (DuracloudUser user : allUsers) {
-            if (user.isRoot()) {
-                list.remove(user);
-            }
-        }
-
-        if (groupUsers != null) {
-            list.removeAll(groupUsers);
-        }
-
-        Collections.sort(list, USERNAME_COMPARATOR);
-        return list;
-    }
-
-    private static Comparator<DuracloudUser> USERNAME_COMPARATOR = new Comparator<DuracloudUser>() {
+    private static Comparator<AccountMember> USERNAME_COMPARATOR = new Comparator<AccountMember>() {
 
         @Override
-        public int compare(DuracloudUser o1, DuracloudUser o2) {
+        public int compare(AccountMember o1, AccountMember o2) {
             return o1.getUsername().compareTo(o2.getUsername());
         }
     };
@@ -368,15 +413,13 @@ public class AccountGroupsController extends AbstractAccountController {
         model.addAttribute(GROUP_USERS_KEY, group.getUsers());
     }
 
-    private DuracloudGroup getGroup(String groupName,
-                                    List<DuracloudGroup> groups) throws DuracloudGroupNotFoundException {
-        for (DuracloudGroup g : groups) {
-            if (g.getName().equalsIgnoreCase(groupName)) {
-                return g;
-            }
+    private DuracloudGroup getGroup(String groupName, Long accountId)
+        throws DuracloudGroupNotFoundException {
+        DuracloudGroup group = duracloudGroupService.getGroup(groupName, accountId);
+        if (group == null) {
+            throw new DuracloudGroupNotFoundException("no group named '" + groupName + "' found in account.");
         }
-
-        throw new DuracloudGroupNotFoundException("no group named '" + groupName + "' found in group set.");
+        return group;
     }
 
     private void addGroupsToModel(Model model, List<DuracloudGroup> groups) {
@@ -21,9 +21,12 @@ import org.duracloud.account.db.model.DuracloudUser;
 import org.duracloud.account.db.model.Role;
 import org.duracloud.account.db.model.UserInvitation;
 import org.duracloud.account.db.model.util.DuracloudAccount;
+import org.duracloud.account.db.util.AccountMember;
 import org.duracloud.account.db.util.AccountService;
+import org.duracloud.account.db.util.UserInvitationReport;
+import org.duracloud.account.db.util.UserInvitationReport.AddressOutcome;
+import org.duracloud.account.db.util.UserInvitationReport.Outcome;
 import org.duracloud.account.db.util.error.AccountNotFoundException;
-import org.duracloud.account.db.util.error.UnsentEmailException;
 import org.duracloud.account.util.EmailAddressesParser;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.security.access.AccessDeniedException;
@@ -143,34 +146,30 @@ public class AccountUsersController extends AbstractAccountController {
             List<String> emailAddresses =
                 EmailAddressesParser.parse(invitationForm.getEmailAddresses());
 
-            List<String> failedEmailAddresses = new ArrayList<String>();
             String adminUsername = getUser().getUsername();
+            UserInvitationReport report = service.inviteUsers(emailAddresses, adminUsername);
 
-            for (String emailAddress : emailAddresses) {
-                try {
-                    UserInvitation ui =
-                        service.inviteUser(emailAddress,
-                                           adminUsername);
-                    String template = "Successfully created user invitation on "
-                                      + "account {0} for {1} expiring on {2}";
-                    String message =
-                        MessageFormat.format(template,
-                                             ui.getAccount().getId(),
-                                             ui.getUserEmail(),
-                                             ui.getExpirationDate());
-                    log.info(message);
-                } catch (UnsentEmailException e) {
-                    failedEmailAddresses.add(emailAddress);
+            List<String> skipped = new ArrayList<String>();
+            for (AddressOutcome entry : report.getOutcomes()) {
+                if (entry.getOutcome() != Outcome.INVITED) {
+                    skipped.add(entry.getEmailAddress());
                 }
             }
 
-            if (!failedEmailAddresses.isEmpty()) {
-                String template = "Unable to send an email to the following recipients, "
-                                  + "but the user has been added: {0}";
-                String message = MessageFormat.format(template, failedEmailAddresses);
+            int invited = report.getInvitations().size();
+            List<String> messages = new ArrayList<String>();
+            if (invited > 0) {
+                messages.add(MessageFormat.format("{0} invitation(s) queued for sending.", invited));
+            }
+            if (!skipped.isEmpty()) {
+                messages.add(MessageFormat.format("The following addresses were skipped because "
+                                                  + "they are repeated, already invited, or already "
+                                                  + "members of the account: {0}", skipped));
+            }
 
-                result.addError(new ObjectError("emailAddresses", message));
-                hasErrors = true;
+            log.info("created {} user invitations on account {}", invited, accountId);
+            if (!messages.isEmpty()) {
+                setSuccessFeedback(String.join(" ", messages), redirectAttributes);
             }
         }
 
@@ -180,7 +179,6 @@ public class AccountUsersController extends AbstractAccountController {
             return new ModelAndView(ACCOUNT_USERS_VIEW_ID);
         }
 
-        setSuccessFeedback("Successfully sent invitations.", redirectAttributes);
         return createAccountRedirectModelAndView(accountId, ACCOUNT_USERS_PATH);
     }
 
@@ -221,17 +219,17 @@ public class AccountUsersController extends AbstractAccountController {
         throws Exception {
         log.info("getEditUserForm user {} account {}", userId, accountId);
         AccountService accountService = getAccountService(accountId);
-        Set<DuracloudUser> users = accountService.getUsers();
+        List<AccountMember> users = accountService.getMembers();
 
-        for (DuracloudUser u : users) {
-            if (u.getId() == userId) {
+        for (AccountMember u : users) {
+            if (u.getId().equals(userId)) {
                 AccountUser au = new AccountUser(u.getId(),
                                                  u.getUsername(),
                                                  u.getFirstName(),
                                                  u.getLastName(),
                                                  u.getEmail(),
                                                  InvitationStatus.ACTIVE,
-                                                 u.getRoleByAcct(accountId),
+                                                 u.getRole(),
                                                  u.getAllowableIPAddressRange(),
                                                  false);
                 //TODO set current role for select box - based on hierarchy?
@@ -295,7 +293,7 @@ public class AccountUsersController extends AbstractAccountController {
         throws Exception {
         AccountInfo accountInfo = accountService.retrieveAccountInfo();
         model.addAttribute(ACCOUNT_INFO_KEY, accountInfo);
-        Set<DuracloudUser> users = accountService.getUsers();
+        List<AccountMember> users = accountService.getMembers();
         Set<UserInvitation> pendingUserInvitations = accountService.getPendingInvitations();
         DuracloudUser caller = getUser();
         DuracloudAccount duracloudAccount = new DuracloudAccount();
@@ -332,10 +330,10 @@ public class AccountUsersController extends AbstractAccountController {
      * @return
      */
     private List<AccountUser> buildUserList(
-        Long accountId, Set<DuracloudUser> users, DuracloudUser caller) {
+        Long accountId, List<AccountMember> users, DuracloudUser caller) {
         List<AccountUser> list = new LinkedList<AccountUser>();
-        for (DuracloudUser u : users) {
-            Role role = u.getRoleByAcct(accountId);
+        for (AccountMember u : users) {
+            Role role = u.getRole();
             AccountUser au =
                 new AccountUser(u.getId(),
                                 u.getUsername(),
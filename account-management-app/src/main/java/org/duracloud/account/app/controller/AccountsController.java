@@ -17,8 +17,12 @@ import org.duracloud.account.db.model.AccountInfo;
 import org.duracloud.account.db.model.AccountInfo.AccountStatus;
 import org.duracloud.account.db.model.StorageProviderAccount;
 import org.duracloud.account.db.util.AccountService;
+import org.duracloud.account.db.util.ResultPage;
 import org.duracloud.account.db.util.RootAccountManagerService;
 import org.duracloud.account.db.util.error.AccountNotFoundException;
+import org.duracloud.account.db.util.job.AccountDeletionJob;
+import org.duracloud.account.db.util.job.JobManager;
+import org.duracloud.account.db.util.model.BackgroundJob;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,6 +32,7 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
@@ -43,28 +48,48 @@ public class AccountsController extends AbstractRootController {
     private static final String ACCOUNT_SETUP_VIEW = BASE_VIEW + "/setup";
     public static final String ACCOUNT_SETUP_MAPPING = BY_ID_MAPPING + "/setup";
     private static final String SETUP_ACCOUNT_FORM_KEY = "setupAccountForm";
+    public static final int PAGE_SIZE = 50;
 
     @Autowired
     private AmaEndpoint amaEndpoint;
 
+    @Autowired
+    private JobManager jobManager;
+
     @RequestMapping("")
-    public ModelAndView get() {
-        ModelAndView mav = new ModelAndView(BASE_VIEW, "accounts",
-                                            getRootAccountManagerService().listAllAccounts(null));
+    public ModelAndView get(@RequestParam(required = false) AccountStatus status,
+                            @RequestParam(required = false) String org,
+                            @RequestParam(required = false) String subdomain,
+                            @RequestParam(required = false) String after) {
+        RootAccountManagerService rams = getRootAccountManagerService();
+        ResultPage<AccountInfo> accounts =
+            rams.searchAccounts(status, org, subdomain, after, PAGE_SIZE);
+
+        ModelAndView mav = new ModelAndView(BASE_VIEW, "accounts", accounts.getItems());
+        mav.addObject("nextCursor", accounts.getNextCursor());
+        mav.addObject("statusCounts", rams.countAccountsByStatus());
+        mav.addObject("status", status);
+        mav.addObject("org", org);
+        mav.addObject("subdomain", subdomain);
         mav.addObject("mcDomain", amaEndpoint.getDomain());
         return mav;
     }
 
+    /**
+     * Submits the deletion of the account as a background job, as deleting
+     * an account with many users takes a while.
+     */
     @RequestMapping(value = {BY_ID_DELETE_MAPPING}, method = RequestMethod.POST)
-    @Transactional
     public ModelAndView delete(@PathVariable Long id, RedirectAttributes redirectAttributes)
         throws AccountNotFoundException {
         AccountService accountService = getAccountManagerService().getAccount(id);
         String accountName = accountService.retrieveAccountInfo().getAcctName();
-        getRootAccountManagerService().deleteAccount(id);
-        String message = MessageFormat.format("Successfully deleted account ({0}).", accountName);
+        BackgroundJob job =
+            jobManager.submit(new AccountDeletionJob(getRootAccountManagerService(), id, accountName));
+        String message = MessageFormat.format("Deletion of account ({0}) was submitted as job {1}.",
+                                              accountName, String.valueOf(job.getId()));
         setSuccessFeedback(message, redirectAttributes);
-        return createRedirectMav(BASE_MAPPING);
+        return createRedirectMav(JobsController.BASE_MAPPING);
     }
 
     @RequestMapping(value = {BY_ID_MAPPING + "/activate"}, method = RequestMethod.POST)
@@ -168,4 +193,8 @@ public class AccountsController extends AbstractRootController {
     public void setAmaEndpoint(AmaEndpoint amaEndpoint) {
         this.amaEndpoint = amaEndpoint;
     }
+
+    public void setJobManager(JobManager jobManager) {
+        this.jobManager = jobManager;
+    }
 }
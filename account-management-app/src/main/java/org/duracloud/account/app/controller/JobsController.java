@@ -0,0 +1,85 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.app.controller;
+
+import java.util.List;
+
+import org.duracloud.account.db.util.job.JobManager;
+import org.duracloud.account.db.util.model.BackgroundJob;
+import org.duracloud.account.util.UserFeedbackUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.web.servlet.view.RedirectView;
+import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
+
+/**
+ * Status of the background jobs submitted from the root console. The jobs
+ * page polls the status of its unfinished jobs, which is returned as JSON of
+ * the form {"jobs": [{"id": 1, "status": "RUNNING", "progress": 500,
+ * "total": -1, "percentComplete": -1, ...}, ...]}.
+ */
+@Controller
+@RequestMapping(JobsController.BASE_MAPPING)
+public class JobsController {
+
+    public static final String BASE_MAPPING = RootConsoleHomeController.BASE_MAPPING + "/jobs";
+
+    protected static final int PAGE_SIZE = 50;
+
+    @Autowired
+    private JobManager jobManager;
+
+    @RequestMapping(value = "", method = RequestMethod.GET)
+    public ModelAndView get(@RequestParam(required = false) Long before) {
+        // Fetch one extra row to learn whether there is a next page
+        List<BackgroundJob> jobs = jobManager.list(before, PAGE_SIZE + 1);
+
+        Long nextBefore = null;
+        if (jobs.size() > PAGE_SIZE) {
+            jobs = jobs.subList(0, PAGE_SIZE);
+            nextBefore = jobs.get(PAGE_SIZE - 1).getId();
+        }
+
+        return new ModelAndView(BASE_MAPPING).addObject("jobs", jobs)
+                                             .addObject("nextBefore", nextBefore);
+    }
+
+    /**
+     * @param before as for the jobs page
+     * @return the same page of jobs as JSON, for polling
+     */
+    @RequestMapping(value = "/status", method = RequestMethod.GET)
+    public ModelAndView status(@RequestParam(required = false) Long before) {
+        ModelAndView mav = new ModelAndView(new MappingJackson2JsonView());
+        mav.addObject("jobs", jobManager.list(before, PAGE_SIZE));
+        return mav;
+    }
+
+    @RequestMapping(value = "/{id}/cancel", method = RequestMethod.POST)
+    public ModelAndView cancel(@PathVariable Long id, RedirectAttributes redirectAttributes) {
+        if (jobManager.cancel(id)) {
+            UserFeedbackUtil.addSuccessFlash("Requested cancellation of job " + id + ".",
+                                             redirectAttributes);
+        } else {
+            UserFeedbackUtil.addFailureFlash("Job " + id + " has already finished.",
+                                             redirectAttributes);
+        }
+        return new ModelAndView(new RedirectView(BASE_MAPPING, true));
+    }
+
+    protected void setJobManager(JobManager jobManager) {
+        this.jobManager = jobManager;
+    }
+
+}
@@ -7,10 +7,13 @@
  */
 package org.duracloud.account.app.controller;
 
+import java.util.List;
 import javax.validation.Valid;
 
 import org.duracloud.account.db.model.EmailTemplate;
 import org.duracloud.account.db.util.EmailTemplateService;
+import org.duracloud.account.db.util.model.NotificationDelivery;
+import org.duracloud.account.db.util.notification.NotificationDeliveryLog;
 import org.duracloud.account.util.UserFeedbackUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -20,6 +23,7 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import org.springframework.web.servlet.view.RedirectView;
@@ -37,9 +41,14 @@ public class NotificationsController {
     private static final String EMAIL_TEMPLATE_FORM = "emailTemplateForm";
     private static final String EMAIL_TEMPLATE = "emailTemplate";
 
+    protected static final int DELIVERIES_PAGE_SIZE = 50;
+
     @Autowired
     private EmailTemplateService emailTemplateService;
 
+    @Autowired
+    private NotificationDeliveryLog notificationDeliveryLog;
+
     /**
      * @return
      */
@@ -80,4 +89,32 @@ public class NotificationsController {
         return new ModelAndView(new RedirectView(BASE_MAPPING, true));
     }
 
+    /**
+     * Lists notification deliveries, newest first, one page at a time. The
+     * next page is requested with the id of the last delivery shown.
+     */
+    @RequestMapping(value = "/deliveries", method = RequestMethod.GET)
+    public ModelAndView deliveries(@RequestParam(required = false) Long before,
+                                   @RequestParam(required = false) String template,
+                                   @RequestParam(required = false) String recipient,
+                                   @RequestParam(required = false) NotificationDelivery.Status status) {
+        // Fetch one extra row to learn whether there is a next page
+        List<NotificationDelivery> deliveries =
+            notificationDeliveryLog.list(before, template, recipient, status, DELIVERIES_PAGE_SIZE + 1);
+
+        Long nextBefore = null;
+        if (deliveries.size() > DELIVERIES_PAGE_SIZE) {
+            deliveries = deliveries.subList(0, DELIVERIES_PAGE_SIZE);
+            nextBefore = deliveries.get(DELIVERIES_PAGE_SIZE - 1).getId();
+        }
+
+        return new ModelAndView(BASE_MAPPING + "/deliveries").addObject("deliveries", deliveries)
+                                                             .addObject("nextBefore", nextBefore)
+                                                             .addObject("template", template)
+                                                             .addObject("recipient", recipient)
+                                                             .addObject("status", status)
+                                                             .addObject("statuses",
+                                                                        NotificationDelivery.Status.values());
+    }
+
 }
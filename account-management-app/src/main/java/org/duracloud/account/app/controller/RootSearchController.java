@@ -0,0 +1,58 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.app.controller;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.duracloud.account.db.util.SearchHit;
+import org.duracloud.account.db.util.SearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
+
+/**
+ * Typeahead search over users and accounts for the root console. Responds
+ * with JSON of the form {"ready": true, "hits": [{"type": "USER", "id": 1,
+ * "label": ..., "detail": ..., "score": ...}, ...]}.
+ */
+@Controller
+@RequestMapping(RootSearchController.BASE_MAPPING)
+public class RootSearchController {
+
+    public static final String BASE_MAPPING = RootConsoleHomeController.BASE_MAPPING + "/search";
+
+    protected static final int DEFAULT_LIMIT = 10;
+    protected static final int MAX_LIMIT = 50;
+
+    @Autowired
+    private SearchIndex searchIndex;
+
+    @RequestMapping(value = "", method = RequestMethod.GET)
+    public ModelAndView search(@RequestParam(required = false) String q,
+                               @RequestParam(required = false) Integer limit) {
+        int max = null == limit ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<SearchHit> hits = null == q
+                               ? Collections.<SearchHit>emptyList()
+                               : searchIndex.search(q, max);
+
+        ModelAndView mav = new ModelAndView(new MappingJackson2JsonView());
+        mav.addObject("ready", searchIndex.isReady());
+        mav.addObject("hits", hits);
+        return mav;
+    }
+
+    protected void setSearchIndex(SearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+}
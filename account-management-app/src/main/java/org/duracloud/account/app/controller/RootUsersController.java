@@ -8,17 +8,14 @@
 package org.duracloud.account.app.controller;
 
 import java.text.MessageFormat;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 import javax.validation.Valid;
 
-import org.duracloud.account.app.model.Account;
 import org.duracloud.account.app.model.User;
 import org.duracloud.account.db.model.DuracloudUser;
 import org.duracloud.account.db.util.DuracloudUserService;
+import org.duracloud.account.db.util.ResultPage;
+import org.duracloud.account.db.util.UserMembership;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
@@ -29,6 +26,7 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
@@ -49,6 +47,8 @@ public class RootUsersController extends AbstractRootController {
 
     public static final String EDIT_ACCOUNT_ROOT_USERS_FORM_KEY = "accountRootUsersEditForm";
 
+    public static final int PAGE_SIZE = 50;
+
     @Autowired
     private DuracloudUserService userService;
 
@@ -58,25 +58,16 @@ public class RootUsersController extends AbstractRootController {
     }
 
     @RequestMapping("")
-    public ModelAndView get() {
-        List<User> u = new ArrayList<User>();
-        Set<DuracloudUser> root_users = getRootAccountManagerService().listAllRootUsers(null);
-        for (DuracloudUser root_user : root_users) {
-            Set<Account> accounts = new HashSet<Account>();
-            u.add(new User(root_user.getId(),
-                    root_user.getUsername(),
-                    root_user.getFirstName(),
-                    root_user.getLastName(),
-                    root_user.getEmail(),
-                    root_user.getAllowableIPAddressRange(),
-                    accounts,
-                    root_user.isRoot()));
-        }
-
-        Collections.sort(u);
+    public ModelAndView get(@RequestParam(required = false) String filter,
+                            @RequestParam(required = false) String after) {
+        ResultPage<UserMembership> root_users =
+            getRootAccountManagerService().searchRootUsers(filter, after, PAGE_SIZE);
+        List<User> u = UserMembershipAssembler.toUsers(root_users.getItems());
 
         ModelAndView mav = new ModelAndView(BASE_VIEW);
         mav.addObject("rootusers", u);
+        mav.addObject("filter", filter);
+        mav.addObject("nextCursor", root_users.getNextCursor());
         return mav;
 
     }
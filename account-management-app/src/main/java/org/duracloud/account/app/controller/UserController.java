@@ -8,10 +8,10 @@
 package org.duracloud.account.app.controller;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Iterator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 
@@ -25,6 +25,7 @@ import org.duracloud.account.db.model.UserInvitation;
 import org.duracloud.account.db.model.util.DuracloudAccount;
 import org.duracloud.account.db.util.AccountManagerService;
 import org.duracloud.account.db.util.DuracloudUserService;
+import org.duracloud.account.db.util.ResultPage;
 import org.duracloud.account.db.util.error.DBNotFoundException;
 import org.duracloud.account.db.util.error.InvalidPasswordException;
 import org.duracloud.account.db.util.error.InvalidRedemptionCodeException;
@@ -47,6 +48,7 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import org.springframework.web.servlet.view.RedirectView;
@@ -99,6 +101,12 @@ public class UserController extends AbstractController {
 
     public static final String NEW_INSTANCE_FORM = "instanceForm";
 
+    public static final int ACCOUNT_PAGE_SIZE = 25;
+
+    // Statuses listed on the user's accounts page, each in its own section
+    private static final AccountStatus[] LISTED_STATUSES =
+        {AccountStatus.ACTIVE, AccountStatus.PENDING, AccountStatus.INACTIVE};
+
     @Autowired
     private AccountManagerService accountManagerService;
 
@@ -183,7 +191,7 @@ public class UserController extends AbstractController {
             }
         }
 
-        return getUserAccounts(username);
+        return getUserAccounts(username, null, null);
     }
 
     /**
@@ -207,11 +215,13 @@ public class UserController extends AbstractController {
     }
 
     @RequestMapping(value = {USER_ACCOUNTS_MAPPING}, method = RequestMethod.GET)
-    public ModelAndView getUserAccounts(@PathVariable String username)
+    public ModelAndView getUserAccounts(@PathVariable String username,
+                                        @RequestParam(required = false) AccountStatus status,
+                                        @RequestParam(required = false) String after)
         throws DBNotFoundException {
         log.debug("getting user accounts for {}", username);
         ModelAndView mav = new ModelAndView(USER_ACCOUNTS);
-        prepareModel(username, mav);
+        prepareModel(username, mav, status, after);
         return mav;
     }
 
@@ -381,36 +391,47 @@ public class UserController extends AbstractController {
     }
 
     /**
+     * Adds one page of the user's accounts in each listed status, along
+     * with the number of accounts in each status. The status named by
+     * pageStatus shows the page following the after cursor; the others show
+     * their first page.
+     *
      * @param user
      * @param mav
+     * @param pageStatus
+     * @param after
      */
-    private void prepareModel(DuracloudUser user, ModelAndView mav) {
+    private void prepareModel(DuracloudUser user,
+                              ModelAndView mav,
+                              AccountStatus pageStatus,
+                              String after) {
         mav.addObject(USER_KEY, user);
-        Set<AccountInfo> accounts = this.accountManagerService.findAccountsByUserId(user.getId());
-
-        List<DuracloudAccount> activeAccounts = new ArrayList<>();
-        List<DuracloudAccount> inactiveAccounts = new ArrayList<>();
-        List<DuracloudAccount> pendingAccounts = new ArrayList<>();
-
-        Iterator<AccountInfo> iterator = accounts.iterator();
-        while (iterator.hasNext()) {
-            AccountInfo acctInfo = iterator.next();
-            DuracloudAccount duracloudAccount = loadAccountInstances(acctInfo, user);
-            AccountStatus status = acctInfo.getStatus();
-            if (AccountInfo.AccountStatus.ACTIVE.equals(status)) {
-                activeAccounts.add(duracloudAccount);
-            } else if (AccountInfo.AccountStatus.INACTIVE.equals(status)) {
-                inactiveAccounts.add(duracloudAccount);
-            } else if (AccountInfo.AccountStatus.PENDING.equals(status)) {
-                pendingAccounts.add(duracloudAccount);
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        this.accountManagerService.countAccountsByUserId(user.getId())
+                                  .forEach((status, count) -> counts.put(status.name(), count));
+
+        Map<String, String> nextCursors = new HashMap<>();
+        for (AccountStatus status : LISTED_STATUSES) {
+            List<DuracloudAccount> accounts = new ArrayList<>();
+            if (counts.get(status.name()) > 0) {
+                String cursor = status.equals(pageStatus) ? after : null;
+                ResultPage<AccountInfo> page =
+                    this.accountManagerService.findAccountsByUserId(user.getId(),
+                                                                    status,
+                                                                    cursor,
+                                                                    ACCOUNT_PAGE_SIZE);
+                for (AccountInfo acctInfo : page.getItems()) {
+                    accounts.add(loadAccountInstances(acctInfo, user));
+                }
+                nextCursors.put(status.name(), page.getNextCursor());
             }
+            mav.addObject(status.name().toLowerCase() + "Accounts", accounts);
         }
-        Collections.sort(activeAccounts);
-        Collections.sort(inactiveAccounts);
-        Collections.sort(pendingAccounts);
-        mav.addObject("activeAccounts", activeAccounts);
-        mav.addObject("inactiveAccounts", inactiveAccounts);
-        mav.addObject("pendingAccounts", pendingAccounts);
+
+        mav.addObject("accountCounts", counts);
+        mav.addObject("nextCursors", nextCursors);
+        mav.addObject("pageStatus", pageStatus);
         mav.addObject("mcDomain", amaEndpoint.getDomain());
     }
 
@@ -429,12 +450,15 @@ public class UserController extends AbstractController {
     /**
      * @param mav
      */
-    private void prepareModel(String username, ModelAndView mav) {
+    private void prepareModel(String username,
+                              ModelAndView mav,
+                              AccountStatus pageStatus,
+                              String after) {
 
         DuracloudUser user;
         try {
             user = this.userService.loadDuracloudUserByUsernameInternal(username);
-            prepareModel(user, mav);
+            prepareModel(user, mav, pageStatus, after);
         } catch (DBNotFoundException e) {
             throw new AccessDeniedException("Access is denied", e);
         }
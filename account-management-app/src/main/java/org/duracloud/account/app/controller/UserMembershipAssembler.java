@@ -0,0 +1,94 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.app.controller;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import org.duracloud.account.app.model.Account;
+import org.duracloud.account.app.model.User;
+import org.duracloud.account.db.model.Role;
+import org.duracloud.account.db.util.UserMembership;
+
+/**
+ * Builds {@link User} view models from membership rows in a single pass.
+ * The rows must be grouped by user and then by account, as returned by
+ * {@link org.duracloud.account.db.util.RootAccountManagerService#searchUsers}.
+ */
+class UserMembershipAssembler {
+
+    private List<User> users = new ArrayList<>();
+
+    private UserMembership user;
+    private Set<Account> accounts;
+    private UserMembership account;
+    private Set<Role> roles;
+
+    private UserMembershipAssembler() {
+    }
+
+    static List<User> toUsers(List<UserMembership> rows) {
+        UserMembershipAssembler assembler = new UserMembershipAssembler();
+        for (UserMembership row : rows) {
+            assembler.add(row);
+        }
+        assembler.endUser();
+        return assembler.users;
+    }
+
+    private void add(UserMembership row) {
+        if (null == user || !user.getUsername().equals(row.getUsername())) {
+            endUser();
+            user = row;
+            accounts = new HashSet<>();
+        }
+
+        if (null == row.getAccountId()) {
+            return;
+        }
+        if (null == account || !Objects.equals(account.getAccountId(), row.getAccountId())) {
+            endAccount();
+            account = row;
+            roles = EnumSet.noneOf(Role.class);
+        }
+        if (null != row.getRole()) {
+            roles.add(row.getRole());
+        }
+    }
+
+    private void endAccount() {
+        if (null != account) {
+            Role role = user.isRoot() ? Role.ROLE_ROOT : Role.highestRole(roles);
+            accounts.add(new Account(account.getAccountId(),
+                                     account.getAcctName(),
+                                     account.getSubdomain(),
+                                     role));
+            account = null;
+        }
+    }
+
+    private void endUser() {
+        if (null != user) {
+            endAccount();
+            users.add(new User(user.getUserId(),
+                               user.getUsername(),
+                               user.getFirstName(),
+                               user.getLastName(),
+                               user.getEmail(),
+                               user.getAllowableIPAddressRange(),
+                               accounts,
+                               user.isRoot()));
+            user = null;
+        }
+    }
+
+}
@@ -8,21 +8,19 @@
 package org.duracloud.account.app.controller;
 
 import java.text.MessageFormat;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 import javax.validation.Valid;
 
-import org.duracloud.account.app.model.Account;
 import org.duracloud.account.app.model.User;
 
-import org.duracloud.account.db.model.AccountInfo;
-import org.duracloud.account.db.model.AccountRights;
 import org.duracloud.account.db.model.DuracloudUser;
 import org.duracloud.account.db.model.Role;
 import org.duracloud.account.db.util.DuracloudUserService;
+import org.duracloud.account.db.util.ResultPage;
+import org.duracloud.account.db.util.UserMembership;
+import org.duracloud.account.db.util.job.JobManager;
+import org.duracloud.account.db.util.job.UserDeletionJob;
+import org.duracloud.account.db.util.model.BackgroundJob;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.transaction.annotation.Transactional;
@@ -45,42 +43,25 @@ public class UsersController extends AbstractRootController {
     public static final String BASE_MAPPING = RootConsoleHomeController.BASE_MAPPING + "/users";
     private static final String BASE_VIEW = BASE_MAPPING;
     public static final String EDIT_ACCOUNT_USERS_FORM_KEY = "accountUsersEditForm";
+    public static final int PAGE_SIZE = 50;
 
     @Autowired
     private DuracloudUserService userService;
 
-    @RequestMapping("")
-    public ModelAndView get() {
-        List<User> u = new ArrayList<User>();
-        Set<DuracloudUser> users = getRootAccountManagerService().listAllUsers(null);
-        for (DuracloudUser user : users) {
-            Set<Account> accounts = new HashSet<Account>();
-            if (user.getAccountRights() != null) {
-                for (AccountRights account : user.getAccountRights()) {
-
-                    AccountInfo accountInfo = account.getAccount();
-
-                    accounts.add(new Account(account.getAccount().getId(),
-                                             accountInfo.getAcctName(),
-                                             accountInfo.getSubdomain(),
-                                             user.getRoleByAcct(account.getAccount().getId())));
-                }
-            }
-
-            u.add(new User(user.getId(),
-                           user.getUsername(),
-                           user.getFirstName(),
-                           user.getLastName(),
-                           user.getEmail(),
-                           user.getAllowableIPAddressRange(),
-                           accounts,
-                           user.isRoot()));
-        }
+    @Autowired
+    private JobManager jobManager;
 
-        Collections.sort(u);
+    @RequestMapping("")
+    public ModelAndView get(@RequestParam(required = false) String filter,
+                            @RequestParam(required = false) String after) {
+        ResultPage<UserMembership> users =
+            getRootAccountManagerService().searchUsers(filter, after, PAGE_SIZE);
+        List<User> u = UserMembershipAssembler.toUsers(users.getItems());
 
         ModelAndView mav = new ModelAndView(BASE_VIEW);
         mav.addObject("users", u);
+        mav.addObject("filter", filter);
+        mav.addObject("nextCursor", users.getNextCursor());
         mav.addObject(EDIT_ACCOUNT_USERS_FORM_KEY, new AccountUserEditForm());
 
         return mav;
@@ -99,17 +80,20 @@ public class UsersController extends AbstractRootController {
         return createRedirectMav(BASE_VIEW);
     }
 
-    @Transactional
     @RequestMapping(value = BY_ID_DELETE_MAPPING, method = RequestMethod.POST)
     public ModelAndView deleteUser(
         @PathVariable Long id, RedirectAttributes redirectAttributes)
         throws Exception {
         log.info("delete user {}", id);
 
-        //delete user
-        getRootAccountManagerService().deleteUser(id);
-        setSuccessFeedback("Successfully deleted user.", redirectAttributes);
-        return createRedirectMav(BASE_VIEW);
+        //delete user in the background
+        String username = getUserService().loadDuracloudUserByIdInternal(id).getUsername();
+        BackgroundJob job =
+            jobManager.submit(new UserDeletionJob(getRootAccountManagerService(), id, username));
+        String message = MessageFormat.format("Deletion of user {0} was submitted as job {1}.",
+                                              username, String.valueOf(job.getId()));
+        setSuccessFeedback(message, redirectAttributes);
+        return createRedirectMav(JobsController.BASE_MAPPING);
     }
 
     @Transactional
@@ -160,4 +144,8 @@ public class UsersController extends AbstractRootController {
     public void setUserService(DuracloudUserService userService) {
         this.userService = userService;
     }
+
+    public void setJobManager(JobManager jobManager) {
+        this.jobManager = jobManager;
+    }
 }
@@ -7,13 +7,14 @@
  */
 package org.duracloud.account.app.controller;
 
+import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Set;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 
 import org.duracloud.account.app.controller.GroupsForm.Action;
@@ -79,6 +80,12 @@ public class AccountGroupsControllerTest extends AmaControllerTestBase {
                 .times(times);
     }
 
+    private void expectGetGroup(int times) throws Exception {
+        EasyMock.expect(groupService.getGroup(DuracloudGroup.PREFIX + TEST_GROUP_NAME, accountId))
+                .andReturn(createGroups().iterator().next())
+                .times(times);
+    }
+
     @Test
     public void testGetGroupsAddGroup() throws Exception {
         Long groupId = 3L;
@@ -124,6 +131,23 @@ public class AccountGroupsControllerTest extends AmaControllerTestBase {
         Assert.assertEquals(AccountGroupsController.GROUPS_VIEW_ID, view);
     }
 
+    @Test
+    public void testExportGroups() throws Exception {
+        PrintWriter writer = new PrintWriter(new StringWriter());
+        HttpServletResponse response = createMock(HttpServletResponse.class);
+        response.setContentType("text/csv;charset=UTF-8");
+        EasyMock.expectLastCall().once();
+        response.setHeader("Content-Disposition",
+                           "attachment; filename=\"testdomain-groups.csv\"");
+        EasyMock.expectLastCall().once();
+        EasyMock.expect(response.getWriter()).andReturn(writer);
+        groupService.exportGroupMembers(writer, accountId);
+        EasyMock.expectLastCall().once();
+        replayMocks();
+
+        this.accountGroupsController.exportGroups(accountId, response);
+    }
+
     private Object getModelAttribute(String name) {
         return model.asMap().get(name);
     }
@@ -131,6 +155,7 @@ public class AccountGroupsControllerTest extends AmaControllerTestBase {
     @Test
     public void testGetGroup() throws Exception {
         expectGroupGroups(1);
+        expectGetGroup(1);
         replayMocks();
         String view =
             this.accountGroupsController.getGroup(accountId,
@@ -144,21 +169,16 @@ public class AccountGroupsControllerTest extends AmaControllerTestBase {
     @Test
     public void testGetGroupEdit() throws Exception {
         expectGroupGroups(1);
+        expectGetGroup(1);
 
         HttpServletRequest request =
             EasyMock.createMock(HttpServletRequest.class);
         HttpSession session = EasyMock.createMock(HttpSession.class);
         EasyMock.expect(request.getSession()).andReturn(session).once();
 
-        session.removeAttribute(AccountGroupsController.GROUP_USERS_KEY);
-        EasyMock.expectLastCall().once();
-
-        EasyMock.expect(session.getAttribute(AccountGroupsController.GROUP_USERS_KEY))
-                .andReturn(null)
-                .once();
-
-        session.setAttribute(EasyMock.anyObject(String.class),
-                             (Collection<DuracloudUser>) EasyMock.anyObject());
+        // Only the ids of the group's users are kept in the session
+        session.setAttribute(AccountGroupsController.GROUP_USERS_KEY,
+                             new HashSet<Long>(Arrays.asList(TEST_USER_ID)));
         EasyMock.expectLastCall().once();
 
         EasyMock.replay(request, session);
@@ -171,35 +191,36 @@ public class AccountGroupsControllerTest extends AmaControllerTestBase {
                                                    model);
         Assert.assertEquals(AccountGroupsController.GROUP_EDIT_VIEW_ID, view);
         Assert.assertNotNull(getModelAttribute(AccountGroupsController.GROUP_KEY));
-        Assert.assertNotNull(getModelAttribute(AccountGroupsController.GROUP_USERS_KEY));
+        Assert.assertEquals(1,
+                            getModelAttributeSize(AccountGroupsController.GROUP_USERS_KEY));
         Assert.assertNotNull(getModelAttribute(AccountGroupsController.AVAILABLE_USERS_KEY));
-
+        EasyMock.verify(request, session);
     }
 
     @Test
     public void testSaveGroup() throws Exception {
-        expectGroupGroups(1);
+        expectGetGroup(1);
 
         HttpServletRequest request =
             EasyMock.createMock(HttpServletRequest.class);
         HttpSession session = EasyMock.createMock(HttpSession.class);
         EasyMock.expect(request.getSession()).andReturn(session).once();
 
-        session.removeAttribute(AccountGroupsController.GROUP_USERS_KEY);
-        EasyMock.expectLastCall().once();
-
         EasyMock.expect(session.getAttribute(AccountGroupsController.GROUP_USERS_KEY))
                 .andReturn(null)
                 .once();
 
         session.setAttribute(EasyMock.anyObject(String.class),
-                             (Collection<DuracloudUser>) EasyMock.anyObject());
+                             EasyMock.anyObject());
+        EasyMock.expectLastCall().once();
+
+        session.removeAttribute(AccountGroupsController.GROUP_USERS_KEY);
         EasyMock.expectLastCall().once();
 
         this.groupService
-            .updateGroupUsers(EasyMock.anyObject(DuracloudGroup.class),
-                              (Set<DuracloudUser>) EasyMock.anyObject(),
-                              EasyMock.anyLong());
+            .updateGroupUserIds(EasyMock.anyObject(DuracloudGroup.class),
+                                EasyMock.eq(new HashSet<Long>(Arrays.asList(TEST_USER_ID))),
+                                EasyMock.eq(accountId));
         EasyMock.expectLastCall().once();
 
         EasyMock.replay(request, session);
@@ -220,37 +241,32 @@ public class AccountGroupsControllerTest extends AmaControllerTestBase {
 
         Assert.assertNotNull(getModelAttribute(AccountGroupsController.GROUP_KEY));
         Assert.assertNotNull(getModelAttribute(AccountGroupsController.GROUP_USERS_KEY));
-
+        EasyMock.verify(request, session);
     }
 
     @Test
     public void testAddRemoveUser() throws Exception {
         expectGroupGroups(2);
+        expectGetGroup(2);
         HttpServletRequest request =
             EasyMock.createMock(HttpServletRequest.class);
         HttpSession session = EasyMock.createMock(HttpSession.class);
         EasyMock.expect(request.getSession()).andReturn(session).anyTimes();
 
-        List<DuracloudUser> groupUsers =
-            new LinkedList<DuracloudUser>(Arrays.asList(new DuracloudUser[] {createUser()}));
+        Set<Long> groupUserIds = new HashSet<Long>(Arrays.asList(TEST_USER_ID));
 
         EasyMock.expect(session.getAttribute(AccountGroupsController.GROUP_USERS_KEY))
-                .andReturn(groupUsers)
-                .once();
+                .andReturn(groupUserIds)
+                .times(2);
 
-        EasyMock.expect(session.getAttribute(AccountGroupsController.GROUP_USERS_KEY))
-                .andReturn(groupUsers)
-                .once();
-
-        session.setAttribute(EasyMock.anyObject(String.class),
-                             (Collection<DuracloudUser>) EasyMock.anyObject());
-        EasyMock.expectLastCall().once();
+        session.setAttribute(AccountGroupsController.GROUP_USERS_KEY, groupUserIds);
+        EasyMock.expectLastCall().times(2);
 
         EasyMock.replay(request, session);
 
         replayMocks();
 
-        String testUsername = groupUsers.get(0).getUsername();
+        String testUsername = createUser().getUsername();
 
         GroupForm form = new GroupForm();
         form.setAction(GroupForm.Action.REMOVE);
@@ -283,6 +299,8 @@ public class AccountGroupsControllerTest extends AmaControllerTestBase {
                             getModelAttributeSize(AccountGroupsController.AVAILABLE_USERS_KEY));
         Assert.assertEquals(1,
                             getModelAttributeSize(AccountGroupsController.GROUP_USERS_KEY));
+        Assert.assertEquals(new HashSet<Long>(Arrays.asList(TEST_USER_ID)), groupUserIds);
+        EasyMock.verify(request, session);
     }
 
     @SuppressWarnings("unchecked")
@@ -13,6 +13,7 @@ import java.util.HashSet;
 import org.duracloud.account.db.model.DuracloudUser;
 import org.duracloud.account.db.model.Role;
 import org.duracloud.account.db.model.UserInvitation;
+import org.duracloud.account.db.util.UserInvitationReport;
 import org.duracloud.account.db.util.error.AccountNotFoundException;
 import org.duracloud.account.db.util.error.DBNotFoundException;
 import org.easymock.EasyMock;
@@ -73,8 +74,12 @@ public class AccountUsersControllerTest extends AmaControllerTestBase {
         setupGenericAccountAndUserServiceMocks(TEST_ACCOUNT_ID);
         UserInvitation ui = createUserInvitation();
 
-        EasyMock.expect(accountService.inviteUser(ui.getUserEmail(), ui.getAdminUsername()))
-                .andReturn(ui);
+        UserInvitationReport report = new UserInvitationReport();
+        report.addOutcome(ui.getUserEmail(), UserInvitationReport.Outcome.INVITED);
+        report.addInvitation(ui);
+        EasyMock.expect(accountService.inviteUsers(Arrays.asList(ui.getUserEmail()),
+                                                   ui.getAdminUsername()))
+                .andReturn(report);
 
         EasyMock.expect(result.hasErrors()).andReturn(false);
         addFlashAttribute();
@@ -123,8 +128,8 @@ public class AccountUsersControllerTest extends AmaControllerTestBase {
                 .andReturn(createAccountInfo())
                 .times(1);
 
-        EasyMock.expect(accountService.getUsers())
-                .andReturn(createUserSet())
+        EasyMock.expect(accountService.getMembers())
+                .andReturn(createMemberList())
                 .times(1);
 
         EasyMock.expect(accountManagerService.getAccount(accountId))
@@ -8,18 +8,30 @@
 package org.duracloud.account.app.controller;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.Map;
 
 import org.duracloud.account.app.controller.AccountSetupForm.StorageProviderSettings;
+import org.duracloud.account.config.AmaEndpoint;
 import org.duracloud.account.db.model.AccountInfo;
 import org.duracloud.account.db.model.AccountInfo.AccountStatus;
 import org.duracloud.account.db.model.StorageProviderAccount;
+import org.duracloud.account.db.util.ResultPage;
 import org.duracloud.account.db.util.RootAccountManagerService;
+import org.duracloud.account.db.util.job.Job;
+import org.duracloud.account.db.util.job.JobManager;
+import org.duracloud.account.db.util.model.BackgroundJob;
 import org.duracloud.storage.domain.StorageProviderType;
+import org.easymock.Capture;
 import org.easymock.EasyMock;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.ui.ExtendedModelMap;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.view.RedirectView;
 
 /**
  * @author Daniel Bernstein
@@ -41,13 +53,53 @@ public class AccountsControllerTest extends AmaControllerTestBase {
         setupGenericAccountAndUserServiceMocks(TEST_ACCOUNT_ID);
     }
 
+    @Test
+    public void testGet() throws Exception {
+        AmaEndpoint amaEndpoint = createMock(AmaEndpoint.class);
+        EasyMock.expect(amaEndpoint.getDomain()).andReturn("duracloud.org");
+        accountsController.setAmaEndpoint(amaEndpoint);
+
+        AccountInfo info = new AccountInfo();
+        info.setId(5L);
+        info.setAcctName("test");
+        EasyMock.expect(rootAccountManagerService.searchAccounts(AccountStatus.ACTIVE,
+                                                                 "org",
+                                                                 null,
+                                                                 null,
+                                                                 AccountsController.PAGE_SIZE))
+                .andReturn(new ResultPage<>(Collections.singletonList(info), "5:test"));
+        Map<AccountStatus, Long> counts = new EnumMap<>(AccountStatus.class);
+        counts.put(AccountStatus.ACTIVE, 1L);
+        EasyMock.expect(rootAccountManagerService.countAccountsByStatus()).andReturn(counts);
+        replayMocks();
+
+        ModelAndView mav = this.accountsController.get(AccountStatus.ACTIVE, "org", null, null);
+        Assert.assertEquals(Collections.singletonList(info), mav.getModel().get("accounts"));
+        Assert.assertEquals("5:test", mav.getModel().get("nextCursor"));
+        Assert.assertEquals(counts, mav.getModel().get("statusCounts"));
+    }
+
     @Test
     public void testDeleteAccount() throws Exception {
+        JobManager jobManager = createMock(JobManager.class);
+        accountsController.setJobManager(jobManager);
+        Capture<Job> job = new Capture<>();
+        BackgroundJob record = new BackgroundJob();
+        record.setId(7L);
+        EasyMock.expect(jobManager.submit(EasyMock.capture(job))).andReturn(record);
+        EasyMock.expect(rootAccountManagerService.deleteAccountMembers(EasyMock.eq(1L),
+                                                                       EasyMock.anyInt()))
+                .andReturn(0);
         rootAccountManagerService.deleteAccount(1L);
         EasyMock.expectLastCall();
         addFlashAttribute();
         replayMocks();
-        this.accountsController.delete(1L, redirectAttributes);
+        ModelAndView mav = this.accountsController.delete(1L, redirectAttributes);
+        Assert.assertEquals(JobsController.BASE_MAPPING,
+                            ((RedirectView) mav.getView()).getUrl());
+
+        // The account is deleted when the job runs
+        job.getValue().run((progress, total, checkpoint) -> { });
     }
 
     @Test
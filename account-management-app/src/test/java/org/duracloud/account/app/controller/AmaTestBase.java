@@ -20,6 +20,7 @@ import org.duracloud.account.db.model.DuracloudUser;
 import org.duracloud.account.db.model.Role;
 import org.duracloud.account.db.model.StorageProviderAccount;
 import org.duracloud.account.db.util.AccountManagerService;
+import org.duracloud.account.db.util.AccountMember;
 import org.duracloud.account.db.util.AccountService;
 import org.duracloud.account.db.util.DuracloudUserService;
 import org.duracloud.account.db.util.error.AccountNotFoundException;
@@ -157,6 +158,9 @@ public class AmaTestBase {
         EasyMock.expect(accountService.getUsers())
                 .andReturn(new HashSet<DuracloudUser>(users))
                 .anyTimes();
+        EasyMock.expect(accountService.getMembers())
+                .andReturn(createMemberList())
+                .anyTimes();
 
         EasyMock.expect(accountManagerService.getAccount(accountId))
                 .andReturn(accountService)
@@ -178,6 +182,20 @@ public class AmaTestBase {
 
     }
 
+    protected List<AccountMember> createMemberList() {
+        DuracloudUser user = createUser();
+        List<AccountMember> members = new ArrayList<AccountMember>();
+        members.add(new AccountMember(user.getId(),
+                                      user.getUsername(),
+                                      user.getFirstName(),
+                                      user.getLastName(),
+                                      user.getEmail(),
+                                      user.getAllowableIPAddressRange(),
+                                      user.isRoot(),
+                                      user.getRoleByAcct(TEST_ACCOUNT_ID)));
+        return members;
+    }
+
     protected Set<DuracloudUser> createUserSet() {
         Set<DuracloudUser> s = new HashSet<DuracloudUser>();
         s.add(createUser());
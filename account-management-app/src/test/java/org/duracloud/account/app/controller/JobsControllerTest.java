@@ -0,0 +1,105 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.app.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.duracloud.account.db.util.job.JobManager;
+import org.duracloud.account.db.util.model.BackgroundJob;
+import org.easymock.EasyMock;
+import org.easymock.EasyMockRunner;
+import org.easymock.EasyMockSupport;
+import org.easymock.Mock;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.web.servlet.mvc.support.RedirectAttributesModelMap;
+import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
+
+@RunWith(EasyMockRunner.class)
+public class JobsControllerTest extends EasyMockSupport {
+
+    @Mock
+    private JobManager jobManager;
+
+    private JobsController controller;
+
+    @Before
+    public void setup() {
+        controller = new JobsController();
+        controller.setJobManager(jobManager);
+    }
+
+    @After
+    public void tearDown() {
+        verifyAll();
+    }
+
+    private List<BackgroundJob> createJobs(int count) {
+        List<BackgroundJob> jobs = new ArrayList<>();
+        for (int i = count; i > 0; i--) {
+            BackgroundJob job = new BackgroundJob();
+            job.setId((long) i);
+            jobs.add(job);
+        }
+        return jobs;
+    }
+
+    @Test
+    public void testGet() {
+        EasyMock.expect(jobManager.list(null, JobsController.PAGE_SIZE + 1))
+                .andReturn(createJobs(JobsController.PAGE_SIZE + 1));
+        replayAll();
+
+        ModelAndView mav = controller.get(null);
+        Assert.assertEquals(JobsController.BASE_MAPPING, mav.getViewName());
+        Assert.assertEquals(JobsController.PAGE_SIZE,
+                            ((List<?>) mav.getModel().get("jobs")).size());
+        Assert.assertEquals(2L, mav.getModel().get("nextBefore"));
+    }
+
+    @Test
+    public void testGetLastPage() {
+        EasyMock.expect(jobManager.list(10L, JobsController.PAGE_SIZE + 1))
+                .andReturn(createJobs(9));
+        replayAll();
+
+        ModelAndView mav = controller.get(10L);
+        Assert.assertEquals(9, ((List<?>) mav.getModel().get("jobs")).size());
+        Assert.assertNull(mav.getModel().get("nextBefore"));
+    }
+
+    @Test
+    public void testStatus() {
+        List<BackgroundJob> jobs = createJobs(3);
+        EasyMock.expect(jobManager.list(null, JobsController.PAGE_SIZE)).andReturn(jobs);
+        replayAll();
+
+        ModelAndView mav = controller.status(null);
+        Assert.assertTrue(mav.getView() instanceof MappingJackson2JsonView);
+        Assert.assertEquals(jobs, mav.getModel().get("jobs"));
+    }
+
+    @Test
+    public void testCancel() {
+        EasyMock.expect(jobManager.cancel(3L)).andReturn(true);
+        EasyMock.expect(jobManager.cancel(4L)).andReturn(false);
+        replayAll();
+
+        RedirectAttributes redirectAttributes = new RedirectAttributesModelMap();
+        controller.cancel(3L, redirectAttributes);
+        controller.cancel(4L, redirectAttributes);
+        Assert.assertFalse(redirectAttributes.getFlashAttributes().isEmpty());
+    }
+
+}
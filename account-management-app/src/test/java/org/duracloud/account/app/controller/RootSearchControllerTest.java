@@ -0,0 +1,69 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.app.controller;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.duracloud.account.db.util.SearchHit;
+import org.duracloud.account.db.util.SearchIndex;
+import org.easymock.EasyMock;
+import org.easymock.EasyMockRunner;
+import org.easymock.EasyMockSupport;
+import org.easymock.Mock;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
+
+@RunWith(EasyMockRunner.class)
+public class RootSearchControllerTest extends EasyMockSupport {
+
+    @Mock
+    private SearchIndex searchIndex;
+
+    private RootSearchController controller;
+
+    @Before
+    public void setup() {
+        controller = new RootSearchController();
+        controller.setSearchIndex(searchIndex);
+    }
+
+    @After
+    public void tearDown() {
+        verifyAll();
+    }
+
+    @Test
+    public void testSearch() {
+        List<SearchHit> hits = Collections.singletonList(
+            new SearchHit(SearchHit.Type.USER, 1L, "jsmith", "John Smith", 100));
+        EasyMock.expect(searchIndex.search("smi", RootSearchController.MAX_LIMIT)).andReturn(hits);
+        EasyMock.expect(searchIndex.isReady()).andReturn(true);
+        replayAll();
+
+        ModelAndView mav = controller.search("smi", 1000);
+        Assert.assertTrue(mav.getView() instanceof MappingJackson2JsonView);
+        Assert.assertEquals(hits, mav.getModel().get("hits"));
+        Assert.assertEquals(true, mav.getModel().get("ready"));
+    }
+
+    @Test
+    public void testSearchWithoutQuery() {
+        EasyMock.expect(searchIndex.isReady()).andReturn(false);
+        replayAll();
+
+        ModelAndView mav = controller.search(null, null);
+        Assert.assertEquals(Collections.emptyList(), mav.getModel().get("hits"));
+    }
+
+}
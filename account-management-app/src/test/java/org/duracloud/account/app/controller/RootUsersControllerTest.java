@@ -7,10 +7,13 @@
  */
 package org.duracloud.account.app.controller;
 
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.List;
 
 import org.duracloud.account.db.model.DuracloudUser;
+import org.duracloud.account.db.util.ResultPage;
 import org.duracloud.account.db.util.RootAccountManagerService;
+import org.duracloud.account.db.util.UserMembership;
 import org.duracloud.account.db.util.error.AccountNotFoundException;
 import org.easymock.EasyMock;
 import org.junit.Assert;
@@ -46,9 +49,16 @@ public class RootUsersControllerTest extends AmaControllerTestBase {
      */
     @Test
     public void testGet() throws AccountNotFoundException {
-        EasyMock.expect(rootAccountManagerService.listAllRootUsers(null)).andReturn(new HashSet<DuracloudUser>());
+        UserMembership user = new UserMembership(1L, "test", null, null, null, null, true,
+                                                 null, null, null, null);
+        EasyMock.expect(rootAccountManagerService.searchRootUsers("te", "abc", RootUsersController.PAGE_SIZE))
+                .andReturn(new ResultPage<>(Collections.singletonList(user), "test"));
         replayMocks();
-        rootUsersController.get();
+        ModelAndView mav = rootUsersController.get("te", "abc");
+        List<?> users = (List<?>) mav.getModel().get("rootusers");
+        Assert.assertEquals(1, users.size());
+        Assert.assertEquals("te", mav.getModel().get("filter"));
+        Assert.assertEquals("test", mav.getModel().get("nextCursor"));
     }
 
     @Test
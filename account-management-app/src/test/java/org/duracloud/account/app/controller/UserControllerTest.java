@@ -7,7 +7,8 @@
  */
 package org.duracloud.account.app.controller;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -17,9 +18,11 @@ import javax.servlet.http.HttpSession;
 
 import org.duracloud.account.config.AmaEndpoint;
 import org.duracloud.account.db.model.AccountInfo;
+import org.duracloud.account.db.model.AccountInfo.AccountStatus;
 import org.duracloud.account.db.model.DuracloudUser;
 import org.duracloud.account.db.model.UserInvitation;
 import org.duracloud.account.db.util.DuracloudUserService;
+import org.duracloud.account.db.util.ResultPage;
 import org.duracloud.account.db.util.error.AccountNotFoundException;
 import org.easymock.EasyMock;
 import org.junit.Assert;
@@ -123,9 +126,17 @@ public class UserControllerTest extends AmaControllerTestBase {
                 .andReturn(u)
                 .anyTimes();
 
-        Set<AccountInfo> accounts = createAccountSet();
-        EasyMock.expect(accountManagerService.findAccountsByUserId(u.getId()))
-                .andReturn(accounts);
+        Map<AccountStatus, Long> counts = new EnumMap<>(AccountStatus.class);
+        counts.put(AccountStatus.ACTIVE, 1L);
+        counts.put(AccountStatus.PENDING, 0L);
+        counts.put(AccountStatus.INACTIVE, 0L);
+        EasyMock.expect(accountManagerService.countAccountsByUserId(u.getId()))
+                .andReturn(counts);
+        EasyMock.expect(accountManagerService.findAccountsByUserId(u.getId(),
+                                                                   AccountStatus.ACTIVE,
+                                                                   null,
+                                                                   UserController.ACCOUNT_PAGE_SIZE))
+                .andReturn(new ResultPage<>(createAccountList(), null));
 
         AmaEndpoint endpoint = EasyMock.createMock(AmaEndpoint.class);
         EasyMock.expect(endpoint.getDomain()).andReturn("test");
@@ -156,10 +167,58 @@ public class UserControllerTest extends AmaControllerTestBase {
         Assert.assertTrue(obj instanceof List);
     }
 
-    private Set<AccountInfo> createAccountSet() {
-        Set<AccountInfo> s = new HashSet<AccountInfo>();
-        s.add(createAccountInfo());
-        return s;
+    private List<AccountInfo> createAccountList() {
+        List<AccountInfo> accounts = new ArrayList<>();
+        accounts.add(createAccountInfo());
+        return accounts;
+    }
+
+    @Test
+    public void testGetUserAccountsPage() throws Exception {
+        DuracloudUser u = createUser();
+        EasyMock.expect(userService.loadDuracloudUserByUsernameInternal(TEST_USERNAME))
+                .andReturn(u)
+                .anyTimes();
+
+        Map<AccountStatus, Long> counts = new EnumMap<>(AccountStatus.class);
+        counts.put(AccountStatus.ACTIVE, 60L);
+        counts.put(AccountStatus.PENDING, 0L);
+        counts.put(AccountStatus.INACTIVE, 2L);
+        EasyMock.expect(accountManagerService.countAccountsByUserId(u.getId()))
+                .andReturn(counts);
+
+        // Only the paged status starts after the cursor
+        EasyMock.expect(accountManagerService.findAccountsByUserId(u.getId(),
+                                                                   AccountStatus.ACTIVE,
+                                                                   "1:test",
+                                                                   UserController.ACCOUNT_PAGE_SIZE))
+                .andReturn(new ResultPage<>(createAccountList(), "2:test"));
+        EasyMock.expect(accountManagerService.findAccountsByUserId(u.getId(),
+                                                                   AccountStatus.INACTIVE,
+                                                                   null,
+                                                                   UserController.ACCOUNT_PAGE_SIZE))
+                .andReturn(new ResultPage<>(createAccountList(), null));
+
+        AmaEndpoint endpoint = EasyMock.createMock(AmaEndpoint.class);
+        EasyMock.expect(endpoint.getDomain()).andReturn("test");
+        userController.setAmaEndpoint(endpoint);
+        replayMocks();
+
+        ModelAndView mv = userController.getUserAccounts(TEST_USERNAME,
+                                                         AccountStatus.ACTIVE,
+                                                         "1:test");
+        Map<String, Object> map = mv.getModel();
+        Assert.assertEquals(1, ((List) map.get("activeAccounts")).size());
+        Assert.assertEquals(0, ((List) map.get("pendingAccounts")).size());
+        Assert.assertEquals(1, ((List) map.get("inactiveAccounts")).size());
+
+        Map<String, Long> accountCounts = (Map<String, Long>) map.get("accountCounts");
+        Assert.assertEquals(Long.valueOf(60), accountCounts.get("ACTIVE"));
+
+        Map<String, String> nextCursors = (Map<String, String>) map.get("nextCursors");
+        Assert.assertEquals("2:test", nextCursors.get("ACTIVE"));
+        Assert.assertNull(nextCursors.get("INACTIVE"));
+        Assert.assertEquals(AccountStatus.ACTIVE, map.get("pageStatus"));
     }
 
     @Test
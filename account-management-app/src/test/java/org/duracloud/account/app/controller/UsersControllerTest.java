@@ -7,16 +7,29 @@
  */
 package org.duracloud.account.app.controller;
 
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
-import org.duracloud.account.db.model.DuracloudUser;
+import org.duracloud.account.app.model.Account;
+import org.duracloud.account.app.model.User;
 import org.duracloud.account.db.model.Role;
+import org.duracloud.account.db.util.ResultPage;
 import org.duracloud.account.db.util.RootAccountManagerService;
+import org.duracloud.account.db.util.UserMembership;
 import org.duracloud.account.db.util.error.AccountNotFoundException;
+import org.duracloud.account.db.util.job.Job;
+import org.duracloud.account.db.util.job.JobManager;
+import org.duracloud.account.db.util.model.BackgroundJob;
+import org.easymock.Capture;
 import org.easymock.EasyMock;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.view.RedirectView;
 
 /**
  * @author Daniel Bernstein
@@ -46,9 +59,34 @@ public class UsersControllerTest extends AmaControllerTestBase {
      */
     @Test
     public void testGet() throws AccountNotFoundException {
-        EasyMock.expect(rootAccountManagerService.listAllUsers(null)).andReturn(new HashSet<DuracloudUser>());
+        List<UserMembership> rows =
+            Arrays.asList(membership(1L, "test", 2L, Role.ROLE_OWNER),
+                          membership(1L, "test", 2L, Role.ROLE_ADMIN),
+                          membership(1L, "test", 2L, Role.ROLE_USER),
+                          membership(1L, "test", 3L, Role.ROLE_USER),
+                          membership(4L, "user", null, null));
+        EasyMock.expect(rootAccountManagerService.searchUsers("te", "abc", UsersController.PAGE_SIZE))
+                .andReturn(new ResultPage<>(rows, "test"));
         replayMocks();
-        usersController.get();
+        ModelAndView mav = usersController.get("te", "abc");
+        List<User> users = (List<User>) mav.getModel().get("users");
+        Assert.assertEquals(2, users.size());
+        Assert.assertEquals("test", users.get(0).getUsername());
+        Map<Long, Role> roles = new HashMap<>();
+        for (Account account : users.get(0).getAccounts()) {
+            roles.put(account.getId(), account.getRole());
+        }
+        Assert.assertEquals(Role.ROLE_OWNER, roles.get(2L));
+        Assert.assertEquals(Role.ROLE_USER, roles.get(3L));
+        Assert.assertEquals(Long.valueOf(4), users.get(1).getId());
+        Assert.assertTrue(users.get(1).getAccounts().isEmpty());
+        Assert.assertEquals("te", mav.getModel().get("filter"));
+        Assert.assertEquals("test", mav.getModel().get("nextCursor"));
+    }
+
+    private UserMembership membership(Long userId, String username, Long accountId, Role role) {
+        return new UserMembership(userId, username, null, null, null, null, false,
+                                  accountId, null, null, role);
     }
 
     @Test
@@ -63,11 +101,22 @@ public class UsersControllerTest extends AmaControllerTestBase {
 
     @Test
     public void testDelete() throws Exception {
+        JobManager jobManager = createMock(JobManager.class);
+        usersController.setJobManager(jobManager);
+        Capture<Job> job = new Capture<>();
+        BackgroundJob record = new BackgroundJob();
+        record.setId(7L);
+        EasyMock.expect(jobManager.submit(EasyMock.capture(job))).andReturn(record);
         this.rootAccountManagerService.deleteUser(0L);
         EasyMock.expectLastCall();
         addFlashAttribute();
         replayMocks();
-        usersController.deleteUser(0L, redirectAttributes);
+        ModelAndView mav = usersController.deleteUser(0L, redirectAttributes);
+        Assert.assertEquals(JobsController.BASE_MAPPING,
+                            ((RedirectView) mav.getView()).getUrl());
+
+        // The user is deleted when the job runs
+        job.getValue().run((progress, total, checkpoint) -> { });
     }
 
     @Test
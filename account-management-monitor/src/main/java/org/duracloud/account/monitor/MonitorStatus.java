@@ -0,0 +1,116 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor;
+
+import java.util.Date;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.duracloud.account.monitor.MonitorsDriver.Monitor;
+
+/**
+ * The schedule and the outcome of the runs of a monitor kept resident by the
+ * MonitorsDaemon.
+ */
+public class MonitorStatus {
+
+    private Monitor monitor;
+    private long intervalMinutes;
+    private ScheduledFuture<?> schedule;
+    private boolean running;
+    private long runs;
+    private long failures;
+    private Date lastStart;
+    private Date lastEnd;
+    private String lastError;
+
+    public MonitorStatus(Monitor monitor) {
+        this.monitor = monitor;
+    }
+
+    /**
+     * Marks the start of a run.
+     *
+     * @return false if the previous run has not finished, in which case this
+     * run should be skipped
+     */
+    public synchronized boolean begin() {
+        if (running) {
+            return false;
+        }
+        running = true;
+        lastStart = new Date();
+        return true;
+    }
+
+    /**
+     * Marks the end of a run.
+     *
+     * @param error which ended the run, or null if it completed
+     */
+    public synchronized void end(Exception error) {
+        running = false;
+        runs++;
+        lastEnd = new Date();
+        if (null == error) {
+            lastError = null;
+        } else {
+            failures++;
+            lastError = error.getClass().getSimpleName() + ": " + error.getMessage();
+        }
+    }
+
+    public String getMonitor() {
+        return monitor.toString();
+    }
+
+    public synchronized long getIntervalMinutes() {
+        return intervalMinutes;
+    }
+
+    public synchronized void setSchedule(ScheduledFuture<?> schedule, long intervalMinutes) {
+        this.schedule = schedule;
+        this.intervalMinutes = intervalMinutes;
+    }
+
+    /**
+     * @return when the monitor next runs, or null if it is not scheduled
+     */
+    public synchronized Date getNextRun() {
+        if (null == schedule || schedule.isDone()) {
+            return null;
+        }
+        return new Date(System.currentTimeMillis() +
+                        schedule.getDelay(TimeUnit.MILLISECONDS));
+    }
+
+    public synchronized boolean isRunning() {
+        return running;
+    }
+
+    public synchronized long getRuns() {
+        return runs;
+    }
+
+    public synchronized long getFailures() {
+        return failures;
+    }
+
+    public synchronized Date getLastStart() {
+        return lastStart;
+    }
+
+    public synchronized Date getLastEnd() {
+        return lastEnd;
+    }
+
+    public synchronized String getLastError() {
+        return lastError;
+    }
+
+}
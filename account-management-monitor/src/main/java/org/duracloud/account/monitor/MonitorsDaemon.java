@@ -0,0 +1,337 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.duracloud.account.monitor.MonitorsDriver.Monitor;
+import org.duracloud.common.error.DuraCloudRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class keeps the monitors resident, running each on its own schedule,
+ * rather than starting a new JVM for every run. A monitor, along with its
+ * emailer, credentials and connections, is built once and reused for each
+ * run until the properties file changes; the file is checked every minute,
+ * and when it changes the monitors are rebuilt and rescheduled.
+ *
+ * A monitor is scheduled by these properties, and is not run without them:
+ *   monitor.daemon.[monitor].interval-minutes - time between runs
+ *   monitor.daemon.[monitor].start-time - time of day (HH:mm) of the first
+ *       run; when not set, the first run starts immediately
+ *
+ * The status of the monitors is served as JSON from
+ * http://localhost:[monitor.daemon.port]/status and /health answers "OK"
+ * while the daemon is running.
+ */
+public class MonitorsDaemon {
+
+    private static final String PREFIX = "monitor.daemon.";
+    private static final String PORT = PREFIX + "port";
+    private static final String INTERVAL = ".interval-minutes";
+    private static final String START_TIME = ".start-time";
+    private static final int DEFAULT_PORT = 8787;
+    private static final long RELOAD_CHECK_SECONDS = 60;
+
+    private Logger log = LoggerFactory.getLogger(MonitorsDaemon.class);
+
+    private File configFile;
+    private long configModified;
+    private ScheduledExecutorService scheduler;
+    private HttpServer server;
+    private ObjectMapper mapper;
+    private Map<Monitor, Runnable> drivers = new EnumMap<>(Monitor.class);
+    private Map<Monitor, ScheduledFuture<?>> schedules = new EnumMap<>(Monitor.class);
+    private Map<Monitor, MonitorStatus> statuses = new EnumMap<>(Monitor.class);
+
+    public MonitorsDaemon(File configFile) {
+        this.configFile = configFile;
+
+        final AtomicInteger count = new AtomicInteger();
+        this.scheduler = Executors.newScheduledThreadPool(
+            Monitor.values().length + 1,
+            r -> new Thread(r, "monitors-daemon-" + count.incrementAndGet()));
+
+        this.mapper = new ObjectMapper();
+        this.mapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+    }
+
+    /**
+     * Schedules the monitors and starts the status endpoint. The port of the
+     * endpoint is read once, here; a change to it needs a restart.
+     *
+     * @throws IOException if the properties cannot be read or the endpoint
+     *                     cannot be started
+     */
+    public synchronized void start() throws IOException {
+        Properties props = loadProperties();
+        schedule(props);
+        scheduler.scheduleWithFixedDelay(this::checkConfig,
+                                         RELOAD_CHECK_SECONDS,
+                                         RELOAD_CHECK_SECONDS,
+                                         TimeUnit.SECONDS);
+
+        int port = DEFAULT_PORT;
+        String portProp = props.getProperty(PORT);
+        if (null != portProp) {
+            port = Integer.parseInt(portProp.trim());
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/status", exchange -> {
+            respond(exchange, "application/json", mapper.writeValueAsBytes(getStatuses()));
+        });
+        server.createContext("/health", exchange -> {
+            respond(exchange, "text/plain", "OK".getBytes("UTF-8"));
+        });
+        server.start();
+        log.info("Monitors daemon started, status available on port {}", getPort());
+    }
+
+    public synchronized void stop() {
+        log.info("Stopping monitors daemon");
+        if (null != server) {
+            server.stop(0);
+        }
+        scheduler.shutdownNow();
+        for (Runnable driver : drivers.values()) {
+            closeDriver(driver);
+        }
+        drivers.clear();
+    }
+
+    /**
+     * @return the port of the status endpoint
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public synchronized List<MonitorStatus> getStatuses() {
+        return new ArrayList<>(statuses.values());
+    }
+
+    /**
+     * Reschedules the monitors if the properties file has changed. If the
+     * new properties cannot be used, the current schedule is kept.
+     */
+    protected synchronized void checkConfig() {
+        if (configFile.lastModified() == configModified) {
+            return;
+        }
+
+        log.info("Properties file {} has changed, rescheduling monitors",
+                 configFile.getAbsolutePath());
+        try {
+            schedule(loadProperties());
+        } catch (Exception e) {
+            log.error("Unable to reschedule monitors, keeping the current " +
+                      "schedule: " + e.getMessage(), e);
+        }
+    }
+
+    private Properties loadProperties() throws IOException {
+        configModified = configFile.lastModified();
+        Properties props = new Properties();
+        try (InputStream inputStream = new FileInputStream(configFile)) {
+            props.load(inputStream);
+        }
+        return props;
+    }
+
+    /*
+     * Replace the current schedule with the one set in the properties. The
+     * properties are checked and the monitors are built before the current
+     * schedule is cancelled, so that invalid properties leave it in place.
+     */
+    private void schedule(Properties props) {
+        Map<Monitor, Long> intervals = new EnumMap<>(Monitor.class);
+        Map<Monitor, Long> delays = new EnumMap<>(Monitor.class);
+        for (Monitor monitor : Monitor.values()) {
+            String interval = props.getProperty(PREFIX + monitor + INTERVAL);
+            if (null == interval) {
+                log.info("No interval set for monitor {}, it will not run", monitor);
+                continue;
+            }
+
+            long intervalMinutes;
+            try {
+                intervalMinutes = Long.parseLong(interval.trim());
+            } catch (NumberFormatException e) {
+                throw new DuraCloudRuntimeException("Interval of monitor " + monitor +
+                                                    " is not a number: " + interval);
+            }
+            if (intervalMinutes <= 0) {
+                throw new DuraCloudRuntimeException("Interval of monitor " + monitor +
+                                                    " must be greater than 0: " + interval);
+            }
+            intervals.put(monitor, intervalMinutes);
+
+            String startTime = props.getProperty(PREFIX + monitor + START_TIME);
+            try {
+                delays.put(monitor, getInitialDelay(startTime));
+            } catch (DateTimeParseException e) {
+                throw new DuraCloudRuntimeException("Start time of monitor " + monitor +
+                                                    " is not a time of day: " + startTime);
+            }
+        }
+
+        Map<Monitor, Runnable> newDrivers = new EnumMap<>(Monitor.class);
+        try {
+            for (Monitor monitor : intervals.keySet()) {
+                newDrivers.put(monitor, createMonitorDriver(monitor, props));
+            }
+        } catch (RuntimeException e) {
+            for (Runnable driver : newDrivers.values()) {
+                closeDriver(driver);
+            }
+            throw e;
+        }
+
+        for (ScheduledFuture<?> schedule : schedules.values()) {
+            schedule.cancel(false);
+        }
+        schedules.clear();
+        for (MonitorStatus status : statuses.values()) {
+            status.setSchedule(null, 0);
+        }
+
+        // A driver which is running is closed when its run ends
+        for (Map.Entry<Monitor, Runnable> entry : drivers.entrySet()) {
+            MonitorStatus status = statuses.get(entry.getKey());
+            if (null == status || !status.isRunning()) {
+                closeDriver(entry.getValue());
+            }
+        }
+        drivers = newDrivers;
+
+        for (Map.Entry<Monitor, Runnable> entry : drivers.entrySet()) {
+            final Monitor monitor = entry.getKey();
+            final Runnable driver = entry.getValue();
+            long intervalMinutes = intervals.get(monitor);
+            long delay = delays.get(monitor);
+
+            ScheduledFuture<?> schedule =
+                scheduler.scheduleAtFixedRate(() -> run(monitor, driver),
+                                              delay,
+                                              TimeUnit.MINUTES.toMillis(intervalMinutes),
+                                              TimeUnit.MILLISECONDS);
+            schedules.put(monitor, schedule);
+            statuses.computeIfAbsent(monitor, MonitorStatus::new)
+                    .setSchedule(schedule, intervalMinutes);
+            log.info("Scheduled monitor {} every {} minutes, first run in {} ms",
+                     monitor, intervalMinutes, delay);
+        }
+    }
+
+    /*
+     * The time until the next occurrence of the given time of day, or no
+     * delay if no time is given
+     */
+    private long getInitialDelay(String startTime) {
+        if (null == startTime) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = now.with(LocalTime.parse(startTime.trim()));
+        if (!start.isAfter(now)) {
+            start = start.plusDays(1);
+        }
+        return Duration.between(now, start).toMillis();
+    }
+
+    /**
+     * Builds the driver for a monitor, which is kept for all of its runs
+     * until the properties change.
+     */
+    protected Runnable createMonitorDriver(Monitor monitor, Properties props) {
+        return monitor.getMonitorDriver(props, null);
+    }
+
+    /*
+     * Run a monitor. Exceptions are caught so that the schedule continues.
+     */
+    private void run(Monitor monitor, Runnable driver) {
+        MonitorStatus status;
+        synchronized (this) {
+            status = statuses.get(monitor);
+        }
+        if (!status.begin()) {
+            log.warn("Previous run of monitor {} has not finished, skipping this run",
+                     monitor);
+            return;
+        }
+
+        log.info("starting monitor: {}", monitor);
+        Exception error = null;
+        try {
+            driver.run();
+        } catch (Exception e) {
+            log.error("Error running monitor " + monitor + ": " + e.getMessage(), e);
+            error = e;
+        } finally {
+            status.end(error);
+        }
+
+        boolean replaced;
+        synchronized (this) {
+            replaced = drivers.get(monitor) != driver;
+        }
+        if (replaced) {
+            closeDriver(driver);
+        }
+    }
+
+    /*
+     * Release the connections held by a driver which is no longer scheduled.
+     */
+    private void closeDriver(Runnable driver) {
+        if (driver instanceof Closeable) {
+            try {
+                ((Closeable) driver).close();
+            } catch (IOException e) {
+                log.warn("Unable to close monitor driver: " + e.getMessage());
+            }
+        }
+    }
+
+    private void respond(HttpExchange exchange, String contentType, byte[] body)
+        throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+}
@@ -8,6 +8,7 @@
 package org.duracloud.account.monitor;
 
 import static org.duracloud.account.monitor.MonitorsDriver.Monitor.DUPLICATION;
+import static org.duracloud.account.monitor.MonitorsDriver.Monitor.STORAGE_USAGE;
 
 import java.io.ByteArrayOutputStream;
 import java.io.File;
@@ -20,20 +21,28 @@ import java.util.List;
 import java.util.Properties;
 
 import org.apache.commons.io.IOUtils;
+import org.duracloud.account.db.config.AccountJpaRepoConfig;
 import org.duracloud.account.db.repo.DuracloudRepoMgr;
 import org.duracloud.account.db.util.GlobalPropertiesConfigService;
 import org.duracloud.account.email.EmailUtil;
 import org.duracloud.account.email.EmailUtilImpl;
+import org.duracloud.account.monitor.common.BaseMonitor;
+import org.duracloud.account.monitor.common.ContentStoreClients;
 import org.duracloud.account.monitor.duplication.DuplicationMonitorDriver;
+import org.duracloud.account.monitor.storage.StorageUsageMonitorDriver;
 import org.duracloud.common.error.DuraCloudRuntimeException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.PropertiesPropertySource;
 
 /**
  * This class is the command-line driver for executing monitors for
- * instance health, storage reporting, and duplication checks that
- * are run across DuraCloud accounts managed by the Management Console that is
- * defined by the configuration credentials.
+ * instance health, storage reporting, storage limits, and duplication checks
+ * that are run across DuraCloud accounts managed by the Management Console
+ * that is defined by the configuration credentials. With the 'daemon' target, the
+ * monitors are kept running on the schedule set in the configuration, see
+ * MonitorsDaemon.
  *
  * @author Andrew Woods
  * Date: 7/18/11
@@ -53,21 +62,33 @@ public class MonitorsDriver {
     private static final String FROM_ADDRESS = PREFIX_EMAIL + "from";
     private static final String TO_ADDRESS = PREFIX_EMAIL + "to.";
 
+    private static final String CLIENT_PREFIX = PREFIX + "client.";
+    private static final String MAX_CONNECTIONS = CLIENT_PREFIX + "max-connections";
+    private static final String MAX_CONNECTIONS_PER_HOST = CLIENT_PREFIX + "max-connections-per-host";
+    private static final String IDLE_SECONDS = CLIENT_PREFIX + "idle-seconds";
+    private static final String SOCKET_TIMEOUT = CLIENT_PREFIX + "socket-timeout-seconds";
+
+    private static final String DAEMON = "daemon";
+
     private Properties props;
     private EmailUtil emailUtil;
     private DuracloudRepoMgr repoMgr;
+    private AnnotationConfigApplicationContext repoContext;
     private GlobalPropertiesConfigService configService;
 
     /**
      * This enum defines the types of monitors available through this driver.
      */
     public enum Monitor {
-        DUPLICATION;
+        DUPLICATION, STORAGE_USAGE;
 
         public Runnable getMonitorDriver(Properties props, GlobalPropertiesConfigService configService) {
             if (this.equals(DUPLICATION)) {
                 return new DuplicationMonitorDriver(props);
 
+            } else if (this.equals(STORAGE_USAGE)) {
+                return new StorageUsageMonitorDriver(props);
+
             } else {
                 throw new DuraCloudRuntimeException("Unknown type: " + this);
             }
@@ -83,10 +104,49 @@ public class MonitorsDriver {
         this.emailUtil = buildEmailUtil(props);
     }
 
-    public DuracloudRepoMgr getRepoMgr() {
+    /**
+     * The repositories are set up when first needed, from the database
+     * properties (db.host, db.port, db.name, db.user, db.pass) of the
+     * configuration.
+     */
+    public synchronized DuracloudRepoMgr getRepoMgr() {
+        if (null == repoMgr) {
+            repoMgr = getRepoContext().getBean(DuracloudRepoMgr.class);
+        }
         return repoMgr;
     }
 
+    /**
+     * @return a repository of the Management Console database
+     */
+    protected <T> T getRepo(Class<T> repoType) {
+        return getRepoContext().getBean(repoType);
+    }
+
+    private synchronized AnnotationConfigApplicationContext getRepoContext() {
+        if (null == repoContext) {
+            AnnotationConfigApplicationContext context =
+                new AnnotationConfigApplicationContext();
+            context.getEnvironment().getPropertySources().addFirst(
+                new PropertiesPropertySource("monitor", props));
+            context.register(AccountJpaRepoConfig.class, DuracloudRepoMgr.class);
+            context.refresh();
+            repoContext = context;
+        }
+        return repoContext;
+    }
+
+    /**
+     * Closes the database connections, if they were opened.
+     */
+    protected synchronized void closeRepos() {
+        if (null != repoContext) {
+            repoContext.close();
+            repoContext = null;
+            repoMgr = null;
+        }
+    }
+
     public GlobalPropertiesConfigService getGlobalConfigService() {
         return configService;
     }
@@ -155,6 +215,34 @@ public class MonitorsDriver {
         return property;
     }
 
+    protected long getLongProperty(Properties props, String key, long defaultValue) {
+        String property = props.getProperty(key);
+        if (null == property) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(property.trim());
+        } catch (NumberFormatException e) {
+            throw new DuraCloudRuntimeException("Property " + key +
+                                                " is not a number: " + property);
+        }
+    }
+
+    /**
+     * Sets up the connections of a monitor from the monitor.client.*
+     * properties, using the defaults for those not set.
+     */
+    protected void configureClients(BaseMonitor monitor, Properties props) {
+        monitor.configureClients(
+            (int) getLongProperty(props, MAX_CONNECTIONS,
+                                  ContentStoreClients.DEFAULT_MAX_CONNECTIONS),
+            (int) getLongProperty(props, MAX_CONNECTIONS_PER_HOST,
+                                  ContentStoreClients.DEFAULT_MAX_CONNECTIONS_PER_HOST),
+            getLongProperty(props, IDLE_SECONDS, ContentStoreClients.DEFAULT_IDLE_SECONDS),
+            getLongProperty(props, SOCKET_TIMEOUT,
+                            ContentStoreClients.DEFAULT_SOCKET_TIMEOUT_SECONDS));
+    }
+
     private static Properties parseProperties(InputStream stream)
         throws IOException {
         Properties props = new Properties();
@@ -173,15 +261,21 @@ public class MonitorsDriver {
 
         String targetName = args[0].toLowerCase();
         Monitor target = null;
-        try {
-            target = Monitor.valueOf(targetName.toUpperCase());
+        if (!targetName.equals(DAEMON)) {
+            try {
+                target = Monitor.valueOf(targetName.toUpperCase());
 
-        } catch (Exception e) {
-            StringBuilder msg = new StringBuilder("Target must be '");
-            msg.append(DUPLICATION);
-            msg.append("'");
-            System.err.println(usage(msg.toString()));
-            System.exit(1);
+            } catch (Exception e) {
+                StringBuilder msg = new StringBuilder("Target must be '");
+                msg.append(DUPLICATION);
+                msg.append("', '");
+                msg.append(STORAGE_USAGE);
+                msg.append("' or '");
+                msg.append(DAEMON);
+                msg.append("'");
+                System.err.println(usage(msg.toString()));
+                System.exit(1);
+            }
         }
 
         File configFile = new File(args[1]);
@@ -191,6 +285,18 @@ public class MonitorsDriver {
             System.exit(1);
         }
 
+        if (null == target) {
+            MonitorsDaemon daemon = new MonitorsDaemon(configFile);
+            try {
+                daemon.start();
+            } catch (Exception e) {
+                System.err.println("Error starting monitors daemon: " + e.getMessage());
+                System.exit(1);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(daemon::stop));
+            return;
+        }
+
         InputStream inputStream = null;
         Properties props = null;
         try {
@@ -216,12 +322,18 @@ public class MonitorsDriver {
         sb.append("\n\n");
         sb.append("Usage: ");
         sb.append("MonitorsDriver ");
-        sb.append("<instance|store_reporter|duplication> ");
+        sb.append("<duplication|storage_usage|daemon> ");
         sb.append("<properties-file>");
         sb.append("\n\t");
         sb.append("Where '");
         sb.append(DUPLICATION);
-        sb.append("' must be provided to indicate the monitoring target.");
+        sb.append("' or '");
+        sb.append(STORAGE_USAGE);
+        sb.append("' must be provided to indicate the monitoring target,");
+        sb.append("\n\t");
+        sb.append("or '");
+        sb.append(DAEMON);
+        sb.append("' to keep running all scheduled monitors.");
         sb.append("\n\t");
         sb.append("And where 'properties-file' contains the necessary ");
         sb.append("initialization config.");
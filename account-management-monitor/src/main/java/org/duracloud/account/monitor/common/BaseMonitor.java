@@ -7,6 +7,7 @@
  */
 package org.duracloud.account.monitor.common;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
@@ -15,6 +16,8 @@ import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.Properties;
 import java.util.Scanner;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang3.StringUtils;
 import org.duracloud.common.error.DuraCloudRuntimeException;
@@ -26,13 +29,102 @@ import org.slf4j.Logger;
  * @author Bill Branan
  * Date: 4/16/13
  */
-public abstract class BaseMonitor {
+public abstract class BaseMonitor implements Closeable {
 
     private static final String MONITOR_PASSWORD_KEY = "monitor.password";
     private static final String MONITOR_USERNAME_KEY = "monitor.username";
     protected Logger log;
 
-    protected Credential getRootCredential() {
+    private Credential credential;
+    private ContentStoreClients clients;
+
+    /*
+     * The credentials are read once and kept, so that a monitor which runs
+     * repeatedly does not decrypt them for each run.
+     */
+    protected synchronized Credential getRootCredential() {
+        if (null == credential) {
+            credential = readRootCredential();
+        }
+        return credential;
+    }
+
+    /*
+     * Read the credentials again, in place of those kept, for when the kept
+     * credentials have been rejected.
+     */
+    protected synchronized Credential refreshRootCredential() {
+        credential = readRootCredential();
+        return credential;
+    }
+
+    /**
+     * Sets up the connections used by this monitor to reach DuraCloud. When
+     * this is not called, the default settings are used.
+     *
+     * @param maxConnections        connections open at the same time
+     * @param maxConnectionsPerHost connections open at the same time to a
+     *                              single host
+     * @param idleSeconds           time after which an unused connection is
+     *                              closed
+     * @param socketTimeoutSeconds  time allowed to connect and to wait for
+     *                              data
+     */
+    public synchronized void configureClients(int maxConnections,
+                                              int maxConnectionsPerHost,
+                                              long idleSeconds,
+                                              long socketTimeoutSeconds) {
+        close();
+        clients = new ContentStoreClients(maxConnections,
+                                          maxConnectionsPerHost,
+                                          idleSeconds,
+                                          socketTimeoutSeconds,
+                                          this::getRootCredential,
+                                          this::refreshRootCredential);
+    }
+
+    /*
+     * The clients are kept for the life of the monitor, so that its runs
+     * share one pool of connections.
+     */
+    protected synchronized ContentStoreClients getClients() {
+        if (null == clients) {
+            clients = new ContentStoreClients(this::getRootCredential,
+                                              this::refreshRootCredential);
+        }
+        return clients;
+    }
+
+    /**
+     * Closes the connections of this monitor. They are opened again if the
+     * monitor runs after it is closed.
+     */
+    @Override
+    public synchronized void close() {
+        if (null != clients) {
+            try {
+                clients.close();
+            } catch (IOException e) {
+                log.warn("Unable to close connections: " + e.getMessage());
+            }
+            clients = null;
+        }
+    }
+
+    /*
+     * Threads of the monitor's executors are daemon threads, so that a
+     * monitor left waiting on a host does not keep the JVM running.
+     */
+    protected ThreadFactory daemonThreads(final String prefix) {
+        final AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    private Credential readRootCredential() {
         try {
             EncryptionUtil encryptionUtil = new EncryptionUtil();
 
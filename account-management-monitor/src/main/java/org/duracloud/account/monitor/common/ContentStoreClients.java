@@ -0,0 +1,395 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.common;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpHead;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.duracloud.client.ContentStoreManager;
+import org.duracloud.client.ContentStoreManagerImpl;
+import org.duracloud.common.model.Credential;
+import org.duracloud.common.web.RestHttpHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class manages the connections of the ContentStore clients used by a
+ * monitor. All clients share one pool of keep-alive connections, so that the
+ * requests made to a host, including those of later runs of a resident
+ * monitor, reuse connections rather than opening a new one for each request.
+ * Connections which have been idle for longer than the idle time are closed.
+ *
+ * The credential is sent with every request, rather than in answer to a
+ * challenge from the host. It is read once, and read again if a host
+ * rejects it. The latency of the requests made to each host is recorded.
+ */
+public class ContentStoreClients implements Closeable {
+
+    public static final int DEFAULT_MAX_CONNECTIONS = 64;
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 8;
+    public static final long DEFAULT_IDLE_SECONDS = 60;
+    public static final long DEFAULT_SOCKET_TIMEOUT_SECONDS = 300;
+
+    private Logger log = LoggerFactory.getLogger(ContentStoreClients.class);
+
+    private CloseableHttpClient httpClient;
+    private RestHttpHelper restHelper;
+    private Supplier<Credential> credentials;
+    private Supplier<Credential> refreshedCredentials;
+    private Credential credential;
+    private Map<String, ContentStoreManager> storeManagers = new ConcurrentHashMap<>();
+    private Map<String, RequestMetrics> metrics = new ConcurrentSkipListMap<>();
+
+    public ContentStoreClients(Supplier<Credential> credentials,
+                               Supplier<Credential> refreshedCredentials) {
+        this(DEFAULT_MAX_CONNECTIONS,
+             DEFAULT_MAX_CONNECTIONS_PER_HOST,
+             DEFAULT_IDLE_SECONDS,
+             DEFAULT_SOCKET_TIMEOUT_SECONDS,
+             credentials,
+             refreshedCredentials);
+    }
+
+    /**
+     * @param maxConnections        connections open at the same time, to all
+     *                              hosts
+     * @param maxConnectionsPerHost connections open at the same time to a
+     *                              single host
+     * @param idleSeconds           time after which an unused connection is
+     *                              closed
+     * @param socketTimeoutSeconds  time allowed to connect, to wait for a
+     *                              free connection and to wait for data
+     * @param credentials           provides the credential to send
+     * @param refreshedCredentials  provides the credential again, reading it
+     *                              from its source, once a host rejects it
+     */
+    public ContentStoreClients(int maxConnections,
+                               int maxConnectionsPerHost,
+                               long idleSeconds,
+                               long socketTimeoutSeconds,
+                               Supplier<Credential> credentials,
+                               Supplier<Credential> refreshedCredentials) {
+        this.credentials = credentials;
+        this.refreshedCredentials = refreshedCredentials;
+
+        PoolingHttpClientConnectionManager connectionManager =
+            new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(Math.max(1, maxConnections));
+        connectionManager.setDefaultMaxPerRoute(Math.max(1, maxConnectionsPerHost));
+
+        int timeout = (int) TimeUnit.SECONDS.toMillis(socketTimeoutSeconds);
+        RequestConfig requestConfig = RequestConfig.custom()
+                                                   .setConnectTimeout(timeout)
+                                                   .setConnectionRequestTimeout(timeout)
+                                                   .setSocketTimeout(timeout)
+                                                   .build();
+
+        this.httpClient = HttpClients.custom()
+                                     .setConnectionManager(connectionManager)
+                                     .setDefaultRequestConfig(requestConfig)
+                                     .evictExpiredConnections()
+                                     .evictIdleConnections(idleSeconds, TimeUnit.SECONDS)
+                                     .build();
+        this.restHelper = new PooledRestHttpHelper(this);
+    }
+
+    /**
+     * @return the store manager of a DuraCloud account instance, which is
+     * created once and kept for later requests
+     */
+    public ContentStoreManager getStoreManager(String host, String port, String context) {
+        return storeManagers.computeIfAbsent(
+            host + ":" + port + "/" + context,
+            key -> new PooledContentStoreManager(host, port, context, restHelper));
+    }
+
+    /**
+     * @return a RestHttpHelper which sends its requests over the pooled
+     * connections
+     */
+    public RestHttpHelper getRestHelper() {
+        return restHelper;
+    }
+
+    /**
+     * @return the metrics of the requests made since these clients were
+     * created, by host
+     */
+    public Map<String, RequestMetrics> getMetrics() {
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    /**
+     * Closes all connections. The clients cannot be used once closed.
+     */
+    @Override
+    public void close() throws IOException {
+        httpClient.close();
+    }
+
+    /*
+     * Send a request, reading the credential again and sending the request a
+     * second time if the host rejects it. A request whose body can only be
+     * read once is not sent again.
+     */
+    RestHttpHelper.HttpResponse execute(HttpRequestBase request) throws IOException {
+        String host = request.getURI().getHost();
+        RequestMetrics hostMetrics = metrics.computeIfAbsent(host, h -> new RequestMetrics());
+
+        Credential requestCredential = getCredential();
+        CloseableHttpResponse response = send(request, requestCredential, hostMetrics);
+        if (response.getStatusLine().getStatusCode() == HttpStatus.SC_UNAUTHORIZED &&
+            isRepeatable(request)) {
+            log.info("Credential rejected by {}, reading it again", host);
+            EntityUtils.consumeQuietly(response.getEntity());
+            response.close();
+            response = send(request, refreshCredential(requestCredential), hostMetrics);
+        }
+        return new RestHttpHelper.HttpResponse(response);
+    }
+
+    private CloseableHttpResponse send(HttpRequestBase request,
+                                       Credential requestCredential,
+                                       RequestMetrics hostMetrics) throws IOException {
+        String userPass = requestCredential.getUsername() + ":" +
+                          requestCredential.getPassword();
+        request.setHeader(HttpHeaders.AUTHORIZATION,
+                          "Basic " + Base64.getEncoder().encodeToString(
+                              userPass.getBytes(StandardCharsets.UTF_8)));
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            CloseableHttpResponse response = httpClient.execute(request);
+            failed = response.getStatusLine().getStatusCode() >=
+                     HttpStatus.SC_INTERNAL_SERVER_ERROR;
+            return response;
+        } finally {
+            hostMetrics.record(System.nanoTime() - start, failed);
+        }
+    }
+
+    private boolean isRepeatable(HttpRequestBase request) {
+        if (request instanceof HttpEntityEnclosingRequest) {
+            HttpEntity entity = ((HttpEntityEnclosingRequest) request).getEntity();
+            return null == entity || entity.isRepeatable();
+        }
+        return true;
+    }
+
+    private synchronized Credential getCredential() {
+        if (null == credential) {
+            credential = credentials.get();
+        }
+        return credential;
+    }
+
+    /*
+     * Read the credential again, unless another request has already done so
+     * since the rejected credential was sent.
+     */
+    private synchronized Credential refreshCredential(Credential rejected) {
+        if (credential == rejected) {
+            credential = refreshedCredentials.get();
+        }
+        return credential;
+    }
+
+    /**
+     * A RestHttpHelper which sends requests through the shared connection
+     * pool, in place of opening a connection for each request.
+     */
+    private static class PooledRestHttpHelper extends RestHttpHelper {
+
+        private ContentStoreClients clients;
+
+        public PooledRestHttpHelper(ContentStoreClients clients) {
+            this.clients = clients;
+        }
+
+        @Override
+        public HttpResponse get(String url) throws Exception {
+            return get(url, null);
+        }
+
+        @Override
+        public HttpResponse get(String url, Map<String, String> headers) throws Exception {
+            return execute(new HttpGet(checkUrl(url)), headers);
+        }
+
+        @Override
+        public HttpResponse head(String url) throws Exception {
+            return execute(new HttpHead(checkUrl(url)), null);
+        }
+
+        @Override
+        public HttpResponse delete(String url) throws Exception {
+            return execute(new HttpDelete(checkUrl(url)), null);
+        }
+
+        @Override
+        public HttpResponse post(String url, String requestContent, Map<String, String> headers)
+            throws Exception {
+            return post(url, requestContent, null, headers);
+        }
+
+        @Override
+        public HttpResponse post(String url,
+                                 String requestContent,
+                                 String mimetype,
+                                 Map<String, String> headers) throws Exception {
+            return execute(new HttpPost(checkUrl(url)),
+                           toEntity(requestContent, mimetype),
+                           headers);
+        }
+
+        @Override
+        public HttpResponse post(String url,
+                                 InputStream requestContent,
+                                 String mimetype,
+                                 long contentLength,
+                                 Map<String, String> headers) throws Exception {
+            return execute(new HttpPost(checkUrl(url)),
+                           toEntity(requestContent, mimetype, contentLength),
+                           headers);
+        }
+
+        @Override
+        public HttpResponse put(String url, String requestContent, Map<String, String> headers)
+            throws Exception {
+            return put(url, requestContent, null, headers);
+        }
+
+        @Override
+        public HttpResponse put(String url,
+                                String requestContent,
+                                String mimetype,
+                                Map<String, String> headers) throws Exception {
+            return execute(new HttpPut(checkUrl(url)),
+                           toEntity(requestContent, mimetype),
+                           headers);
+        }
+
+        @Override
+        public HttpResponse put(String url,
+                                InputStream requestContent,
+                                String mimetype,
+                                long contentLength,
+                                Map<String, String> headers) throws Exception {
+            return execute(new HttpPut(checkUrl(url)),
+                           toEntity(requestContent, mimetype, contentLength),
+                           headers);
+        }
+
+        @Override
+        public HttpResponse multipartPost(String url, HttpEntity reqEntity) throws Exception {
+            return execute(new HttpPost(checkUrl(url)), reqEntity, null);
+        }
+
+        private HttpResponse execute(HttpEntityEnclosingRequestBase request,
+                                     HttpEntity entity,
+                                     Map<String, String> headers) throws IOException {
+            request.setEntity(entity);
+            return execute(request, headers);
+        }
+
+        private HttpResponse execute(HttpRequestBase request, Map<String, String> headers)
+            throws IOException {
+            if (null != headers) {
+                for (Map.Entry<String, String> header : headers.entrySet()) {
+                    request.addHeader(header.getKey(), header.getValue());
+                }
+            }
+            return clients.execute(request);
+        }
+
+        private String checkUrl(String url) {
+            if (null == url || url.isEmpty()) {
+                throw new IllegalArgumentException("URL must be a non-empty value");
+            }
+            return url;
+        }
+
+        private HttpEntity toEntity(String requestContent, String mimetype) {
+            if (null == requestContent) {
+                return null;
+            }
+            return new StringEntity(requestContent, toContentType(mimetype));
+        }
+
+        private HttpEntity toEntity(InputStream requestContent, String mimetype, long contentLength) {
+            if (null == requestContent) {
+                return null;
+            }
+            return new InputStreamEntity(requestContent, contentLength, toContentType(mimetype));
+        }
+
+        private ContentType toContentType(String mimetype) {
+            if (null == mimetype) {
+                return ContentType.TEXT_XML;
+            }
+            return ContentType.create(mimetype, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * A store manager whose requests, and those of its content stores, are
+     * sent with the pooled RestHttpHelper. The credential is sent by the
+     * helper, so logging in and out does not replace it.
+     */
+    private static class PooledContentStoreManager extends ContentStoreManagerImpl {
+
+        public PooledContentStoreManager(String host,
+                                         String port,
+                                         String context,
+                                         RestHttpHelper restHelper) {
+            super(host, port, context);
+            setRestHelper(restHelper);
+        }
+
+        @Override
+        public void login(Credential credential) {
+            // The credential is sent by the pooled RestHttpHelper
+        }
+
+        @Override
+        public void logout() {
+            // The credential is sent by the pooled RestHttpHelper
+        }
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.common;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The number and the latency of the requests made to a single host. The
+ * latency of a request is the time until its response starts, which does not
+ * include reading the response body. A request fails when it cannot be sent
+ * or the host answers with a server error.
+ */
+public class RequestMetrics {
+
+    private LongAdder requests = new LongAdder();
+    private LongAdder failures = new LongAdder();
+    private LongAdder totalNanos = new LongAdder();
+    private AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos, boolean failed) {
+        requests.increment();
+        if (failed) {
+            failures.increment();
+        }
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public long getTotalMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalNanos.sum());
+    }
+
+    public long getAverageMillis() {
+        long count = requests.sum();
+        return 0 == count ? 0 : TimeUnit.NANOSECONDS.toMillis(totalNanos.sum() / count);
+    }
+
+    public long getMaxMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+    }
+
+    @Override
+    public String toString() {
+        return getRequests() + " requests, " + getFailures() + " failed, average " +
+               getAverageMillis() + " ms, max " + getMaxMillis() + " ms";
+    }
+
+}
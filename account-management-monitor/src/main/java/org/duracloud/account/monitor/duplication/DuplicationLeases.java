@@ -0,0 +1,157 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.duplication;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.duracloud.account.db.util.model.DuplicationLease;
+import org.duracloud.account.db.util.repo.DuplicationLeaseRepo;
+import org.duracloud.account.monitor.duplication.util.ConsistentHashRing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * This class splits the hosts checked by the duplication monitor between
+ * several monitor nodes. Each host belongs to one node, chosen by consistent
+ * hashing of the subdomain of the host. Before checking a host, a node takes
+ * its lease, which is refused while another node holds it or when the host
+ * was checked within the recheck time; a host is therefore not checked twice
+ * in a round. A node also takes over the hosts of other nodes which have not
+ * been checked within the takeover time, so that the hosts of a node which
+ * has stopped are not missed.
+ */
+public class DuplicationLeases {
+
+    private Logger log = LoggerFactory.getLogger(DuplicationLeases.class);
+
+    private DuplicationLeaseRepo leaseRepo;
+    private String node;
+    private ConsistentHashRing ring;
+    private long recheckMillis;
+    private long takeoverMillis;
+
+    /**
+     * @param leaseRepo      holds the leases
+     * @param node           name of this node
+     * @param ring           assigns hosts to nodes
+     * @param recheckMillis  time after a check during which the host is not
+     *                       checked again
+     * @param takeoverMillis time after a check after which the host is
+     *                       checked by any node, not only by its own
+     */
+    public DuplicationLeases(DuplicationLeaseRepo leaseRepo,
+                             String node,
+                             ConsistentHashRing ring,
+                             long recheckMillis,
+                             long takeoverMillis) {
+        this.leaseRepo = leaseRepo;
+        this.node = node;
+        this.ring = ring;
+        this.recheckMillis = recheckMillis;
+        this.takeoverMillis = takeoverMillis;
+    }
+
+    /**
+     * Takes the leases of the hosts this node should check.
+     *
+     * @param targets     all hosts, mapped to the spaces to compare
+     * @param leaseMillis time for which the leases are held, unless released
+     * @return the hosts whose leases were taken, mapped to the spaces to
+     * compare
+     */
+    public Map<String, String> claim(Map<String, String> targets, long leaseMillis) {
+        long now = System.currentTimeMillis();
+        Map<String, String> claimed = new LinkedHashMap<>();
+        for (Map.Entry<String, String> target : targets.entrySet()) {
+            String host = target.getKey();
+            DuplicationLease lease = leaseRepo.findByHost(host);
+            if (null == lease) {
+                lease = createLease(host);
+            }
+            boolean owned = node.equals(ring.getNode(getSubdomain(host)));
+            if (!owned && !isOverdue(lease, now)) {
+                continue;
+            }
+
+            int taken = leaseRepo.acquire(host,
+                                          node,
+                                          new Date(now + leaseMillis),
+                                          new Date(now),
+                                          new Date(now - recheckMillis));
+            if (1 == taken) {
+                if (!owned) {
+                    log.info("Taking over host {}, which has not been checked " +
+                             "by its node within {} ms", host, takeoverMillis);
+                }
+                claimed.put(host, target.getValue());
+            } else {
+                log.info("Not checking host {}, it is leased to another node " +
+                         "or was checked recently", host);
+            }
+        }
+        log.info("Node {} claimed {} of {} hosts", node, claimed.size(), targets.size());
+        return claimed;
+    }
+
+    /**
+     * Releases the lease of a host once its check has completed.
+     */
+    public void release(String host) {
+        if (0 == leaseRepo.release(host, node, new Date())) {
+            log.warn("Lease of host {} was no longer held by node {}", host, node);
+        }
+    }
+
+    /**
+     * Releases the lease of a host whose check did not complete, leaving
+     * the time of its last check as it was.
+     */
+    public void abandon(String host) {
+        if (0 == leaseRepo.abandon(host, node)) {
+            log.warn("Lease of host {} was no longer held by node {}", host, node);
+        }
+    }
+
+    /*
+     * A host is overdue when it has not been checked within the takeover
+     * time, counting from when its lease was added if it was never checked.
+     */
+    private boolean isOverdue(DuplicationLease lease, long now) {
+        if (null == lease) {
+            return false;
+        }
+        Date since = null == lease.getLastChecked() ? lease.getModified() : lease.getLastChecked();
+        return null != since && now - since.getTime() >= takeoverMillis;
+    }
+
+    /*
+     * Add the lease of a host, which every node does when it first sees the
+     * host so that the takeover time runs even if the node of the host has
+     * stopped. Another node may add it at the same time, in which case its
+     * lease is used.
+     */
+    private DuplicationLease createLease(String host) {
+        DuplicationLease lease = new DuplicationLease();
+        lease.setHost(host);
+        try {
+            return leaseRepo.saveAndFlush(lease);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Lease of host {} was added by another node", host);
+            return leaseRepo.findByHost(host);
+        }
+    }
+
+    private String getSubdomain(String host) {
+        int dot = host.indexOf('.');
+        return dot < 0 ? host : host.substring(0, dot);
+    }
+
+}
@@ -7,28 +7,65 @@
  */
 package org.duracloud.account.monitor.duplication;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.duracloud.account.db.util.error.DBNotFoundException;
 import org.duracloud.account.monitor.common.BaseMonitor;
+import org.duracloud.account.monitor.common.RequestMetrics;
+import org.duracloud.account.monitor.duplication.domain.DuplicationBaseline;
+import org.duracloud.account.monitor.duplication.domain.DuplicationBaseline.SpaceBaseline;
 import org.duracloud.account.monitor.duplication.domain.DuplicationInfo;
 import org.duracloud.account.monitor.duplication.domain.DuplicationReport;
+import org.duracloud.account.monitor.duplication.domain.ManifestVerification;
+import org.duracloud.account.monitor.duplication.util.DuplicationTargetReader;
+import org.duracloud.account.monitor.error.UnsortedManifestException;
 import org.duracloud.client.ContentStore;
 import org.duracloud.client.ContentStoreManager;
-import org.duracloud.client.ContentStoreManagerImpl;
 import org.duracloud.client.SpaceStatsDTOList;
-import org.duracloud.common.model.Credential;
+import org.duracloud.common.constant.ManifestFormat;
 import org.duracloud.error.ContentStoreException;
+import org.duracloud.reportdata.storage.SpaceStatsDTO;
 import org.slf4j.LoggerFactory;
 
 /**
  * This class manages the actual monitoring of content duplication across
- * DuraCloud accounts with multiple storage providers.
+ * DuraCloud accounts with multiple storage providers. Hosts are checked in
+ * parallel on a bounded pool of threads. A host which takes longer than the
+ * host timeout, or which has not finished by the overall deadline, is
+ * reported with an issue rather than holding up the rest of the report.
+ * Within a host, the spaces of all providers are counted in parallel, up to
+ * a per-host limit, and each secondary count is compared with the primary
+ * count as soon as both are known. When a baseline is set, spaces whose
+ * stats have not changed since they were last counted are not counted again.
+ * When a manifest verifier is set, the manifests of each space are compared
+ * item by item instead of comparing counts.
+ * When a target reader is set, the hosts are read from the accounts at the
+ * start of each run, and when leases are set, only the hosts leased by this
+ * node are checked.
  *
  * @author Bill Branan
  * Date: 4/16/13
@@ -41,11 +78,80 @@ public class DuplicationMonitor extends BaseMonitor {
     private static final List<String> ADMIN_SPACES =
         Arrays.asList("x-duracloud-admin", "x-service-out");
 
-    private Map<String, String> dupHosts;
+    public static final int DEFAULT_THREADS = 4;
+    public static final int DEFAULT_SPACE_THREADS = 4;
+    public static final long DEFAULT_HOST_TIMEOUT_MINUTES = 60;
+    public static final long DEFAULT_DEADLINE_MINUTES = 360;
+
+    private volatile Map<String, String> dupHosts;
+    private int threads;
+    private int spaceThreads;
+    private long hostTimeoutMillis;
+    private long deadlineMillis;
+    private DuplicationBaseline baseline;
+    private ManifestVerifier manifestVerifier;
+    private DuplicationTargetReader targetReader;
+    private DuplicationLeases leases;
 
     public DuplicationMonitor(Map<String, String> dupHosts) {
+        this(dupHosts,
+             DEFAULT_THREADS,
+             DEFAULT_SPACE_THREADS,
+             TimeUnit.MINUTES.toMillis(DEFAULT_HOST_TIMEOUT_MINUTES),
+             TimeUnit.MINUTES.toMillis(DEFAULT_DEADLINE_MINUTES));
+    }
+
+    /**
+     * @param dupHosts          hosts to check, mapped to the spaces to compare
+     * @param threads           number of hosts checked at the same time
+     * @param spaceThreads      number of spaces counted at the same time
+     *                          within a single host
+     * @param hostTimeoutMillis time allowed for the check of a single host,
+     *                          from when the check starts
+     * @param deadlineMillis    time allowed for the check of all hosts
+     */
+    public DuplicationMonitor(Map<String, String> dupHosts,
+                              int threads,
+                              int spaceThreads,
+                              long hostTimeoutMillis,
+                              long deadlineMillis) {
         this.log = LoggerFactory.getLogger(DuplicationMonitor.class);
         this.dupHosts = dupHosts;
+        this.threads = Math.max(1, threads);
+        this.spaceThreads = Math.max(1, spaceThreads);
+        this.hostTimeoutMillis = hostTimeoutMillis;
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    /**
+     * @param baseline counts from previous runs, which is updated and saved
+     *                 by each run
+     */
+    public void setBaseline(DuplicationBaseline baseline) {
+        this.baseline = baseline;
+    }
+
+    /**
+     * @param manifestVerifier compares the manifests of each space, in place
+     *                         of comparing the counts of spaces
+     */
+    public void setManifestVerifier(ManifestVerifier manifestVerifier) {
+        this.manifestVerifier = manifestVerifier;
+    }
+
+    /**
+     * @param targetReader reads the hosts to check at the start of each run,
+     *                     in place of the hosts given to the constructor
+     */
+    public void setTargetReader(DuplicationTargetReader targetReader) {
+        this.targetReader = targetReader;
+    }
+
+    /**
+     * @param leases decide which of the hosts are checked by this node
+     */
+    public void setLeases(DuplicationLeases leases) {
+        this.leases = leases;
     }
 
     /**
@@ -55,62 +161,264 @@ public class DuplicationMonitor extends BaseMonitor {
      * @return DuplicationReport report
      */
     public DuplicationReport monitorDuplication() {
-        log.info("starting duplication monitor");
+        if (null != targetReader) {
+            dupHosts = targetReader.readTargets();
+        }
+        Map<String, String> hosts = dupHosts;
+        if (null != leases) {
+            hosts = leases.claim(dupHosts, deadlineMillis);
+        }
+
+        log.info("starting duplication monitor for {} hosts on {} threads",
+                 hosts.size(), threads);
+        long deadline = System.currentTimeMillis() + deadlineMillis;
         DuplicationReport report = new DuplicationReport();
 
-        for (String host : dupHosts.keySet()) {
-            DuplicationInfo info = new DuplicationInfo(host);
-            try {
-                // Connect to storage providers
-                ContentStoreManager storeManager = getStoreManager(host);
-                ContentStore primary = storeManager.getPrimaryContentStore();
-                String primaryStoreId = primary.getStoreId();
-                List<ContentStore> secondaryList =
-                    getSecondaryStores(storeManager, primaryStoreId);
-
-                // Get primary space listing and count
-                List<String> primarySpaces = getSpaces(host, primary);
-                countSpaces(host, info, primary, primarySpaces, true);
-
-                // Get space listing and space counts for secondary providers
-                for (ContentStore secondary : secondaryList) {
-                    List<String> secondarySpaces = getSpaces(host, secondary);
-                    if (primarySpaces.size() != secondarySpaces.size()) {
-                        info.addIssue("The spaces listings do not match " +
-                                      "between primary and secondary " +
-                                      "provider: " +
-                                      secondary.getStorageProviderType());
+        ThreadPoolExecutor executor =
+            new ThreadPoolExecutor(threads,
+                                   threads,
+                                   0,
+                                   TimeUnit.SECONDS,
+                                   new ArrayBlockingQueue<>(Math.max(1, hosts.size())),
+                                   daemonThreads("duplication-monitor-"));
+        ScheduledExecutorService timer =
+            Executors.newSingleThreadScheduledExecutor(daemonThreads("duplication-monitor-timer-"));
+
+        try {
+            Map<String, HostCheck> checks = new LinkedHashMap<>();
+            for (String host : hosts.keySet()) {
+                DuplicationInfo info = new DuplicationInfo(host);
+                report.addDupInfo(host, info);
+                HostCheck check = new HostCheck(host, info, timer);
+                checks.put(host, check);
+                executor.execute(check);
+            }
+
+            for (HostCheck check : checks.values()) {
+                boolean completed = awaitCheck(check, deadline);
+                if (null != leases) {
+                    if (completed) {
+                        leases.release(check.info.getHost());
+                    } else {
+                        check.abandonLease();
                     }
-                    // Determine item count for secondary provider spaces
-                    countSpaces(host, info, secondary, secondarySpaces, false);
                 }
+            }
+            saveBaseline();
+            logRequestMetrics();
+        } finally {
+            executor.shutdownNow();
+            timer.shutdownNow();
+        }
+
+        return report;
+    }
+
+    private void saveBaseline() {
+        if (null != baseline) {
+            try {
+                baseline.save();
+            } catch (IOException e) {
+                log.error("Unable to save duplication baseline: " + e.getMessage(), e);
+            }
+        }
+    }
 
-                // Compare the space counts between providers
-                compareSpaces(primaryStoreId, info);
-            } catch (Exception e) {
-                String error = e.getClass() + " exception encountered while " +
-                               "running dup monitor for host " + host +
-                               ". Exception message: " + e.getMessage();
-                log.error(error);
-                info.addIssue(error);
+    private void logRequestMetrics() {
+        for (Map.Entry<String, RequestMetrics> metrics : getClients().getMetrics().entrySet()) {
+            log.info("Requests to {}: {}", metrics.getKey(), metrics.getValue());
+        }
+    }
+
+    /*
+     * Wait for a host check to finish, recording an issue for the host if
+     * it was stopped by its timeout or does not finish before the deadline.
+     * Returns true if the check completed.
+     */
+    private boolean awaitCheck(HostCheck check, long deadline) {
+        String host = check.info.getHost();
+        try {
+            check.get(Math.max(0, deadline - System.currentTimeMillis()),
+                      TimeUnit.MILLISECONDS);
+            return true;
+        } catch (CancellationException e) {
+            String error = "Duplication check of host " + host + " did not " +
+                           "complete within " + hostTimeoutMillis + " ms";
+            log.error(error);
+            check.info.addIssue(error);
+        } catch (TimeoutException e) {
+            check.cancel(true);
+            String error = "Duplication check of host " + host + " did not " +
+                           "complete before the monitor deadline";
+            log.error(error);
+            check.info.addIssue(error);
+        } catch (ExecutionException e) {
+            String error = e.getCause().getClass() + " exception encountered " +
+                           "while running dup monitor for host " + host +
+                           ". Exception message: " + e.getCause().getMessage();
+            log.error(error);
+            check.info.addIssue(error);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            check.cancel(true);
+            check.info.addIssue("Duplication check of host " + host +
+                                " was interrupted");
+        }
+        return false;
+    }
+
+    /*
+     * The check of a single host, which is cancelled if it is still running
+     * once the host timeout has passed.
+     */
+    private class HostCheck extends FutureTask<Void> {
+        private DuplicationInfo info;
+        private ScheduledExecutorService timer;
+        private boolean running;
+        private boolean abandonOnExit;
+
+        public HostCheck(String host,
+                         DuplicationInfo info,
+                         ScheduledExecutorService timer) {
+            super(() -> {
+                checkHost(host, info);
+                return null;
+            });
+            this.info = info;
+            this.timer = timer;
+        }
+
+        @Override
+        public void run() {
+            ScheduledFuture<?> timeout =
+                timer.schedule(() -> cancel(true),
+                               hostTimeoutMillis,
+                               TimeUnit.MILLISECONDS);
+            synchronized (this) {
+                running = true;
+            }
+            try {
+                super.run();
             } finally {
-                report.addDupInfo(host, info);
+                timeout.cancel(false);
+                boolean abandon;
+                synchronized (this) {
+                    running = false;
+                    abandon = abandonOnExit;
+                }
+                if (abandon) {
+                    leases.abandon(info.getHost());
+                }
             }
         }
 
-        return report;
+        /*
+         * Give up the lease of a check which did not complete. A cancelled
+         * check may still be running until it notices the interrupt, in
+         * which case the lease is given up when it stops, so that no other
+         * node checks the host while it runs.
+         */
+        public void abandonLease() {
+            synchronized (this) {
+                if (running) {
+                    abandonOnExit = true;
+                    return;
+                }
+            }
+            leases.abandon(info.getHost());
+        }
     }
 
     /*
-     * Create the store manager to connect to this DuraCloud account instance
+     * Compare the spaces of the primary and secondary storage providers of
+     * a single host, recording counts and issues in the given info.
      */
-    private ContentStoreManager getStoreManager(String host)
+    protected void checkHost(String host, DuplicationInfo info) {
+        ExecutorService spaceExecutor =
+            Executors.newFixedThreadPool(spaceThreads,
+                                         daemonThreads("duplication-count-" + host + "-"));
+        long start = System.currentTimeMillis();
+        boolean fullRecount = null == baseline || baseline.isFullRecountDue(host, start);
+        try {
+            // Connect to storage providers
+            ContentStoreManager storeManager = getStoreManager(host);
+            ContentStore primary = storeManager.getPrimaryContentStore();
+            String primaryStoreId = primary.getStoreId();
+            info.setPrimaryStoreId(primaryStoreId);
+            List<ContentStore> secondaryList =
+                getSecondaryStores(storeManager, primaryStoreId);
+
+            Set<String> secondaryStoreIds = new HashSet<>();
+            for (ContentStore secondary : secondaryList) {
+                secondaryStoreIds.add(secondary.getStoreId());
+            }
+            SpaceComparison comparison =
+                new SpaceComparison(primaryStoreId, info, secondaryStoreIds);
+            List<CompletableFuture<Void>> counts = new ArrayList<>();
+
+            // Get primary space listing and start counting
+            List<String> primarySpaces = getSpaces(host, primary);
+            if (null == manifestVerifier) {
+                counts.addAll(countSpaces(host, comparison, primary, primarySpaces,
+                                          true, fullRecount, spaceExecutor));
+            }
+
+            // Get space listing and start counting for secondary providers
+            for (ContentStore secondary : secondaryList) {
+                List<String> secondarySpaces = getSpaces(host, secondary);
+                if (primarySpaces.size() != secondarySpaces.size()) {
+                    info.addIssue("The spaces listings do not match " +
+                                  "between primary and secondary " +
+                                  "provider: " +
+                                  secondary.getStorageProviderType());
+                }
+                if (null == manifestVerifier) {
+                    counts.addAll(countSpaces(host, comparison, secondary,
+                                              secondarySpaces, false, fullRecount,
+                                              spaceExecutor));
+                } else {
+                    counts.addAll(verifySpaces(host, info, primary, secondary,
+                                               primarySpaces, spaceExecutor));
+                }
+            }
+
+            // Counts are compared as they arrive, leaving only spaces which
+            // are missing from a secondary provider
+            CompletableFuture.allOf(counts.toArray(new CompletableFuture[counts.size()]))
+                             .get();
+            if (null == manifestVerifier) {
+                comparison.finish();
+            }
+
+            if (fullRecount && null != baseline) {
+                baseline.setFullRecount(host, start);
+            }
+            log.info("Checked host {}: {} spaces unchanged since the baseline, " +
+                     "{} count changes", host, info.getUnchangedSpaces(),
+                     info.getChanges().size());
+        } catch (InterruptedException e) {
+            // The check was stopped by its timeout, which reports the issue
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            String error = e.getClass() + " exception encountered while " +
+                           "running dup monitor for host " + host +
+                           ". Exception message: " + e.getMessage();
+            log.error(error);
+            info.addIssue(error);
+        } finally {
+            spaceExecutor.shutdownNow();
+            info.setCheckMillis(System.currentTimeMillis() - start);
+        }
+    }
+
+    /*
+     * Get the store manager to connect to this DuraCloud account instance.
+     * Store managers share the pooled connections of the monitor, so that
+     * later runs of the same monitor reuse them.
+     */
+    protected ContentStoreManager getStoreManager(String host)
         throws DBNotFoundException {
-        ContentStoreManager storeManager =
-            new ContentStoreManagerImpl(host, PORT, CONTEXT);
-        Credential credential = getRootCredential();
-        storeManager.login(credential);
-        return storeManager;
+        return getClients().getStoreManager(host, PORT, CONTEXT);
     }
 
     /*
@@ -151,15 +459,26 @@ public class DuplicationMonitor extends BaseMonitor {
     }
 
     /*
-     * Perform a content count for all spaces in the list for the given account
+     * Start a content count for all spaces in the list for the given account.
+     * Each count is added to the comparison once it completes. Unless a full
+     * recount is needed, the current stats of all spaces in the store are
+     * fetched at once and compared with the baseline to find the spaces
+     * which need to be counted.
      */
-    protected void countSpaces(String host,
-                               DuplicationInfo info,
-                               ContentStore store,
-                               List<String> spaces,
-                               boolean primary) {
+    protected List<CompletableFuture<Void>> countSpaces(String host,
+                                                        SpaceComparison comparison,
+                                                        ContentStore store,
+                                                        List<String> spaces,
+                                                        boolean primary,
+                                                        boolean fullRecount,
+                                                        Executor executor) {
         String storeId = store.getStoreId();
         String storeType = store.getStorageProviderType();
+        Map<String, SpaceStatsDTO> currentStats = Collections.emptyMap();
+        if (!fullRecount && null != baseline) {
+            currentStats = getCurrentStats(host, store);
+        }
+        List<CompletableFuture<Void>> counts = new ArrayList<>();
         for (String spaceId : spaces) {
             boolean doCount = false;
             // Handle spaces which include space ID, formatted like: spaceId:storeId
@@ -174,100 +493,279 @@ public class DuplicationMonitor extends BaseMonitor {
             }
 
             if (doCount) {
-                countSpace(host, spaceId, storeId, storeType, info, store);
+                SpaceBaseline previous = null == baseline ? null :
+                                         baseline.getSpace(host, storeId, spaceId);
+                if (isUnchanged(previous, currentStats.get(spaceId))) {
+                    log.info("Space '" + spaceId + "' in store " + storeType +
+                             " for host " + host + " is unchanged since the " +
+                             "baseline, count: " + previous.getCount());
+                    comparison.info.addUnchangedSpace();
+                    comparison.addSpaceCount(storeId, spaceId, previous.getCount());
+                    continue;
+                }
+
+                final String countSpaceId = spaceId;
+                counts.add(CompletableFuture.runAsync(
+                    () -> countSpace(host, countSpaceId, storeId, storeType,
+                                     comparison, store, previous),
+                    executor));
+            }
+        }
+        return counts;
+    }
+
+    /*
+     * Start a comparison of the manifests of the primary and a secondary
+     * store for all spaces in the list which should be compared
+     */
+    protected List<CompletableFuture<Void>> verifySpaces(String host,
+                                                         DuplicationInfo info,
+                                                         ContentStore primary,
+                                                         ContentStore secondary,
+                                                         List<String> spaces,
+                                                         Executor executor) {
+        String storeId = secondary.getStoreId();
+        List<CompletableFuture<Void>> verifications = new ArrayList<>();
+        for (String spaceId : spaces) {
+            // Handle spaces which include space ID, formatted like: spaceId:storeId
+            if (spaceId.indexOf(":") > -1) {
+                String[] spaceAndStoreId = spaceId.split(":");
+                spaceId = spaceAndStoreId[0];
+                if (!storeId.equals(spaceAndStoreId[1])) {
+                    continue;
+                }
+            }
+
+            final String verifySpaceId = spaceId;
+            verifications.add(CompletableFuture.runAsync(
+                () -> verifySpace(host, info, verifySpaceId, primary, secondary),
+                executor));
+        }
+        return verifications;
+    }
+
+    private void verifySpace(String host,
+                             DuplicationInfo info,
+                             String spaceId,
+                             ContentStore primary,
+                             ContentStore secondary) {
+        String storeId = secondary.getStoreId();
+        log.info("Verifying manifests of space '" + spaceId + "' in store " +
+                 secondary.getStorageProviderType() + " for host " + host + " ...");
+        try (ManifestReader primaryManifest =
+                 new ManifestReader(primary.getManifest(spaceId, ManifestFormat.TSV));
+             ManifestReader secondaryManifest =
+                 new ManifestReader(secondary.getManifest(spaceId, ManifestFormat.TSV));
+             Writer differences = manifestVerifier.openDifferences(host, spaceId, storeId)) {
+            ManifestVerification verification =
+                manifestVerifier.verify(spaceId, storeId, primaryManifest,
+                                        secondaryManifest, differences);
+            log.info("Verified manifests of space '" + spaceId + "' in store " +
+                     secondary.getStorageProviderType() + " for host " + host +
+                     ": " + verification.getPrimaryItems() + " items, " +
+                     (verification.hasDifferences() ? "with" : "no") + " differences");
+
+            info.addSpaceCount(primary.getStoreId(), spaceId, verification.getPrimaryItems());
+            info.addSpaceCount(storeId, spaceId, verification.getSecondaryItems());
+            if (verification.hasDifferences()) {
+                info.addIssue(verification.toString());
+            }
+        } catch (ContentStoreException | IOException | UnsortedManifestException e) {
+            String error = e.getClass().getSimpleName() + " encountered " +
+                           "attempting to verify manifests of space " + spaceId +
+                           " in secondary provider (ID=" + storeId + ") for " +
+                           "duplication check of host " + host +
+                           ". Exception message: " + e.getMessage();
+            log.error(error);
+            info.addIssue(error);
+        }
+    }
+
+    /*
+     * A space is unchanged if its current object and byte counts are those
+     * recorded in the baseline
+     */
+    private boolean isUnchanged(SpaceBaseline previous, SpaceStatsDTO current) {
+        return null != previous && null != current &&
+               previous.getCount() == current.getObjectCount() &&
+               previous.getByteCount() == current.getByteCount();
+    }
+
+    /*
+     * Get the current stats of all spaces in a store, by space ID. If the
+     * stats are not available, all spaces are counted.
+     */
+    private Map<String, SpaceStatsDTO> getCurrentStats(String host, ContentStore store) {
+        Map<String, SpaceStatsDTO> currentStats = new HashMap<>();
+        try {
+            SpaceStatsDTOList stats = store.getStorageProviderStatsByDay(new Date());
+            if (null != stats) {
+                for (SpaceStatsDTO spaceStats : stats) {
+                    currentStats.put(spaceStats.getSpaceId(), spaceStats);
+                }
             }
+        } catch (ContentStoreException e) {
+            log.warn("Unable to get stats of store " + store.getStoreId() +
+                     " for host " + host + ", all spaces will be counted: " +
+                     e.getMessage());
         }
+        return currentStats;
     }
 
     private void countSpace(String host,
                             String spaceId,
                             String storeId,
                             String storeType,
-                            DuplicationInfo info,
-                            ContentStore store) {
+                            SpaceComparison comparison,
+                            ContentStore store,
+                            SpaceBaseline previous) {
         try {
             log.info("Counting space '" + spaceId + "' in store " +
                      storeType + " for host " + host + " ...");
-            long count = getSpaceCount(store, spaceId);
+            SpaceStatsDTO stats = getSpaceStats(store, spaceId);
+            long count = null == stats ? 0 : stats.getObjectCount();
             log.info("Count for space '" + spaceId + "' in store " +
                      storeType + " for host " + host + ": " + count);
-            info.addSpaceCount(storeId, spaceId, count);
+
+            if (null != baseline) {
+                if (null != previous && previous.getCount() != count) {
+                    comparison.info.addChange("Count for space " + spaceId +
+                                              " in store " + storeType + " changed from " +
+                                              previous.getCount() + " to " + count);
+                }
+                baseline.setSpace(host, storeId, spaceId, count,
+                                  null == stats ? 0 : stats.getByteCount(),
+                                  System.currentTimeMillis());
+            }
+            comparison.addSpaceCount(storeId, spaceId, count);
         } catch (ContentStoreException e) {
             String error = "ContentStoreException encountered " +
                            "attempting to get count of space " + spaceId +
                            " for duplication check of host " + host +
                            ". Exception message: " + e.getMessage();
             log.error(error);
-            info.addIssue(error);
-            info.addSpaceCount(storeId, spaceId, -1);
+            comparison.info.addIssue(error);
+            comparison.addSpaceCount(storeId, spaceId, -1);
         }
     }
 
     /*
-     * Count the number of content items in a space in a DuraCloud account
+     * Get the latest stats, including the number of content items, of a space
+     * in a DuraCloud account
      */
-    private long getSpaceCount(ContentStore store, String spaceId)
+    private SpaceStatsDTO getSpaceStats(ContentStore store, String spaceId)
         throws ContentStoreException {
         SpaceStatsDTOList stats =
             store.getSpaceStats(spaceId, new Date(System.currentTimeMillis() - (24 * 60 * 60 * 1000)), new Date());
 
-        long count = 0;
-
         if (stats != null && stats.size() > 0) {
-            count = stats.getLast().getObjectCount();
+            return stats.getLast();
         }
-
-        return count;
+        return null;
     }
 
     /*
      * Compare the counted number of space items between storage providers
      */
     protected void compareSpaces(String primaryStoreId, DuplicationInfo info) {
-        String spaces = dupHosts.get(info.getHost());
-        Map<String, Long> primarySpaces = info.getSpaceCounts(primaryStoreId);
-        for (String storeId : info.getStoreIds()) {
-            Map<String, Long> secondarySpaces = info.getSpaceCounts(storeId);
-
-            for (String spaceId : primarySpaces.keySet()) {
-                // Determine if a space comparison should occur
-                boolean doCompare = false;
-                if (null == spaces || spaces.equals(ALL_SPACES)) {
-                    doCompare = true;
-                } else {
-                    String[] spacesToCompare = spaces.split(",");
-                    List<String> spaceList = Arrays.asList(spacesToCompare);
-                    if (spaceList.contains(spaceId)) {
-                        doCompare = true;
-                    } else { // Check space and store IDs
-                        for (String spacesSpaceId : spaceList) {
-                            String[] spaceAndStoreId = spacesSpaceId.split(":");
-                            if (spaceId.equals(spaceAndStoreId[0]) &&
-                                storeId.equals(spaceAndStoreId[1])) {
-                                doCompare = true;
-                            }
-                        }
+        Set<String> storeIds = new HashSet<>(info.getStoreIds());
+        storeIds.remove(primaryStoreId);
+        new SpaceComparison(primaryStoreId, info, storeIds).finish();
+    }
+
+    /*
+     * Determine if a space in a secondary store should be compared with the
+     * primary store, given the spaces configured for the host
+     */
+    private boolean doCompare(String host, String spaceId, String storeId) {
+        String spaces = dupHosts.get(host);
+        if (null == spaces || spaces.equals(ALL_SPACES)) {
+            return true;
+        }
+
+        List<String> spaceList = Arrays.asList(spaces.split(","));
+        if (spaceList.contains(spaceId)) {
+            return true;
+        }
+        // Check space and store IDs
+        for (String spacesSpaceId : spaceList) {
+            String[] spaceAndStoreId = spacesSpaceId.split(":");
+            if (spaceId.equals(spaceAndStoreId[0]) &&
+                storeId.equals(spaceAndStoreId[1])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Pairs the count of each space in a secondary store with the count of
+     * the same space in the primary store, comparing each pair as soon as
+     * both counts have been added.
+     */
+    protected class SpaceComparison {
+        private String primaryStoreId;
+        private DuplicationInfo info;
+        private Set<String> secondaryStoreIds;
+        private Set<List<String>> compared = new HashSet<>();
+
+        public SpaceComparison(String primaryStoreId,
+                               DuplicationInfo info,
+                               Set<String> secondaryStoreIds) {
+            this.primaryStoreId = primaryStoreId;
+            this.info = info;
+            this.secondaryStoreIds = secondaryStoreIds;
+        }
+
+        public synchronized void addSpaceCount(String storeId,
+                                               String spaceId,
+                                               long count) {
+            info.addSpaceCount(storeId, spaceId, count);
+            if (storeId.equals(primaryStoreId)) {
+                for (String secondaryStoreId : secondaryStoreIds) {
+                    if (info.getSpaceCounts(secondaryStoreId).containsKey(spaceId)) {
+                        compare(secondaryStoreId, spaceId);
                     }
                 }
+            } else if (info.getSpaceCounts(primaryStoreId).containsKey(spaceId)) {
+                compare(storeId, spaceId);
+            }
+        }
 
-                // Do the comparison
-                if (doCompare) {
-                    Long primaryCount = primarySpaces.get(spaceId);
-                    Long secondaryCount = secondarySpaces.get(spaceId);
-
-                    if (null == secondaryCount) {
-                        info.addIssue("The secondary provider (ID=" + storeId +
-                                      ") is missing space: " + spaceId);
-                    } else if (!primaryCount.equals(secondaryCount)) {
-                        info.addIssue("The content item counts for the space " +
-                                      spaceId + " do not match between primary and secondary " +
-                                      "providers. Primary count: " + primaryCount +
-                                      ". Secondary (ID=" + storeId + ") " +
-                                      "count: " + secondaryCount + ".");
+        /**
+         * Compares the primary spaces which were never paired, once all
+         * counts have been added
+         */
+        public synchronized void finish() {
+            for (String spaceId : info.getSpaceCounts(primaryStoreId).keySet()) {
+                for (String secondaryStoreId : secondaryStoreIds) {
+                    if (!compared.contains(Arrays.asList(secondaryStoreId, spaceId))) {
+                        compare(secondaryStoreId, spaceId);
                     }
                 }
             }
         }
+
+        private void compare(String storeId, String spaceId) {
+            compared.add(Arrays.asList(storeId, spaceId));
+            if (!doCompare(info.getHost(), spaceId, storeId)) {
+                return;
+            }
+
+            Long primaryCount = info.getSpaceCounts(primaryStoreId).get(spaceId);
+            Long secondaryCount = info.getSpaceCounts(storeId).get(spaceId);
+
+            if (null == secondaryCount) {
+                info.addIssue("The secondary provider (ID=" + storeId +
+                              ") is missing space: " + spaceId);
+            } else if (!primaryCount.equals(secondaryCount)) {
+                info.addIssue("The content item counts for the space " +
+                              spaceId + " do not match between primary and secondary " +
+                              "providers. Primary count: " + primaryCount +
+                              ". Secondary (ID=" + storeId + ") " +
+                              "count: " + secondaryCount + ".");
+            }
+        }
     }
 
 }
\ No newline at end of file
@@ -8,14 +8,26 @@
 package org.duracloud.account.monitor.duplication;
 
 import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.io.IOUtils;
+import org.duracloud.account.db.util.repo.DuplicationLeaseRepo;
 import org.duracloud.account.monitor.MonitorsDriver;
+import org.duracloud.account.monitor.duplication.domain.DuplicationBaseline;
 import org.duracloud.account.monitor.duplication.domain.DuplicationReport;
+import org.duracloud.account.monitor.duplication.domain.DuplicationState;
+import org.duracloud.account.monitor.duplication.util.ConsistentHashRing;
 import org.duracloud.account.monitor.duplication.util.DuplicationPropReader;
+import org.duracloud.account.monitor.duplication.util.DuplicationTargetReader;
+import org.duracloud.common.error.DuraCloudRuntimeException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,12 +38,39 @@ import org.slf4j.LoggerFactory;
  * @author Bill Branan
  * Date: 4/17/13
  */
-public class DuplicationMonitorDriver extends MonitorsDriver implements Runnable {
+public class DuplicationMonitorDriver extends MonitorsDriver implements Runnable, Closeable {
+
+    private static final String PREFIX = "monitor.duplication.";
+    private static final String THREADS = PREFIX + "threads";
+    private static final String SPACE_THREADS = PREFIX + "space-threads";
+    private static final String HOST_TIMEOUT = PREFIX + "host-timeout-minutes";
+    private static final String DEADLINE = PREFIX + "deadline-minutes";
+    private static final String BASELINE_FILE = PREFIX + "baseline-file";
+    private static final String FULL_RECOUNT = PREFIX + "full-recount-days";
+    private static final long DEFAULT_FULL_RECOUNT_DAYS = 7;
+    private static final String MODE = PREFIX + "mode";
+    private static final String MODE_MANIFEST = "manifest";
+    private static final String VERIFY_OUTPUT_DIR = PREFIX + "verify-output-dir";
+    private static final String VERIFY_MAX_REPORTED = PREFIX + "verify-max-reported";
+    private static final String TARGETS = PREFIX + "targets";
+    private static final String TARGETS_ACCOUNTS = "accounts";
+    private static final String DOMAIN = PREFIX + "domain";
+    private static final String DEFAULT_DOMAIN = "duracloud.org";
+    private static final String NODE = PREFIX + "node";
+    private static final String NODES = PREFIX + "nodes";
+    private static final String RECHECK = PREFIX + "recheck-minutes";
+    private static final long DEFAULT_RECHECK_MINUTES = 720;
+    private static final String TAKEOVER = PREFIX + "takeover-minutes";
+    private static final long DEFAULT_TAKEOVER_MINUTES = 2880;
+    private static final String REPORT_DIR = PREFIX + "report-dir";
+    private static final String STATE_FILE = PREFIX + "state-file";
 
     private Logger log =
         LoggerFactory.getLogger(DuplicationMonitorDriver.class);
 
     private DuplicationMonitor duplicationMonitor;
+    private DuplicationReportWriter reportWriter;
+    private DuplicationState state;
 
     public DuplicationMonitorDriver(Properties props) {
         super(props);
@@ -39,7 +78,125 @@ public class DuplicationMonitorDriver extends MonitorsDriver implements Runnable
         DuplicationPropReader propReader = new DuplicationPropReader();
         Map<String, String> dupHosts = propReader.readDupProps(props);
 
-        duplicationMonitor = new DuplicationMonitor(dupHosts);
+        int threads = (int) getLongProperty(props, THREADS,
+                                            DuplicationMonitor.DEFAULT_THREADS);
+        int spaceThreads =
+            (int) getLongProperty(props, SPACE_THREADS,
+                                  DuplicationMonitor.DEFAULT_SPACE_THREADS);
+        long hostTimeout =
+            getLongProperty(props, HOST_TIMEOUT,
+                            DuplicationMonitor.DEFAULT_HOST_TIMEOUT_MINUTES);
+        long deadline = getLongProperty(props, DEADLINE,
+                                        DuplicationMonitor.DEFAULT_DEADLINE_MINUTES);
+
+        duplicationMonitor =
+            new DuplicationMonitor(dupHosts,
+                                   threads,
+                                   spaceThreads,
+                                   TimeUnit.MINUTES.toMillis(hostTimeout),
+                                   TimeUnit.MINUTES.toMillis(deadline));
+        duplicationMonitor.setBaseline(getBaseline(props));
+        setTargets(props, dupHosts);
+
+        String reportDir = props.getProperty(REPORT_DIR);
+        if (null != reportDir) {
+            reportWriter = new DuplicationReportWriter(new File(reportDir.trim()));
+        }
+        state = getState(props);
+        configureClients(duplicationMonitor, props);
+
+        String mode = props.getProperty(MODE);
+        if (null != mode && mode.trim().equalsIgnoreCase(MODE_MANIFEST)) {
+            String outputDir = props.getProperty(VERIFY_OUTPUT_DIR);
+            int maxReported =
+                (int) getLongProperty(props, VERIFY_MAX_REPORTED,
+                                      ManifestVerifier.DEFAULT_MAX_REPORTED);
+            duplicationMonitor.setManifestVerifier(
+                new ManifestVerifier(maxReported,
+                                     null == outputDir ? null : new File(outputDir.trim())));
+        }
+    }
+
+    /*
+     * Read the hosts from the accounts rather than the properties, and share
+     * them with the other monitor nodes, when so configured.
+     */
+    private void setTargets(Properties props, Map<String, String> dupHosts) {
+        String targets = props.getProperty(TARGETS);
+        if (null != targets && targets.trim().equalsIgnoreCase(TARGETS_ACCOUNTS)) {
+            String domain = props.getProperty(DOMAIN, DEFAULT_DOMAIN).trim();
+            duplicationMonitor.setTargetReader(
+                new DuplicationTargetReader(getRepoMgr().getAccountRepo(), domain, dupHosts));
+        }
+
+        String node = props.getProperty(NODE);
+        if (null != node) {
+            node = node.trim();
+            List<String> nodes = new ArrayList<>();
+            for (String name : props.getProperty(NODES, node).split(",")) {
+                if (!name.trim().isEmpty()) {
+                    nodes.add(name.trim());
+                }
+            }
+            if (!nodes.contains(node)) {
+                throw new DuraCloudRuntimeException("Node " + node + " is not one of " +
+                                                    NODES + ": " + nodes);
+            }
+
+            long recheck = getLongProperty(props, RECHECK, DEFAULT_RECHECK_MINUTES);
+            long takeover = getLongProperty(props, TAKEOVER, DEFAULT_TAKEOVER_MINUTES);
+            duplicationMonitor.setLeases(
+                new DuplicationLeases(getRepo(DuplicationLeaseRepo.class),
+                                      node,
+                                      new ConsistentHashRing(nodes),
+                                      TimeUnit.MINUTES.toMillis(recheck),
+                                      TimeUnit.MINUTES.toMillis(takeover)));
+        }
+    }
+
+    /*
+     * Load the state of the hosts after the previous run, which is kept in
+     * the user's home directory unless another file is configured.
+     */
+    private DuplicationState getState(Properties props) {
+        String statePath = props.getProperty(STATE_FILE);
+        File stateFile = null == statePath ?
+                         new File(System.getProperty("user.home"), ".duplication-state") :
+                         new File(statePath.trim());
+
+        DuplicationState dupState = new DuplicationState(stateFile);
+        try {
+            dupState.load();
+        } catch (IOException e) {
+            log.warn("Unable to read duplication state from " +
+                     stateFile.getAbsolutePath() + ", hosts with issues will " +
+                     "be reported as new: " + e.getMessage());
+        }
+        return dupState;
+    }
+
+    /*
+     * Load the counts of previous runs. The baseline is kept in the user's
+     * home directory unless another file is configured.
+     */
+    private DuplicationBaseline getBaseline(Properties props) {
+        String baselinePath = props.getProperty(BASELINE_FILE);
+        File baselineFile = null == baselinePath ?
+                            new File(System.getProperty("user.home"), ".duplication-baseline") :
+                            new File(baselinePath.trim());
+        long fullRecountDays = getLongProperty(props, FULL_RECOUNT,
+                                               DEFAULT_FULL_RECOUNT_DAYS);
+
+        DuplicationBaseline baseline =
+            new DuplicationBaseline(baselineFile, TimeUnit.DAYS.toMillis(fullRecountDays));
+        try {
+            baseline.load();
+        } catch (IOException e) {
+            log.warn("Unable to read duplication baseline from " +
+                     baselineFile.getAbsolutePath() + ", all spaces will be " +
+                     "counted: " + e.getMessage());
+        }
+        return baseline;
     }
 
     @Override
@@ -48,10 +205,8 @@ public class DuplicationMonitorDriver extends MonitorsDriver implements Runnable
         DuplicationReport report;
         try {
             report = duplicationMonitor.monitorDuplication();
-            if (report.hasIssues()) {
-                sendEmail("DuraCloud Duplication Monitor discovered issues!",
-                          report.toString());
-            }
+            writeReport(report);
+            notifyTransitions(report);
         } catch (Exception e) {
             ByteArrayOutputStream out = new ByteArrayOutputStream();
             PrintStream error = new PrintStream(out);
@@ -68,4 +223,47 @@ public class DuplicationMonitorDriver extends MonitorsDriver implements Runnable
         }
     }
 
+    private void writeReport(DuplicationReport report) {
+        if (null != reportWriter) {
+            try {
+                reportWriter.write(report);
+            } catch (IOException e) {
+                log.error("Unable to write duplication report: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /*
+     * Send an email only when hosts start or stop having issues; hosts whose
+     * issues were already reported are not reported again on every run.
+     */
+    private void notifyTransitions(DuplicationReport report) {
+        DuplicationState.Transitions transitions = state.update(report);
+        try {
+            state.save();
+        } catch (IOException e) {
+            log.error("Unable to save duplication state: " + e.getMessage(), e);
+        }
+
+        if (!transitions.getNewIssues().isEmpty()) {
+            sendEmail("DuraCloud Duplication Monitor discovered issues!",
+                      transitions.toString() + "\n" + report.toString());
+        } else if (transitions.hasChanges()) {
+            sendEmail("DuraCloud Duplication Monitor issues resolved",
+                      transitions.toString() + "\n" + report.toString());
+        } else {
+            log.info("No change in the hosts with duplication issues, " +
+                     "no notification sent");
+        }
+    }
+
+    /**
+     * Closes the connections kept by the monitor between runs.
+     */
+    @Override
+    public void close() {
+        duplicationMonitor.close();
+        closeRepos();
+    }
+
 }
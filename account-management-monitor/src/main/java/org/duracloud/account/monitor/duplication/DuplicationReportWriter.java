@@ -0,0 +1,242 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.duplication;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.duracloud.account.monitor.duplication.domain.DuplicationInfo;
+import org.duracloud.account.monitor.duplication.domain.DuplicationReport;
+
+/**
+ * This class writes a duplication report in machine readable forms, so that
+ * the results of the duplication monitor can be graphed and alerted on:
+ *   duplication-report.json - the full report
+ *   duplication.prom - metrics in the Prometheus text format, to be read by
+ *       the textfile collector of the node exporter
+ * Each run replaces the files of the previous run. A file is replaced only
+ * once it has been written in full, so a reader never sees a partial file.
+ */
+public class DuplicationReportWriter {
+
+    public static final String JSON_FILE = "duplication-report.json";
+    public static final String METRICS_FILE = "duplication.prom";
+
+    private static final String METRIC_PREFIX = "duracloud_duplication_";
+
+    private File outputDir;
+    private ObjectMapper mapper;
+
+    public DuplicationReportWriter(File outputDir) {
+        this.outputDir = outputDir;
+        this.mapper = new ObjectMapper();
+        this.mapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        this.mapper.configure(SerializationFeature.INDENT_OUTPUT, true);
+    }
+
+    /**
+     * Writes the report and its metrics to the output directory.
+     *
+     * @throws IOException if the files cannot be written
+     */
+    public void write(DuplicationReport report) throws IOException {
+        if (!outputDir.exists() && !outputDir.mkdirs()) {
+            throw new IOException("Unable to create report directory " +
+                                  outputDir.getAbsolutePath());
+        }
+
+        writeFile(JSON_FILE, out -> mapper.writeValue(out, toJson(report)));
+        writeFile(METRICS_FILE, out -> {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            writeMetrics(report, writer);
+            writer.flush();
+        });
+    }
+
+    private Map<String, Object> toJson(DuplicationReport report) {
+        List<Map<String, Object>> hosts = new ArrayList<>();
+        for (DuplicationInfo info : report.getDupInfos().values()) {
+            Map<String, Object> stores = new TreeMap<>();
+            for (String storeId : info.getStoreIds()) {
+                stores.put(storeId, new TreeMap<>(info.getSpaceCounts(storeId)));
+            }
+
+            Map<String, Object> host = new LinkedHashMap<>();
+            host.put("host", info.getHost());
+            host.put("status", info.hasIssues() ? "ISSUES" : "OK");
+            host.put("checkMillis", info.getCheckMillis());
+            host.put("primaryStoreId", info.getPrimaryStoreId());
+            host.put("unchangedSpaces", info.getUnchangedSpaces());
+            host.put("issues", info.getIssues());
+            host.put("changes", info.getChanges());
+            host.put("spaceCounts", stores);
+            hosts.add(host);
+        }
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("timestamp", report.getTimestamp());
+        json.put("hasIssues", report.hasIssues());
+        json.put("hosts", hosts);
+        return json;
+    }
+
+    /*
+     * Write the metrics, grouped by metric as the text format requires.
+     */
+    private void writeMetrics(DuplicationReport report, Writer writer) throws IOException {
+        Metrics metrics = new Metrics(writer);
+
+        metrics.start("last_run_timestamp_seconds", "Time at which the last run started");
+        metrics.add(null, report.getTimestamp().getTime() / 1000.0);
+
+        metrics.start("hosts", "Number of hosts checked");
+        metrics.add(null, report.getDupInfos().size());
+
+        metrics.start("host_ok", "1 if no issues were found on the host, otherwise 0");
+        for (DuplicationInfo info : report.getDupInfos().values()) {
+            metrics.add(labels("host", info.getHost()), info.hasIssues() ? 0 : 1);
+        }
+
+        metrics.start("host_issues", "Number of issues found on the host");
+        for (DuplicationInfo info : report.getDupInfos().values()) {
+            metrics.add(labels("host", info.getHost()), info.getIssues().size());
+        }
+
+        metrics.start("host_check_seconds", "Time taken to check the host");
+        for (DuplicationInfo info : report.getDupInfos().values()) {
+            metrics.add(labels("host", info.getHost()), info.getCheckMillis() / 1000.0);
+        }
+
+        metrics.start("host_unchanged_spaces",
+                      "Number of spaces not counted as they are unchanged since the baseline");
+        for (DuplicationInfo info : report.getDupInfos().values()) {
+            metrics.add(labels("host", info.getHost()), info.getUnchangedSpaces());
+        }
+
+        metrics.start("space_items", "Number of content items in the space");
+        for (DuplicationInfo info : report.getDupInfos().values()) {
+            for (String storeId : new TreeSet<>(info.getStoreIds())) {
+                Map<String, Long> counts = new TreeMap<>(info.getSpaceCounts(storeId));
+                for (Map.Entry<String, Long> count : counts.entrySet()) {
+                    metrics.add(labels("host", info.getHost(),
+                                       "store", storeId,
+                                       "space", count.getKey(),
+                                       "role", storeId.equals(info.getPrimaryStoreId()) ?
+                                               "primary" : "secondary"),
+                                count.getValue());
+                }
+            }
+        }
+
+        metrics.start("space_item_delta",
+                      "Content items of the space in the primary store less those in " +
+                      "the secondary store");
+        for (DuplicationInfo info : report.getDupInfos().values()) {
+            String primaryStoreId = info.getPrimaryStoreId();
+            if (null == primaryStoreId) {
+                continue;
+            }
+            Map<String, Long> primaryCounts = new TreeMap<>(info.getSpaceCounts(primaryStoreId));
+            for (String storeId : new TreeSet<>(info.getStoreIds())) {
+                if (storeId.equals(primaryStoreId)) {
+                    continue;
+                }
+                Map<String, Long> counts = info.getSpaceCounts(storeId);
+                for (Map.Entry<String, Long> primaryCount : primaryCounts.entrySet()) {
+                    Long count = counts.get(primaryCount.getKey());
+                    if (null != count) {
+                        metrics.add(labels("host", info.getHost(),
+                                           "store", storeId,
+                                           "space", primaryCount.getKey()),
+                                    primaryCount.getValue() - count);
+                    }
+                }
+            }
+        }
+    }
+
+    private String labels(String... namesAndValues) {
+        StringBuilder labels = new StringBuilder("{");
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            if (i > 0) {
+                labels.append(",");
+            }
+            labels.append(namesAndValues[i]).append("=\"")
+                  .append(escape(namesAndValues[i + 1])).append("\"");
+        }
+        return labels.append("}").toString();
+    }
+
+    private String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private void writeFile(String name, FileContent content) throws IOException {
+        File file = new File(outputDir, name);
+        File temp = File.createTempFile(name, ".tmp", outputDir);
+        try {
+            try (OutputStream out = Files.newOutputStream(temp.toPath())) {
+                content.write(out);
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp.toPath());
+        }
+    }
+
+    private interface FileContent {
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Writes gauges in the Prometheus text format
+     */
+    private static class Metrics {
+        private Writer writer;
+        private String name;
+
+        public Metrics(Writer writer) {
+            this.writer = writer;
+        }
+
+        public void start(String metric, String help) throws IOException {
+            name = METRIC_PREFIX + metric;
+            writer.write("# HELP " + name + " " + help + "\n");
+            writer.write("# TYPE " + name + " gauge\n");
+        }
+
+        public void add(String labels, double value) throws IOException {
+            writer.write(name);
+            if (null != labels) {
+                writer.write(labels);
+            }
+            writer.write(" ");
+            if (value == Math.rint(value) && !Double.isInfinite(value)) {
+                writer.write(String.valueOf((long) value));
+            } else {
+                writer.write(String.valueOf(value));
+            }
+            writer.write("\n");
+        }
+    }
+
+}
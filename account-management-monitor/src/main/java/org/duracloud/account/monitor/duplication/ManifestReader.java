@@ -0,0 +1,90 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.duplication;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import org.duracloud.account.monitor.error.UnsortedManifestException;
+
+/**
+ * Reads the entries of a space manifest in TSV format (space-id, content-id,
+ * MD5) one at a time, so that a manifest of any size can be read without
+ * holding it in memory. Entries must be in content ID order.
+ */
+public class ManifestReader implements Closeable {
+
+    private static final String HEADER = "space-id";
+
+    private BufferedReader reader;
+    private String previousId;
+    private long lineNumber;
+
+    public ManifestReader(InputStream manifest) {
+        this.reader = new BufferedReader(new InputStreamReader(manifest, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the next entry of the manifest, or null at its end
+     * @throws IOException                if the manifest cannot be read
+     * @throws UnsortedManifestException if an entry is out of order
+     */
+    public ManifestEntry next() throws IOException, UnsortedManifestException {
+        String line;
+        while (null != (line = reader.readLine())) {
+            lineNumber++;
+            if (line.isEmpty() || (lineNumber == 1 && line.startsWith(HEADER))) {
+                continue;
+            }
+
+            String[] fields = line.split("\t");
+            if (fields.length < 3) {
+                throw new IOException("Line " + lineNumber + " of manifest is " +
+                                      "not valid: " + line);
+            }
+            String contentId = fields[1];
+            if (null != previousId && contentId.compareTo(previousId) <= 0) {
+                throw new UnsortedManifestException(previousId, contentId);
+            }
+            previousId = contentId;
+            return new ManifestEntry(contentId, fields[2]);
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * A content item listed in a manifest
+     */
+    public static class ManifestEntry {
+        private String contentId;
+        private String checksum;
+
+        public ManifestEntry(String contentId, String checksum) {
+            this.contentId = contentId;
+            this.checksum = checksum;
+        }
+
+        public String getContentId() {
+            return contentId;
+        }
+
+        public String getChecksum() {
+            return checksum;
+        }
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.duplication;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.duracloud.account.monitor.duplication.ManifestReader.ManifestEntry;
+import org.duracloud.account.monitor.duplication.domain.ManifestVerification;
+import org.duracloud.account.monitor.error.UnsortedManifestException;
+
+/**
+ * Compares the manifests of a space in two storage providers with a
+ * merge-join: both manifests are read in content ID order, one entry at a
+ * time, so memory use does not depend on the number of items in the space.
+ * Every difference can be written out as it is found, to a TSV file per space
+ * and secondary store, while only the first differences are kept for the
+ * report.
+ */
+public class ManifestVerifier {
+
+    public static final int DEFAULT_MAX_REPORTED = 100;
+
+    private static final String MISSING = "MISSING";
+    private static final String DIVERGENT = "DIVERGENT";
+    private static final String UNEXPECTED = "UNEXPECTED";
+
+    private int maxReported;
+    private File outputDir;
+
+    /**
+     * @param maxReported number of differences per space included in the
+     *                    report
+     * @param outputDir   directory to which all differences are written, or
+     *                    null to only report them
+     */
+    public ManifestVerifier(int maxReported, File outputDir) {
+        this.maxReported = maxReported;
+        this.outputDir = outputDir;
+    }
+
+    /**
+     * Compares two manifests of the same space.
+     *
+     * @param spaceId     space of the manifests
+     * @param storeId     ID of the secondary store
+     * @param primary     manifest of the primary store
+     * @param secondary   manifest of the secondary store
+     * @param differences to which each difference is written, may be null
+     * @return the outcome of the comparison
+     */
+    public ManifestVerification verify(String spaceId,
+                                       String storeId,
+                                       ManifestReader primary,
+                                       ManifestReader secondary,
+                                       Writer differences)
+        throws IOException, UnsortedManifestException {
+        ManifestVerification verification =
+            new ManifestVerification(spaceId, storeId, maxReported);
+
+        ManifestEntry primaryEntry = primary.next();
+        ManifestEntry secondaryEntry = secondary.next();
+        while (null != primaryEntry || null != secondaryEntry) {
+            int compare;
+            if (null == primaryEntry) {
+                compare = 1;
+            } else if (null == secondaryEntry) {
+                compare = -1;
+            } else {
+                compare = primaryEntry.getContentId().compareTo(secondaryEntry.getContentId());
+            }
+
+            if (compare == 0) {
+                verification.addPrimaryItem();
+                verification.addSecondaryItem();
+                if (!primaryEntry.getChecksum().equals(secondaryEntry.getChecksum())) {
+                    verification.addDivergent(primaryEntry.getContentId(),
+                                              primaryEntry.getChecksum(),
+                                              secondaryEntry.getChecksum());
+                    write(differences, DIVERGENT, spaceId, primaryEntry.getContentId(),
+                          primaryEntry.getChecksum(), secondaryEntry.getChecksum());
+                }
+                primaryEntry = primary.next();
+                secondaryEntry = secondary.next();
+            } else if (compare < 0) {
+                verification.addPrimaryItem();
+                verification.addMissing(primaryEntry.getContentId());
+                write(differences, MISSING, spaceId, primaryEntry.getContentId(),
+                      primaryEntry.getChecksum(), "");
+                primaryEntry = primary.next();
+            } else {
+                verification.addSecondaryItem();
+                verification.addUnexpected(secondaryEntry.getContentId());
+                write(differences, UNEXPECTED, spaceId, secondaryEntry.getContentId(),
+                      "", secondaryEntry.getChecksum());
+                secondaryEntry = secondary.next();
+            }
+        }
+        return verification;
+    }
+
+    /**
+     * Opens the file to which the differences of a space are written.
+     *
+     * @return the writer, or null if differences are not written out
+     */
+    public Writer openDifferences(String host, String spaceId, String storeId)
+        throws IOException {
+        if (null == outputDir) {
+            return null;
+        }
+
+        String name = (host + "_" + spaceId + "_" + storeId).replaceAll("[^\\w.-]", "_");
+        File file = new File(outputDir, name + ".tsv");
+        Writer writer = new BufferedWriter(
+            new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+        writer.write("difference\tspace-id\tcontent-id\tprimary-md5\tsecondary-md5\n");
+        return writer;
+    }
+
+    private void write(Writer differences,
+                       String difference,
+                       String spaceId,
+                       String contentId,
+                       String primaryChecksum,
+                       String secondaryChecksum) throws IOException {
+        if (null != differences) {
+            differences.write(difference + "\t" + spaceId + "\t" + contentId + "\t" +
+                              primaryChecksum + "\t" + secondaryChecksum + "\n");
+        }
+    }
+
+}
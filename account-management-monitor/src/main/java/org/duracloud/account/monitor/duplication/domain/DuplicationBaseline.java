@@ -0,0 +1,176 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.duplication.domain;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class holds the space counts found by previous runs of the
+ * duplication monitor, so that spaces which have not changed since they were
+ * last counted do not need to be counted again. The baseline is kept in a
+ * properties file between runs. Every host is fully recounted once the full
+ * recount interval has passed since its last full recount.
+ */
+public class DuplicationBaseline {
+
+    private static final String SPACE_PREFIX = "space.";
+    private static final String RECOUNT_PREFIX = "recount.";
+    private static final String SEPARATOR = "/";
+
+    private File file;
+    private long fullRecountMillis;
+    private Map<String, SpaceBaseline> spaces;
+    private Map<String, Long> recounts;
+
+    /**
+     * @param file              where the baseline is kept between runs
+     * @param fullRecountMillis time after which all spaces of a host are
+     *                          counted again, changed or not
+     */
+    public DuplicationBaseline(File file, long fullRecountMillis) {
+        this.file = file;
+        this.fullRecountMillis = fullRecountMillis;
+        this.spaces = new ConcurrentHashMap<>();
+        this.recounts = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Reads the baseline from its file, if the file exists. Entries which
+     * cannot be read are ignored, so the spaces they describe are recounted.
+     *
+     * @throws IOException if the file cannot be read
+     */
+    public void load() throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+
+        Properties props = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            props.load(in);
+        }
+
+        for (String key : props.stringPropertyNames()) {
+            String value = props.getProperty(key);
+            try {
+                if (key.startsWith(SPACE_PREFIX)) {
+                    String[] values = value.split(",");
+                    spaces.put(key.substring(SPACE_PREFIX.length()),
+                               new SpaceBaseline(Long.parseLong(values[0]),
+                                                 Long.parseLong(values[1]),
+                                                 Long.parseLong(values[2])));
+                } else if (key.startsWith(RECOUNT_PREFIX)) {
+                    recounts.put(key.substring(RECOUNT_PREFIX.length()),
+                                 Long.parseLong(value));
+                }
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                // Ignore the entry
+            }
+        }
+    }
+
+    /**
+     * Writes the baseline to its file. The file is replaced only once the new
+     * baseline has been written in full.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void save() throws IOException {
+        Properties props = new Properties();
+        for (Map.Entry<String, SpaceBaseline> space : spaces.entrySet()) {
+            SpaceBaseline value = space.getValue();
+            props.setProperty(SPACE_PREFIX + space.getKey(),
+                              value.getCount() + "," + value.getByteCount() +
+                              "," + value.getTimestamp());
+        }
+        for (Map.Entry<String, Long> recount : recounts.entrySet()) {
+            props.setProperty(RECOUNT_PREFIX + recount.getKey(),
+                              String.valueOf(recount.getValue()));
+        }
+
+        File parent = file.getAbsoluteFile().getParentFile();
+        File temp = File.createTempFile(file.getName(), ".tmp", parent);
+        try (OutputStream out = new FileOutputStream(temp)) {
+            props.store(out, "DuraCloud duplication monitor baseline");
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * @return the last count of a space, or null if it has not been counted
+     */
+    public SpaceBaseline getSpace(String host, String storeId, String spaceId) {
+        return spaces.get(getKey(host, storeId, spaceId));
+    }
+
+    public void setSpace(String host,
+                         String storeId,
+                         String spaceId,
+                         long count,
+                         long byteCount,
+                         long timestamp) {
+        spaces.put(getKey(host, storeId, spaceId),
+                   new SpaceBaseline(count, byteCount, timestamp));
+    }
+
+    /**
+     * @return true if all spaces of the host should be counted, because the
+     * host has never been fully counted or its last full count is older than
+     * the full recount interval
+     */
+    public boolean isFullRecountDue(String host, long now) {
+        Long recount = recounts.get(host);
+        return null == recount || now - recount >= fullRecountMillis;
+    }
+
+    public void setFullRecount(String host, long timestamp) {
+        recounts.put(host, timestamp);
+    }
+
+    private String getKey(String host, String storeId, String spaceId) {
+        return host + SEPARATOR + storeId + SEPARATOR + spaceId;
+    }
+
+    /**
+     * The stats of a space when it was last counted
+     */
+    public static class SpaceBaseline {
+        private long count;
+        private long byteCount;
+        private long timestamp;
+
+        public SpaceBaseline(long count, long byteCount, long timestamp) {
+            this.count = count;
+            this.byteCount = byteCount;
+            this.timestamp = timestamp;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getByteCount() {
+            return byteCount;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+    }
+
+}
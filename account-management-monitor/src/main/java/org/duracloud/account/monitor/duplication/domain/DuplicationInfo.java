@@ -7,15 +7,17 @@
  */
 package org.duracloud.account.monitor.duplication.domain;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This class holds details about the duplication status of the spaces in a
- * DuraCloud instance
+ * DuraCloud instance. Counts and issues may be added from several threads
+ * while a host is checked, so all state is held in concurrent collections.
  *
  * @author Bill Branan
  * Date: 4/16/13
@@ -23,13 +25,19 @@ import java.util.Set;
 public class DuplicationInfo {
 
     private String host;
+    private volatile String primaryStoreId;
+    private volatile long checkMillis;
     private Map<String, Store> stores;
     private List<String> issues;
+    private List<String> changes;
+    private AtomicInteger unchangedSpaces;
 
     public DuplicationInfo(String host) {
         this.host = host;
-        this.stores = new HashMap<>();
-        this.issues = new ArrayList<>();
+        this.stores = new ConcurrentHashMap<>();
+        this.issues = new CopyOnWriteArrayList<>();
+        this.changes = new CopyOnWriteArrayList<>();
+        this.unchangedSpaces = new AtomicInteger();
     }
 
     public void addIssue(String issue) {
@@ -44,28 +52,71 @@ public class DuplicationInfo {
         return issues.size() > 0;
     }
 
+    /**
+     * Records a change in the count of a space since the baseline
+     *
+     * @param change description of the change
+     */
+    public void addChange(String change) {
+        changes.add(change);
+    }
+
+    public List<String> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Records that a space was not counted, as it has not changed since the
+     * baseline
+     */
+    public void addUnchangedSpace() {
+        unchangedSpaces.incrementAndGet();
+    }
+
+    public int getUnchangedSpaces() {
+        return unchangedSpaces.get();
+    }
+
     public void addSpaceCount(String storeId, String spaceId, long count) {
-        checkStore(storeId);
-        stores.get(storeId).addSpace(spaceId, count);
+        checkStore(storeId).addSpace(spaceId, count);
     }
 
-    private void checkStore(String storeId) {
-        if (!stores.containsKey(storeId)) {
-            stores.put(storeId, new Store(storeId));
-        }
+    private Store checkStore(String storeId) {
+        return stores.computeIfAbsent(storeId, Store::new);
     }
 
     public String getHost() {
         return host;
     }
 
+    /**
+     * @return the ID of the primary store, or null if it is not known
+     */
+    public String getPrimaryStoreId() {
+        return primaryStoreId;
+    }
+
+    public void setPrimaryStoreId(String primaryStoreId) {
+        this.primaryStoreId = primaryStoreId;
+    }
+
+    /**
+     * @return time taken to check the host
+     */
+    public long getCheckMillis() {
+        return checkMillis;
+    }
+
+    public void setCheckMillis(long checkMillis) {
+        this.checkMillis = checkMillis;
+    }
+
     public Set<String> getStoreIds() {
         return stores.keySet();
     }
 
     public Map<String, Long> getSpaceCounts(String storeId) {
-        checkStore(storeId);
-        return stores.get(storeId).getSpaceCounts();
+        return checkStore(storeId).getSpaceCounts();
     }
 
     @Override
@@ -95,7 +146,7 @@ public class DuplicationInfo {
 
         public Store(String storeId) {
             this.storeId = storeId;
-            spaceCounts = new HashMap<>();
+            spaceCounts = new ConcurrentHashMap<>();
         }
 
         public String getStoreId() {
@@ -7,14 +7,16 @@
  */
 package org.duracloud.account.monitor.duplication.domain;
 
-import java.util.HashMap;
+import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 /**
  * This class contains a report detailing space duplication status for a
- * set of DuraCloud accounts.
+ * set of DuraCloud accounts. Hosts are checked concurrently and may add
+ * their details at the same time; details are kept in host order.
  *
  * @author Bill Branan
  * Date: 4/16/13
@@ -22,9 +24,18 @@ import java.util.Map;
 public class DuplicationReport {
 
     private Map<String, DuplicationInfo> dupInfos;
+    private Date timestamp;
 
     public DuplicationReport() {
-        this.dupInfos = new HashMap<>();
+        this.dupInfos = new ConcurrentSkipListMap<>();
+        this.timestamp = new Date();
+    }
+
+    /**
+     * @return when the checks of this report started
+     */
+    public Date getTimestamp() {
+        return timestamp;
     }
 
     /**
@@ -86,6 +97,22 @@ public class DuplicationReport {
         for (DuplicationInfo dupInfo : getDupIssues()) {
             sb.append(dupInfo.toString()).append("\n");
         }
+
+        boolean changesHeader = false;
+        for (DuplicationInfo dupInfo : dupInfos.values()) {
+            if (dupInfo.getChanges().isEmpty()) {
+                continue;
+            }
+            if (!changesHeader) {
+                sb.append("-------------------\n");
+                sb.append("Changes since the baseline:\n");
+                sb.append("-------------------\n");
+                changesHeader = true;
+            }
+            for (String change : dupInfo.getChanges()) {
+                sb.append(dupInfo.getHost()).append(": ").append(change).append("\n");
+            }
+        }
         return sb.toString();
     }
 
@@ -0,0 +1,140 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.duplication.domain;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * This class holds whether each host had issues in the previous run of the
+ * duplication monitor, so that a notification is sent only when a host starts
+ * or stops having issues, rather than for every run. The state is kept in a
+ * properties file between runs. Hosts which are not in a report, such as
+ * those checked by another monitor node, keep their state.
+ */
+public class DuplicationState {
+
+    private static final String OK = "OK";
+    private static final String ISSUES = "ISSUES";
+
+    private File file;
+    private Properties states;
+
+    public DuplicationState(File file) {
+        this.file = file;
+        this.states = new Properties();
+    }
+
+    /**
+     * Reads the state from its file, if the file exists.
+     *
+     * @throws IOException if the file cannot be read
+     */
+    public void load() throws IOException {
+        if (file.exists()) {
+            try (InputStream in = new FileInputStream(file)) {
+                states.load(in);
+            }
+        }
+    }
+
+    /**
+     * Writes the state to its file. The file is replaced only once the new
+     * state has been written in full.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void save() throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        File temp = File.createTempFile(file.getName(), ".tmp", parent);
+        try (OutputStream out = new FileOutputStream(temp)) {
+            states.store(out, "DuraCloud duplication monitor state");
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Records the state of the hosts in a report.
+     *
+     * @return the hosts which started or stopped having issues since the
+     * previous report; hosts not seen before are counted as having had no
+     * issues
+     */
+    public Transitions update(DuplicationReport report) {
+        Transitions transitions = new Transitions();
+        for (DuplicationInfo info : report.getDupInfos().values()) {
+            String host = info.getHost();
+            boolean hadIssues = ISSUES.equals(states.getProperty(host));
+            if (info.hasIssues() && !hadIssues) {
+                transitions.newIssues.add(info);
+            } else if (!info.hasIssues() && hadIssues) {
+                transitions.resolved.add(host);
+            }
+            states.setProperty(host, info.hasIssues() ? ISSUES : OK);
+        }
+        return transitions;
+    }
+
+    /**
+     * The hosts whose state changed with a report
+     */
+    public static class Transitions {
+        private List<DuplicationInfo> newIssues = new ArrayList<>();
+        private List<String> resolved = new ArrayList<>();
+
+        /**
+         * @return details of the hosts which started having issues
+         */
+        public List<DuplicationInfo> getNewIssues() {
+            return newIssues;
+        }
+
+        /**
+         * @return the hosts which no longer have issues
+         */
+        public List<String> getResolved() {
+            return resolved;
+        }
+
+        public boolean hasChanges() {
+            return !newIssues.isEmpty() || !resolved.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            if (!newIssues.isEmpty()) {
+                sb.append("-------------------\n");
+                sb.append("New Duplication Issues:\n");
+                sb.append("-------------------\n");
+                for (DuplicationInfo info : newIssues) {
+                    sb.append(info.toString()).append("\n");
+                }
+            }
+            if (!resolved.isEmpty()) {
+                sb.append("-------------------\n");
+                sb.append("Resolved Duplication Issues:\n");
+                sb.append("-------------------\n");
+                for (String host : resolved) {
+                    sb.append("https://").append(host).append(" status: OK\n");
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+}
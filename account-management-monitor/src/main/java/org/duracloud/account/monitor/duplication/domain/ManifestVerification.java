@@ -0,0 +1,131 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.duplication.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class holds the outcome of comparing the manifests of a space in the
+ * primary and a secondary storage provider. Every difference is counted, but
+ * only the first of them are kept, so that the size of the outcome does not
+ * depend on the size of the space.
+ */
+public class ManifestVerification {
+
+    private String spaceId;
+    private String storeId;
+    private int maxDifferences;
+    private long primaryItems;
+    private long secondaryItems;
+    private long missing;
+    private long divergent;
+    private long unexpected;
+    private List<String> differences;
+
+    /**
+     * @param spaceId        space which was compared
+     * @param storeId        ID of the secondary store
+     * @param maxDifferences number of differences kept for the report
+     */
+    public ManifestVerification(String spaceId, String storeId, int maxDifferences) {
+        this.spaceId = spaceId;
+        this.storeId = storeId;
+        this.maxDifferences = maxDifferences;
+        this.differences = new ArrayList<>();
+    }
+
+    public void addPrimaryItem() {
+        primaryItems++;
+    }
+
+    public void addSecondaryItem() {
+        secondaryItems++;
+    }
+
+    public void addMissing(String contentId) {
+        missing++;
+        addDifference("missing: " + contentId);
+    }
+
+    public void addDivergent(String contentId, String primaryChecksum, String secondaryChecksum) {
+        divergent++;
+        addDifference("checksum differs: " + contentId + " (primary " +
+                      primaryChecksum + ", secondary " + secondaryChecksum + ")");
+    }
+
+    public void addUnexpected(String contentId) {
+        unexpected++;
+        addDifference("not in primary: " + contentId);
+    }
+
+    private void addDifference(String difference) {
+        if (differences.size() < maxDifferences) {
+            differences.add(difference);
+        }
+    }
+
+    public String getSpaceId() {
+        return spaceId;
+    }
+
+    public String getStoreId() {
+        return storeId;
+    }
+
+    public long getPrimaryItems() {
+        return primaryItems;
+    }
+
+    public long getSecondaryItems() {
+        return secondaryItems;
+    }
+
+    public long getMissing() {
+        return missing;
+    }
+
+    public long getDivergent() {
+        return divergent;
+    }
+
+    public long getUnexpected() {
+        return unexpected;
+    }
+
+    /**
+     * @return the first differences found, in content ID order
+     */
+    public List<String> getDifferences() {
+        return differences;
+    }
+
+    public boolean hasDifferences() {
+        return missing + divergent + unexpected > 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("The manifests of space ").append(spaceId);
+        sb.append(" differ between primary and secondary (ID=").append(storeId);
+        sb.append(") providers. Missing from secondary: ").append(missing);
+        sb.append(", checksums differ: ").append(divergent);
+        sb.append(", not in primary: ").append(unexpected).append(".");
+
+        long total = missing + divergent + unexpected;
+        for (String difference : differences) {
+            sb.append("\n  ").append(difference);
+        }
+        if (total > differences.size()) {
+            sb.append("\n  ... and ").append(total - differences.size()).append(" more");
+        }
+        return sb.toString();
+    }
+
+}
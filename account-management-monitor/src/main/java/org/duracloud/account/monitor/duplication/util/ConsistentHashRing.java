@@ -0,0 +1,80 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.duplication.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.duracloud.common.error.DuraCloudRuntimeException;
+
+/**
+ * This class assigns keys to nodes by consistent hashing. Each node is
+ * placed on a ring at a number of points, and a key belongs to the node at
+ * the first point on the ring at or after the hash of the key. Every node
+ * given the same list of nodes makes the same assignment, and adding or
+ * removing a node only moves the keys of the points it gains or loses.
+ */
+public class ConsistentHashRing {
+
+    public static final int DEFAULT_VIRTUAL_NODES = 100;
+
+    private NavigableMap<Long, String> ring = new TreeMap<>();
+
+    public ConsistentHashRing(Collection<String> nodes) {
+        this(nodes, DEFAULT_VIRTUAL_NODES);
+    }
+
+    /**
+     * @param nodes        names of the nodes sharing the keys
+     * @param virtualNodes number of points of each node on the ring; more
+     *                     points spread the keys more evenly
+     */
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("At least one node is required");
+        }
+        for (String node : nodes) {
+            for (int i = 0; i < Math.max(1, virtualNodes); i++) {
+                ring.put(hash(node + "#" + i), node);
+            }
+        }
+    }
+
+    /**
+     * @return the node to which the key belongs
+     */
+    public String getNode(String key) {
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash(key));
+        if (null == entry) {
+            entry = ring.firstEntry();
+        }
+        return entry.getValue();
+    }
+
+    private long hash(String key) {
+        byte[] digest;
+        try {
+            MessageDigest md5 = MessageDigest.getInstance("MD5");
+            digest = md5.digest(key.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new DuraCloudRuntimeException(e);
+        }
+
+        long hash = 0;
+        for (int i = 0; i < 8; i++) {
+            hash = (hash << 8) | (digest[i] & 0xff);
+        }
+        return hash;
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.duplication.util;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.duracloud.account.db.model.AccountInfo;
+import org.duracloud.account.db.model.StorageProviderAccount;
+import org.duracloud.account.db.repo.DuracloudAccountRepo;
+import org.duracloud.account.monitor.duplication.DuplicationMonitor;
+
+/**
+ * This class reads the hosts to be checked by the duplication monitor from
+ * the accounts of the Management Console: every active account which has at
+ * least one secondary storage provider is checked.
+ */
+public class DuplicationTargetReader {
+
+    private DuracloudAccountRepo accountRepo;
+    private String domain;
+    private Map<String, String> spaces;
+
+    /**
+     * @param accountRepo holds the accounts
+     * @param domain      domain of the account hosts, which are named by the
+     *                    subdomain of the account
+     * @param spaces      spaces to compare for hosts which should not have
+     *                    all of their spaces compared, as read by the
+     *                    DuplicationPropReader
+     */
+    public DuplicationTargetReader(DuracloudAccountRepo accountRepo,
+                                   String domain,
+                                   Map<String, String> spaces) {
+        this.accountRepo = accountRepo;
+        this.domain = domain;
+        this.spaces = spaces;
+    }
+
+    /**
+     * @return hosts to check, mapped to the spaces to compare
+     */
+    public Map<String, String> readTargets() {
+        Map<String, String> targets = new TreeMap<>();
+        for (AccountInfo account : accountRepo.findByStatus(AccountInfo.AccountStatus.ACTIVE)) {
+            Set<StorageProviderAccount> secondaries =
+                account.getSecondaryStorageProviderAccounts();
+            if (null != secondaries && !secondaries.isEmpty()) {
+                String host = account.getSubdomain() + "." + domain;
+                targets.put(host, spaces.getOrDefault(host, DuplicationMonitor.ALL_SPACES));
+            }
+        }
+        return targets;
+    }
+
+}
@@ -0,0 +1,22 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.error;
+
+import org.duracloud.common.error.DuraCloudCheckedException;
+
+/**
+ * Thrown when a manifest is not in content ID order, which is required to
+ * compare manifests without holding them in memory.
+ */
+public class UnsortedManifestException extends DuraCloudCheckedException {
+
+    public UnsortedManifestException(String previousId, String contentId) {
+        super("manifest is not sorted by content ID: '" + contentId +
+              "' follows '" + previousId + "'");
+    }
+}
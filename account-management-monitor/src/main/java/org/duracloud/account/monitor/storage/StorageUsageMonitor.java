@@ -0,0 +1,218 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.storage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.duracloud.account.db.model.AccountInfo;
+import org.duracloud.account.db.model.StorageProviderAccount;
+import org.duracloud.account.db.repo.DuracloudAccountRepo;
+import org.duracloud.account.monitor.common.BaseMonitor;
+import org.duracloud.account.monitor.storage.domain.StorageUsageHistory;
+import org.duracloud.account.monitor.storage.domain.StorageUsageReport;
+import org.duracloud.account.monitor.storage.domain.StoreUsage;
+import org.duracloud.client.ContentStore;
+import org.duracloud.client.ContentStoreManager;
+import org.duracloud.client.SpaceStatsDTOList;
+import org.duracloud.error.ContentStoreException;
+import org.duracloud.reportdata.storage.SpaceStatsDTO;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class compares the storage used by each active account with the
+ * storage limits set for its primary and secondary storage providers. The
+ * usage of a store is the sum of the bytes in its spaces, as given by the
+ * storage stats of the store; the stores of all accounts are read in
+ * parallel, a bounded number at a time.
+ */
+public class StorageUsageMonitor extends BaseMonitor {
+
+    public static final int DEFAULT_THREADS = 8;
+    public static final int DEFAULT_WARN_PERCENT = 90;
+    public static final int DEFAULT_WARN_DAYS = 30;
+
+    private static final String PORT = "443";
+    private static final String CONTEXT = "durastore";
+
+    private DuracloudAccountRepo accountRepo;
+    private String domain;
+    private int threads;
+    private int warnPercent;
+    private int warnDays;
+    private StorageUsageHistory history;
+
+    /**
+     * @param accountRepo holds the accounts
+     * @param domain      domain of the account hosts, which are named by the
+     *                    subdomain of the account
+     * @param threads     number of stores read at the same time
+     * @param warnPercent percentage of its limit at which a store is reported
+     * @param warnDays    a store is also reported when its growth would reach
+     *                    the limit within this number of days
+     */
+    public StorageUsageMonitor(DuracloudAccountRepo accountRepo,
+                               String domain,
+                               int threads,
+                               int warnPercent,
+                               int warnDays) {
+        this.log = LoggerFactory.getLogger(StorageUsageMonitor.class);
+        this.accountRepo = accountRepo;
+        this.domain = domain;
+        this.threads = Math.max(1, threads);
+        this.warnPercent = warnPercent;
+        this.warnDays = warnDays;
+    }
+
+    /**
+     * Sets the history of the storage used by each store, to which each run
+     * adds. Without a history, stores are reported on their usage alone.
+     */
+    public void setHistory(StorageUsageHistory history) {
+        this.history = history;
+    }
+
+    /**
+     * @return the storage used by every store of the active accounts
+     */
+    public StorageUsageReport monitorUsage() {
+        List<StoreUsage> usages = new ArrayList<>();
+        for (AccountInfo account : accountRepo.findByStatus(AccountInfo.AccountStatus.ACTIVE)) {
+            String host = account.getSubdomain() + "." + domain;
+            StorageProviderAccount primary = account.getPrimaryStorageProviderAccount();
+            if (null != primary) {
+                usages.add(createUsage(host, primary, true));
+            }
+            if (null != account.getSecondaryStorageProviderAccounts()) {
+                for (StorageProviderAccount secondary :
+                    account.getSecondaryStorageProviderAccounts()) {
+                    usages.add(createUsage(host, secondary, false));
+                }
+            }
+        }
+
+        log.info("starting storage usage monitor for {} stores on {} threads",
+                 usages.size(), threads);
+        ExecutorService executor =
+            Executors.newFixedThreadPool(threads, daemonThreads("storage-usage-monitor-"));
+        try {
+            List<CompletableFuture<Void>> reads = new ArrayList<>();
+            for (StoreUsage usage : usages) {
+                reads.add(CompletableFuture.runAsync(() -> readUsage(usage), executor));
+            }
+            CompletableFuture.allOf(reads.toArray(new CompletableFuture[reads.size()])).join();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        StorageUsageReport report = new StorageUsageReport();
+        long now = report.getTimestamp().getTime();
+        for (StoreUsage usage : usages) {
+            if (null != history && null == usage.getError()) {
+                history.add(usage.getHost(), usage.getStoreId(), now, usage.getUsedBytes());
+                usage.setGrowthPerDay(history.getGrowthPerDay(usage.getHost(),
+                                                              usage.getStoreId()));
+            }
+            usage.setStatus(getStatus(usage));
+            report.addUsage(usage);
+        }
+        saveHistory(now);
+        return report;
+    }
+
+    private StoreUsage createUsage(String host,
+                                   StorageProviderAccount provider,
+                                   boolean primary) {
+        return new StoreUsage(host,
+                              String.valueOf(provider.getId()),
+                              String.valueOf(provider.getProviderType()),
+                              primary,
+                              provider.getStorageLimit() * StorageUsageReport.BYTES_PER_TB);
+    }
+
+    private void saveHistory(long now) {
+        if (null != history) {
+            history.prune(now);
+            try {
+                history.save();
+            } catch (IOException e) {
+                log.error("Unable to save storage usage history: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private StoreUsage.Status getStatus(StoreUsage usage) {
+        if (null != usage.getError()) {
+            return StoreUsage.Status.ERROR;
+        } else if (usage.getLimitBytes() <= 0) {
+            return StoreUsage.Status.OK;
+        } else if (usage.getUsedBytes() >= usage.getLimitBytes()) {
+            return StoreUsage.Status.EXCEEDED;
+        }
+
+        Long daysToLimit = usage.getDaysToLimit();
+        if (usage.getUsedPercent() >= warnPercent ||
+            (null != daysToLimit && daysToLimit <= warnDays)) {
+            return StoreUsage.Status.WARNING;
+        }
+        return StoreUsage.Status.OK;
+    }
+
+    /*
+     * Read the storage used by a store. A failure is recorded on the usage
+     * rather than thrown, so that it does not stop the other reads.
+     */
+    protected void readUsage(StoreUsage usage) {
+        try {
+            ContentStore store =
+                getStoreManager(usage.getHost()).getContentStore(usage.getStoreId());
+            usage.setUsedBytes(getUsedBytes(store));
+        } catch (Exception e) {
+            String error = "Unable to read storage usage of store " + usage.getStoreId() +
+                           " for host " + usage.getHost() + ": " + e.getMessage();
+            log.error(error);
+            usage.setError(error);
+        }
+    }
+
+    /*
+     * Sum the bytes of the spaces in a store. The stats of the current day
+     * may not have been collected yet, in which case those of the previous
+     * day are used.
+     */
+    protected long getUsedBytes(ContentStore store) throws ContentStoreException {
+        Date now = new Date();
+        SpaceStatsDTOList stats = store.getStorageProviderStatsByDay(now);
+        if (null == stats || stats.isEmpty()) {
+            stats = store.getStorageProviderStatsByDay(
+                new Date(now.getTime() - TimeUnit.DAYS.toMillis(1)));
+        }
+
+        long bytes = 0;
+        if (null != stats) {
+            for (SpaceStatsDTO spaceStats : stats) {
+                bytes += spaceStats.getByteCount();
+            }
+        }
+        return bytes;
+    }
+
+    /*
+     * Get the store manager to connect to this DuraCloud account instance.
+     */
+    protected ContentStoreManager getStoreManager(String host) {
+        return getClients().getStoreManager(host, PORT, CONTEXT);
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.duracloud.account.monitor.MonitorsDriver;
+import org.duracloud.account.monitor.storage.domain.StorageUsageHistory;
+import org.duracloud.account.monitor.storage.domain.StorageUsageReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class is the driver that collects the input configuration elements
+ * necessary to then execute the StorageUsageMonitor. The accounts are read
+ * from the Management Console database.
+ */
+public class StorageUsageMonitorDriver extends MonitorsDriver implements Runnable, Closeable {
+
+    private static final String PREFIX = "monitor.storage-usage.";
+    private static final String THREADS = PREFIX + "threads";
+    private static final String WARN_PERCENT = PREFIX + "warn-percent";
+    private static final String WARN_DAYS = PREFIX + "warn-days";
+    private static final String DOMAIN = PREFIX + "domain";
+    private static final String DEFAULT_DOMAIN = "duracloud.org";
+    private static final String HISTORY_FILE = PREFIX + "history-file";
+    private static final String HISTORY_DAYS = PREFIX + "history-days";
+    private static final long DEFAULT_HISTORY_DAYS = 30;
+
+    private Logger log =
+        LoggerFactory.getLogger(StorageUsageMonitorDriver.class);
+
+    private StorageUsageMonitor usageMonitor;
+
+    public StorageUsageMonitorDriver(Properties props) {
+        super(props);
+
+        int threads = (int) getLongProperty(props, THREADS,
+                                            StorageUsageMonitor.DEFAULT_THREADS);
+        int warnPercent = (int) getLongProperty(props, WARN_PERCENT,
+                                                StorageUsageMonitor.DEFAULT_WARN_PERCENT);
+        int warnDays = (int) getLongProperty(props, WARN_DAYS,
+                                             StorageUsageMonitor.DEFAULT_WARN_DAYS);
+        String domain = props.getProperty(DOMAIN, DEFAULT_DOMAIN).trim();
+
+        usageMonitor = new StorageUsageMonitor(getRepoMgr().getAccountRepo(),
+                                               domain,
+                                               threads,
+                                               warnPercent,
+                                               warnDays);
+        usageMonitor.setHistory(getHistory(props));
+        configureClients(usageMonitor, props);
+    }
+
+    /*
+     * Load the usage of previous runs, which is kept in the user's home
+     * directory unless another file is configured.
+     */
+    private StorageUsageHistory getHistory(Properties props) {
+        String historyPath = props.getProperty(HISTORY_FILE);
+        File historyFile = null == historyPath ?
+                           new File(System.getProperty("user.home"), ".storage-usage-history") :
+                           new File(historyPath.trim());
+        long historyDays = getLongProperty(props, HISTORY_DAYS, DEFAULT_HISTORY_DAYS);
+
+        StorageUsageHistory history =
+            new StorageUsageHistory(historyFile, TimeUnit.DAYS.toMillis(historyDays));
+        try {
+            history.load();
+        } catch (IOException e) {
+            log.warn("Unable to read storage usage history from " +
+                     historyFile.getAbsolutePath() + ", growth will not be " +
+                     "estimated until it is rebuilt: " + e.getMessage());
+        }
+        return history;
+    }
+
+    @Override
+    public void run() {
+        log.info("starting monitor");
+        try {
+            StorageUsageReport report = usageMonitor.monitorUsage();
+            if (report.hasIssues()) {
+                sendEmail("DuraCloud Storage Usage Monitor: accounts near or over " +
+                          "their storage limit", report.toString());
+            } else {
+                log.info("No accounts are near their storage limit, " +
+                         "no notification sent\n{}", report);
+            }
+        } catch (Exception e) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            PrintStream error = new PrintStream(out);
+
+            error.println("Error in StorageUsageMonitor: " + e.getMessage());
+            e.printStackTrace(error);
+
+            error.flush();
+            IOUtils.closeQuietly(out);
+
+            String msg = new String(out.toByteArray());
+            log.error(msg);
+            sendEmail("Storage Usage Monitor Error", msg);
+        }
+    }
+
+    /**
+     * Closes the connections kept by the monitor between runs.
+     */
+    @Override
+    public void close() {
+        usageMonitor.close();
+        closeRepos();
+    }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.storage.domain;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class holds the storage used by each store over the recent runs of
+ * the storage usage monitor, from which the growth of a store is estimated.
+ * Samples older than the retention time are dropped. The history is kept in
+ * a properties file between runs, each store holding its samples as
+ * time:bytes pairs.
+ */
+public class StorageUsageHistory {
+
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private File file;
+    private long retentionMillis;
+    private Properties samples;
+
+    /**
+     * @param file            file holding the history
+     * @param retentionMillis time for which samples are kept
+     */
+    public StorageUsageHistory(File file, long retentionMillis) {
+        this.file = file;
+        this.retentionMillis = retentionMillis;
+        this.samples = new Properties();
+    }
+
+    /**
+     * Reads the history from its file, if the file exists.
+     *
+     * @throws IOException if the file cannot be read
+     */
+    public void load() throws IOException {
+        if (file.exists()) {
+            try (InputStream in = new FileInputStream(file)) {
+                samples.load(in);
+            }
+        }
+    }
+
+    /**
+     * Writes the history to its file. The file is replaced only once the new
+     * history has been written in full.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void save() throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        File temp = File.createTempFile(file.getName(), ".tmp", parent);
+        try (OutputStream out = new FileOutputStream(temp)) {
+            samples.store(out, "DuraCloud storage usage history");
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Adds a sample of the storage used by a store, dropping the samples of
+     * the store which are past the retention time.
+     */
+    public synchronized void add(String host, String storeId, long time, long bytes) {
+        String key = getKey(host, storeId);
+        List<long[]> storeSamples = getRetained(key, time);
+        storeSamples.add(new long[] {time, bytes});
+        setSamples(key, storeSamples);
+    }
+
+    /**
+     * Drops the samples of every store which are past the retention time,
+     * so that stores which are no longer measured are forgotten.
+     */
+    public synchronized void prune(long time) {
+        for (String key : samples.stringPropertyNames()) {
+            setSamples(key, getRetained(key, time));
+        }
+    }
+
+    private List<long[]> getRetained(String key, long time) {
+        long oldest = time - retentionMillis;
+        List<long[]> kept = new ArrayList<>();
+        for (long[] sample : getSamples(key)) {
+            if (sample[0] >= oldest) {
+                kept.add(sample);
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * @return the average bytes added per day between the oldest and newest
+     * samples of a store, or null if they are less than a day apart
+     */
+    public synchronized Double getGrowthPerDay(String host, String storeId) {
+        List<long[]> storeSamples = getSamples(getKey(host, storeId));
+        if (storeSamples.size() < 2) {
+            return null;
+        }
+        long[] first = storeSamples.get(0);
+        long[] last = storeSamples.get(storeSamples.size() - 1);
+        long span = last[0] - first[0];
+        if (span < DAY_MILLIS) {
+            return null;
+        }
+        return (last[1] - first[1]) / ((double) span / DAY_MILLIS);
+    }
+
+    private String getKey(String host, String storeId) {
+        return host + "/" + storeId;
+    }
+
+    private List<long[]> getSamples(String key) {
+        List<long[]> storeSamples = new ArrayList<>();
+        String value = samples.getProperty(key);
+        if (null != value && !value.isEmpty()) {
+            for (String sample : value.split(",")) {
+                String[] parts = sample.split(":");
+                storeSamples.add(new long[] {Long.parseLong(parts[0]),
+                                             Long.parseLong(parts[1])});
+            }
+        }
+        return storeSamples;
+    }
+
+    private void setSamples(String key, List<long[]> storeSamples) {
+        if (storeSamples.isEmpty()) {
+            samples.remove(key);
+            return;
+        }
+        StringBuilder value = new StringBuilder();
+        for (long[] sample : storeSamples) {
+            if (value.length() > 0) {
+                value.append(",");
+            }
+            value.append(sample[0]).append(":").append(sample[1]);
+        }
+        samples.setProperty(key, value.toString());
+    }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.storage.domain;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * This class holds the storage used by the accounts in a run of the storage
+ * usage monitor.
+ */
+public class StorageUsageReport {
+
+    /**
+     * Storage limits of the Management Console are set in terabytes
+     */
+    public static final long BYTES_PER_TB = 1000L * 1000 * 1000 * 1000;
+
+    private Date timestamp = new Date();
+    private List<StoreUsage> usages = new ArrayList<>();
+
+    public Date getTimestamp() {
+        return timestamp;
+    }
+
+    public void addUsage(StoreUsage usage) {
+        usages.add(usage);
+    }
+
+    public List<StoreUsage> getUsages() {
+        return usages;
+    }
+
+    /**
+     * @return the stores which have the given status
+     */
+    public List<StoreUsage> getUsages(StoreUsage.Status status) {
+        List<StoreUsage> matches = new ArrayList<>();
+        for (StoreUsage usage : usages) {
+            if (usage.getStatus() == status) {
+                matches.add(usage);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * @return true if any store is approaching or over its limit, or could
+     * not be read
+     */
+    public boolean hasIssues() {
+        for (StoreUsage usage : usages) {
+            if (usage.getStatus() != StoreUsage.Status.OK) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        appendUsages(sb, "Storage Limit Exceeded", StoreUsage.Status.EXCEEDED);
+        appendUsages(sb, "Approaching Storage Limit", StoreUsage.Status.WARNING);
+        appendUsages(sb, "Storage Usage Errors", StoreUsage.Status.ERROR);
+
+        sb.append("-------------------\n");
+        sb.append("Storage Usage Summary:\n");
+        sb.append("-------------------\n");
+        for (StoreUsage.Status status : StoreUsage.Status.values()) {
+            sb.append(status).append(": ")
+              .append(getUsages(status).size()).append(" stores\n");
+        }
+        return sb.toString();
+    }
+
+    private void appendUsages(StringBuilder sb, String title, StoreUsage.Status status) {
+        List<StoreUsage> matches = getUsages(status);
+        if (!matches.isEmpty()) {
+            sb.append("-------------------\n");
+            sb.append(title).append(":\n");
+            sb.append("-------------------\n");
+            for (StoreUsage usage : matches) {
+                sb.append(usage.toString()).append("\n");
+            }
+        }
+    }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.storage.domain;
+
+/**
+ * This class holds the storage used in a single storage provider of an
+ * account, and how it compares with the storage limit of that provider.
+ */
+public class StoreUsage {
+
+    /**
+     * OK - below the warning level
+     * WARNING - at or above the warning level, or growing fast enough to
+     *     reach the limit soon
+     * EXCEEDED - at or above the limit
+     * ERROR - the usage could not be read
+     */
+    public enum Status {
+        OK, WARNING, EXCEEDED, ERROR
+    }
+
+    private String host;
+    private String storeId;
+    private String providerType;
+    private boolean primary;
+    private long limitBytes;
+    private long usedBytes;
+    private Double growthPerDay;
+    private String error;
+    private Status status = Status.OK;
+
+    public StoreUsage(String host,
+                      String storeId,
+                      String providerType,
+                      boolean primary,
+                      long limitBytes) {
+        this.host = host;
+        this.storeId = storeId;
+        this.providerType = providerType;
+        this.primary = primary;
+        this.limitBytes = limitBytes;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public String getStoreId() {
+        return storeId;
+    }
+
+    public String getProviderType() {
+        return providerType;
+    }
+
+    public boolean isPrimary() {
+        return primary;
+    }
+
+    /**
+     * @return the storage limit in bytes, 0 if there is no limit
+     */
+    public long getLimitBytes() {
+        return limitBytes;
+    }
+
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public void setUsedBytes(long usedBytes) {
+        this.usedBytes = usedBytes;
+    }
+
+    /**
+     * @return the average bytes added per day over the usage history, or
+     * null if the history is too short
+     */
+    public Double getGrowthPerDay() {
+        return growthPerDay;
+    }
+
+    public void setGrowthPerDay(Double growthPerDay) {
+        this.growthPerDay = growthPerDay;
+    }
+
+    /**
+     * @return the days until the limit is reached at the current growth, or
+     * null if the limit is not being approached
+     */
+    public Long getDaysToLimit() {
+        if (limitBytes <= 0 || null == growthPerDay || growthPerDay <= 0 ||
+            usedBytes >= limitBytes) {
+            return null;
+        }
+        return (long) ((limitBytes - usedBytes) / growthPerDay);
+    }
+
+    /**
+     * @return the used storage as a percentage of the limit, or 0 if there
+     * is no limit
+     */
+    public double getUsedPercent() {
+        if (limitBytes <= 0) {
+            return 0;
+        }
+        return usedBytes * 100.0 / limitBytes;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("https://").append(host)
+          .append(" store ").append(storeId)
+          .append(" (").append(providerType)
+          .append(primary ? ", primary" : ", secondary").append(")")
+          .append(" status: ").append(status);
+        if (null != error) {
+            sb.append("\n\t").append(error);
+            return sb.toString();
+        }
+
+        sb.append("\n\tused ").append(formatTB(usedBytes));
+        if (limitBytes > 0) {
+            sb.append(" of ").append(formatTB(limitBytes))
+              .append(String.format(" (%.1f%%)", getUsedPercent()));
+        } else {
+            sb.append(", no limit");
+        }
+        if (null != growthPerDay) {
+            sb.append("\n\tgrowth per day: ").append(formatTB(growthPerDay.longValue()));
+        }
+        Long daysToLimit = getDaysToLimit();
+        if (null != daysToLimit) {
+            sb.append("\n\tlimit reached in about ").append(daysToLimit).append(" days");
+        }
+        return sb.toString();
+    }
+
+    private String formatTB(long bytes) {
+        return String.format("%.3f TB", (double) bytes / StorageUsageReport.BYTES_PER_TB);
+    }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.IOUtils;
+import org.duracloud.account.monitor.MonitorsDriver.Monitor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MonitorsDaemonTest {
+
+    private File configFile;
+    private MonitorsDaemon daemon;
+    private AtomicInteger builds = new AtomicInteger();
+    private CountDownLatch ran = new CountDownLatch(1);
+
+    @Before
+    public void setup() throws Exception {
+        configFile = File.createTempFile("monitor", ".properties");
+        configFile.deleteOnExit();
+
+        daemon = new MonitorsDaemon(configFile) {
+            @Override
+            protected Runnable createMonitorDriver(Monitor monitor, Properties props) {
+                builds.incrementAndGet();
+                return () -> ran.countDown();
+            }
+        };
+    }
+
+    @After
+    public void teardown() {
+        daemon.stop();
+    }
+
+    private void writeConfig(String interval, long modified) throws IOException {
+        try (FileWriter writer = new FileWriter(configFile)) {
+            writer.write("monitor.daemon.port=0\n");
+            writer.write("monitor.daemon.duplication.interval-minutes=" + interval + "\n");
+        }
+        configFile.setLastModified(modified);
+    }
+
+    private String get(String path) throws IOException {
+        URL url = new URL("http://localhost:" + daemon.getPort() + path);
+        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+        assertEquals(200, conn.getResponseCode());
+        try (InputStream in = conn.getInputStream()) {
+            return IOUtils.toString(in, "UTF-8");
+        } finally {
+            conn.disconnect();
+        }
+    }
+
+    @Test
+    public void testDaemon() throws Exception {
+        long modified = System.currentTimeMillis() - 60000;
+        writeConfig("60", modified);
+        daemon.start();
+
+        // The first run starts immediately, as no start time is set
+        assertTrue(ran.await(10, TimeUnit.SECONDS));
+        MonitorStatus status = daemon.getStatuses().get(0);
+        for (int i = 0; i < 100 && status.getRuns() == 0; i++) {
+            Thread.sleep(50);
+        }
+        assertEquals("duplication", status.getMonitor());
+        assertEquals(1, status.getRuns());
+        assertEquals(60, status.getIntervalMinutes());
+        assertNotNull(status.getNextRun());
+
+        assertEquals("OK", get("/health"));
+        String json = get("/status");
+        assertTrue(json, json.contains("\"monitor\":\"duplication\""));
+        assertTrue(json, json.contains("\"runs\":1"));
+
+        // Unchanged properties are not reloaded
+        daemon.checkConfig();
+        assertEquals(1, builds.get());
+
+        // Changed properties rebuild and reschedule the monitor
+        writeConfig("30", modified + 10000);
+        daemon.checkConfig();
+        assertEquals(2, builds.get());
+        assertEquals(30, status.getIntervalMinutes());
+
+        // Invalid properties keep the current schedule
+        writeConfig("often", modified + 20000);
+        daemon.checkConfig();
+        assertEquals(2, builds.get());
+        assertEquals(30, status.getIntervalMinutes());
+        assertNotNull(status.getNextRun());
+
+        writeConfig("0", modified + 30000);
+        daemon.checkConfig();
+        assertEquals(2, builds.get());
+        assertEquals(30, status.getIntervalMinutes());
+        assertNotNull(status.getNextRun());
+    }
+
+}
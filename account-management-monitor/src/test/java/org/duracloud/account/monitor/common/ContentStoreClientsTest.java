@@ -0,0 +1,128 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.common;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.IOUtils;
+import org.duracloud.common.model.Credential;
+import org.duracloud.common.web.RestHttpHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ContentStoreClientsTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private String acceptedAuth;
+    private Set<Integer> clientPorts = new HashSet<>();
+    private AtomicInteger requests = new AtomicInteger();
+    private ContentStoreClients clients;
+
+    @Before
+    public void setup() throws Exception {
+        acceptedAuth = basicAuth("user", "pass");
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+        baseUrl = "http://" + server.getAddress().getHostString() + ":" +
+                  server.getAddress().getPort();
+    }
+
+    @After
+    public void teardown() throws Exception {
+        if (null != clients) {
+            clients.close();
+        }
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        synchronized (clientPorts) {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+        }
+        try (InputStream in = exchange.getRequestBody()) {
+            IOUtils.toByteArray(in);
+        }
+
+        String auth = exchange.getRequestHeaders().getFirst("Authorization");
+        int status = acceptedAuth.equals(auth) ? 200 : 401;
+        byte[] body = exchange.getRequestURI().getPath().getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private String basicAuth(String username, String password) {
+        String userPass = username + ":" + password;
+        return "Basic " + Base64.getEncoder().encodeToString(
+            userPass.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testConnectionsReused() throws Exception {
+        AtomicInteger refreshes = new AtomicInteger();
+        clients = new ContentStoreClients(() -> new Credential("user", "pass"),
+                                          () -> {
+                                              refreshes.incrementAndGet();
+                                              return new Credential("user", "pass");
+                                          });
+
+        RestHttpHelper restHelper = clients.getRestHelper();
+        int count = 5;
+        for (int i = 0; i < count; i++) {
+            RestHttpHelper.HttpResponse response = restHelper.get(baseUrl + "/space-" + i);
+            assertEquals(200, response.getStatusCode());
+            assertEquals("/space-" + i, response.getResponseBody());
+        }
+
+        // The credential is sent without a challenge, over one connection
+        assertEquals(count, requests.get());
+        assertEquals(1, clientPorts.size());
+        assertEquals(0, refreshes.get());
+
+        RequestMetrics metrics = clients.getMetrics().get(server.getAddress().getHostString());
+        assertEquals(count, metrics.getRequests());
+        assertEquals(0, metrics.getFailures());
+    }
+
+    @Test
+    public void testCredentialRefreshed() throws Exception {
+        AtomicInteger refreshes = new AtomicInteger();
+        clients = new ContentStoreClients(() -> new Credential("user", "old"),
+                                          () -> {
+                                              refreshes.incrementAndGet();
+                                              return new Credential("user", "pass");
+                                          });
+
+        RestHttpHelper restHelper = clients.getRestHelper();
+        assertEquals(200, restHelper.get(baseUrl + "/space-1").getStatusCode());
+        assertEquals(200, restHelper.get(baseUrl + "/space-2").getStatusCode());
+
+        // Only the first request is rejected and sent again
+        assertEquals(3, requests.get());
+        assertEquals(1, refreshes.get());
+    }
+
+}
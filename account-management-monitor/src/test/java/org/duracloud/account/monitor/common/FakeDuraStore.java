@@ -0,0 +1,335 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.common;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.IOUtils;
+import org.duracloud.client.SpaceStatsDTOList;
+import org.duracloud.common.json.JaxbJsonSerializer;
+import org.duracloud.common.model.Credential;
+import org.duracloud.reportdata.storage.SpaceStatsDTO;
+import org.duracloud.storage.domain.StorageAccount;
+import org.duracloud.storage.domain.StorageProviderType;
+import org.duracloud.storage.domain.impl.StorageAccountImpl;
+import org.duracloud.storage.xml.StorageAccountsDocumentBinding;
+
+/**
+ * A stand-in for the DuraStore application of DuraCloud accounts, serving
+ * the requests a ContentStoreManagerImpl makes to list stores and spaces,
+ * get space and store stats, and get space manifests. Each account is served
+ * under its own context, so a store manager for an account is created with
+ * the host and port of this server and the account name as the context.
+ *
+ * The spaces of each store and their item counts are set by the test, as
+ * are a latency added to every request and a rate of requests which fail
+ * with a 503. The server records the requests it serves, the most served at
+ * the same time, and the client connections they arrived on.
+ */
+public class FakeDuraStore implements Closeable {
+
+    public static final Credential CREDENTIAL = new Credential("monitor", "monitor-pass");
+
+    private static final String PRIMARY_STORE_ID = "1";
+    private static final long BYTES_PER_ITEM = 1024;
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private String auth;
+
+    // account -> store ID -> space ID -> item count
+    private Map<String, Map<String, SortedMap<String, Long>>> accounts =
+        new ConcurrentHashMap<>();
+
+    private volatile long minLatencyMillis;
+    private volatile long maxLatencyMillis;
+    private volatile double failureRate;
+
+    private AtomicInteger requests = new AtomicInteger();
+    private AtomicInteger failures = new AtomicInteger();
+    private AtomicInteger active = new AtomicInteger();
+    private AtomicInteger maxActive = new AtomicInteger();
+    private Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    public FakeDuraStore() throws IOException {
+        String userPass = CREDENTIAL.getUsername() + ":" + CREDENTIAL.getPassword();
+        auth = "Basic " + Base64.getEncoder().encodeToString(
+            userPass.getBytes(StandardCharsets.UTF_8));
+
+        executor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public String getHost() {
+        return server.getAddress().getHostString();
+    }
+
+    public String getPort() {
+        return String.valueOf(server.getAddress().getPort());
+    }
+
+    /**
+     * Adds an account whose stores each hold the same spaces and items. Store
+     * "1" is the primary store, the others are secondary stores.
+     */
+    public void addAccount(String account, int stores, int spaces, long items) {
+        Map<String, SortedMap<String, Long>> accountStores = new ConcurrentHashMap<>();
+        for (int store = 1; store <= stores; store++) {
+            SortedMap<String, Long> storeSpaces = new ConcurrentSkipListMap<>();
+            for (int space = 1; space <= spaces; space++) {
+                storeSpaces.put("space-" + space, items);
+            }
+            accountStores.put(String.valueOf(store), storeSpaces);
+        }
+        accounts.put(account, accountStores);
+    }
+
+    /**
+     * Sets the number of items in a space of an account's store, adding the
+     * space if needed.
+     */
+    public void setItems(String account, String storeId, String spaceId, long items) {
+        accounts.get(account).get(storeId).put(spaceId, items);
+    }
+
+    /**
+     * Sets the time added to every request, chosen at random between the
+     * minimum and maximum.
+     */
+    public void setLatency(long minMillis, long maxMillis) {
+        this.minLatencyMillis = minMillis;
+        this.maxLatencyMillis = maxMillis;
+    }
+
+    /**
+     * Sets the share of requests, from 0 to 1, which fail with a 503.
+     */
+    public void setFailureRate(double failureRate) {
+        this.failureRate = failureRate;
+    }
+
+    public int getRequests() {
+        return requests.get();
+    }
+
+    public int getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * @return the most requests which were served at the same time
+     */
+    public int getMaxConcurrentRequests() {
+        return maxActive.get();
+    }
+
+    /**
+     * @return the number of client connections requests arrived on
+     */
+    public int getConnections() {
+        return clientPorts.size();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        int current = active.incrementAndGet();
+        maxActive.accumulateAndGet(current, Math::max);
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        try {
+            try (InputStream in = exchange.getRequestBody()) {
+                IOUtils.toByteArray(in);
+            }
+            delay();
+
+            if (!auth.equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+                send(exchange, 401, "text/plain", "Unauthorized");
+            } else if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+                failures.incrementAndGet();
+                send(exchange, 503, "text/plain", "Injected failure");
+            } else {
+                route(exchange);
+            }
+        } catch (Exception e) {
+            // Fails in turn if the response was already started
+            send(exchange, 500, "text/plain", e.getMessage());
+        } finally {
+            active.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private void delay() throws InterruptedException {
+        long latency = minLatencyMillis;
+        if (maxLatencyMillis > minLatencyMillis) {
+            latency = ThreadLocalRandom.current().nextLong(minLatencyMillis, maxLatencyMillis + 1);
+        }
+        if (latency > 0) {
+            Thread.sleep(latency);
+        }
+    }
+
+    /*
+     * Paths are /[account]/[endpoint], where the endpoint is one of those
+     * below, relative to the DuraStore context.
+     */
+    private void route(HttpExchange exchange) throws IOException {
+        String[] path = exchange.getRequestURI().getPath().substring(1).split("/", 2);
+        Map<String, SortedMap<String, Long>> stores = accounts.get(path[0]);
+        if (null == stores || path.length < 2) {
+            send(exchange, 404, "text/plain", "Not found");
+            return;
+        }
+
+        String endpoint = path[1];
+        if (endpoint.equals("stores")) {
+            send(exchange, 200, "text/xml", getStoresXml(stores));
+            return;
+        }
+
+        Map<String, String> query = getQuery(exchange);
+        String storeId = query.getOrDefault("storeID", PRIMARY_STORE_ID);
+        SortedMap<String, Long> spaces = stores.get(storeId);
+        if (null == spaces) {
+            send(exchange, 404, "text/plain", "Store not found");
+        } else if (endpoint.equals("spaces")) {
+            send(exchange, 200, "text/xml", getSpacesXml(spaces));
+        } else if (endpoint.startsWith("report/store/")) {
+            send(exchange, 200, "application/json", getStatsJson(path[0], storeId, spaces, null));
+        } else if (endpoint.startsWith("report/space/")) {
+            String spaceId = endpoint.substring("report/space/".length());
+            if (!spaces.containsKey(spaceId)) {
+                send(exchange, 404, "text/plain", "Space not found");
+            } else {
+                send(exchange, 200, "application/json", getStatsJson(path[0], storeId, spaces, spaceId));
+            }
+        } else if (endpoint.startsWith("manifest/")) {
+            String spaceId = endpoint.substring("manifest/".length());
+            if (!spaces.containsKey(spaceId)) {
+                send(exchange, 404, "text/plain", "Space not found");
+            } else {
+                sendManifest(exchange, spaceId, spaces.get(spaceId));
+            }
+        } else {
+            send(exchange, 404, "text/plain", "Not found");
+        }
+    }
+
+    private Map<String, String> getQuery(HttpExchange exchange) throws IOException {
+        Map<String, String> query = new HashMap<>();
+        String rawQuery = exchange.getRequestURI().getRawQuery();
+        if (null != rawQuery) {
+            for (String param : rawQuery.split("&")) {
+                String[] nameValue = param.split("=", 2);
+                query.put(nameValue[0], nameValue.length < 2 ? "" :
+                                        URLDecoder.decode(nameValue[1], "UTF-8"));
+            }
+        }
+        return query;
+    }
+
+    private String getStoresXml(Map<String, SortedMap<String, Long>> stores) {
+        List<StorageAccount> storageAccounts = new ArrayList<>();
+        for (String storeId : stores.keySet()) {
+            StorageAccountImpl storageAccount =
+                new StorageAccountImpl(storeId, "user", "pass", StorageProviderType.AMAZON_S3);
+            storageAccount.setPrimary(PRIMARY_STORE_ID.equals(storeId));
+            storageAccounts.add(storageAccount);
+        }
+        return new StorageAccountsDocumentBinding().createXmlFrom(storageAccounts, false, false);
+    }
+
+    private String getSpacesXml(SortedMap<String, Long> spaces) {
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?><spaces>");
+        for (String spaceId : spaces.keySet()) {
+            xml.append("<space id=\"").append(spaceId).append("\" />");
+        }
+        return xml.append("</spaces>").toString();
+    }
+
+    /*
+     * The stats of one space, or of all spaces in the store when no space
+     * is given
+     */
+    private String getStatsJson(String account,
+                                String storeId,
+                                SortedMap<String, Long> spaces,
+                                String spaceId) throws IOException {
+        SpaceStatsDTOList stats = new SpaceStatsDTOList();
+        for (Map.Entry<String, Long> space : spaces.entrySet()) {
+            if (null == spaceId || spaceId.equals(space.getKey())) {
+                stats.add(new SpaceStatsDTO(new Date(), account, storeId, space.getKey(),
+                                            space.getValue() * BYTES_PER_ITEM, space.getValue()));
+            }
+        }
+        return new JaxbJsonSerializer<>(SpaceStatsDTOList.class).serialize(stats);
+    }
+
+    /*
+     * The manifest is written as it is sent, sorted by content ID as
+     * DuraStore sorts it, so that large spaces need no memory.
+     */
+    private void sendManifest(HttpExchange exchange, String spaceId, long items) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/tab-separated-values");
+        exchange.sendResponseHeaders(200, 0);
+        try (Writer writer = new BufferedWriter(
+            new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+            writer.write("space-id\tcontent-id\tMD5\n");
+            for (long item = 0; item < items; item++) {
+                String contentId = String.format("item-%010d", item);
+                writer.write(spaceId + "\t" + contentId + "\t" +
+                             String.format("%032x", contentId.hashCode() & 0xffffffffL) + "\n");
+            }
+        }
+    }
+
+    private void send(HttpExchange exchange, int status, String contentType, String body)
+        throws IOException {
+        byte[] bytes = (null == body ? "" : body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+}
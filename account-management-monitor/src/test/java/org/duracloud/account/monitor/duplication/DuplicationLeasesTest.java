@@ -0,0 +1,138 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.duplication;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.duracloud.account.db.util.model.DuplicationLease;
+import org.duracloud.account.db.util.repo.DuplicationLeaseRepo;
+import org.duracloud.account.monitor.duplication.util.ConsistentHashRing;
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DuplicationLeasesTest {
+
+    private static final long RECHECK = TimeUnit.HOURS.toMillis(12);
+    private static final long TAKEOVER = TimeUnit.DAYS.toMillis(2);
+
+    private DuplicationLeaseRepo leaseRepo;
+    private ConsistentHashRing ring;
+    private DuplicationLeases leases;
+
+    @Before
+    public void setup() {
+        leaseRepo = EasyMock.createMock(DuplicationLeaseRepo.class);
+        ring = new ConsistentHashRing(Arrays.asList("node-a", "node-b"));
+        leases = new DuplicationLeases(leaseRepo, "node-a", ring, RECHECK, TAKEOVER);
+    }
+
+    @After
+    public void teardown() {
+        EasyMock.verify(leaseRepo);
+    }
+
+    /*
+     * Find a host whose subdomain belongs to the given node
+     */
+    private String getHost(String node, int skip) {
+        int found = 0;
+        for (int i = 0; ; i++) {
+            String subdomain = "account-" + i;
+            if (ring.getNode(subdomain).equals(node) && found++ == skip) {
+                return subdomain + ".duracloud.org";
+            }
+        }
+    }
+
+    private DuplicationLease createLease(String host, long checkedAgo) {
+        DuplicationLease lease = new DuplicationLease();
+        lease.setHost(host);
+        lease.setModified(new Date(System.currentTimeMillis() - TAKEOVER * 2));
+        lease.setLastChecked(new Date(System.currentTimeMillis() - checkedAgo));
+        return lease;
+    }
+
+    private void expectAcquire(String host, int result) {
+        EasyMock.expect(leaseRepo.acquire(EasyMock.eq(host),
+                                          EasyMock.eq("node-a"),
+                                          EasyMock.isA(Date.class),
+                                          EasyMock.isA(Date.class),
+                                          EasyMock.isA(Date.class)))
+                .andReturn(result);
+    }
+
+    @Test
+    public void testClaim() {
+        String newHost = getHost("node-a", 0);
+        String leasedHost = getHost("node-a", 1);
+        String otherHost = getHost("node-b", 0);
+        String overdueHost = getHost("node-b", 1);
+
+        // A host not seen before gets a lease record
+        EasyMock.expect(leaseRepo.findByHost(newHost)).andReturn(null);
+        EasyMock.expect(leaseRepo.saveAndFlush(EasyMock.isA(DuplicationLease.class)))
+                .andAnswer(() -> (DuplicationLease) EasyMock.getCurrentArguments()[0]);
+        expectAcquire(newHost, 1);
+
+        // A host of this node which another node holds or recently checked
+        EasyMock.expect(leaseRepo.findByHost(leasedHost))
+                .andReturn(createLease(leasedHost, RECHECK / 2));
+        expectAcquire(leasedHost, 0);
+
+        // A host of another node, checked within the takeover time
+        EasyMock.expect(leaseRepo.findByHost(otherHost))
+                .andReturn(createLease(otherHost, TAKEOVER / 2));
+
+        // A host of another node which has been missed
+        EasyMock.expect(leaseRepo.findByHost(overdueHost))
+                .andReturn(createLease(overdueHost, TAKEOVER * 2));
+        expectAcquire(overdueHost, 1);
+        EasyMock.replay(leaseRepo);
+
+        Map<String, String> targets = new LinkedHashMap<>();
+        targets.put(newHost, "ALL");
+        targets.put(leasedHost, "ALL");
+        targets.put(otherHost, "ALL");
+        targets.put(overdueHost, "space-1");
+
+        Map<String, String> claimed = leases.claim(targets, TimeUnit.HOURS.toMillis(6));
+        assertEquals(2, claimed.size());
+        assertEquals("ALL", claimed.get(newHost));
+        assertEquals("space-1", claimed.get(overdueHost));
+    }
+
+    @Test
+    public void testRelease() {
+        String host = getHost("node-a", 0);
+        EasyMock.expect(leaseRepo.release(EasyMock.eq(host),
+                                          EasyMock.eq("node-a"),
+                                          EasyMock.isA(Date.class)))
+                .andReturn(1);
+        EasyMock.replay(leaseRepo);
+
+        leases.release(host);
+    }
+
+    @Test
+    public void testAbandon() {
+        String host = getHost("node-a", 0);
+        EasyMock.expect(leaseRepo.abandon(host, "node-a")).andReturn(1);
+        EasyMock.replay(leaseRepo);
+
+        leases.abandon(host);
+    }
+
+}
@@ -0,0 +1,168 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.duplication;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.duracloud.account.monitor.common.FakeDuraStore;
+import org.duracloud.account.monitor.duplication.domain.DuplicationInfo;
+import org.duracloud.account.monitor.duplication.domain.DuplicationReport;
+import org.duracloud.client.ContentStoreManager;
+import org.duracloud.common.model.Credential;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the DuplicationMonitor end to end against a FakeDuraStore, checking
+ * that the results are right and logging the wall time of the run along
+ * with what the server saw of its requests. The defaults keep the run short
+ * enough for every build; larger runs are set with system properties, e.g.
+ *   mvn test -Dtest=DuplicationMonitorLoadTest -Dloadtest.hosts=200
+ *       -Dloadtest.spaces=50 -Dloadtest.latency-millis=40
+ */
+public class DuplicationMonitorLoadTest {
+
+    private static final int HOSTS = Integer.getInteger("loadtest.hosts", 20);
+    private static final int SPACES = Integer.getInteger("loadtest.spaces", 5);
+    private static final int STORES = Integer.getInteger("loadtest.stores", 2);
+    private static final long ITEMS = Long.getLong("loadtest.items", 100);
+    private static final long LATENCY = Long.getLong("loadtest.latency-millis", 5);
+    private static final int THREADS = Integer.getInteger("loadtest.threads", 4);
+    private static final int SPACE_THREADS = Integer.getInteger("loadtest.space-threads", 4);
+    private static final int CONNECTIONS = Integer.getInteger("loadtest.connections", 64);
+
+    private Logger log = LoggerFactory.getLogger(DuplicationMonitorLoadTest.class);
+
+    private FakeDuraStore duraStore;
+    private Map<String, String> dupHosts;
+
+    @Before
+    public void setup() throws Exception {
+        duraStore = new FakeDuraStore();
+        duraStore.setLatency(LATENCY, LATENCY * 2);
+        dupHosts = new LinkedHashMap<>();
+        for (int i = 0; i < HOSTS; i++) {
+            String host = "host-" + i;
+            duraStore.addAccount(host, STORES, SPACES, ITEMS);
+            dupHosts.put(host, DuplicationMonitor.ALL_SPACES);
+        }
+    }
+
+    @After
+    public void teardown() {
+        duraStore.close();
+    }
+
+    /*
+     * A monitor which reaches every host through the fake server, using the
+     * host name as the context of the account
+     */
+    private DuplicationMonitor createMonitor() {
+        DuplicationMonitor monitor =
+            new DuplicationMonitor(dupHosts,
+                                   THREADS,
+                                   SPACE_THREADS,
+                                   TimeUnit.MINUTES.toMillis(10),
+                                   TimeUnit.MINUTES.toMillis(30)) {
+                @Override
+                protected Credential getRootCredential() {
+                    return FakeDuraStore.CREDENTIAL;
+                }
+
+                @Override
+                protected ContentStoreManager getStoreManager(String host) {
+                    return getClients().getStoreManager(duraStore.getHost(),
+                                                        duraStore.getPort(),
+                                                        host);
+                }
+            };
+        monitor.configureClients(CONNECTIONS, CONNECTIONS, 60, 60);
+        return monitor;
+    }
+
+    private DuplicationReport run(DuplicationMonitor monitor, String name) {
+        long start = System.nanoTime();
+        DuplicationReport report = monitor.monitorDuplication();
+        long wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        long checkMillis = 0;
+        for (DuplicationInfo info : report.getDupInfos().values()) {
+            checkMillis = Math.max(checkMillis, info.getCheckMillis());
+        }
+        log.info("{}: {} hosts x {} stores x {} spaces in {} ms (slowest host {} ms); " +
+                 "server saw {} requests, {} failed, at most {} at once, on {} connections",
+                 name, HOSTS, STORES, SPACES, wallMillis, checkMillis,
+                 duraStore.getRequests(), duraStore.getFailures(),
+                 duraStore.getMaxConcurrentRequests(), duraStore.getConnections());
+        return report;
+    }
+
+    @Test
+    public void testCounts() {
+        try (DuplicationMonitor monitor = createMonitor()) {
+            DuplicationReport report = run(monitor, "counts");
+
+            assertEquals(HOSTS, report.getDupInfos().size());
+            assertFalse(report.toString(), report.hasIssues());
+            DuplicationInfo info = report.getDupInfos().get("host-0");
+            assertEquals(STORES, info.getStoreIds().size());
+            assertEquals(Long.valueOf(ITEMS), info.getSpaceCounts("2").get("space-1"));
+
+            // Requests are bounded by the threads, and share pooled connections
+            assertTrue(duraStore.getMaxConcurrentRequests() <= THREADS * (SPACE_THREADS + 1));
+            assertTrue(duraStore.getConnections() <= CONNECTIONS);
+        }
+    }
+
+    @Test
+    public void testCountMismatch() {
+        duraStore.setItems("host-0", "2", "space-1", ITEMS - 1);
+        try (DuplicationMonitor monitor = createMonitor()) {
+            DuplicationReport report = run(monitor, "count mismatch");
+
+            assertTrue(report.getDupInfos().get("host-0").hasIssues());
+            assertFalse(report.getDupInfos().get("host-1").hasIssues());
+        }
+    }
+
+    @Test
+    public void testManifests() {
+        duraStore.setItems("host-0", "2", "space-1", ITEMS - 1);
+        try (DuplicationMonitor monitor = createMonitor()) {
+            monitor.setManifestVerifier(new ManifestVerifier(10, null));
+            DuplicationReport report = run(monitor, "manifests");
+
+            DuplicationInfo info = report.getDupInfos().get("host-0");
+            assertTrue(info.hasIssues());
+            assertEquals(Long.valueOf(ITEMS - 1), info.getSpaceCounts("2").get("space-1"));
+            assertFalse(report.getDupInfos().get("host-1").hasIssues());
+        }
+    }
+
+    @Test
+    public void testFailures() {
+        duraStore.setFailureRate(0.05);
+        try (DuplicationMonitor monitor = createMonitor()) {
+            DuplicationReport report = run(monitor, "failures");
+
+            // Every host is reported, whether or not its requests failed
+            assertEquals(HOSTS, report.getDupInfos().size());
+            assertTrue(duraStore.getFailures() > 0);
+        }
+    }
+
+}
@@ -12,17 +12,28 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.duracloud.account.monitor.duplication.domain.DuplicationBaseline;
 import org.duracloud.account.monitor.duplication.domain.DuplicationInfo;
+import org.duracloud.account.monitor.duplication.domain.DuplicationReport;
 import org.duracloud.client.ContentStore;
 import org.duracloud.client.ContentStoreImpl;
 import org.duracloud.client.ContentStoreManager;
 import org.duracloud.client.SpaceStatsDTOList;
+import org.duracloud.common.constant.ManifestFormat;
 import org.duracloud.reportdata.storage.SpaceStatsDTO;
 import org.easymock.EasyMock;
 import org.junit.After;
@@ -135,7 +146,8 @@ public class DuplicationMonitorTest {
 
         replayMocks();
 
-        dupMonitor.countSpaces(host, dupInfo, store, spaces, true);
+        dupMonitor.countSpaces(host, dupMonitor.new SpaceComparison(storeId, dupInfo, new HashSet<>()),
+                               store, spaces, true, true, Runnable::run);
         Map<String, Long> spaceCounts = dupInfo.getSpaceCounts(storeId);
         assertEquals(new Long(1), spaceCounts.get(space1));
         assertEquals(new Long(2), spaceCounts.get(space2));
@@ -161,11 +173,63 @@ public class DuplicationMonitorTest {
 
         replayMocks();
 
-        dupMonitor.countSpaces(host, dupInfo, store, spaces, false);
+        dupMonitor.countSpaces(host, dupMonitor.new SpaceComparison("primary", dupInfo, new HashSet<>()),
+                               store, spaces, false, true, Runnable::run);
         Map<String, Long> spaceCounts = dupInfo.getSpaceCounts(storeId);
         assertEquals(new Long(1), spaceCounts.get(space1));
     }
 
+    private SpaceStatsDTO createStats(String spaceId, long count, long bytes) {
+        SpaceStatsDTO stats = new SpaceStatsDTO();
+        stats.setSpaceId(spaceId);
+        stats.setObjectCount(count);
+        stats.setByteCount(bytes);
+        return stats;
+    }
+
+    @Test
+    public void testCountSpacesWithBaseline() throws Exception {
+        String host = "host";
+        String storeId = "store-id";
+        String space1 = "space-1";
+        String space2 = "space-2";
+        DuplicationInfo dupInfo = new DuplicationInfo(host);
+
+        File baselineFile = File.createTempFile("duplication-baseline", ".properties");
+        baselineFile.deleteOnExit();
+        DuplicationBaseline baseline = new DuplicationBaseline(baselineFile, 60000);
+        baseline.setSpace(host, storeId, space1, 1, 10, 0);
+        baseline.setSpace(host, storeId, space2, 2, 20, 0);
+        dupMonitor.setBaseline(baseline);
+
+        EasyMock.expect(store.getStorageProviderType()).andReturn("store-type");
+        EasyMock.expect(store.getStoreId()).andReturn(storeId);
+
+        // Only space-2 has changed, so only space-2 is counted
+        SpaceStatsDTOList currentStats = new SpaceStatsDTOList();
+        currentStats.add(createStats(space1, 1, 10));
+        currentStats.add(createStats(space2, 5, 50));
+        EasyMock.expect(store.getStorageProviderStatsByDay(EasyMock.isA(Date.class)))
+                .andReturn(currentStats);
+        setupSpaceStats(space2, 5);
+        EasyMock.expect(spaceStats.getByteCount()).andReturn(50L);
+
+        replayMocks();
+
+        dupMonitor.countSpaces(host, dupMonitor.new SpaceComparison(storeId, dupInfo, new HashSet<>()),
+                               store, Arrays.asList(space1, space2), true, false, Runnable::run);
+
+        Map<String, Long> spaceCounts = dupInfo.getSpaceCounts(storeId);
+        assertEquals(new Long(1), spaceCounts.get(space1));
+        assertEquals(new Long(5), spaceCounts.get(space2));
+        assertEquals(1, dupInfo.getUnchangedSpaces());
+        assertEquals(1, dupInfo.getChanges().size());
+        assertTrue(dupInfo.getChanges().get(0).contains("from 2 to 5"));
+
+        assertEquals(5, baseline.getSpace(host, storeId, space2).getCount());
+        assertEquals(50, baseline.getSpace(host, storeId, space2).getByteCount());
+    }
+
     private void setupSpaceStats(String spaceId, long count) throws Exception {
         EasyMock.expect(store.getSpaceStats(EasyMock.eq(spaceId),
                                             EasyMock.isA(Date.class), EasyMock.isA(Date.class)))
@@ -196,4 +260,270 @@ public class DuplicationMonitorTest {
         replayMocks();
     }
 
+    private ContentStore createStore(String storeId,
+                                     List<String> spaces,
+                                     final Map<String, Long> counts,
+                                     final AtomicInteger active,
+                                     final AtomicInteger maxActive) throws Exception {
+        ContentStore contentStore = EasyMock.createMock(ContentStore.class);
+        EasyMock.expect(contentStore.getStoreId()).andReturn(storeId).anyTimes();
+        EasyMock.expect(contentStore.getStorageProviderType())
+                .andReturn(storeId + "-type").anyTimes();
+        EasyMock.expect(contentStore.getSpaces()).andReturn(spaces);
+        EasyMock.expect(contentStore.getSpaceStats(EasyMock.isA(String.class),
+                                                   EasyMock.isA(Date.class),
+                                                   EasyMock.isA(Date.class)))
+                .andAnswer(() -> {
+                    int now = active.incrementAndGet();
+                    maxActive.accumulateAndGet(now, Math::max);
+                    Thread.sleep(50);
+                    active.decrementAndGet();
+
+                    SpaceStatsDTO stats = new SpaceStatsDTO();
+                    stats.setObjectCount(counts.get(EasyMock.getCurrentArguments()[0]));
+                    SpaceStatsDTOList statsList = new SpaceStatsDTOList();
+                    statsList.add(stats);
+                    return statsList;
+                }).times(counts.size());
+        EasyMock.replay(contentStore);
+        return contentStore;
+    }
+
+    @Test
+    public void testCheckHost() throws Exception {
+        String host = "host";
+        dupHosts.put(host, DuplicationMonitor.ALL_SPACES);
+
+        Map<String, Long> primaryCounts = new HashMap<>();
+        Map<String, Long> secondaryCounts = new HashMap<>();
+        for (long i = 1; i <= 6; i++) {
+            primaryCounts.put("space-" + i, i);
+            if (i < 6) {
+                secondaryCounts.put("space-" + i, i == 3 ? 30 : i);
+            }
+        }
+
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        ContentStore primary =
+            createStore("primary", new ArrayList<>(primaryCounts.keySet()),
+                        primaryCounts, active, maxActive);
+        ContentStore secondary =
+            createStore("secondary", new ArrayList<>(secondaryCounts.keySet()),
+                        secondaryCounts, active, maxActive);
+
+        Map<String, ContentStore> stores = new HashMap<>();
+        stores.put("primary", primary);
+        stores.put("secondary", secondary);
+        EasyMock.expect(storeManager.getPrimaryContentStore()).andReturn(primary);
+        EasyMock.expect(storeManager.getContentStores()).andReturn(stores);
+
+        replayMocks();
+
+        DuplicationMonitor monitor =
+            new DuplicationMonitor(dupHosts, 1, 2, 10000, 10000) {
+                @Override
+                protected ContentStoreManager getStoreManager(String host) {
+                    return storeManager;
+                }
+            };
+        DuplicationInfo dupInfo = new DuplicationInfo(host);
+        monitor.checkHost(host, dupInfo);
+        EasyMock.verify(primary, secondary);
+
+        // Counts were fetched in parallel, but no more than two at a time
+        assertTrue(maxActive.get() > 1);
+        assertTrue(maxActive.get() <= 2);
+
+        assertEquals(6, dupInfo.getSpaceCounts("primary").size());
+        assertEquals(new Long(30), dupInfo.getSpaceCounts("secondary").get("space-3"));
+
+        List<String> issues = dupInfo.getIssues();
+        assertEquals(issues.toString(), 3, issues.size());
+        assertTrue(issues.get(0).contains("spaces listings do not match"));
+        int mismatched = 0;
+        int missing = 0;
+        for (String issue : issues) {
+            if (issue.contains("space-3 do not match")) {
+                mismatched++;
+            } else if (issue.contains("missing space: space-6")) {
+                missing++;
+            }
+        }
+        assertEquals(1, mismatched);
+        assertEquals(1, missing);
+    }
+
+    private ContentStore createManifestStore(String storeId, String manifest)
+        throws Exception {
+        ContentStore contentStore = EasyMock.createMock(ContentStore.class);
+        EasyMock.expect(contentStore.getStoreId()).andReturn(storeId).anyTimes();
+        EasyMock.expect(contentStore.getStorageProviderType())
+                .andReturn(storeId + "-type").anyTimes();
+        EasyMock.expect(contentStore.getSpaces()).andReturn(Arrays.asList("space-1"));
+        EasyMock.expect(contentStore.getManifest("space-1", ManifestFormat.TSV))
+                .andReturn(new ByteArrayInputStream(
+                    ("space-id\tcontent-id\tMD5\n" + manifest).getBytes(StandardCharsets.UTF_8)));
+        EasyMock.replay(contentStore);
+        return contentStore;
+    }
+
+    @Test
+    public void testCheckHostManifests() throws Exception {
+        String host = "host";
+        dupHosts.put(host, DuplicationMonitor.ALL_SPACES);
+
+        ContentStore primary =
+            createManifestStore("primary", "space-1\ta\tmd5-a\nspace-1\tb\tmd5-b\n");
+        ContentStore secondary =
+            createManifestStore("secondary", "space-1\ta\tmd5-a\nspace-1\tb\tmd5-x\n");
+
+        Map<String, ContentStore> stores = new HashMap<>();
+        stores.put("primary", primary);
+        stores.put("secondary", secondary);
+        EasyMock.expect(storeManager.getPrimaryContentStore()).andReturn(primary);
+        EasyMock.expect(storeManager.getContentStores()).andReturn(stores);
+
+        replayMocks();
+
+        DuplicationMonitor monitor =
+            new DuplicationMonitor(dupHosts, 1, 2, 10000, 10000) {
+                @Override
+                protected ContentStoreManager getStoreManager(String host) {
+                    return storeManager;
+                }
+            };
+        monitor.setManifestVerifier(new ManifestVerifier(10, null));
+        DuplicationInfo dupInfo = new DuplicationInfo(host);
+        monitor.checkHost(host, dupInfo);
+        EasyMock.verify(primary, secondary);
+
+        assertEquals(new Long(2), dupInfo.getSpaceCounts("primary").get("space-1"));
+        assertEquals(new Long(2), dupInfo.getSpaceCounts("secondary").get("space-1"));
+        List<String> issues = dupInfo.getIssues();
+        assertEquals(issues.toString(), 1, issues.size());
+        assertTrue(issues.get(0).contains("checksum differs: b"));
+    }
+
+    /*
+     * Creates a monitor which checks hosts by counting a single space after
+     * a host-specific delay, rather than connecting to the hosts.
+     */
+    private DuplicationMonitor createMonitor(final Map<String, Long> delays,
+                                             final CountDownLatch started,
+                                             long hostTimeout,
+                                             long deadline) {
+        for (String host : delays.keySet()) {
+            dupHosts.put(host, DuplicationMonitor.ALL_SPACES);
+        }
+        return new DuplicationMonitor(dupHosts, delays.size(), 1, hostTimeout, deadline) {
+            @Override
+            protected void checkHost(String host, DuplicationInfo info) {
+                started.countDown();
+                try {
+                    started.await();
+                    Thread.sleep(delays.get(host));
+                    info.addSpaceCount("primary", "space-1", 1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+    }
+
+    @Test
+    public void testMonitorDuplicationParallel() throws Exception {
+        Map<String, Long> delays = new HashMap<>();
+        delays.put("host-1", 500L);
+        delays.put("host-2", 500L);
+        delays.put("host-3", 500L);
+
+        replayMocks();
+
+        // All hosts must be running at once for any of them to finish
+        CountDownLatch started = new CountDownLatch(delays.size());
+        DuplicationMonitor monitor = createMonitor(delays, started, 10000, 10000);
+        DuplicationReport report = monitor.monitorDuplication();
+
+        assertTrue(started.await(0, TimeUnit.MILLISECONDS));
+        assertEquals(3, report.getDupInfos().size());
+        assertFalse(report.hasIssues());
+        for (DuplicationInfo info : report.getDupInfos().values()) {
+            assertEquals(new Long(1), info.getSpaceCounts("primary").get("space-1"));
+        }
+    }
+
+    @Test
+    public void testMonitorDuplicationHostTimeout() throws Exception {
+        Map<String, Long> delays = new HashMap<>();
+        delays.put("host-fast", 0L);
+        delays.put("host-slow", 60000L);
+
+        replayMocks();
+
+        long start = System.currentTimeMillis();
+        DuplicationMonitor monitor =
+            createMonitor(delays, new CountDownLatch(0), 200, 60000);
+        DuplicationReport report = monitor.monitorDuplication();
+        assertTrue(System.currentTimeMillis() - start < 30000);
+
+        List<DuplicationInfo> issues = report.getDupIssues();
+        assertEquals(1, issues.size());
+        assertEquals("host-slow", issues.get(0).getHost());
+        assertTrue(issues.get(0).getIssues().get(0).contains("did not complete"));
+        assertFalse(report.getDupInfos().get("host-fast").hasIssues());
+    }
+
+    @Test
+    public void testMonitorDuplicationDeadline() throws Exception {
+        Map<String, Long> delays = new HashMap<>();
+        delays.put("host-fast", 0L);
+        delays.put("host-slow", 60000L);
+
+        replayMocks();
+
+        long start = System.currentTimeMillis();
+        DuplicationMonitor monitor =
+            createMonitor(delays, new CountDownLatch(0), 60000, 200);
+        DuplicationReport report = monitor.monitorDuplication();
+        assertTrue(System.currentTimeMillis() - start < 30000);
+
+        List<DuplicationInfo> issues = report.getDupIssues();
+        assertEquals(1, issues.size());
+        assertEquals("host-slow", issues.get(0).getHost());
+        assertTrue(issues.get(0).getIssues().get(0).contains("deadline"));
+    }
+
+    @Test
+    public void testMonitorDuplicationLeases() throws Exception {
+        Map<String, Long> delays = new HashMap<>();
+        delays.put("host-fast", 0L);
+        delays.put("host-slow", 60000L);
+
+        // Only the completed check is recorded, the lease of the check which
+        // timed out is given up once it has stopped
+        CountDownLatch abandoned = new CountDownLatch(1);
+        DuplicationLeases leases = EasyMock.createMock(DuplicationLeases.class);
+        EasyMock.expect(leases.claim(EasyMock.<Map<String, String>>anyObject(),
+                                     EasyMock.anyLong()))
+                .andAnswer(() -> new HashMap<>(dupHosts));
+        leases.release("host-fast");
+        EasyMock.expectLastCall();
+        leases.abandon("host-slow");
+        EasyMock.expectLastCall().andAnswer(() -> {
+            abandoned.countDown();
+            return null;
+        });
+        EasyMock.replay(leases);
+        replayMocks();
+
+        DuplicationMonitor monitor =
+            createMonitor(delays, new CountDownLatch(0), 200, 60000);
+        monitor.setLeases(leases);
+        monitor.monitorDuplication();
+
+        assertTrue(abandoned.await(10, TimeUnit.SECONDS));
+        EasyMock.verify(leases);
+    }
+
 }
@@ -0,0 +1,94 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.duplication;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.io.FileUtils;
+import org.duracloud.account.monitor.duplication.domain.DuplicationInfo;
+import org.duracloud.account.monitor.duplication.domain.DuplicationReport;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DuplicationReportWriterTest {
+
+    private File outputDir;
+
+    @Before
+    public void setup() throws Exception {
+        outputDir = Files.createTempDirectory("duplication-report").toFile();
+    }
+
+    @After
+    public void teardown() throws Exception {
+        FileUtils.deleteDirectory(outputDir);
+    }
+
+    private DuplicationReport createReport() {
+        DuplicationInfo ok = new DuplicationInfo("ok.duracloud.org");
+        ok.setPrimaryStoreId("1");
+        ok.setCheckMillis(1500);
+        ok.addSpaceCount("1", "space-1", 10);
+        ok.addSpaceCount("2", "space-1", 10);
+
+        DuplicationInfo behind = new DuplicationInfo("behind.duracloud.org");
+        behind.setPrimaryStoreId("1");
+        behind.setCheckMillis(2000);
+        behind.addSpaceCount("1", "space-\"a\"", 12);
+        behind.addSpaceCount("2", "space-\"a\"", 9);
+        behind.addIssue("The content item counts do not match");
+
+        DuplicationReport report = new DuplicationReport();
+        report.addDupInfo(ok.getHost(), ok);
+        report.addDupInfo(behind.getHost(), behind);
+        return report;
+    }
+
+    @Test
+    public void testWrite() throws Exception {
+        new DuplicationReportWriter(outputDir).write(createReport());
+
+        JsonNode json = new ObjectMapper().readTree(
+            new File(outputDir, DuplicationReportWriter.JSON_FILE));
+        assertTrue(json.get("hasIssues").asBoolean());
+        assertEquals(2, json.get("hosts").size());
+        JsonNode behind = json.get("hosts").get(0);
+        assertEquals("behind.duracloud.org", behind.get("host").asText());
+        assertEquals("ISSUES", behind.get("status").asText());
+        assertEquals(9, behind.get("spaceCounts").get("2").get("space-\"a\"").asLong());
+
+        List<String> metrics =
+            Files.readAllLines(new File(outputDir, DuplicationReportWriter.METRICS_FILE).toPath(),
+                               StandardCharsets.UTF_8);
+        assertTrue(metrics.contains("duracloud_duplication_hosts 2"));
+        assertTrue(metrics.contains(
+            "duracloud_duplication_host_ok{host=\"behind.duracloud.org\"} 0"));
+        assertTrue(metrics.contains(
+            "duracloud_duplication_host_check_seconds{host=\"ok.duracloud.org\"} 1.5"));
+        assertTrue(metrics.contains(
+            "duracloud_duplication_space_items{host=\"ok.duracloud.org\",store=\"2\"," +
+            "space=\"space-1\",role=\"secondary\"} 10"));
+        assertTrue(metrics.contains(
+            "duracloud_duplication_space_item_delta{host=\"behind.duracloud.org\",store=\"2\"," +
+            "space=\"space-\\\"a\\\"\"} 3"));
+        assertTrue(metrics.contains("# TYPE duracloud_duplication_space_item_delta gauge"));
+
+        // Only the report files are left in the directory
+        assertEquals(2, outputDir.list().length);
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.duplication;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.function.IntFunction;
+
+import org.duracloud.account.monitor.duplication.domain.ManifestVerification;
+import org.duracloud.account.monitor.error.UnsortedManifestException;
+import org.junit.Test;
+
+public class ManifestVerifierTest {
+
+    private static final String HEADER = "space-id\tcontent-id\tMD5\n";
+
+    private ManifestReader manifest(String... lines) {
+        StringBuilder sb = new StringBuilder(HEADER);
+        for (String line : lines) {
+            sb.append("space\t").append(line).append("\n");
+        }
+        return new ManifestReader(
+            new ByteArrayInputStream(sb.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /*
+     * Generates a manifest of the given size as it is read
+     */
+    private ManifestReader generated(final int items, final IntFunction<String> checksum) {
+        return new ManifestReader(new InputStream() {
+            private byte[] line = HEADER.getBytes(StandardCharsets.UTF_8);
+            private int position = 0;
+            private int item = 0;
+
+            @Override
+            public int read() {
+                if (position == line.length) {
+                    if (item == items) {
+                        return -1;
+                    }
+                    line = String.format("space\titem-%08d\t%s\n", item, checksum.apply(item))
+                                 .getBytes(StandardCharsets.UTF_8);
+                    position = 0;
+                    item++;
+                }
+                return line[position++];
+            }
+        });
+    }
+
+    @Test
+    public void testVerify() throws Exception {
+        ManifestReader primary = manifest("a\tmd5-a", "b\tmd5-b", "c\tmd5-c", "e\tmd5-e");
+        ManifestReader secondary = manifest("a\tmd5-a", "b\tmd5-x", "d\tmd5-d", "e\tmd5-e");
+        StringWriter differences = new StringWriter();
+
+        ManifestVerifier verifier = new ManifestVerifier(2, null);
+        ManifestVerification verification =
+            verifier.verify("space", "secondary", primary, secondary, differences);
+
+        assertTrue(verification.hasDifferences());
+        assertEquals(4, verification.getPrimaryItems());
+        assertEquals(4, verification.getSecondaryItems());
+        assertEquals(1, verification.getMissing());
+        assertEquals(1, verification.getDivergent());
+        assertEquals(1, verification.getUnexpected());
+
+        // Only the first differences are kept, but all are written out
+        assertEquals(2, verification.getDifferences().size());
+        assertTrue(verification.getDifferences().get(0).contains("b"));
+        assertTrue(verification.toString().contains("and 1 more"));
+
+        String[] lines = differences.toString().split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("DIVERGENT\tspace\tb\tmd5-b\tmd5-x", lines[0]);
+        assertEquals("MISSING\tspace\tc\tmd5-c\t", lines[1]);
+        assertEquals("UNEXPECTED\tspace\td\t\tmd5-d", lines[2]);
+    }
+
+    @Test
+    public void testVerifyMatching() throws Exception {
+        ManifestVerifier verifier = new ManifestVerifier(10, null);
+        ManifestVerification verification =
+            verifier.verify("space", "secondary",
+                            manifest("a\tmd5-a", "b\tmd5-b"),
+                            manifest("a\tmd5-a", "b\tmd5-b"),
+                            null);
+        assertFalse(verification.hasDifferences());
+        assertEquals(2, verification.getPrimaryItems());
+    }
+
+    @Test
+    public void testVerifyLarge() throws Exception {
+        int items = 200000;
+        ManifestVerifier verifier = new ManifestVerifier(10, null);
+        ManifestVerification verification =
+            verifier.verify("space", "secondary",
+                            generated(items, i -> "md5-" + i),
+                            generated(items - 1, i -> i == 1000 ? "changed" : "md5-" + i),
+                            null);
+        assertEquals(items, verification.getPrimaryItems());
+        assertEquals(items - 1, verification.getSecondaryItems());
+        assertEquals(1, verification.getMissing());
+        assertEquals(1, verification.getDivergent());
+        assertEquals(0, verification.getUnexpected());
+    }
+
+    @Test
+    public void testUnsorted() throws Exception {
+        ManifestVerifier verifier = new ManifestVerifier(10, null);
+        try {
+            verifier.verify("space", "secondary",
+                            manifest("a\tmd5-a", "c\tmd5-c", "b\tmd5-b"),
+                            manifest("a\tmd5-a", "b\tmd5-b", "c\tmd5-c"),
+                            null);
+            fail("Exception expected");
+        } catch (UnsortedManifestException e) {
+            assertTrue(e.getMessage().contains("'b' follows 'c'"));
+        }
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.duplication.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.duracloud.account.monitor.duplication.domain.DuplicationBaseline.SpaceBaseline;
+import org.junit.Test;
+
+public class DuplicationBaselineTest {
+
+    @Test
+    public void testSaveAndLoad() throws Exception {
+        File file = File.createTempFile("duplication-baseline", ".properties");
+        file.deleteOnExit();
+
+        DuplicationBaseline baseline = new DuplicationBaseline(file, 1000);
+        baseline.setSpace("host.duracloud.org", "1", "space-1", 10, 100, 5000);
+        baseline.setSpace("host.duracloud.org", "2", "space-1", 11, 110, 6000);
+        baseline.setFullRecount("host.duracloud.org", 7000);
+        baseline.save();
+
+        DuplicationBaseline loaded = new DuplicationBaseline(file, 1000);
+        loaded.load();
+        SpaceBaseline space = loaded.getSpace("host.duracloud.org", "2", "space-1");
+        assertEquals(11, space.getCount());
+        assertEquals(110, space.getByteCount());
+        assertEquals(6000, space.getTimestamp());
+        assertNull(loaded.getSpace("host.duracloud.org", "3", "space-1"));
+
+        assertFalse(loaded.isFullRecountDue("host.duracloud.org", 7999));
+        assertTrue(loaded.isFullRecountDue("host.duracloud.org", 8000));
+        assertTrue(loaded.isFullRecountDue("other.duracloud.org", 7999));
+    }
+
+    @Test
+    public void testLoadMissingFile() throws Exception {
+        File file = new File(System.getProperty("java.io.tmpdir"),
+                             "duplication-baseline-" + System.nanoTime());
+        DuplicationBaseline baseline = new DuplicationBaseline(file, 1000);
+        baseline.load();
+        assertNull(baseline.getSpace("host", "1", "space-1"));
+        assertTrue(baseline.isFullRecountDue("host", 0));
+    }
+
+}
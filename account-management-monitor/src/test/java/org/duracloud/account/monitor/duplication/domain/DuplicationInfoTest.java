@@ -11,6 +11,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -82,4 +83,32 @@ public class DuplicationInfoTest {
         assertEquals(new Long(1), tertiaryCounts.get("space1"));
     }
 
+    @Test
+    public void testConcurrentUpdates() throws Exception {
+        final DuplicationInfo dupInfo = new DuplicationInfo("host");
+        final int spaces = 500;
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final String storeId = "store-" + (t % 2);
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < spaces; i++) {
+                    dupInfo.addSpaceCount(storeId, "space-" + i, i);
+                    dupInfo.addIssue(storeId + " issue " + i);
+                    dupInfo.toString();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(2, dupInfo.getStoreIds().size());
+        assertEquals(spaces, dupInfo.getSpaceCounts("store-0").size());
+        assertEquals(spaces, dupInfo.getSpaceCounts("store-1").size());
+        assertEquals(4 * spaces, dupInfo.getIssues().size());
+    }
+
 }
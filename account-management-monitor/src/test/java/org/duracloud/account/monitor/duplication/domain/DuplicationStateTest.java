@@ -0,0 +1,61 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.duplication.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.duracloud.account.monitor.duplication.domain.DuplicationState.Transitions;
+import org.junit.Test;
+
+public class DuplicationStateTest {
+
+    private DuplicationReport createReport(String host, boolean issues) {
+        DuplicationInfo info = new DuplicationInfo(host);
+        if (issues) {
+            info.addIssue("counts do not match");
+        }
+        DuplicationReport report = new DuplicationReport();
+        report.addDupInfo(host, info);
+        return report;
+    }
+
+    @Test
+    public void testTransitions() throws Exception {
+        File file = File.createTempFile("duplication-state", ".properties");
+        file.deleteOnExit();
+
+        DuplicationState state = new DuplicationState(file);
+        state.load();
+
+        // A new host which is fine is not a change
+        assertFalse(state.update(createReport("a.duracloud.org", false)).hasChanges());
+
+        Transitions transitions = state.update(createReport("a.duracloud.org", true));
+        assertEquals(1, transitions.getNewIssues().size());
+        assertEquals("a.duracloud.org", transitions.getNewIssues().get(0).getHost());
+        state.save();
+
+        // Issues which were already reported are not reported again
+        DuplicationState loaded = new DuplicationState(file);
+        loaded.load();
+        assertFalse(loaded.update(createReport("a.duracloud.org", true)).hasChanges());
+
+        // Hosts missing from a report keep their state
+        assertFalse(loaded.update(createReport("b.duracloud.org", false)).hasChanges());
+
+        transitions = loaded.update(createReport("a.duracloud.org", false));
+        assertTrue(transitions.hasChanges());
+        assertTrue(transitions.getNewIssues().isEmpty());
+        assertEquals("a.duracloud.org", transitions.getResolved().get(0));
+    }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.duplication.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class ConsistentHashRingTest {
+
+    private static final int KEYS = 3000;
+
+    @Test
+    public void testSameAssignment() {
+        ConsistentHashRing ring = new ConsistentHashRing(Arrays.asList("a", "b", "c"));
+        ConsistentHashRing other = new ConsistentHashRing(Arrays.asList("c", "a", "b"));
+        for (int i = 0; i < KEYS; i++) {
+            assertEquals(ring.getNode("account-" + i), other.getNode("account-" + i));
+        }
+    }
+
+    @Test
+    public void testSpread() {
+        ConsistentHashRing ring = new ConsistentHashRing(Arrays.asList("a", "b", "c"));
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(ring.getNode("account-" + i), 1, Integer::sum);
+        }
+
+        assertEquals(3, counts.size());
+        for (int count : counts.values()) {
+            assertTrue("Uneven spread: " + counts, count > KEYS / 3 / 2);
+        }
+    }
+
+    @Test
+    public void testAddNode() {
+        ConsistentHashRing ring = new ConsistentHashRing(Arrays.asList("a", "b", "c"));
+        ConsistentHashRing grown = new ConsistentHashRing(Arrays.asList("a", "b", "c", "d"));
+
+        // Only keys taken by the new node move
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String before = ring.getNode("account-" + i);
+            String after = grown.getNode("account-" + i);
+            if (!before.equals(after)) {
+                assertEquals("d", after);
+                moved++;
+            }
+        }
+        assertTrue("Too many keys moved: " + moved, moved < KEYS / 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoNodes() {
+        new ConsistentHashRing(Arrays.asList());
+    }
+
+}
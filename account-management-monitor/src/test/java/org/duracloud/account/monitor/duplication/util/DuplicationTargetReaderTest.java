@@ -0,0 +1,64 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.duplication.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.duracloud.account.db.model.AccountInfo;
+import org.duracloud.account.db.model.StorageProviderAccount;
+import org.duracloud.account.db.repo.DuracloudAccountRepo;
+import org.easymock.EasyMock;
+import org.junit.Test;
+
+public class DuplicationTargetReaderTest {
+
+    private AccountInfo createAccount(String subdomain, int secondaries) {
+        Set<StorageProviderAccount> secondaryAccounts = new HashSet<>();
+        for (int i = 0; i < secondaries; i++) {
+            StorageProviderAccount secondary = new StorageProviderAccount();
+            secondary.setId((long) i);
+            secondaryAccounts.add(secondary);
+        }
+
+        AccountInfo account = new AccountInfo();
+        account.setSubdomain(subdomain);
+        account.setStatus(AccountInfo.AccountStatus.ACTIVE);
+        account.setSecondaryStorageProviderAccounts(secondaryAccounts);
+        return account;
+    }
+
+    @Test
+    public void testReadTargets() {
+        DuracloudAccountRepo accountRepo = EasyMock.createMock(DuracloudAccountRepo.class);
+        EasyMock.expect(accountRepo.findByStatus(AccountInfo.AccountStatus.ACTIVE))
+                .andReturn(Arrays.asList(createAccount("abc", 1),
+                                         createAccount("def", 0),
+                                         createAccount("xyz", 2)));
+        EasyMock.replay(accountRepo);
+
+        DuplicationTargetReader reader =
+            new DuplicationTargetReader(accountRepo,
+                                        "duracloud.org",
+                                        Collections.singletonMap("xyz.duracloud.org",
+                                                                 "space-1,space-2"));
+        Map<String, String> targets = reader.readTargets();
+
+        // Accounts without a secondary provider are not checked
+        assertEquals(2, targets.size());
+        assertEquals(DuplicationPropReader.ALL_SPACES, targets.get("abc.duracloud.org"));
+        assertEquals("space-1,space-2", targets.get("xyz.duracloud.org"));
+        EasyMock.verify(accountRepo);
+    }
+
+}
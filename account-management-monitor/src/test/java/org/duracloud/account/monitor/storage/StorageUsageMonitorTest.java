@@ -0,0 +1,183 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.duracloud.account.db.model.AccountInfo;
+import org.duracloud.account.db.model.StorageProviderAccount;
+import org.duracloud.account.db.repo.DuracloudAccountRepo;
+import org.duracloud.account.monitor.storage.domain.StorageUsageHistory;
+import org.duracloud.account.monitor.storage.domain.StorageUsageReport;
+import org.duracloud.account.monitor.storage.domain.StoreUsage;
+import org.duracloud.client.ContentStore;
+import org.duracloud.client.ContentStoreManager;
+import org.duracloud.client.SpaceStatsDTOList;
+import org.duracloud.error.ContentStoreException;
+import org.duracloud.reportdata.storage.SpaceStatsDTO;
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StorageUsageMonitorTest {
+
+    private static final long TB = StorageUsageReport.BYTES_PER_TB;
+
+    private DuracloudAccountRepo accountRepo;
+    private ContentStoreManager storeManager;
+    private File historyFile;
+
+    @Before
+    public void setup() throws Exception {
+        accountRepo = EasyMock.createMock(DuracloudAccountRepo.class);
+        storeManager = EasyMock.createMock(ContentStoreManager.class);
+        historyFile = File.createTempFile("storage-usage-history", ".properties");
+        historyFile.delete();
+    }
+
+    @After
+    public void teardown() {
+        EasyMock.verify(accountRepo, storeManager);
+        historyFile.delete();
+    }
+
+    private StorageProviderAccount createProvider(long id, int limit) {
+        StorageProviderAccount provider = new StorageProviderAccount();
+        provider.setId(id);
+        provider.setStorageLimit(limit);
+        return provider;
+    }
+
+    private AccountInfo createAccount(String subdomain,
+                                      StorageProviderAccount primary,
+                                      StorageProviderAccount... secondaries) {
+        AccountInfo account = new AccountInfo();
+        account.setSubdomain(subdomain);
+        account.setStatus(AccountInfo.AccountStatus.ACTIVE);
+        account.setPrimaryStorageProviderAccount(primary);
+        account.setSecondaryStorageProviderAccounts(new HashSet<>(Arrays.asList(secondaries)));
+        return account;
+    }
+
+    private ContentStore createStore(long... spaceBytes) throws Exception {
+        SpaceStatsDTOList stats = new SpaceStatsDTOList();
+        for (long bytes : spaceBytes) {
+            SpaceStatsDTO spaceStats = new SpaceStatsDTO();
+            spaceStats.setByteCount(bytes);
+            stats.add(spaceStats);
+        }
+        ContentStore store = EasyMock.createMock(ContentStore.class);
+        EasyMock.expect(store.getStorageProviderStatsByDay(EasyMock.isA(Date.class)))
+                .andReturn(stats);
+        EasyMock.replay(store);
+        return store;
+    }
+
+    private StorageUsageMonitor createMonitor() {
+        StorageUsageMonitor monitor =
+            new StorageUsageMonitor(accountRepo, "duracloud.org", 2, 90, 30) {
+                @Override
+                protected ContentStoreManager getStoreManager(String host) {
+                    return storeManager;
+                }
+            };
+        monitor.setHistory(new StorageUsageHistory(historyFile, TimeUnit.DAYS.toMillis(30)));
+        return monitor;
+    }
+
+    private Map<String, StoreUsage> getUsages(StorageUsageReport report) {
+        Map<String, StoreUsage> usages = new HashMap<>();
+        for (StoreUsage usage : report.getUsages()) {
+            usages.put(usage.getStoreId(), usage);
+        }
+        return usages;
+    }
+
+    @Test
+    public void testMonitorUsage() throws Exception {
+        EasyMock.expect(accountRepo.findByStatus(AccountInfo.AccountStatus.ACTIVE))
+                .andReturn(Arrays.asList(
+                    createAccount("abc", createProvider(1, 1), createProvider(2, 1)),
+                    createAccount("def", createProvider(3, 2)),
+                    createAccount("xyz", createProvider(4, 1))));
+
+        EasyMock.expect(storeManager.getContentStore("1"))
+                .andReturn(createStore(TB / 2, TB * 45 / 100));
+        EasyMock.expect(storeManager.getContentStore("2"))
+                .andReturn(createStore(TB + 1));
+        EasyMock.expect(storeManager.getContentStore("3"))
+                .andReturn(createStore(TB / 10));
+        EasyMock.expect(storeManager.getContentStore("4"))
+                .andThrow(new ContentStoreException("unavailable"));
+        EasyMock.replay(accountRepo, storeManager);
+
+        StorageUsageReport report = createMonitor().monitorUsage();
+        Map<String, StoreUsage> usages = getUsages(report);
+        assertEquals(4, usages.size());
+
+        assertEquals(TB * 95 / 100, usages.get("1").getUsedBytes());
+        assertTrue(usages.get("1").isPrimary());
+        assertEquals(StoreUsage.Status.WARNING, usages.get("1").getStatus());
+        assertEquals(StoreUsage.Status.EXCEEDED, usages.get("2").getStatus());
+        assertEquals(StoreUsage.Status.OK, usages.get("3").getStatus());
+        assertEquals(StoreUsage.Status.ERROR, usages.get("4").getStatus());
+        assertEquals("abc.duracloud.org", usages.get("2").getHost());
+
+        assertTrue(report.hasIssues());
+        String summary = report.toString();
+        assertTrue(summary.contains("Storage Limit Exceeded"));
+        assertTrue(summary.contains("Approaching Storage Limit"));
+        assertTrue(summary.contains("unavailable"));
+
+        // Usage of the readable stores is kept for the next run
+        assertTrue(historyFile.exists());
+    }
+
+    @Test
+    public void testMonitorUsageGrowth() throws Exception {
+        // Half of the limit was used ten days ago, 60% is used now
+        long dayMillis = TimeUnit.DAYS.toMillis(1);
+        StorageUsageHistory previous =
+            new StorageUsageHistory(historyFile, TimeUnit.DAYS.toMillis(30));
+        previous.add("abc.duracloud.org", "1",
+                     System.currentTimeMillis() - dayMillis * 10, TB / 2);
+        previous.save();
+
+        EasyMock.expect(accountRepo.findByStatus(AccountInfo.AccountStatus.ACTIVE))
+                .andReturn(Collections.singletonList(createAccount("abc", createProvider(1, 1))));
+        EasyMock.expect(storeManager.getContentStore("1"))
+                .andReturn(createStore(TB * 6 / 10));
+        EasyMock.replay(accountRepo, storeManager);
+
+        StorageUsageMonitor monitor = createMonitor();
+        StorageUsageHistory history =
+            new StorageUsageHistory(historyFile, TimeUnit.DAYS.toMillis(30));
+        history.load();
+        monitor.setHistory(history);
+
+        StoreUsage usage = monitor.monitorUsage().getUsages().get(0);
+        assertNotNull(usage.getGrowthPerDay());
+        assertEquals(TB / 100, usage.getGrowthPerDay(), TB / 1000);
+        // The limit is reached in about 40 days, beyond the warning days
+        assertEquals(40, usage.getDaysToLimit(), 1);
+        assertEquals(StoreUsage.Status.OK, usage.getStatus());
+    }
+
+}
@@ -0,0 +1,51 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.storage.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class StorageUsageHistoryTest {
+
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    @Test
+    public void testGrowth() throws Exception {
+        File file = File.createTempFile("storage-usage-history", ".properties");
+        file.deleteOnExit();
+
+        long now = System.currentTimeMillis();
+        StorageUsageHistory history = new StorageUsageHistory(file, DAY * 10);
+        history.load();
+        history.add("a.duracloud.org", "1", now - DAY * 12, 0);
+        history.add("a.duracloud.org", "1", now - DAY * 4, 400);
+
+        // Samples less than a day apart give no growth
+        history.add("a.duracloud.org", "2", now - DAY / 2, 100);
+        history.add("a.duracloud.org", "2", now, 200);
+        assertNull(history.getGrowthPerDay("a.duracloud.org", "2"));
+        history.save();
+
+        StorageUsageHistory loaded = new StorageUsageHistory(file, DAY * 10);
+        loaded.load();
+
+        // The sample past the retention time is dropped
+        loaded.add("a.duracloud.org", "1", now, 800);
+        assertEquals(100, loaded.getGrowthPerDay("a.duracloud.org", "1"), 0.01);
+        assertNull(loaded.getGrowthPerDay("b.duracloud.org", "1"));
+
+        loaded.prune(now + DAY * 11);
+        assertNull(loaded.getGrowthPerDay("a.duracloud.org", "1"));
+    }
+
+}
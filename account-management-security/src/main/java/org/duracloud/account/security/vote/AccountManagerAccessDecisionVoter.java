@@ -74,8 +74,11 @@ public class AccountManagerAccessDecisionVoter extends BaseAccessDecisionVoter {
         return castVote(decision, invocation);
     }
 
+    /**
+     * The id is the first argument; paged lookups take further arguments.
+     */
     private Long getIntArg(Object[] arguments) {
-        if (arguments.length != 1) {
+        if (arguments.length < 1) {
             log.error("Illegal number of args: " + arguments.length);
         }
         return (Long) arguments[0];
@@ -437,6 +437,7 @@ public class UserAccessDecisionVoterTest {
                                                                             null,
                                                                             null,
                                                                             null,
+                                                                            null,
                                                                             null);
 
         EasyMock.expect(inv.getThis()).andReturn(serviceImpl).times(2);
@@ -7,9 +7,11 @@
  */
 package org.duracloud.account.db.util;
 
+import java.util.Map;
 import java.util.Set;
 
 import org.duracloud.account.db.model.AccountInfo;
+import org.duracloud.account.db.model.AccountInfo.AccountStatus;
 import org.duracloud.account.db.model.util.AccountCreationInfo;
 import org.duracloud.account.db.util.error.AccountNotFoundException;
 import org.duracloud.account.db.util.error.SubdomainAlreadyExistsException;
@@ -57,4 +59,28 @@ public interface AccountManagerService {
     @Secured({"role:ROLE_USER, scope:SELF_ID"})
     public Set<AccountInfo> findAccountsByUserId(Long userId);
 
+    /**
+     * @param userId
+     * @param status of the accounts to return
+     * @param after cursor returned with the previous page, null for the first
+     * @param pageSize maximum number of accounts to return
+     * @return one page of the accounts in the given status on which the
+     * specified user has rights (every account, for root users), ordered by
+     * account name.
+     */
+    @Secured({"role:ROLE_USER, scope:SELF_ID"})
+    public ResultPage<AccountInfo> findAccountsByUserId(Long userId,
+                                                        AccountStatus status,
+                                                        String after,
+                                                        int pageSize);
+
+    /**
+     * @param userId
+     * @return the number of accounts in each status on which the specified
+     * user has rights (every account, for root users), including statuses
+     * which have no accounts.
+     */
+    @Secured({"role:ROLE_USER, scope:SELF_ID"})
+    public Map<AccountStatus, Long> countAccountsByUserId(Long userId);
+
 }
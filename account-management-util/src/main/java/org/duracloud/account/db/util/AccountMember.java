@@ -0,0 +1,81 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util;
+
+import org.duracloud.account.db.model.Role;
+
+/**
+ * A read-only view of a user from the perspective of a single account:
+ * the user's details along with the highest role they hold on that account.
+ */
+public class AccountMember {
+
+    private Long id;
+    private String username;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String allowableIPAddressRange;
+    private boolean root;
+    private Role role;
+
+    public AccountMember(Long id,
+                         String username,
+                         String firstName,
+                         String lastName,
+                         String email,
+                         String allowableIPAddressRange,
+                         boolean root,
+                         Role role) {
+        this.id = id;
+        this.username = username;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.allowableIPAddressRange = allowableIPAddressRange;
+        this.root = root;
+        this.role = role;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getAllowableIPAddressRange() {
+        return allowableIPAddressRange;
+    }
+
+    public boolean isRoot() {
+        return root;
+    }
+
+    /**
+     * @return the user's highest role on the account, or ROLE_ROOT for root
+     *         users
+     */
+    public Role getRole() {
+        return role;
+    }
+
+}
@@ -7,6 +7,7 @@
  */
 package org.duracloud.account.db.util;
 
+import java.util.List;
 import java.util.Set;
 
 import org.duracloud.account.db.model.AccountInfo;
@@ -100,6 +101,16 @@ public interface AccountService {
     @Secured({"role:ROLE_ANONYMOUS, scope:ANY"})
     public Set<DuracloudUser> getUsers();
 
+    /**
+     * Lists the users of this account along with their role on it. Unlike
+     * {@link #getUsers()}, this is a read-only view which is produced by a
+     * single query.
+     *
+     * @return the members of this account, ordered by username
+     */
+    @Secured({"role:ROLE_ANONYMOUS, scope:ANY"})
+    public List<AccountMember> getMembers();
+
     /**
      * Invites a user to join this account by sending a notification to the
      * provided email address. The invitation sent to the user is also
@@ -111,6 +122,21 @@ public interface AccountService {
     @Secured({"role:ROLE_ADMIN, scope:SELF_ACCT"})
     public UserInvitation inviteUser(String emailAddress, String adminUsername);
 
+    /**
+     * Invites a list of users to join this account. Addresses which are
+     * repeated, which already have a pending invitation, or which belong to
+     * a current member of the account are skipped. The remaining invitations
+     * are stored together and their notifications are sent asynchronously,
+     * so delivery failures are logged rather than reported to the caller.
+     *
+     * @param emailAddresses addresses at which to invite users
+     * @param adminUsername  user sending the invitations
+     * @return the outcome for each address
+     */
+    @Secured({"role:ROLE_ADMIN, scope:SELF_ACCT"})
+    public UserInvitationReport inviteUsers(List<String> emailAddresses,
+                                            String adminUsername);
+
     /**
      * Gets a listing of the user invitations which are associated with this
      * account.
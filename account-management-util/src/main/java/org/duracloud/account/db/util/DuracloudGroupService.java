@@ -7,6 +7,9 @@
  */
 package org.duracloud.account.db.util;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.util.Set;
 
 import org.duracloud.account.db.model.DuracloudGroup;
@@ -76,4 +79,52 @@ public interface DuracloudGroupService {
                                  Long acctId)
         throws DuracloudGroupNotFoundException;
 
+    /**
+     * This method replaces the users (if any) associated with the specified
+     * group by the users with the given ids.
+     *
+     * @param group   to be updated
+     * @param userIds of the users to associate with group
+     * @param acctId  associated with group
+     * @throws DuracloudGroupNotFoundException
+     */
+    @Secured({"role:ROLE_ADMIN, scope:SELF_ACCT"})
+    public void updateGroupUserIds(DuracloudGroup group,
+                                   Set<Long> userIds,
+                                   Long acctId)
+        throws DuracloudGroupNotFoundException;
+
+    /**
+     * Imports group memberships from comma separated lines of group name
+     * and username. Further columns, such as those written by
+     * {@link #exportGroupMembers}, and a header line are ignored. Groups
+     * which do not exist are created, and only users of the account may be
+     * added. Lines which cannot be imported are reported and skipped.
+     *
+     * @param csv     to read the memberships from
+     * @param replace whether the users of each listed group are replaced by
+     *                the users listed for it, rather than added to
+     * @param acctId  associated with the groups
+     * @return the outcome of the import
+     * @throws IOException if the memberships cannot be read
+     */
+    @Secured({"role:ROLE_ADMIN, scope:SELF_ACCT"})
+    public GroupImportReport importGroupMembers(Reader csv,
+                                                boolean replace,
+                                                Long acctId)
+        throws IOException;
+
+    /**
+     * Writes a line of comma separated values for each user of each group
+     * of the account: group name, username, first name, last name and email,
+     * ordered by group name and username, after a header line.
+     *
+     * @param writer to write the memberships to
+     * @param acctId associated with the groups
+     * @throws IOException if the memberships cannot be written
+     */
+    @Secured({"role:ROLE_ADMIN, scope:SELF_ACCT"})
+    public void exportGroupMembers(Writer writer, Long acctId)
+        throws IOException;
+
 }
@@ -0,0 +1,98 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of a group membership import. Only the first
+ * {@link #MAX_REJECTIONS} rejected lines are kept, so that the report stays
+ * small whatever the size of the import.
+ */
+public class GroupImportReport {
+
+    public static final int MAX_REJECTIONS = 100;
+
+    private int lines;
+    private int groupsCreated;
+    private int membersAdded;
+    private int membersRemoved;
+    private int rejectedLines;
+    private List<String> rejections = new ArrayList<>();
+
+    public void addLine() {
+        lines++;
+    }
+
+    public void addGroupCreated() {
+        groupsCreated++;
+    }
+
+    public void addMembersAdded(int count) {
+        membersAdded += count;
+    }
+
+    public void addMembersRemoved(int count) {
+        membersRemoved += count;
+    }
+
+    /**
+     * @param lineNumber of the rejected line, starting at 1
+     * @param reason the line was rejected
+     */
+    public void addRejection(int lineNumber, String reason) {
+        rejectedLines++;
+        if (rejections.size() < MAX_REJECTIONS) {
+            rejections.add("Line " + lineNumber + ": " + reason);
+        }
+    }
+
+    /**
+     * @return number of membership lines read, excluding the header
+     */
+    public int getLines() {
+        return lines;
+    }
+
+    public int getGroupsCreated() {
+        return groupsCreated;
+    }
+
+    /**
+     * @return number of users added to groups they were not already in
+     */
+    public int getMembersAdded() {
+        return membersAdded;
+    }
+
+    /**
+     * @return number of users removed from replaced groups, including users
+     *         who were listed for the group again
+     */
+    public int getMembersRemoved() {
+        return membersRemoved;
+    }
+
+    public int getRejectedLines() {
+        return rejectedLines;
+    }
+
+    /**
+     * @return the first rejected lines, with the reason for each
+     */
+    public List<String> getRejections() {
+        return Collections.unmodifiableList(rejections);
+    }
+
+    public boolean hasChanges() {
+        return groupsCreated > 0 || membersAdded > 0 || membersRemoved > 0;
+    }
+
+}
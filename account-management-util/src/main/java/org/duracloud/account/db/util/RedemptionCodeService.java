@@ -0,0 +1,58 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util;
+
+import org.duracloud.account.db.model.UserInvitation;
+
+/**
+ * Issues and resolves the redemption codes carried by user invitations and
+ * password change requests.
+ */
+public interface RedemptionCodeService {
+
+    /**
+     * Length of every redemption code
+     */
+    public static final int CODE_LENGTH = 32;
+
+    /**
+     * Generates a new random redemption code of length CODE_LENGTH.
+     *
+     * @return redemption code
+     */
+    public String generateCode();
+
+    /**
+     * Finds the unexpired invitation which carries the given redemption code.
+     * Codes which are malformed or were recently found not to exist are
+     * rejected without a database lookup.
+     *
+     * @param redemptionCode
+     * @return the invitation, or null if there is no unexpired invitation
+     * with this code
+     */
+    public UserInvitation findPendingInvitation(String redemptionCode);
+
+    /**
+     * Notes that an invitation carrying the given code has been saved, so
+     * that the code resolves even if it was looked up and not found while
+     * the invitation was being saved.
+     *
+     * @param redemptionCode
+     */
+    public void codeIssued(String redemptionCode);
+
+    /**
+     * Notes that the given code has been redeemed and should no longer be
+     * resolved.
+     *
+     * @param redemptionCode
+     */
+    public void codeRedeemed(String redemptionCode);
+
+}
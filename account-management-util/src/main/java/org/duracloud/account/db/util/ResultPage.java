@@ -0,0 +1,63 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paged listing. The cursor identifies the last item
+ * on this page; passing it back retrieves the page which follows.
+ */
+public class ResultPage<T> {
+
+    private List<T> items;
+    private String nextCursor;
+
+    public ResultPage(List<T> items, String nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Builds a page from a query which was asked for one more row than the
+     * page size, the extra row only indicating that another page exists.
+     *
+     * @param rows up to pageSize + 1 rows, in cursor order
+     * @param pageSize number of items on a page
+     * @param cursor extracts the cursor value from an item
+     */
+    public static <T> ResultPage<T> of(List<T> rows,
+                                       int pageSize,
+                                       Function<T, String> cursor) {
+        if (rows.size() <= pageSize) {
+            return new ResultPage<>(rows, null);
+        }
+
+        List<T> items = new ArrayList<>(rows.subList(0, pageSize));
+        return new ResultPage<>(items, cursor.apply(items.get(pageSize - 1)));
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @return cursor of the next page, or null if this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return null != nextCursor;
+    }
+
+}
@@ -9,10 +9,9 @@ package org.duracloud.account.db.util;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import org.duracloud.account.db.model.AccountInfo;
-import org.duracloud.account.db.model.DuracloudUser;
+import org.duracloud.account.db.model.AccountInfo.AccountStatus;
 import org.duracloud.account.db.model.StorageProviderAccount;
 import org.duracloud.account.db.util.error.DBNotFoundException;
 import org.duracloud.account.db.util.error.UnsentEmailException;
@@ -27,25 +26,54 @@ import org.springframework.security.access.annotation.Secured;
 public interface RootAccountManagerService {
 
     /**
-     * @param filter optional filter on org name
+     * Lists accounts one page at a time, ordered by account name.
+     *
+     * @param status optional status of the accounts
+     * @param orgPrefix optional prefix of the organization name
+     * @param subdomainPrefix optional prefix of the subdomain
+     * @param after  cursor returned with the previous page, null for the first
+     * @param pageSize maximum number of accounts to return
      * @return
      */
     @Secured({"role:ROLE_ROOT, scope:ANY"})
-    public Set<AccountInfo> listAllAccounts(String filter);
+    public ResultPage<AccountInfo> searchAccounts(AccountStatus status,
+                                                  String orgPrefix,
+                                                  String subdomainPrefix,
+                                                  String after,
+                                                  int pageSize);
+
+    /**
+     * @return the number of accounts in each status, including statuses
+     *         which have no accounts
+     */
+    @Secured({"role:ROLE_ROOT, scope:ANY"})
+    public Map<AccountStatus, Long> countAccountsByStatus();
 
     /**
-     * @param filter optional filter on username
+     * Lists users one page at a time, ordered by username. Each user is
+     * returned as one row per role held on each of their accounts (or a single
+     * row if they have no accounts), ordered by username and account id. The
+     * page size counts users, not rows.
+     *
+     * @param filter optional prefix of username, first name, last name or email
+     * @param after  cursor returned with the previous page, null for the first
+     * @param pageSize maximum number of users to return
      * @return
      */
     @Secured({"role:ROLE_ROOT, scope:ANY"})
-    public Set<DuracloudUser> listAllUsers(String filter);
+    public ResultPage<UserMembership> searchUsers(String filter, String after, int pageSize);
 
     /**
-     * @param filter optional filter on username
+     * Lists root users one page at a time, ordered by username, in the same
+     * form as {@link #searchUsers(String, String, int)}.
+     *
+     * @param filter optional prefix of username, first name, last name or email
+     * @param after  cursor returned with the previous page, null for the first
+     * @param pageSize maximum number of users to return
      * @return
      */
     @Secured({"role:ROLE_ROOT, scope:ANY"})
-    public Set<DuracloudUser> listAllRootUsers(String filter);
+    public ResultPage<UserMembership> searchRootUsers(String filter, String after, int pageSize);
 
     /**
      * Add root to a user
@@ -79,6 +107,19 @@ public interface RootAccountManagerService {
     @Secured({"role:ROLE_ROOT, scope:ANY"})
     public void deleteAccount(Long id);
 
+    /**
+     * Removes up to the given number of users from an account, along with
+     * their roles. Deleting the rights of a very large account in chunks,
+     * each in its own transaction, before calling deleteAccount keeps each
+     * transaction short.
+     *
+     * @param id of the account
+     * @param maxMembers to remove
+     * @return number of users removed, 0 once the account has no users
+     */
+    @Secured({"role:ROLE_ROOT, scope:ANY"})
+    public int deleteAccountMembers(Long id, int maxMembers);
+
     /**
      * Gets an account from the system
      *
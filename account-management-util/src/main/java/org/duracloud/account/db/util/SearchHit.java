@@ -0,0 +1,63 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util;
+
+/**
+ * A user or account matched by a {@link SearchIndex} query.
+ */
+public class SearchHit {
+
+    public enum Type {
+        USER,
+        ACCOUNT;
+    }
+
+    private Type type;
+    private Long id;
+    private String label;
+    private String detail;
+    private int score;
+
+    public SearchHit(Type type, Long id, String label, String detail, int score) {
+        this.type = type;
+        this.id = id;
+        this.label = label;
+        this.detail = detail;
+        this.score = score;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * @return username of a user, or name of an account
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @return a short description to display along with the label
+     */
+    public String getDetail() {
+        return detail;
+    }
+
+    /**
+     * @return relevance of the match, higher is better
+     */
+    public int getScore() {
+        return score;
+    }
+
+}
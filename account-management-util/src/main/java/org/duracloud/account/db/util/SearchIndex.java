@@ -0,0 +1,35 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util;
+
+import java.util.List;
+
+/**
+ * An in-memory index of users and accounts which matches fragments of
+ * usernames, names and email addresses of users, and of names,
+ * organizations and subdomains of accounts.
+ */
+public interface SearchIndex {
+
+    /**
+     * Finds users and accounts matching every whitespace separated term of
+     * the query. Terms of three or more characters match anywhere within a
+     * field; shorter terms only match the start of a word.
+     *
+     * @param query fragments to search for
+     * @param limit maximum number of hits to return
+     * @return hits, best match first
+     */
+    public List<SearchHit> search(String query, int limit);
+
+    /**
+     * @return false until the index has been loaded for the first time
+     */
+    public boolean isReady();
+
+}
@@ -0,0 +1,115 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.duracloud.account.db.model.UserInvitation;
+
+/**
+ * The outcome of a bulk user invitation request, reported per email address
+ * in the order the addresses were provided.
+ */
+public class UserInvitationReport {
+
+    public enum Outcome {
+        /**
+         * An invitation was created and its email queued for delivery
+         */
+        INVITED,
+        /**
+         * The address was listed more than once in the request
+         */
+        DUPLICATE,
+        /**
+         * An unexpired invitation to this account already exists
+         */
+        ALREADY_INVITED,
+        /**
+         * A user with this address already has rights on this account
+         */
+        ALREADY_MEMBER;
+    }
+
+    /**
+     * The outcome recorded for one address of the request
+     */
+    public static class AddressOutcome {
+        private String emailAddress;
+        private Outcome outcome;
+
+        public AddressOutcome(String emailAddress, Outcome outcome) {
+            this.emailAddress = emailAddress;
+            this.outcome = outcome;
+        }
+
+        public String getEmailAddress() {
+            return emailAddress;
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+    }
+
+    private List<AddressOutcome> outcomes = new ArrayList<>();
+    private List<UserInvitation> invitations = new ArrayList<>();
+
+    /**
+     * Records the outcome for the next address of the request. A repeated
+     * address gets an entry of its own each time it appears.
+     */
+    public void addOutcome(String emailAddress, Outcome outcome) {
+        outcomes.add(new AddressOutcome(emailAddress, outcome));
+    }
+
+    /**
+     * Adds a saved invitation. Its address must already have been recorded
+     * with the INVITED outcome.
+     */
+    public void addInvitation(UserInvitation invitation) {
+        invitations.add(invitation);
+    }
+
+    /**
+     * @return the outcome of the first appearance of the given address, or
+     *         null if it was not part of the request
+     */
+    public Outcome getOutcome(String emailAddress) {
+        for (AddressOutcome entry : outcomes) {
+            if (entry.getEmailAddress().equals(emailAddress)) {
+                return entry.getOutcome();
+            }
+        }
+        return null;
+    }
+
+    public List<AddressOutcome> getOutcomes() {
+        return Collections.unmodifiableList(outcomes);
+    }
+
+    public List<String> getEmailAddresses(Outcome outcome) {
+        List<String> addresses = new ArrayList<>();
+        for (AddressOutcome entry : outcomes) {
+            if (entry.getOutcome() == outcome) {
+                addresses.add(entry.getEmailAddress());
+            }
+        }
+        return addresses;
+    }
+
+    /**
+     * @return the invitations created by the request
+     */
+    public List<UserInvitation> getInvitations() {
+        return Collections.unmodifiableList(invitations);
+    }
+
+}
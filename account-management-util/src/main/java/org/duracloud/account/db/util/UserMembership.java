@@ -0,0 +1,103 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util;
+
+import org.duracloud.account.db.model.Role;
+
+/**
+ * A flattened, read-only view of one role a user holds on one account.
+ * A user with no account rights is represented by a single row whose
+ * account fields and role are null. Rows are produced in username, then
+ * account id order, so they can be grouped in a single pass.
+ */
+public class UserMembership {
+
+    private Long userId;
+    private String username;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String allowableIPAddressRange;
+    private boolean root;
+    private Long accountId;
+    private String acctName;
+    private String subdomain;
+    private Role role;
+
+    public UserMembership(Long userId,
+                          String username,
+                          String firstName,
+                          String lastName,
+                          String email,
+                          String allowableIPAddressRange,
+                          boolean root,
+                          Long accountId,
+                          String acctName,
+                          String subdomain,
+                          Role role) {
+        this.userId = userId;
+        this.username = username;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.allowableIPAddressRange = allowableIPAddressRange;
+        this.root = root;
+        this.accountId = accountId;
+        this.acctName = acctName;
+        this.subdomain = subdomain;
+        this.role = role;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getAllowableIPAddressRange() {
+        return allowableIPAddressRange;
+    }
+
+    public boolean isRoot() {
+        return root;
+    }
+
+    /**
+     * @return id of the account, or null if the user has no account rights
+     */
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public String getAcctName() {
+        return acctName;
+    }
+
+    public String getSubdomain() {
+        return subdomain;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+}
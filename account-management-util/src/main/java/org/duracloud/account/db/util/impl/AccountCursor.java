@@ -0,0 +1,64 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.impl;
+
+import org.duracloud.account.db.model.AccountInfo;
+
+/**
+ * Position in an account listing ordered by account name and id. The
+ * cursor format is {@code <id>:<account name>}.
+ */
+class AccountCursor {
+
+    /**
+     * Position before the first account
+     */
+    static final AccountCursor FIRST = new AccountCursor("", 0L);
+
+    private String afterName;
+    private Long afterId;
+
+    private AccountCursor(String afterName, Long afterId) {
+        this.afterName = afterName;
+        this.afterId = afterId;
+    }
+
+    /**
+     * @param cursor as returned with a previous page, or null for the first
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    static AccountCursor parse(String cursor) {
+        if (null == cursor) {
+            return FIRST;
+        }
+
+        int sep = cursor.indexOf(':');
+        if (sep < 1) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        try {
+            return new AccountCursor(cursor.substring(sep + 1),
+                                     Long.valueOf(cursor.substring(0, sep)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    static String of(AccountInfo account) {
+        return account.getId() + ":" + account.getAcctName();
+    }
+
+    String getAfterName() {
+        return afterName;
+    }
+
+    Long getAfterId() {
+        return afterId;
+    }
+
+}
@@ -8,11 +8,12 @@
 package org.duracloud.account.db.util.impl;
 
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.duracloud.account.db.model.AccountInfo;
+import org.duracloud.account.db.model.AccountInfo.AccountStatus;
 import org.duracloud.account.db.model.AccountRights;
 import org.duracloud.account.db.model.DuracloudUser;
 import org.duracloud.account.db.model.StorageProviderAccount;
@@ -21,12 +22,16 @@ import org.duracloud.account.db.repo.DuracloudRepoMgr;
 import org.duracloud.account.db.util.AccountManagerService;
 import org.duracloud.account.db.util.AccountService;
 import org.duracloud.account.db.util.AccountServiceFactory;
+import org.duracloud.account.db.util.ResultPage;
 import org.duracloud.account.db.util.error.AccountNotFoundException;
 import org.duracloud.account.db.util.error.SubdomainAlreadyExistsException;
-import org.duracloud.account.db.util.sys.EventMonitor;
+import org.duracloud.account.db.util.repo.AccountSearchRepo;
+import org.duracloud.account.db.util.sys.AccountEvent;
+import org.duracloud.account.db.util.sys.EventBus;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 
 /**
  * @author "Daniel Bernstein (dbernstein@duraspace.org)"
@@ -39,14 +44,17 @@ public class AccountManagerServiceImpl implements AccountManagerService {
 
     private DuracloudRepoMgr repoMgr;
     private AccountServiceFactory accountServiceFactory;
-    private Set<EventMonitor> eventMonitors;
+    private EventBus eventBus;
+    private AccountSearchRepo accountSearchRepo;
 
     public AccountManagerServiceImpl(DuracloudRepoMgr duracloudRepoMgr,
                                      AccountServiceFactory accountServiceFactory,
-                                     Set<EventMonitor> eventMonitors) {
+                                     EventBus eventBus,
+                                     AccountSearchRepo accountSearchRepo) {
         this.repoMgr = duracloudRepoMgr;
         this.accountServiceFactory = accountServiceFactory;
-        this.eventMonitors = eventMonitors;
+        this.eventBus = eventBus;
+        this.accountSearchRepo = accountSearchRepo;
     }
 
     @Override
@@ -57,15 +65,9 @@ public class AccountManagerServiceImpl implements AccountManagerService {
 
         AccountService acctService = doCreateAccount(accountCreationInfo);
 
-        // Notify monitors if account created successfully.
-        Iterator<EventMonitor> itr = eventMonitors.iterator();
-        while (itr.hasNext()) {
-            try {
-                itr.next().accountCreated(accountCreationInfo);
-            } catch (Exception e) {
-                log.error(e.getMessage(), e);
-            }
-        }
+        // Notify subscribers if account created successfully.
+        eventBus.publish(AccountEvent.created(acctService.getAccountId(),
+                                              accountCreationInfo));
 
         return acctService;
     }
@@ -132,6 +134,51 @@ public class AccountManagerServiceImpl implements AccountManagerService {
         }
     }
 
+    @Override
+    public ResultPage<AccountInfo> findAccountsByUserId(Long userId,
+                                                        AccountStatus status,
+                                                        String after,
+                                                        int pageSize) {
+        if (pageSize < 1 || pageSize > RootAccountManagerServiceImpl.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " +
+                                               RootAccountManagerServiceImpl.MAX_PAGE_SIZE);
+        }
+
+        AccountCursor cursor = AccountCursor.parse(after);
+        // One extra row tells whether another page follows
+        PageRequest page = new PageRequest(0, pageSize + 1);
+
+        List<AccountInfo> rows;
+        if (isRoot(userId)) {
+            rows = accountSearchRepo.findPage(cursor.getAfterName(),
+                                              cursor.getAfterId(),
+                                              status,
+                                              null,
+                                              null,
+                                              page);
+        } else {
+            rows = accountSearchRepo.findPageByUserId(userId,
+                                                      cursor.getAfterName(),
+                                                      cursor.getAfterId(),
+                                                      status,
+                                                      page);
+        }
+        return ResultPage.of(rows, pageSize, AccountCursor::of);
+    }
+
+    @Override
+    public Map<AccountStatus, Long> countAccountsByUserId(Long userId) {
+        List<Object[]> rows = isRoot(userId) ?
+                              accountSearchRepo.countByStatus() :
+                              accountSearchRepo.countByStatusAndUserId(userId);
+        return RootAccountManagerServiceImpl.toStatusCounts(rows);
+    }
+
+    private boolean isRoot(Long userId) {
+        DuracloudUser user = repoMgr.getUserRepo().findOne(userId);
+        return null != user && user.isRoot();
+    }
+
     @Override
     public boolean subdomainAvailable(String subdomain) {
         AccountInfo accountInfo = repoMgr.getAccountRepo().findBySubdomain(subdomain);
@@ -13,13 +13,17 @@ import org.duracloud.account.db.repo.DuracloudRepoMgr;
 import org.duracloud.account.db.util.AccountService;
 import org.duracloud.account.db.util.AccountServiceFactory;
 import org.duracloud.account.db.util.EmailTemplateService;
+import org.duracloud.account.db.util.RedemptionCodeService;
 import org.duracloud.account.db.util.error.AccountNotFoundException;
+import org.duracloud.account.db.util.notification.NotificationExecutor;
 import org.duracloud.account.db.util.notification.NotificationMgr;
+import org.duracloud.account.db.util.repo.PendingInvitationRepo;
 import org.duracloud.account.db.util.security.AnnotationParser;
 import org.duracloud.account.db.util.security.SecurityContextUtil;
+import org.duracloud.account.db.util.sys.EventBus;
+import org.duracloud.account.db.util.util.UserFinderUtil;
 import org.duracloud.common.error.DuraCloudRuntimeException;
 import org.duracloud.common.error.NoUserLoggedInException;
-import org.duracloud.common.sns.AccountChangeNotifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -44,9 +48,13 @@ public class AccountServiceFactoryImpl implements AccountServiceFactory {
     private SecurityContextUtil securityContext;
     private AnnotationParser annotationParser;
     private AmaEndpoint amaEndpoint;
-    private AccountChangeNotifier accountChangeNotifier;
+    private EventBus eventBus;
     private NotificationMgr notificationMgr;
     private EmailTemplateService emailTemplateService;
+    private NotificationExecutor notificationExecutor;
+    private PendingInvitationRepo pendingInvitationRepo;
+    private RedemptionCodeService redemptionCodeService;
+    private UserFinderUtil userFinderUtil;
 
     @Autowired
     public AccountServiceFactoryImpl(DuracloudRepoMgr repoMgr,
@@ -54,17 +62,25 @@ public class AccountServiceFactoryImpl implements AccountServiceFactory {
                                      SecurityContextUtil securityContext,
                                      AnnotationParser annotationParser,
                                      AmaEndpoint amaEndpoint,
-                                     AccountChangeNotifier accountChangeNotifier,
+                                     EventBus eventBus,
                                      NotificationMgr notificationMgr,
-                                     EmailTemplateService emailTemplateService) {
+                                     EmailTemplateService emailTemplateService,
+                                     NotificationExecutor notificationExecutor,
+                                     PendingInvitationRepo pendingInvitationRepo,
+                                     RedemptionCodeService redemptionCodeService,
+                                     UserFinderUtil userFinderUtil) {
         this.repoMgr = repoMgr;
         this.voter = voter;
         this.securityContext = securityContext;
         this.annotationParser = annotationParser;
         this.amaEndpoint = amaEndpoint;
-        this.accountChangeNotifier = accountChangeNotifier;
+        this.eventBus = eventBus;
         this.notificationMgr = notificationMgr;
         this.emailTemplateService = emailTemplateService;
+        this.notificationExecutor = notificationExecutor;
+        this.pendingInvitationRepo = pendingInvitationRepo;
+        this.redemptionCodeService = redemptionCodeService;
+        this.userFinderUtil = userFinderUtil;
     }
 
     @Override
@@ -79,9 +95,13 @@ public class AccountServiceFactoryImpl implements AccountServiceFactory {
         AccountService acctService = new AccountServiceImpl(amaEndpoint,
                                                             acctInfo,
                                                             repoMgr,
-                                                            accountChangeNotifier,
+                                                            eventBus,
                                                             notificationMgr,
-                                                            emailTemplateService);
+                                                            emailTemplateService,
+                                                            notificationExecutor,
+                                                            pendingInvitationRepo,
+                                                            redemptionCodeService,
+                                                            userFinderUtil);
 
         Authentication authentication = getAuthentication();
         return new AccountServiceSecuredImpl(acctService,
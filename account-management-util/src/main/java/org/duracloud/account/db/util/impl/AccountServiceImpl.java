@@ -7,9 +7,11 @@
  */
 package org.duracloud.account.db.util.impl;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 
 import org.duracloud.account.config.AmaEndpoint;
@@ -20,13 +22,19 @@ import org.duracloud.account.db.model.StorageProviderAccount;
 import org.duracloud.account.db.model.UserInvitation;
 import org.duracloud.account.db.repo.DuracloudRepoMgr;
 import org.duracloud.account.db.repo.DuracloudRightsRepo;
+import org.duracloud.account.db.util.AccountMember;
 import org.duracloud.account.db.util.AccountService;
 import org.duracloud.account.db.util.EmailTemplateService;
+import org.duracloud.account.db.util.RedemptionCodeService;
+import org.duracloud.account.db.util.UserInvitationReport;
 import org.duracloud.account.db.util.error.DuracloudProviderAccountNotAvailableException;
+import org.duracloud.account.db.util.notification.NotificationExecutor;
 import org.duracloud.account.db.util.notification.NotificationMgr;
 import org.duracloud.account.db.util.notification.Notifier;
-import org.duracloud.common.sns.AccountChangeNotifier;
-import org.duracloud.common.util.ChecksumUtil;
+import org.duracloud.account.db.util.repo.PendingInvitationRepo;
+import org.duracloud.account.db.util.sys.AccountEvent;
+import org.duracloud.account.db.util.sys.EventBus;
+import org.duracloud.account.db.util.util.UserFinderUtil;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,9 +48,12 @@ public class AccountServiceImpl implements AccountService {
     // writes go to both it and the persistence layer.
     private AccountInfo account;
     private DuracloudRepoMgr repoMgr;
-    private AccountChangeNotifier accountChangeNotifier;
+    private EventBus eventBus;
     private Notifier notifier;
-
+    private NotificationExecutor notificationExecutor;
+    private PendingInvitationRepo pendingInvitationRepo;
+    private RedemptionCodeService redemptionCodeService;
+    private UserFinderUtil userFinderUtil;
 
     /**
      * @param acct
@@ -50,13 +61,22 @@ public class AccountServiceImpl implements AccountService {
     public AccountServiceImpl(AmaEndpoint amaEndpoint,
                               AccountInfo acct,
                               DuracloudRepoMgr repoMgr,
-                              AccountChangeNotifier accountChangeNotifier,
+                              EventBus eventBus,
                               NotificationMgr notificationMgr,
-                              EmailTemplateService emailTemplateService) {
+                              EmailTemplateService emailTemplateService,
+                              NotificationExecutor notificationExecutor,
+                              PendingInvitationRepo pendingInvitationRepo,
+                              RedemptionCodeService redemptionCodeService,
+                              UserFinderUtil userFinderUtil) {
         this.account = acct;
         this.repoMgr = repoMgr;
-        this.accountChangeNotifier = accountChangeNotifier;
-        this.notifier = new Notifier(notificationMgr.getEmailer(), amaEndpoint, emailTemplateService);
+        this.eventBus = eventBus;
+        this.notifier = new Notifier(notificationMgr.getEmailer(), notificationMgr.getDeliveryLog(),
+                                     amaEndpoint, emailTemplateService);
+        this.notificationExecutor = notificationExecutor;
+        this.pendingInvitationRepo = pendingInvitationRepo;
+        this.redemptionCodeService = redemptionCodeService;
+        this.userFinderUtil = userFinderUtil;
     }
 
     @Override
@@ -68,14 +88,17 @@ public class AccountServiceImpl implements AccountService {
             rightsRepo.findByAccountId(account.getId());
 
         for (AccountRights right : rights) {
-            DuracloudUser user = right.getUser();
-            user.getAccountRights().size();  // lazy load the user's accout rights
-            users.add(user);
+            users.add(right.getUser());
         }
 
         return users;
     }
 
+    @Override
+    public List<AccountMember> getMembers() {
+        return userFinderUtil.getAccountMembers(account.getId());
+    }
+
     @Override
     public Long getAccountId() {
         return account.getId();
@@ -126,7 +149,7 @@ public class AccountServiceImpl implements AccountService {
             repoMgr.getStorageProviderAccountRepo().delete(storageProviderId);
 
             // Propagate changes to DuraCloud
-            accountChangeNotifier.storageProvidersChanged(accountId);
+            publishProvidersChanged();
         } else {
             throw new DuracloudProviderAccountNotAvailableException(
                 "The storage provider account with ID " + storageProviderId +
@@ -135,6 +158,12 @@ public class AccountServiceImpl implements AccountService {
         }
     }
 
+    private void publishProvidersChanged() {
+        eventBus.publish(new AccountEvent(AccountEvent.Type.PROVIDERS_CHANGED,
+                                          account.getId(),
+                                          account.getSubdomain()));
+    }
+
     private void saveAccountInfo(AccountInfo accountInfo) {
         this.repoMgr.getAccountRepo().save(accountInfo);
     }
@@ -162,7 +191,7 @@ public class AccountServiceImpl implements AccountService {
 
         if (primaryProviderUpdated) {
             // Propagate changes to DuraCloud
-            accountChangeNotifier.storageProvidersChanged(accountId);
+            publishProvidersChanged();
         } else {
             throw new DuracloudProviderAccountNotAvailableException(
                 "The storage provider account with ID " + storageProviderId +
@@ -184,6 +213,9 @@ public class AccountServiceImpl implements AccountService {
         account.setOrgName(orgName);
         account.setDepartment(department);
         repoMgr.getAccountRepo().save(account);
+        eventBus.publish(new AccountEvent(AccountEvent.Type.UPDATED,
+                                          account.getId(),
+                                          account.getSubdomain()));
     }
 
     @Override
@@ -193,6 +225,15 @@ public class AccountServiceImpl implements AccountService {
 
         account.setStatus(status);
         repoMgr.getAccountRepo().save(account);
+        if (status == AccountInfo.AccountStatus.ACTIVE) {
+            eventBus.publish(new AccountEvent(AccountEvent.Type.ACTIVATED,
+                                              account.getId(),
+                                              account.getSubdomain()));
+        } else if (status == AccountInfo.AccountStatus.INACTIVE) {
+            eventBus.publish(new AccountEvent(AccountEvent.Type.DEACTIVATED,
+                                              account.getId(),
+                                              account.getSubdomain()));
+        }
     }
 
     @Override
@@ -206,45 +247,89 @@ public class AccountServiceImpl implements AccountService {
         log.info("Inviting user at address {} to account {}",
                  emailAddress, account.getSubdomain());
 
-        ChecksumUtil cksumUtil = new ChecksumUtil(ChecksumUtil.Algorithm.MD5);
-
-        String code = emailAddress + System.currentTimeMillis();
-        String redemptionCode = cksumUtil.generateChecksum(code);
-
-        int expirationDays = 14;
-        UserInvitation userInvitation = new UserInvitation(null,
-                                                           account,
-                                                           account.getAcctName(),
-                                                           account.getOrgName(),
-                                                           account.getDepartment(),
-                                                           account.getSubdomain(),
-                                                           adminUsername,
-                                                           emailAddress,
-                                                           expirationDays,
-                                                           redemptionCode);
+        UserInvitation userInvitation = createInvitation(emailAddress, adminUsername);
         repoMgr.getUserInvitationRepo().save(userInvitation);
+        redemptionCodeService.codeIssued(userInvitation.getRedemptionCode());
         notifier.sendNotificationUserInvitation(userInvitation);
 
         return userInvitation;
     }
 
     @Override
-    public Set<UserInvitation> getPendingInvitations() {
-        List<UserInvitation> invitations =
-            repoMgr.getUserInvitationRepo().findByAccountId(account.getId());
+    public UserInvitationReport inviteUsers(List<String> emailAddresses,
+                                            String adminUsername) {
+        log.info("Inviting {} users to account {}",
+                 emailAddresses.size(), account.getSubdomain());
+
+        Set<String> invited = new HashSet<>();
+        for (UserInvitation ui : getPendingInvitations()) {
+            invited.add(normalize(ui.getUserEmail()));
+        }
 
-        Date now = new Date();
-        Set<UserInvitation> pendingInvitations = new HashSet<UserInvitation>();
+        Set<String> members = new HashSet<>();
+        for (AccountRights rights : repoMgr.getRightsRepo().findByAccountId(account.getId())) {
+            members.add(normalize(rights.getUser().getEmail()));
+        }
 
-        for (UserInvitation ui : invitations) {
-            if (ui.getExpirationDate().before(now)) {
-                repoMgr.getUserInvitationRepo().delete(ui.getId());
+        UserInvitationReport report = new UserInvitationReport();
+        Set<String> requested = new HashSet<>();
+        List<UserInvitation> invitations = new ArrayList<>();
+        for (String emailAddress : emailAddresses) {
+            String key = normalize(emailAddress);
+            if (!requested.add(key)) {
+                report.addOutcome(emailAddress, UserInvitationReport.Outcome.DUPLICATE);
+            } else if (members.contains(key)) {
+                report.addOutcome(emailAddress, UserInvitationReport.Outcome.ALREADY_MEMBER);
+            } else if (invited.contains(key)) {
+                report.addOutcome(emailAddress, UserInvitationReport.Outcome.ALREADY_INVITED);
             } else {
-                pendingInvitations.add(ui);
+                report.addOutcome(emailAddress, UserInvitationReport.Outcome.INVITED);
+                invitations.add(createInvitation(emailAddress, adminUsername));
             }
         }
 
-        return pendingInvitations;
+        if (!invitations.isEmpty()) {
+            for (UserInvitation ui : repoMgr.getUserInvitationRepo().save(invitations)) {
+                report.addInvitation(ui);
+                redemptionCodeService.codeIssued(ui.getRedemptionCode());
+                notificationExecutor.execute("invitation to " + ui.getUserEmail(),
+                                             () -> notifier.sendNotificationUserInvitation(ui),
+                                             () -> notifier.recordUnsentUserInvitation(
+                                                 ui, "Unable to queue the invitation email"));
+            }
+        }
+
+        log.info("Created {} of {} requested invitations to account {}",
+                 invitations.size(), emailAddresses.size(), account.getSubdomain());
+        return report;
+    }
+
+    private UserInvitation createInvitation(String emailAddress,
+                                            String adminUsername) {
+        String redemptionCode = redemptionCodeService.generateCode();
+        int expirationDays = 14;
+        return new UserInvitation(null,
+                                  account,
+                                  account.getAcctName(),
+                                  account.getOrgName(),
+                                  account.getDepartment(),
+                                  account.getSubdomain(),
+                                  adminUsername,
+                                  emailAddress,
+                                  expirationDays,
+                                  redemptionCode);
+    }
+
+    private String normalize(String emailAddress) {
+        return null == emailAddress ? null : emailAddress.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public Set<UserInvitation> getPendingInvitations() {
+        // Expired invitations are purged by the ExpiredInvitationReaper
+        return new HashSet<UserInvitation>(
+            pendingInvitationRepo.findByAccountIdAndExpirationDateAfter(account.getId(),
+                                                                        new Date()));
     }
 
     @Override
@@ -8,6 +8,7 @@
 package org.duracloud.account.db.util.impl;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -16,7 +17,9 @@ import org.duracloud.account.db.model.AccountInfo;
 import org.duracloud.account.db.model.DuracloudUser;
 import org.duracloud.account.db.model.StorageProviderAccount;
 import org.duracloud.account.db.model.UserInvitation;
+import org.duracloud.account.db.util.AccountMember;
 import org.duracloud.account.db.util.AccountService;
+import org.duracloud.account.db.util.UserInvitationReport;
 import org.duracloud.account.db.util.error.AccessDeniedException;
 import org.duracloud.account.db.util.security.AnnotationParser;
 import org.duracloud.account.db.util.security.impl.MethodInvocationImpl;
@@ -146,12 +149,25 @@ public class AccountServiceSecuredImpl implements AccountService {
         return accountService.getUsers();
     }
 
+    @Override
+    public List<AccountMember> getMembers() {
+        throwIfAccessDenied();
+        return accountService.getMembers();
+    }
+
     @Override
     public UserInvitation inviteUser(String emailAddress, String adminUsername) {
         throwIfAccessDenied(emailAddress, adminUsername);
         return accountService.inviteUser(emailAddress, adminUsername);
     }
 
+    @Override
+    public UserInvitationReport inviteUsers(List<String> emailAddresses,
+                                            String adminUsername) {
+        throwIfAccessDenied(emailAddresses, adminUsername);
+        return accountService.inviteUsers(emailAddresses, adminUsername);
+    }
+
     @Override
     public Set<UserInvitation> getPendingInvitations() {
         throwIfAccessDenied();
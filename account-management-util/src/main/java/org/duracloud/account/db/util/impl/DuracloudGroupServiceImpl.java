@@ -7,9 +7,17 @@
  */
 package org.duracloud.account.db.util.impl;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.duracloud.account.db.model.AccountInfo;
@@ -17,13 +25,18 @@ import org.duracloud.account.db.model.DuracloudGroup;
 import org.duracloud.account.db.model.DuracloudUser;
 import org.duracloud.account.db.repo.DuracloudRepoMgr;
 import org.duracloud.account.db.util.DuracloudGroupService;
+import org.duracloud.account.db.util.GroupImportReport;
 import org.duracloud.account.db.util.error.DuracloudGroupAlreadyExistsException;
 import org.duracloud.account.db.util.error.DuracloudGroupNotFoundException;
 import org.duracloud.account.db.util.error.InvalidGroupNameException;
-import org.duracloud.common.sns.AccountChangeNotifier;
+import org.duracloud.account.db.util.repo.GroupMembershipRepo;
+import org.duracloud.account.db.util.sys.AccountEvent;
+import org.duracloud.account.db.util.sys.EventBus;
+import org.duracloud.account.db.util.util.CsvUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 
 /**
@@ -36,14 +49,24 @@ public class DuracloudGroupServiceImpl implements DuracloudGroupService {
     private Logger log =
         LoggerFactory.getLogger(DuracloudGroupServiceImpl.class);
 
+    private static final int IMPORT_BATCH_SIZE = 500;
+    private static final int EXPORT_PAGE_SIZE = 1000;
+    private static final String[] CSV_HEADER =
+        {"group", "username", "first_name", "last_name", "email"};
+
     private DuracloudRepoMgr repoMgr;
 
-    private AccountChangeNotifier accountChangeNotifier;
+    private GroupMembershipRepo groupMembershipRepo;
+
+    private EventBus eventBus;
 
     @Autowired
-    public DuracloudGroupServiceImpl(DuracloudRepoMgr duracloudRepoMgr, AccountChangeNotifier accountChangeNotifier) {
+    public DuracloudGroupServiceImpl(DuracloudRepoMgr duracloudRepoMgr,
+                                     GroupMembershipRepo groupMembershipRepo,
+                                     EventBus eventBus) {
         this.repoMgr = duracloudRepoMgr;
-        this.accountChangeNotifier = accountChangeNotifier;
+        this.groupMembershipRepo = groupMembershipRepo;
+        this.eventBus = eventBus;
     }
 
     @Override
@@ -124,12 +147,200 @@ public class DuracloudGroupServiceImpl implements DuracloudGroupService {
         propagateUpdate(acctId);
     }
 
+    @Override
+    public void updateGroupUserIds(DuracloudGroup group,
+                                   Set<Long> userIds,
+                                   Long acctId)
+        throws DuracloudGroupNotFoundException {
+        Set<DuracloudUser> users = new HashSet<DuracloudUser>();
+        if (!userIds.isEmpty()) {
+            users.addAll(repoMgr.getUserRepo().findAll(userIds));
+        }
+        updateGroupUsers(group, users, acctId);
+    }
+
+    @Override
+    public GroupImportReport importGroupMembers(Reader csv,
+                                                boolean replace,
+                                                Long acctId)
+        throws IOException {
+        GroupImportReport report = new GroupImportReport();
+
+        Map<String, Long> groupIds = new HashMap<>();
+        for (Object[] row : groupMembershipRepo.findGroupIds(acctId)) {
+            groupIds.put((String) row[0], (Long) row[1]);
+        }
+        Set<Long> replaced = new HashSet<>();
+
+        BufferedReader reader = new BufferedReader(csv);
+        List<ImportLine> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        boolean first = true;
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+
+            List<String> values;
+            try {
+                values = CsvUtil.parseLine(line);
+            } catch (IllegalArgumentException e) {
+                report.addRejection(lineNumber, e.getMessage());
+                continue;
+            }
+            if (first && CSV_HEADER[0].equalsIgnoreCase(values.get(0))) {
+                first = false;
+                continue;
+            }
+            first = false;
+            report.addLine();
+
+            if (values.size() < 2 || values.get(0).isEmpty() || values.get(1).isEmpty()) {
+                report.addRejection(lineNumber, "A group name and a username are required");
+                continue;
+            }
+            String groupName = values.get(0);
+            if (!groupName.startsWith(DuracloudGroup.PREFIX)) {
+                groupName = DuracloudGroup.PREFIX + groupName;
+            }
+            if (!isGroupNameValid(groupName)) {
+                report.addRejection(lineNumber, "Invalid group name: " + values.get(0));
+                continue;
+            }
+
+            batch.add(new ImportLine(lineNumber, groupName, values.get(1)));
+            if (batch.size() == IMPORT_BATCH_SIZE) {
+                importBatch(batch, replace, acctId, groupIds, replaced, report);
+                batch.clear();
+            }
+        }
+        importBatch(batch, replace, acctId, groupIds, replaced, report);
+
+        if (report.hasChanges()) {
+            propagateUpdate(acctId);
+        }
+        return report;
+    }
+
+    /**
+     * Resolves the usernames of a batch of lines with a single query, then
+     * adds the users of each group with a single statement.
+     */
+    private void importBatch(List<ImportLine> batch,
+                             boolean replace,
+                             Long acctId,
+                             Map<String, Long> groupIds,
+                             Set<Long> replaced,
+                             GroupImportReport report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Set<String> usernames = new HashSet<>();
+        for (ImportLine line : batch) {
+            usernames.add(line.username);
+        }
+        Map<String, Long> userIds = new HashMap<>();
+        for (Object[] row : groupMembershipRepo.findMemberIds(acctId, usernames)) {
+            userIds.put((String) row[0], (Long) row[1]);
+        }
+
+        boolean created = false;
+        Map<Long, Set<Long>> additions = new LinkedHashMap<>();
+        for (ImportLine line : batch) {
+            Long userId = userIds.get(line.username);
+            if (userId == null) {
+                report.addRejection(line.number, "Not a user of this account: " + line.username);
+                continue;
+            }
+
+            Long groupId = groupIds.get(line.groupName);
+            if (groupId == null) {
+                try {
+                    groupId = createGroup(line.groupName, acctId).getId();
+                } catch (DuracloudGroupAlreadyExistsException | InvalidGroupNameException e) {
+                    report.addRejection(line.number, "Unable to create group: " + line.groupName);
+                    continue;
+                }
+                groupIds.put(line.groupName, groupId);
+                report.addGroupCreated();
+                created = true;
+            }
+
+            if (replace && replaced.add(groupId)) {
+                report.addMembersRemoved(groupMembershipRepo.removeAllMembers(groupId));
+            }
+            Set<Long> groupAdditions = additions.get(groupId);
+            if (groupAdditions == null) {
+                groupAdditions = new HashSet<>();
+                additions.put(groupId, groupAdditions);
+            }
+            groupAdditions.add(userId);
+        }
+
+        if (created) {
+            // New groups must be written before their memberships are
+            repoMgr.getGroupRepo().flush();
+        }
+        for (Map.Entry<Long, Set<Long>> entry : additions.entrySet()) {
+            report.addMembersAdded(groupMembershipRepo.addMembers(entry.getKey(),
+                                                                  entry.getValue()));
+        }
+    }
+
+    @Override
+    public void exportGroupMembers(Writer writer, Long acctId) throws IOException {
+        writer.write(CsvUtil.formatLine(CSV_HEADER));
+        writer.write('\n');
+
+        String afterGroup = "";
+        String afterUsername = "";
+        List<Object[]> rows;
+        do {
+            rows = groupMembershipRepo.findPage(acctId,
+                                                afterGroup,
+                                                afterUsername,
+                                                new PageRequest(0, EXPORT_PAGE_SIZE));
+            for (Object[] row : rows) {
+                writer.write(CsvUtil.formatLine((String) row[0],
+                                                (String) row[1],
+                                                (String) row[2],
+                                                (String) row[3],
+                                                (String) row[4]));
+                writer.write('\n');
+            }
+            if (!rows.isEmpty()) {
+                Object[] last = rows.get(rows.size() - 1);
+                afterGroup = (String) last[0];
+                afterUsername = (String) last[1];
+            }
+            writer.flush();
+        } while (rows.size() == EXPORT_PAGE_SIZE);
+    }
+
     private void propagateUpdate(Long acctId) {
         try {
-            AccountInfo account = this.repoMgr.getAccountRepo().getOne(acctId);
-            this.accountChangeNotifier.userStoreChanged(account.getSubdomain());
+            AccountInfo account = this.repoMgr.getAccountRepo().findOne(acctId);
+            this.eventBus.publish(new AccountEvent(AccountEvent.Type.USERS_CHANGED,
+                                                   acctId,
+                                                   account.getSubdomain()));
         } catch (Exception ex) {
             log.error("failed to notify of change to account " + acctId, ex);
         }
     }
+
+    private static class ImportLine {
+        private final int number;
+        private final String groupName;
+        private final String username;
+
+        ImportLine(int number, String groupName, String username) {
+            this.number = number;
+            this.groupName = groupName;
+            this.username = username;
+        }
+    }
+
 }
@@ -26,6 +26,7 @@ import org.duracloud.account.db.repo.DuracloudUserInvitationRepo;
 import org.duracloud.account.db.repo.DuracloudUserRepo;
 import org.duracloud.account.db.util.DuracloudUserService;
 import org.duracloud.account.db.util.EmailTemplateService;
+import org.duracloud.account.db.util.RedemptionCodeService;
 import org.duracloud.account.db.util.error.DBNotFoundException;
 import org.duracloud.account.db.util.error.InvalidPasswordException;
 import org.duracloud.account.db.util.error.InvalidRedemptionCodeException;
@@ -36,7 +37,8 @@ import org.duracloud.account.db.util.error.UnsentEmailException;
 import org.duracloud.account.db.util.error.UserAlreadyExistsException;
 import org.duracloud.account.db.util.notification.NotificationMgr;
 import org.duracloud.account.db.util.notification.Notifier;
-import org.duracloud.common.sns.AccountChangeNotifier;
+import org.duracloud.account.db.util.sys.EventBus;
+import org.duracloud.account.db.util.sys.UserEvent;
 import org.duracloud.common.util.ChecksumUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,19 +62,22 @@ public class DuracloudUserServiceImpl implements DuracloudUserService, UserDetai
     private Notifier notifier;
     private AmaEndpoint amaEndpoint;
     private EmailTemplateService emailTemplateService;
-    private AccountChangeNotifier accountChangeNotifier;
+    private EventBus eventBus;
+    private RedemptionCodeService redemptionCodeService;
 
     @Autowired
     public DuracloudUserServiceImpl(DuracloudRepoMgr duracloudRepoMgr,
                                     NotificationMgr notificationMgr,
                                     AmaEndpoint amaEndpoint,
-                                    AccountChangeNotifier accountChangeNotifier,
-                                    EmailTemplateService emailTemplateService) {
+                                    EventBus eventBus,
+                                    EmailTemplateService emailTemplateService,
+                                    RedemptionCodeService redemptionCodeService) {
         this.repoMgr = duracloudRepoMgr;
         this.notificationMgr = notificationMgr;
         this.amaEndpoint = amaEndpoint;
-        this.accountChangeNotifier = accountChangeNotifier;
+        this.eventBus = eventBus;
         this.emailTemplateService = emailTemplateService;
+        this.redemptionCodeService = redemptionCodeService;
     }
 
     @Override
@@ -142,21 +147,20 @@ public class DuracloudUserServiceImpl implements DuracloudUserService, UserDetai
         repoMgr.getUserRepo().save(user);
 
         log.info("New user created with username {}", username);
-        getNotifier().sendNotificationCreateNewUser(user);
-
-        if (user.isRoot()) {
-            this.accountChangeNotifier.rootUsersChanged();
-        }
+        eventBus.publish(new UserEvent(UserEvent.Type.CREATED, user, null));
 
         return user;
     }
 
     @Override
     public boolean setUserRights(Long acctId, Long userId, Role... roles) {
-        return setUserRightsInternal(acctId, userId, roles);
+        return setUserRightsInternal(UserEvent.Type.RIGHTS_CHANGED, acctId, userId, roles);
     }
 
-    private boolean setUserRightsInternal(Long acctId, Long userId, Role... roles) {
+    private boolean setUserRightsInternal(UserEvent.Type eventType,
+                                          Long acctId,
+                                          Long userId,
+                                          Role... roles) {
 
         Set<Role> roleSet = new HashSet<Role>();
         for (Role role : roles) {
@@ -168,15 +172,15 @@ public class DuracloudUserServiceImpl implements DuracloudUserService, UserDetai
 
         boolean result = doSetUserRights(acctId, userId, roleSet);
         if (result) {
-            notifyAccountChanged(acctId);
+            publishUserEvent(eventType, acctId, userId);
         }
         return result;
     }
 
-    private void notifyAccountChanged(Long acctId) {
-        AccountInfo account = this.repoMgr.getAccountRepo().getOne(acctId);
-        String accountId = account.getSubdomain();
-        this.accountChangeNotifier.accountChanged(accountId);
+    private void publishUserEvent(UserEvent.Type eventType, Long acctId, Long userId) {
+        AccountInfo account = repoMgr.getAccountRepo().findOne(acctId);
+        DuracloudUser user = repoMgr.getUserRepo().findOne(userId);
+        eventBus.publish(new UserEvent(eventType, user, account));
     }
 
     private boolean doSetUserRights(Long acctId, Long userId, Set<Role> roles) {
@@ -245,7 +249,7 @@ public class DuracloudUserServiceImpl implements DuracloudUserService, UserDetai
 
         doRevokeUserRights(acctId, userId);
         removeUserFromAccountGroups(acctId, userId);
-        notifyAccountChanged(acctId);
+        publishUserEvent(UserEvent.Type.REMOVED, acctId, userId);
     }
 
     private void doRevokeUserRights(Long acctId, Long userId) {
@@ -299,7 +303,8 @@ public class DuracloudUserServiceImpl implements DuracloudUserService, UserDetai
             user.setPassword(util.generateChecksum(newPassword));
             repoMgr.getUserRepo().save(user);
 
-            propagateUserUpdate(userId);
+            eventBus.publish(new UserEvent(UserEvent.Type.UPDATED, user, null));
+            propagateUserUpdate(user);
         }
     }
 
@@ -321,28 +326,29 @@ public class DuracloudUserServiceImpl implements DuracloudUserService, UserDetai
         DuracloudUserInvitationRepo invRepo = repoMgr.getUserInvitationRepo();
 
         // Retrieve the invitation
-        UserInvitation invitation = invRepo.findByRedemptionCode(redemptionCode);
+        UserInvitation invitation = findPendingInvitation(redemptionCode);
         if (invitation == null) {
             throw new InvalidRedemptionCodeException(redemptionCode);
         }
 
         // Delete the invitation
         invRepo.delete(invitation.getId());
+        redemptionCodeService.codeRedeemed(redemptionCode);
     }
 
-    private void propagateUserUpdate(Long userId) {
-        DuracloudUser user = repoMgr.getUserRepo().findOne(userId);
+    private void propagateUserUpdate(DuracloudUser user) {
         // Propagate changes for each of the user's accounts
         if (!user.isRoot()) { // Do no propagate if user is root
 
             List<AccountRights> rightsList =
-                repoMgr.getRightsRepo().findByUserId(userId);
+                repoMgr.getRightsRepo().findByUserId(user.getId());
 
             for (AccountRights rights : rightsList) {
-                this.accountChangeNotifier.userStoreChanged(rights.getAccount().getSubdomain());
+                eventBus.publish(new UserEvent(UserEvent.Type.CREDENTIALS_CHANGED,
+                                               user, rights.getAccount()));
             }
         } else {
-            this.accountChangeNotifier.rootUsersChanged();
+            eventBus.publish(new UserEvent(UserEvent.Type.CREDENTIALS_CHANGED, user, null));
         }
     }
 
@@ -360,9 +366,7 @@ public class DuracloudUserServiceImpl implements DuracloudUserService, UserDetai
             throw new InvalidPasswordException(user.getId());
         }
 
-        ChecksumUtil cksumUtil = new ChecksumUtil(ChecksumUtil.Algorithm.MD5);
-        String code = username + System.currentTimeMillis();
-        String redemptionCode = cksumUtil.generateChecksum(code);
+        String redemptionCode = redemptionCodeService.generateCode();
         int expirationDays = 14;
         UserInvitation userInvitation = new UserInvitation(null,
                                                            null,
@@ -376,6 +380,7 @@ public class DuracloudUserServiceImpl implements DuracloudUserService, UserDetai
                                                            redemptionCode);
 
         this.repoMgr.getUserInvitationRepo().save(userInvitation);
+        redemptionCodeService.codeIssued(redemptionCode);
 
         getNotifier().sendNotificationPasswordReset(user,
                                                     redemptionCode,
@@ -385,19 +390,21 @@ public class DuracloudUserServiceImpl implements DuracloudUserService, UserDetai
     @Override
     public UserInvitation retrievePassordChangeInvitation(String redemptionCode)
         throws DBNotFoundException {
-        UserInvitation invite = this.repoMgr.getUserInvitationRepo()
-                                            .findByRedemptionCode(redemptionCode);
+        UserInvitation invite = findPendingInvitation(redemptionCode);
         if (invite == null) {
             throw new DBNotFoundException("Change password invitation with" +
-                                          " redemption code: " + redemptionCode + " does not exist");
-        }
-        if (invite.getExpirationDate().getTime() < System.currentTimeMillis()) {
-            log.info("invitation {} has expired. Deleting from repo...", invite);
-            this.repoMgr.getUserInvitationRepo().delete(invite.getId());
-            throw new DBNotFoundException("Invitation has expired: " + invite);
-        } else {
-            return invite;
+                                          " redemption code: " + redemptionCode +
+                                          " does not exist or has expired");
         }
+        return invite;
+    }
+
+    /**
+     * Expired invitations are left in place for the ExpiredInvitationReaper
+     * rather than deleted here, so lookups never write.
+     */
+    private UserInvitation findPendingInvitation(String redemptionCode) {
+        return redemptionCodeService.findPendingInvitation(redemptionCode);
     }
 
     @Override
@@ -444,7 +451,7 @@ public class DuracloudUserServiceImpl implements DuracloudUserService, UserDetai
         DuracloudUserInvitationRepo invRepo = repoMgr.getUserInvitationRepo();
 
         // Retrieve the invitation
-        UserInvitation invitation = invRepo.findByRedemptionCode(redemptionCode);
+        UserInvitation invitation = findPendingInvitation(redemptionCode);
         if (invitation == null) {
             throw new InvalidRedemptionCodeException(redemptionCode);
         }
@@ -456,6 +463,7 @@ public class DuracloudUserServiceImpl implements DuracloudUserService, UserDetai
 
         // Delete the invitation
         invRepo.delete(invitation.getId());
+        redemptionCodeService.codeRedeemed(redemptionCode);
 
         DuracloudUser user = repoMgr.getUserRepo().findOne(userId);
         DuracloudUser adminUser =
@@ -508,32 +516,27 @@ public class DuracloudUserServiceImpl implements DuracloudUserService, UserDetai
         user.setAllowableIPAddressRange(allowableIPAddressRange);
         repoMgr.getUserRepo().save(user);
 
+        eventBus.publish(new UserEvent(UserEvent.Type.UPDATED, user, null));
         if (emailUpdate || ipAddressUpdate) {
-            propagateUserUpdate(userId);
+            propagateUserUpdate(user);
         }
     }
 
     private Notifier getNotifier() {
         if (null == notifier) {
-            notifier = new Notifier(notificationMgr.getEmailer(), amaEndpoint, emailTemplateService);
+            notifier = new Notifier(notificationMgr.getEmailer(), notificationMgr.getDeliveryLog(),
+                                    amaEndpoint, emailTemplateService);
         }
         return notifier;
     }
 
     @Override
     public boolean addUserToAccount(Long acctId, Long userId) throws DBNotFoundException {
-        boolean added = setUserRightsInternal(acctId, userId, Role.ROLE_USER);
-        if (added) {
-            DuracloudUser user = loadDuracloudUserByIdInternal(userId);
-            AccountInfo accountInfo =
-                repoMgr.getAccountRepo().findOne(acctId);
-            if (accountInfo == null) {
-                throw new DBNotFoundException("Account with ID: " + acctId + " does not exist");
-            }
-            getNotifier().sendNotificationUserAddedToAccount(user, accountInfo);
+        loadDuracloudUserByIdInternal(userId);
+        if (repoMgr.getAccountRepo().findOne(acctId) == null) {
+            throw new DBNotFoundException("Account with ID: " + acctId + " does not exist");
         }
-
-        return added;
+        return setUserRightsInternal(UserEvent.Type.ADDED, acctId, userId, Role.ROLE_USER);
     }
 
 }
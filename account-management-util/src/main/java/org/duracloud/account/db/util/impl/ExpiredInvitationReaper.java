@@ -0,0 +1,107 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.impl;
+
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.duracloud.account.db.util.repo.PendingInvitationRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically purges expired user invitations (account invitations as well
+ * as password change requests) with a single bulk delete. The number of
+ * invitations purged is exposed over JMX.
+ */
+@Component("expiredInvitationReaper")
+@ManagedResource(objectName = "org.duracloud.account:name=ExpiredInvitationReaper")
+public class ExpiredInvitationReaper {
+
+    private static final long INITIAL_DELAY_MINUTES = 5;
+    private static final long PERIOD_MINUTES = 60;
+
+    private Logger log = LoggerFactory.getLogger(ExpiredInvitationReaper.class);
+
+    private PendingInvitationRepo invitationRepo;
+    private ScheduledExecutorService scheduler;
+
+    private AtomicLong totalPurged = new AtomicLong();
+    private volatile int lastPurged;
+    private volatile Date lastRun;
+
+    @Autowired
+    public ExpiredInvitationReaper(PendingInvitationRepo invitationRepo) {
+        this.invitationRepo = invitationRepo;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "expired-invitation-reaper");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                purge();
+            } catch (Exception e) {
+                log.error("Unable to purge expired invitations: " + e.getMessage(), e);
+            }
+        }, INITIAL_DELAY_MINUTES, PERIOD_MINUTES, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Deletes all invitations which have expired.
+     *
+     * @return number of invitations purged
+     */
+    @ManagedOperation
+    public int purge() {
+        Date now = new Date();
+        int purged = invitationRepo.deleteExpired(now);
+        lastPurged = purged;
+        lastRun = now;
+        totalPurged.addAndGet(purged);
+        log.info("Purged {} expired invitations ({} since startup)", purged, totalPurged.get());
+        return purged;
+    }
+
+    @ManagedAttribute(description = "Invitations purged since startup")
+    public long getTotalPurged() {
+        return totalPurged.get();
+    }
+
+    @ManagedAttribute(description = "Invitations purged by the most recent run")
+    public int getLastPurged() {
+        return lastPurged;
+    }
+
+    @ManagedAttribute(description = "Time of the most recent run")
+    public Date getLastRun() {
+        return lastRun;
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.impl;
+
+import java.security.SecureRandom;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.duracloud.account.db.model.UserInvitation;
+import org.duracloud.account.db.util.RedemptionCodeService;
+import org.duracloud.account.db.util.repo.PendingInvitationRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redemption codes are 128 bits from a SecureRandom, hex encoded. Codes
+ * issued before this service existed were hex encoded MD5 checksums, which
+ * have the same length and alphabet, so they continue to resolve.
+ *
+ * Lookups which find no invitation, and redeemed codes, are remembered for a
+ * short time in a bounded cache, so that repeated requests with a bad code
+ * are answered without going to the database. A code is removed from the
+ * cache when it is issued and again when its invitation is saved.
+ */
+@Component("redemptionCodeService")
+public class RedemptionCodeServiceImpl implements RedemptionCodeService {
+
+    protected static final int NEGATIVE_CACHE_SIZE = 10000;
+    protected static final long NEGATIVE_CACHE_TTL_MILLIS = 10 * 60 * 1000;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private Logger log = LoggerFactory.getLogger(RedemptionCodeServiceImpl.class);
+
+    private PendingInvitationRepo invitationRepo;
+    private SecureRandom random = new SecureRandom();
+
+    private final Map<String, Long> invalidCodes =
+        new LinkedHashMap<String, Long>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > NEGATIVE_CACHE_SIZE;
+            }
+        };
+
+    @Autowired
+    public RedemptionCodeServiceImpl(PendingInvitationRepo invitationRepo) {
+        this.invitationRepo = invitationRepo;
+    }
+
+    @Override
+    public String generateCode() {
+        byte[] bytes = new byte[CODE_LENGTH / 2];
+        random.nextBytes(bytes);
+
+        char[] code = new char[CODE_LENGTH];
+        for (int i = 0; i < bytes.length; i++) {
+            code[i * 2] = HEX[(bytes[i] >> 4) & 0xf];
+            code[i * 2 + 1] = HEX[bytes[i] & 0xf];
+        }
+
+        String redemptionCode = new String(code);
+        codeIssued(redemptionCode);
+        return redemptionCode;
+    }
+
+    @Override
+    public UserInvitation findPendingInvitation(String redemptionCode) {
+        if (!isWellFormed(redemptionCode) || isKnownInvalid(redemptionCode)) {
+            log.debug("Rejected redemption code {} without lookup", redemptionCode);
+            return null;
+        }
+
+        UserInvitation invitation =
+            invitationRepo.findByRedemptionCodeAndExpirationDateAfter(redemptionCode, new Date());
+        if (invitation == null) {
+            markInvalid(redemptionCode);
+        }
+        return invitation;
+    }
+
+    @Override
+    public void codeIssued(String redemptionCode) {
+        synchronized (invalidCodes) {
+            invalidCodes.remove(redemptionCode);
+        }
+    }
+
+    @Override
+    public void codeRedeemed(String redemptionCode) {
+        markInvalid(redemptionCode);
+    }
+
+    protected boolean isWellFormed(String redemptionCode) {
+        if (redemptionCode == null || redemptionCode.length() != CODE_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < CODE_LENGTH; i++) {
+            char c = redemptionCode.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isKnownInvalid(String redemptionCode) {
+        synchronized (invalidCodes) {
+            Long expires = invalidCodes.get(redemptionCode);
+            if (expires == null) {
+                return false;
+            }
+            if (expires < System.currentTimeMillis()) {
+                invalidCodes.remove(redemptionCode);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    private void markInvalid(String redemptionCode) {
+        synchronized (invalidCodes) {
+            invalidCodes.put(redemptionCode,
+                             System.currentTimeMillis() + NEGATIVE_CACHE_TTL_MILLIS);
+        }
+    }
+
+}
@@ -8,12 +8,18 @@
 package org.duracloud.account.db.util.impl;
 
 import java.util.ArrayList;
-import java.util.LinkedHashSet;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Function;
 
+import org.apache.commons.lang.StringUtils;
 import org.duracloud.account.db.model.AccountInfo;
+import org.duracloud.account.db.model.AccountInfo.AccountStatus;
 import org.duracloud.account.db.model.AccountRights;
 import org.duracloud.account.db.model.DuracloudGroup;
 import org.duracloud.account.db.model.DuracloudUser;
@@ -23,19 +29,28 @@ import org.duracloud.account.db.repo.DuracloudGroupRepo;
 import org.duracloud.account.db.repo.DuracloudRepoMgr;
 import org.duracloud.account.db.repo.DuracloudRightsRepo;
 import org.duracloud.account.db.repo.DuracloudStorageProviderAccountRepo;
-import org.duracloud.account.db.repo.DuracloudUserInvitationRepo;
 import org.duracloud.account.db.repo.DuracloudUserRepo;
 import org.duracloud.account.db.util.DuracloudUserService;
+import org.duracloud.account.db.util.ResultPage;
 import org.duracloud.account.db.util.RootAccountManagerService;
+import org.duracloud.account.db.util.UserMembership;
 import org.duracloud.account.db.util.error.DBNotFoundException;
 import org.duracloud.account.db.util.error.InvalidPasswordException;
 import org.duracloud.account.db.util.error.UnsentEmailException;
-import org.duracloud.common.sns.AccountChangeNotifier;
+import org.duracloud.account.db.util.repo.AccountDeletionRepo;
+import org.duracloud.account.db.util.repo.AccountSearchRepo;
+import org.duracloud.account.db.util.repo.UserMembershipRepo;
+import org.duracloud.account.db.util.repo.UserSearchRepo;
+import org.duracloud.account.db.util.sys.AccountEvent;
+import org.duracloud.account.db.util.sys.EventBus;
+import org.duracloud.account.db.util.sys.UserEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * @author Andrew Woods
@@ -44,19 +59,33 @@ import org.springframework.stereotype.Component;
 @Component("rootAccountManagerService")
 public class RootAccountManagerServiceImpl implements RootAccountManagerService {
 
+    public static final int MAX_PAGE_SIZE = 1000;
+
     private Logger log = LoggerFactory.getLogger(RootAccountManagerServiceImpl.class);
 
     private DuracloudRepoMgr repoMgr;
     private DuracloudUserService userService;
-    private AccountChangeNotifier accountChangeNotifier;
+    private UserSearchRepo userSearchRepo;
+    private UserMembershipRepo userMembershipRepo;
+    private AccountSearchRepo accountSearchRepo;
+    private AccountDeletionRepo accountDeletionRepo;
+    private EventBus eventBus;
 
     @Autowired
     public RootAccountManagerServiceImpl(DuracloudRepoMgr duracloudRepoMgr,
                                          DuracloudUserService userService,
-                                         AccountChangeNotifier accountChangeNotifier) {
+                                         UserSearchRepo userSearchRepo,
+                                         UserMembershipRepo userMembershipRepo,
+                                         AccountSearchRepo accountSearchRepo,
+                                         AccountDeletionRepo accountDeletionRepo,
+                                         EventBus eventBus) {
         this.repoMgr = duracloudRepoMgr;
         this.userService = userService;
-        this.accountChangeNotifier = accountChangeNotifier;
+        this.userSearchRepo = userSearchRepo;
+        this.userMembershipRepo = userMembershipRepo;
+        this.accountSearchRepo = accountSearchRepo;
+        this.accountDeletionRepo = accountDeletionRepo;
+        this.eventBus = eventBus;
     }
 
     @Override
@@ -77,6 +106,7 @@ public class RootAccountManagerServiceImpl implements RootAccountManagerService
     }
 
     @Override
+    @Transactional
     public void deleteUser(Long userId) {
         log.info("Deleting user with ID {}", userId);
 
@@ -102,9 +132,11 @@ public class RootAccountManagerServiceImpl implements RootAccountManagerService
         getUserRepo().delete(userId);
 
         if (user.isRoot()) {
-            notifyRootUsersChanged();
+            eventBus.publish(new UserEvent(UserEvent.Type.DELETED, user, null));
         } else {
-            notifyUserChange(accountRights);
+            for (AccountRights right : accountRights) {
+                eventBus.publish(new UserEvent(UserEvent.Type.DELETED, user, right.getAccount()));
+            }
         }
     }
 
@@ -115,7 +147,7 @@ public class RootAccountManagerServiceImpl implements RootAccountManagerService
         // Adding root from the user
         DuracloudUser user = repoMgr.getUserRepo().findOne(userId);
         user.setRoot(true);
-        notifyRootUsersChanged();
+        eventBus.publish(new UserEvent(UserEvent.Type.ROOT_CHANGED, user, null));
 
     }
 
@@ -126,36 +158,7 @@ public class RootAccountManagerServiceImpl implements RootAccountManagerService
         // Remove root from the user
         DuracloudUser user = repoMgr.getUserRepo().findOne(userId);
         user.setRoot(false);
-        notifyRootUsersChanged();
-    }
-
-    private void notifyUserChange(List<AccountRights> accountRights) {
-        for (AccountRights right : accountRights) {
-            try {
-                this.accountChangeNotifier.userStoreChanged(right.getAccount().getSubdomain());
-            } catch (Exception ex) {
-                log.error("failed to notify of user change: " + ex.getMessage(), ex);
-            }
-        }
-    }
-
-    private void notifyRootUsersChanged() {
-        try {
-            this.accountChangeNotifier.rootUsersChanged();
-        } catch (Exception ex) {
-            log.error("failed to notify of user change: " + ex.getMessage(), ex);
-        }
-    }
-
-    private void notifyAccountChange(List<AccountRights> accountRights) {
-        for (AccountRights right : accountRights) {
-            try {
-                this.accountChangeNotifier.accountChanged(right.getAccount().getSubdomain());
-            } catch (Exception ex) {
-                log.error("failed to notify of account change: " + ex.getMessage(), ex);
-            }
-        }
-
+        eventBus.publish(new UserEvent(UserEvent.Type.ROOT_CHANGED, user, null));
     }
 
     private AccountInfo getAccountByStorageProvider(Long providerId) {
@@ -168,38 +171,53 @@ public class RootAccountManagerServiceImpl implements RootAccountManagerService
         return account;
     }
 
-    private void notifyStorageProviderChange(String accountId) {
-        this.accountChangeNotifier.storageProvidersChanged(accountId);
-    }
-
     @Override
+    @Transactional
     public void deleteAccount(Long accountId) {
         log.info("Deleting account with ID {}", accountId);
 
-        // Delete the account rights
-        List<AccountRights> rightsList = getRightsRepo().findByAccountId(accountId);
-        for (AccountRights rights : rightsList) {
-            DuracloudUser user = rights.getUser();
-            user.getAccountRights().remove(rights);
-            rights.getRoles().clear();
-            getRightsRepo().save(rights);
+        // Read what is needed after the delete first; no entities are loaded
+        String subdomain = accountDeletionRepo.findSubdomain(accountId);
+        List<Long> providerIds = new ArrayList<>();
+        for (Number providerId : accountDeletionRepo.findStorageProviderIds(accountId)) {
+            providerIds.add(providerId.longValue());
         }
 
-        getRightsRepo().deleteInBatch(rightsList);
-
-        // Delete the groups associated with the account
-        DuracloudGroupRepo groupRepo = repoMgr.getGroupRepo();
-        List<DuracloudGroup> groups = groupRepo.findByAccountId(accountId);
-        groupRepo.deleteInBatch(groups);
-
-        // Delete any user invitations
-        DuracloudUserInvitationRepo invRepo = repoMgr.getUserInvitationRepo();
-        invRepo.deleteInBatch(invRepo.findByAccountId(accountId));
+        int roles = accountDeletionRepo.deleteRoles(accountId);
+        int rights = accountDeletionRepo.deleteRights(accountId);
+        int members = accountDeletionRepo.deleteGroupMembers(accountId);
+        int groups = accountDeletionRepo.deleteGroups(accountId);
+        int invitations = accountDeletionRepo.deleteInvitations(accountId);
+        if (!providerIds.isEmpty()) {
+            accountDeletionRepo.deleteStorageProviderProperties(providerIds);
+        }
+        accountDeletionRepo.deleteSecondaryStorageProviders(accountId);
+        accountDeletionRepo.deleteAccount(accountId);
+        // The primary storage provider is referenced by the account itself
+        if (!providerIds.isEmpty()) {
+            accountDeletionRepo.deleteStorageProviders(providerIds);
+        }
+        log.info("Deleted account with ID {}: {} rights with {} roles, {} groups with " +
+                 "{} members, {} invitations and {} storage providers",
+                 accountId, rights, roles, groups, members, invitations, providerIds.size());
 
-        // Delete account
-        getAccountRepo().delete(accountId);
+        eventBus.publish(new AccountEvent(AccountEvent.Type.DELETED,
+                                          accountId,
+                                          subdomain));
+    }
 
-        notifyAccountChange(rightsList);
+    @Override
+    @Transactional
+    public int deleteAccountMembers(Long accountId, int maxMembers) {
+        List<Long> rightsIds =
+            accountDeletionRepo.findRightsIds(accountId, new PageRequest(0, maxMembers));
+        if (rightsIds.isEmpty()) {
+            return 0;
+        }
+        accountDeletionRepo.deleteRolesByRightsIds(rightsIds);
+        int deleted = accountDeletionRepo.deleteRightsByIds(rightsIds);
+        log.info("Removed {} users from account with ID {}", deleted, accountId);
+        return deleted;
     }
 
     @Override
@@ -223,7 +241,11 @@ public class RootAccountManagerServiceImpl implements RootAccountManagerService
         storageProviderAccount.setStorageLimit(storageLimit);
 
         getStorageRepo().save(storageProviderAccount);
-        notifyStorageProviderChange(getAccountByStorageProvider(providerId).getSubdomain());
+
+        AccountInfo account = getAccountByStorageProvider(providerId);
+        eventBus.publish(new AccountEvent(AccountEvent.Type.PROVIDERS_CHANGED,
+                                          account.getId(),
+                                          account.getSubdomain()));
     }
 
     @Override
@@ -237,51 +259,110 @@ public class RootAccountManagerServiceImpl implements RootAccountManagerService
         AccountInfo accountInfo = getAccountRepo().findOne(accountId);
         accountInfo.setStatus(AccountInfo.AccountStatus.ACTIVE);
         getAccountRepo().save(accountInfo);
-        this.accountChangeNotifier.accountChanged(accountInfo.getSubdomain());
+        eventBus.publish(new AccountEvent(AccountEvent.Type.ACTIVATED,
+                                          accountId,
+                                          accountInfo.getSubdomain()));
     }
 
     @Override
-    public Set<AccountInfo> listAllAccounts(String filter) {
-        List<AccountInfo> accounts = getAccountRepo().findAll(new Sort("acctName"));
-        Set<AccountInfo> accountInfos = new LinkedHashSet<AccountInfo>();
-        for (AccountInfo acct : accounts) {
-            if (filter == null || acct.getOrgName().startsWith(filter)) {
-                accountInfos.add(acct);
-            }
-        }
-        return accountInfos;
+    public ResultPage<AccountInfo> searchAccounts(AccountStatus status,
+                                                  String orgPrefix,
+                                                  String subdomainPrefix,
+                                                  String after,
+                                                  int pageSize) {
+        checkPageSize(pageSize);
+
+        AccountCursor cursor = AccountCursor.parse(after);
+        List<AccountInfo> rows =
+            accountSearchRepo.findPage(cursor.getAfterName(),
+                                       cursor.getAfterId(),
+                                       status,
+                                       toLikePrefix(orgPrefix),
+                                       toLikePrefix(subdomainPrefix),
+                                       new PageRequest(0, pageSize + 1));
+        return ResultPage.of(rows, pageSize, AccountCursor::of);
     }
 
     @Override
-    public Set<DuracloudUser> listAllUsers(String filter) {
-        List<DuracloudUser> usersList = getUserRepo().findAll(new Sort("username"));
-        Set<DuracloudUser> users = new LinkedHashSet<DuracloudUser>();
-        for (DuracloudUser user : usersList) {
-            if (filter == null ||
-                (user.getUsername().startsWith(filter)
-                 || user.getFirstName().startsWith(filter)
-                 || user.getLastName().startsWith(filter)
-                 || user.getEmail().startsWith(filter))) {
-                users.add(user);
+    public Map<AccountStatus, Long> countAccountsByStatus() {
+        return toStatusCounts(accountSearchRepo.countByStatus());
+    }
+
+    /**
+     * @param rows of [AccountStatus, Long count]
+     * @return the counts of every status, zero for those without a row
+     */
+    static Map<AccountStatus, Long> toStatusCounts(List<Object[]> rows) {
+        Map<AccountStatus, Long> counts = new EnumMap<>(AccountStatus.class);
+        for (AccountStatus status : AccountStatus.values()) {
+            counts.put(status, 0L);
+        }
+        for (Object[] row : rows) {
+            if (null != row[0]) {
+                counts.put((AccountStatus) row[0], (Long) row[1]);
             }
         }
-        return users;
+        return counts;
+    }
+
+    @Override
+    public ResultPage<UserMembership> searchUsers(String filter, String after, int pageSize) {
+        return searchUsers(filter, after, pageSize, false);
     }
 
     @Override
-    public Set<DuracloudUser> listAllRootUsers(String filter) {
-        List<DuracloudUser> usersList = getUserRepo().findAll(new Sort("username"));
-        Set<DuracloudUser> users = new LinkedHashSet<DuracloudUser>();
-        for (DuracloudUser user : usersList) {
-            if (user.isRoot() && (filter == null ||
-                    (user.getUsername().startsWith(filter)
-                            || user.getFirstName().startsWith(filter)
-                            || user.getLastName().startsWith(filter)
-                            || user.getEmail().startsWith(filter)))) {
-                users.add(user);
+    public ResultPage<UserMembership> searchRootUsers(String filter, String after, int pageSize) {
+        return searchUsers(filter, after, pageSize, true);
+    }
+
+    private ResultPage<UserMembership> searchUsers(String filter,
+                                                   String after,
+                                                   int pageSize,
+                                                   boolean rootOnly) {
+        checkPageSize(pageSize);
+
+        String start = null == after ? "" : after;
+        // One extra row tells whether another page follows
+        Pageable page = new PageRequest(0, pageSize + 1);
+
+        List<String> rows;
+        String like = toLikePrefix(filter);
+        if (null == like) {
+            rows = userSearchRepo.findPage(start, rootOnly, page);
+        } else {
+            // Each query returns the first rows of its own index range in
+            // username order, so the first rows of the merge are exact.
+            SortedSet<String> merged = new TreeSet<>();
+            merged.addAll(userSearchRepo.findPageByUsername(like, start, rootOnly, page));
+            merged.addAll(userSearchRepo.findPageByFirstName(like, start, rootOnly, page));
+            merged.addAll(userSearchRepo.findPageByLastName(like, start, rootOnly, page));
+            merged.addAll(userSearchRepo.findPageByEmail(like, start, rootOnly, page));
+            rows = new ArrayList<>(merged);
+            if (rows.size() > pageSize + 1) {
+                rows = rows.subList(0, pageSize + 1);
             }
         }
-        return users;
+
+        ResultPage<String> usernames = ResultPage.of(rows, pageSize, Function.identity());
+        List<UserMembership> memberships = usernames.getItems().isEmpty()
+            ? Collections.<UserMembership>emptyList()
+            : userMembershipRepo.findByUsernames(usernames.getItems());
+        return new ResultPage<>(memberships, usernames.getNextCursor());
+    }
+
+    private void checkPageSize(int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    private String toLikePrefix(String prefix) {
+        prefix = StringUtils.trimToNull(prefix);
+        return null == prefix ? null : escapeLike(prefix) + "%";
+    }
+
+    private String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
     }
 
     private DuracloudUserRepo getUserRepo() {
@@ -0,0 +1,291 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.impl;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import javax.annotation.PostConstruct;
+
+import org.apache.commons.lang.StringUtils;
+import org.duracloud.account.db.model.DuracloudUser;
+import org.duracloud.account.db.util.SearchHit;
+import org.duracloud.account.db.util.SearchIndex;
+import org.duracloud.account.db.util.repo.SearchEntryRepo;
+import org.duracloud.account.db.util.sys.AccountEvent;
+import org.duracloud.account.db.util.sys.DomainEvent;
+import org.duracloud.account.db.util.sys.EventSubscriber;
+import org.duracloud.account.db.util.sys.UserEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps a {@link TrigramIndex} of all users and accounts. The index is loaded
+ * in the background at startup and then kept up to date from the user and
+ * account events published on the event bus. Updates which arrive while the
+ * index is being (re)loaded are replayed onto the new index before it
+ * replaces the old one.
+ */
+@Component("searchIndex")
+@ManagedResource(objectName = "org.duracloud.account:name=SearchIndex")
+public class SearchIndexImpl implements SearchIndex, EventSubscriber<DomainEvent> {
+
+    private static final int LOAD_PAGE_SIZE = 5000;
+    // Compact once this many removed documents are left in the postings,
+    // and they are at least a quarter of the index
+    private static final int COMPACT_MIN_REMOVED = 1000;
+
+    private Logger log = LoggerFactory.getLogger(SearchIndexImpl.class);
+
+    private SearchEntryRepo searchEntryRepo;
+
+    private ReadWriteLock lock = new ReentrantReadWriteLock();
+    private TrigramIndex index = new TrigramIndex();
+    private volatile boolean ready;
+    private volatile Date lastLoaded;
+
+    // Guards loading and updates; updates are queued here during a load
+    private final Object updateMonitor = new Object();
+    private List<Consumer<TrigramIndex>> pending;
+
+    @Autowired
+    public SearchIndexImpl(SearchEntryRepo searchEntryRepo) {
+        this.searchEntryRepo = searchEntryRepo;
+    }
+
+    @PostConstruct
+    public void start() {
+        Thread loader = new Thread(() -> {
+            try {
+                reload();
+            } catch (Exception e) {
+                log.error("Unable to load the search index: " + e.getMessage(), e);
+            }
+        }, "search-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    @Override
+    public List<SearchHit> search(String query, int limit) {
+        lock.readLock().lock();
+        try {
+            return index.search(query, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Loads a new index from the database and replaces the current one.
+     */
+    @ManagedOperation
+    public void reload() {
+        synchronized (updateMonitor) {
+            if (null != pending) {
+                log.info("The search index is already being loaded");
+                return;
+            }
+            pending = new ArrayList<>();
+        }
+
+        TrigramIndex loaded = new TrigramIndex();
+        long start = System.currentTimeMillis();
+        try {
+            loadUsers(loaded);
+            loadAccounts(loaded);
+        } catch (RuntimeException e) {
+            synchronized (updateMonitor) {
+                pending = null;
+            }
+            throw e;
+        }
+
+        synchronized (updateMonitor) {
+            for (Consumer<TrigramIndex> update : pending) {
+                update.accept(loaded);
+            }
+            pending = null;
+            replace(loaded);
+        }
+        ready = true;
+        lastLoaded = new Date();
+        log.info("Loaded search index of {} entries in {} ms",
+                 loaded.size(), System.currentTimeMillis() - start);
+    }
+
+    private void loadUsers(TrigramIndex loaded) {
+        Long after = 0L;
+        List<Object[]> rows;
+        do {
+            rows = searchEntryRepo.findUsers(after, new PageRequest(0, LOAD_PAGE_SIZE));
+            for (Object[] row : rows) {
+                after = (Long) row[0];
+                putUser(loaded, after, (String) row[1], (String) row[2],
+                        (String) row[3], (String) row[4]);
+            }
+        } while (rows.size() == LOAD_PAGE_SIZE);
+    }
+
+    private void loadAccounts(TrigramIndex loaded) {
+        Long after = 0L;
+        List<Object[]> rows;
+        do {
+            rows = searchEntryRepo.findAccounts(after, new PageRequest(0, LOAD_PAGE_SIZE));
+            for (Object[] row : rows) {
+                after = (Long) row[0];
+                putAccount(loaded, row);
+            }
+        } while (rows.size() == LOAD_PAGE_SIZE);
+    }
+
+    @Override
+    public Class<DomainEvent> getEventType() {
+        return DomainEvent.class;
+    }
+
+    @Override
+    public void onEvent(DomainEvent event) {
+        if (event instanceof UserEvent) {
+            onUserEvent((UserEvent) event);
+        } else if (event instanceof AccountEvent) {
+            onAccountEvent((AccountEvent) event);
+        }
+    }
+
+    private void onUserEvent(UserEvent event) {
+        DuracloudUser user = event.getUser();
+        switch (event.getType()) {
+            case CREATED:
+            case UPDATED:
+                update(index -> putUser(index, user.getId(), user.getUsername(),
+                                        user.getFirstName(), user.getLastName(),
+                                        user.getEmail()));
+                break;
+            case DELETED:
+                // Deletion is also published for each account of the user
+                if (null == event.getAccount()) {
+                    update(index -> index.remove(SearchHit.Type.USER, user.getId()));
+                }
+                break;
+            default:
+                // Membership and credential changes do not affect the
+                // indexed fields
+                break;
+        }
+    }
+
+    private void onAccountEvent(AccountEvent event) {
+        Long accountId = event.getAccountId();
+        switch (event.getType()) {
+            case CREATED:
+            case UPDATED:
+                List<Object[]> rows = searchEntryRepo.findAccount(accountId);
+                if (!rows.isEmpty()) {
+                    update(index -> putAccount(index, rows.get(0)));
+                }
+                break;
+            case DELETED:
+                update(index -> index.remove(SearchHit.Type.ACCOUNT, accountId));
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void update(Consumer<TrigramIndex> update) {
+        synchronized (updateMonitor) {
+            if (null != pending) {
+                pending.add(update);
+            }
+
+            lock.writeLock().lock();
+            try {
+                update.accept(index);
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            int removed = index.getRemovedCount();
+            if (removed >= COMPACT_MIN_REMOVED && removed * 4 >= index.size()) {
+                TrigramIndex compacted;
+                lock.readLock().lock();
+                try {
+                    compacted = index.compact();
+                } finally {
+                    lock.readLock().unlock();
+                }
+                replace(compacted);
+            }
+        }
+    }
+
+    private void replace(TrigramIndex replacement) {
+        lock.writeLock().lock();
+        try {
+            index = replacement;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void putUser(TrigramIndex index,
+                                Long id,
+                                String username,
+                                String firstName,
+                                String lastName,
+                                String email) {
+        String name = StringUtils.trimToEmpty(StringUtils.trimToEmpty(firstName) + " " +
+                                              StringUtils.trimToEmpty(lastName));
+        String detail = StringUtils.isBlank(email) ? name : name + " <" + email + ">";
+        index.put(SearchHit.Type.USER, id, username, detail.trim(),
+                  username, email, firstName, lastName);
+    }
+
+    /**
+     * @param row of id, account name, organization and subdomain
+     */
+    private static void putAccount(TrigramIndex index, Object[] row) {
+        String acctName = (String) row[1];
+        String orgName = (String) row[2];
+        String subdomain = (String) row[3];
+        String detail = StringUtils.isBlank(orgName) ? subdomain : subdomain + " - " + orgName;
+        index.put(SearchHit.Type.ACCOUNT, (Long) row[0], acctName, detail,
+                  subdomain, acctName, orgName);
+    }
+
+    @ManagedAttribute(description = "Users and accounts in the index")
+    public int getSize() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @ManagedAttribute(description = "Time the index was last loaded from the database")
+    public Date getLastLoaded() {
+        return lastLoaded;
+    }
+
+}
@@ -0,0 +1,393 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.duracloud.account.db.util.SearchHit;
+
+/**
+ * Trigram index of short text fields. Each character is folded into a 6 bit
+ * code, so a trigram is an 18 bit key which directly addresses its postings:
+ * a sorted array of document numbers. Documents are numbered in the order
+ * they are added, so postings only ever grow at their end. Replaced and
+ * removed documents are left in the postings and skipped, until
+ * {@link #compact()} is called.
+ *
+ * Trigrams are matched as candidates only; every candidate is checked
+ * against the query before it is returned.
+ *
+ * This class is not thread-safe.
+ */
+public class TrigramIndex {
+
+    private static final int BITS = 6;
+    private static final int KEYS = 1 << (3 * BITS);
+    private static final int[] NONE = new int[0];
+
+    // Scores of a term, by where it matches in a field
+    private static final int EXACT = 100;
+    private static final int FIELD_PREFIX = 60;
+    private static final int WORD_PREFIX = 40;
+    private static final int SUBSTRING = 20;
+    // Added when the term matches the first (identifying) field
+    private static final int FIRST_FIELD = 10;
+
+    // Best score first, then shortest label
+    private static final Comparator<SearchHit> RANKING =
+        Comparator.comparingInt(SearchHit::getScore).reversed()
+                  .thenComparingInt(hit -> length(hit.getLabel()))
+                  .thenComparing(hit -> String.valueOf(hit.getLabel()));
+
+    private int[][] postings = new int[KEYS][];
+    private int[] postingSizes = new int[KEYS];
+
+    private Doc[] docs = new Doc[1024];
+    private int docCount;
+    private int removedCount;
+    private Map<SearchHit.Type, Map<Long, Integer>> docNumbers = new EnumMap<>(SearchHit.Type.class);
+
+    public TrigramIndex() {
+        for (SearchHit.Type type : SearchHit.Type.values()) {
+            docNumbers.put(type, new HashMap<>());
+        }
+    }
+
+    /**
+     * Adds an entity to the index, replacing any previous version of it.
+     *
+     * @param type of the entity
+     * @param id of the entity
+     * @param label displayed for the entity
+     * @param detail displayed along with the label
+     * @param fields searchable text, the first being the identifying field
+     */
+    public void put(SearchHit.Type type, Long id, String label, String detail, String... fields) {
+        remove(type, id);
+
+        String[] folded = new String[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            folded[i] = fold(fields[i]);
+        }
+
+        if (docCount == docs.length) {
+            docs = Arrays.copyOf(docs, docCount + (docCount >> 1));
+        }
+        int docNumber = docCount++;
+        docs[docNumber] = new Doc(type, id, label, detail, folded);
+        docNumbers.get(type).put(id, docNumber);
+
+        for (int key : distinctKeys(folded)) {
+            int size = postingSizes[key];
+            int[] list = postings[key];
+            if (null == list) {
+                list = postings[key] = new int[4];
+            } else if (size == list.length) {
+                list = postings[key] = Arrays.copyOf(list, size + (size >> 1));
+            }
+            list[size] = docNumber;
+            postingSizes[key] = size + 1;
+        }
+    }
+
+    /**
+     * Removes an entity from the index, if present.
+     */
+    public void remove(SearchHit.Type type, Long id) {
+        Integer docNumber = docNumbers.get(type).remove(id);
+        if (null != docNumber) {
+            docs[docNumber] = null;
+            removedCount++;
+        }
+    }
+
+    /**
+     * @return number of entities in the index
+     */
+    public int size() {
+        return docCount - removedCount;
+    }
+
+    /**
+     * @return number of removed or replaced documents still in the postings
+     */
+    public int getRemovedCount() {
+        return removedCount;
+    }
+
+    /**
+     * @return a copy of this index without removed documents
+     */
+    public TrigramIndex compact() {
+        TrigramIndex compacted = new TrigramIndex();
+        for (int i = 0; i < docCount; i++) {
+            Doc doc = docs[i];
+            if (null != doc) {
+                compacted.put(doc.type, doc.id, doc.label, doc.detail, doc.fields);
+            }
+        }
+        return compacted;
+    }
+
+    /**
+     * Finds the entities whose fields contain every whitespace separated
+     * term of the query. Terms of three or more characters match anywhere;
+     * shorter terms only match the start of a word. Single characters are
+     * ignored.
+     *
+     * @param query to search for
+     * @param limit maximum number of hits
+     * @return the best hits, best first
+     */
+    public List<SearchHit> search(String query, int limit) {
+        List<String> terms = new ArrayList<>();
+        for (String term : fold(query).split("\\s+")) {
+            if (term.length() > 1) {
+                terms.add(term);
+            }
+        }
+        if (terms.isEmpty() || limit < 1) {
+            return Collections.emptyList();
+        }
+
+        int[] candidates = candidates(terms);
+
+        PriorityQueue<SearchHit> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        for (int docNumber : candidates) {
+            Doc doc = docs[docNumber];
+            if (null == doc) {
+                continue;
+            }
+            int score = score(doc, terms);
+            if (score > 0) {
+                best.add(new SearchHit(doc.type, doc.id, doc.label, doc.detail, score));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+
+        List<SearchHit> hits = new ArrayList<>(best);
+        hits.sort(RANKING);
+        return hits;
+    }
+
+    private static int length(String value) {
+        return null == value ? 0 : value.length();
+    }
+
+    /**
+     * Intersects the postings of every trigram of the terms, shortest
+     * first.
+     */
+    private int[] candidates(List<String> terms) {
+        int[] keys = NONE;
+        for (String term : terms) {
+            int[] termKeys = term.length() < 3 ? new int[] {wordPrefixKey(term)} : keys(term, false);
+            keys = concat(keys, termKeys);
+        }
+        keys = distinct(keys);
+
+        Integer[] bySize = new Integer[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            if (postingSizes[keys[i]] == 0) {
+                return NONE;
+            }
+            bySize[i] = keys[i];
+        }
+        Arrays.sort(bySize, Comparator.comparingInt(key -> postingSizes[key]));
+
+        int[] result = Arrays.copyOf(postings[bySize[0]], postingSizes[bySize[0]]);
+        for (int i = 1; i < bySize.length && result.length > 0; i++) {
+            result = intersect(result, postings[bySize[i]], postingSizes[bySize[i]]);
+        }
+        return result;
+    }
+
+    /**
+     * Intersects a short list with a long one by searching the long one for
+     * each value of the short one.
+     */
+    private static int[] intersect(int[] small, int[] large, int largeSize) {
+        int[] result = new int[small.length];
+        int count = 0;
+        int from = 0;
+        for (int value : small) {
+            int found = Arrays.binarySearch(large, from, largeSize, value);
+            if (found >= 0) {
+                result[count++] = value;
+                from = found + 1;
+            } else {
+                from = -found - 1;
+            }
+            if (from == largeSize) {
+                break;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static int score(Doc doc, List<String> terms) {
+        int total = 0;
+        for (String term : terms) {
+            int best = 0;
+            for (int i = 0; i < doc.fields.length; i++) {
+                int score = score(doc.fields[i], term);
+                if (score > 0 && i == 0) {
+                    score += FIRST_FIELD;
+                }
+                best = Math.max(best, score);
+            }
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private static int score(String field, String term) {
+        if (field.equals(term)) {
+            return EXACT;
+        } else if (field.startsWith(term)) {
+            return FIELD_PREFIX;
+        }
+
+        boolean substring = false;
+        for (int at = field.indexOf(term, 1); at > 0; at = field.indexOf(term, at + 1)) {
+            if (code(field.charAt(at - 1)) == 0) {
+                return WORD_PREFIX;
+            }
+            substring = true;
+        }
+        return substring && term.length() >= 3 ? SUBSTRING : 0;
+    }
+
+    private static int[] distinctKeys(String[] fields) {
+        int[] keys = NONE;
+        for (String field : fields) {
+            keys = concat(keys, keys(field, true));
+        }
+        return distinct(keys);
+    }
+
+    /**
+     * @param text folded text
+     * @param wordStart whether the text is preceded by a word boundary, in
+     *                  which case the key of its first two characters is
+     *                  included
+     */
+    private static int[] keys(String text, boolean wordStart) {
+        int length = text.length();
+        int[] keys = new int[length];
+        int count = 0;
+        int a = 0;
+        int b = 0;
+        for (int i = 0; i < length; i++) {
+            int c = code(text.charAt(i));
+            if (i >= 2 || (wordStart && i == 1)) {
+                keys[count++] = key(a, b, c);
+            }
+            a = b;
+            b = c;
+        }
+        return Arrays.copyOf(keys, count);
+    }
+
+    private static int wordPrefixKey(String term) {
+        return key(0, code(term.charAt(0)), code(term.charAt(1)));
+    }
+
+    private static int key(int a, int b, int c) {
+        return (a << (2 * BITS)) | (b << BITS) | c;
+    }
+
+    /**
+     * Folds a character into 6 bits. Whitespace and punctuation which
+     * separates words are 0; characters without a code of their own share
+     * codes, which only causes extra candidates.
+     */
+    private static int code(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 1;
+        } else if (c >= '0' && c <= '9') {
+            return c - '0' + 27;
+        }
+        switch (c) {
+            case '.':
+                return 37;
+            case '@':
+                return 38;
+            case '-':
+                return 39;
+            case '_':
+                return 40;
+            case '+':
+                return 41;
+            default:
+                if (Character.isLetterOrDigit(c)) {
+                    return 42 + (c % 21);
+                }
+                return 0;
+        }
+    }
+
+    private static String fold(String value) {
+        return null == value ? "" : value.trim().toLowerCase(Locale.ENGLISH);
+    }
+
+    private static int[] concat(int[] a, int[] b) {
+        if (a.length == 0) {
+            return b;
+        }
+        int[] result = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+
+    private static int[] distinct(int[] values) {
+        if (values.length < 2) {
+            return values;
+        }
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int count = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[count - 1]) {
+                sorted[count++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, count);
+    }
+
+    private static class Doc {
+        private final SearchHit.Type type;
+        private final Long id;
+        private final String label;
+        private final String detail;
+        private final String[] fields;
+
+        Doc(SearchHit.Type type, Long id, String label, String detail, String[] fields) {
+            this.type = type;
+            this.id = id;
+            this.label = label;
+            this.detail = detail;
+            this.fields = fields;
+        }
+    }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.job;
+
+import org.duracloud.account.db.util.RootAccountManagerService;
+
+/**
+ * Deletes an account. The users of the account are removed a chunk at a
+ * time, each chunk in its own transaction, before the account itself is
+ * deleted. The job may be cancelled between chunks; running it again
+ * carries on from where it stopped.
+ */
+public class AccountDeletionJob implements Job {
+
+    public static final String TYPE = "delete-account";
+    protected static final int CHUNK_SIZE = 500;
+
+    private RootAccountManagerService rootAccountManagerService;
+    private Long accountId;
+    private String accountName;
+
+    public AccountDeletionJob(RootAccountManagerService rootAccountManagerService,
+                              Long accountId,
+                              String accountName) {
+        this.rootAccountManagerService = rootAccountManagerService;
+        this.accountId = accountId;
+        this.accountName = accountName;
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Delete account " + accountName + " (" + accountId + ")";
+    }
+
+    @Override
+    public void run(JobContext context) throws Exception {
+        long removed = 0;
+        int chunk;
+        do {
+            chunk = rootAccountManagerService.deleteAccountMembers(accountId, CHUNK_SIZE);
+            removed += chunk;
+            context.checkpoint(removed, -1, "users removed: " + removed);
+        } while (chunk == CHUNK_SIZE);
+
+        rootAccountManagerService.deleteAccount(accountId);
+    }
+
+}
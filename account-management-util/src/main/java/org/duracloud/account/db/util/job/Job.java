@@ -0,0 +1,35 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.job;
+
+/**
+ * A long-running operation, run by the {@link JobManager} off of the request
+ * thread. A job does its work in chunks, each in its own short transaction,
+ * and calls {@link JobContext#checkpoint} between chunks.
+ */
+public interface Job {
+
+    /**
+     * @return short name of the kind of job, such as "delete-account"
+     */
+    public String getType();
+
+    /**
+     * @return description of the job shown on the jobs page
+     */
+    public String getDescription();
+
+    /**
+     * @param context through which progress is recorded
+     * @throws JobCancelledException if cancellation was requested at a
+     *                               checkpoint
+     * @throws Exception             if the job failed
+     */
+    public void run(JobContext context) throws Exception;
+
+}
@@ -0,0 +1,21 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.job;
+
+/**
+ * Thrown at a checkpoint of a job whose cancellation has been requested.
+ */
+public class JobCancelledException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    public JobCancelledException(Long jobId) {
+        super("Job " + jobId + " was cancelled");
+    }
+
+}
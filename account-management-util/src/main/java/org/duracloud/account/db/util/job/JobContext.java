@@ -0,0 +1,25 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.job;
+
+public interface JobContext {
+
+    /**
+     * Records the progress of the job, and stops the job if cancellation has
+     * been requested.
+     *
+     * @param progress   units of work completed
+     * @param total      units of work in the job, or -1 if not known
+     * @param checkpoint job specific state from which the work could be
+     *                   resumed, may be null
+     * @throws JobCancelledException if cancellation has been requested
+     */
+    public void checkpoint(long progress, long total, String checkpoint)
+        throws JobCancelledException;
+
+}
@@ -0,0 +1,54 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.job;
+
+import java.util.List;
+
+import org.duracloud.account.db.util.model.BackgroundJob;
+
+/**
+ * Runs long-running operations on a bounded pool of threads, recording each
+ * job and its progress, so that requests can submit the work and return
+ * immediately.
+ */
+public interface JobManager {
+
+    /**
+     * Records and queues a job. The job runs with the security context of
+     * the caller. If the queue is full the job is recorded as failed and is
+     * not run.
+     *
+     * @param job to run
+     * @return the job record
+     */
+    public BackgroundJob submit(Job job);
+
+    /**
+     * @param id of the job
+     * @return the job record, or null if there is none
+     */
+    public BackgroundJob get(Long id);
+
+    /**
+     * @param beforeId only jobs with an id lower than this are returned, null
+     *                 for the newest jobs
+     * @param pageSize maximum number of jobs returned
+     * @return job records, newest first
+     */
+    public List<BackgroundJob> list(Long beforeId, int pageSize);
+
+    /**
+     * Requests that a job stop at its next checkpoint. A queued job is
+     * cancelled before it starts.
+     *
+     * @param id of the job
+     * @return false if the job has already finished
+     */
+    public boolean cancel(Long id);
+
+}
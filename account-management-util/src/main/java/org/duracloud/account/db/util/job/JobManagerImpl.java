@@ -0,0 +1,190 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.job;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.lang.StringUtils;
+import org.duracloud.account.db.util.model.BackgroundJob;
+import org.duracloud.account.db.util.model.BackgroundJob.Status;
+import org.duracloud.account.db.util.repo.BackgroundJobRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs jobs on a small pool of threads with a bounded queue. Job records are
+ * only updated with single-row statements, each in its own transaction, so
+ * that the jobs page sees progress as it is made.
+ */
+@Component("jobManager")
+public class JobManagerImpl implements JobManager {
+
+    private static final int THREADS = 2;
+    private static final int QUEUE_CAPACITY = 100;
+    private static final int MAX_TEXT_LENGTH = 1000;
+
+    private static final Collection<Status> UNFINISHED =
+        Arrays.asList(Status.QUEUED, Status.RUNNING);
+
+    private Logger log = LoggerFactory.getLogger(JobManagerImpl.class);
+
+    private BackgroundJobRepo jobRepo;
+    private ThreadPoolExecutor executor;
+
+    @Autowired
+    public JobManagerImpl(BackgroundJobRepo jobRepo) {
+        this(jobRepo, THREADS, QUEUE_CAPACITY);
+    }
+
+    public JobManagerImpl(BackgroundJobRepo jobRepo, int threads, int queueCapacity) {
+        this.jobRepo = jobRepo;
+        final AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads,
+                                               threads,
+                                               60,
+                                               TimeUnit.SECONDS,
+                                               new ArrayBlockingQueue<Runnable>(queueCapacity),
+                                               r -> {
+                                                   Thread t = new Thread(r, "background-job-" +
+                                                                            count.incrementAndGet());
+                                                   t.setDaemon(true);
+                                                   return t;
+                                               });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Jobs which were queued or running when the application stopped will
+     * never finish; they are marked as failed so that they can be submitted
+     * again.
+     */
+    @PostConstruct
+    public void start() {
+        int failed = jobRepo.failUnfinished(UNFINISHED,
+                                            Status.FAILED,
+                                            new Date(),
+                                            "Interrupted by a restart");
+        if (failed > 0) {
+            log.warn("Marked {} unfinished jobs as failed", failed);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public BackgroundJob submit(final Job job) {
+        BackgroundJob record = new BackgroundJob();
+        record.setType(job.getType());
+        record.setDescription(StringUtils.abbreviate(job.getDescription(), MAX_TEXT_LENGTH));
+        record.setStatus(Status.QUEUED);
+        record.setSubmittedDate(new Date());
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (null != auth) {
+            record.setSubmittedBy(auth.getName());
+        }
+        record = jobRepo.save(record);
+
+        final Long id = record.getId();
+        final Runnable task =
+            new DelegatingSecurityContextRunnable(() -> run(id, job));
+
+        // Within a transaction, the job is queued once the record is committed
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCommit() {
+                        queue(id, task);
+                    }
+                });
+        } else {
+            queue(id, task);
+        }
+
+        log.info("Submitted job {}: {}", id, job.getDescription());
+        return record;
+    }
+
+    private void queue(Long id, Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.error("Unable to queue job {}, the queue is full", id);
+            jobRepo.finish(id, Status.FAILED, new Date(), "Too many jobs are queued");
+        }
+    }
+
+    private void run(final Long id, Job job) {
+        if (Boolean.TRUE.equals(jobRepo.isCancelRequested(id))) {
+            jobRepo.finish(id, Status.CANCELLED, new Date(), null);
+            return;
+        }
+
+        jobRepo.start(id, Status.RUNNING, new Date());
+        try {
+            job.run((progress, total, checkpoint) -> {
+                jobRepo.checkpoint(id,
+                                   progress,
+                                   total,
+                                   StringUtils.abbreviate(checkpoint, MAX_TEXT_LENGTH));
+                if (Boolean.TRUE.equals(jobRepo.isCancelRequested(id))) {
+                    throw new JobCancelledException(id);
+                }
+            });
+            jobRepo.finish(id, Status.SUCCEEDED, new Date(), null);
+            log.info("Job {} succeeded", id);
+        } catch (JobCancelledException e) {
+            jobRepo.finish(id, Status.CANCELLED, new Date(), null);
+            log.info("Job {} was cancelled", id);
+        } catch (Exception e) {
+            log.error("Job " + id + " failed: " + e.getMessage(), e);
+            jobRepo.finish(id,
+                           Status.FAILED,
+                           new Date(),
+                           StringUtils.abbreviate(String.valueOf(e.getMessage()), MAX_TEXT_LENGTH));
+        }
+    }
+
+    @Override
+    public BackgroundJob get(Long id) {
+        return jobRepo.findOne(id);
+    }
+
+    @Override
+    public List<BackgroundJob> list(Long beforeId, int pageSize) {
+        return jobRepo.findPage(null == beforeId ? Long.MAX_VALUE : beforeId,
+                                new PageRequest(0, pageSize));
+    }
+
+    @Override
+    public boolean cancel(Long id) {
+        return jobRepo.requestCancel(id, UNFINISHED) > 0;
+    }
+
+}
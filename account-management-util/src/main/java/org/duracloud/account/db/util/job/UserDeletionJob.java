@@ -0,0 +1,48 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.job;
+
+import org.duracloud.account.db.util.RootAccountManagerService;
+
+/**
+ * Deletes a user, along with the user's rights and group memberships, in a
+ * single transaction.
+ */
+public class UserDeletionJob implements Job {
+
+    public static final String TYPE = "delete-user";
+
+    private RootAccountManagerService rootAccountManagerService;
+    private Long userId;
+    private String username;
+
+    public UserDeletionJob(RootAccountManagerService rootAccountManagerService,
+                           Long userId,
+                           String username) {
+        this.rootAccountManagerService = rootAccountManagerService;
+        this.userId = userId;
+        this.username = username;
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Delete user " + username + " (" + userId + ")";
+    }
+
+    @Override
+    public void run(JobContext context) throws Exception {
+        context.checkpoint(0, 1, null);
+        rootAccountManagerService.deleteUser(userId);
+    }
+
+}
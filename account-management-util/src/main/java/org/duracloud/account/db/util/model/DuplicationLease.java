@@ -0,0 +1,71 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.model;
+
+import java.util.Date;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import org.duracloud.account.db.model.BaseEntity;
+
+/**
+ * The claim of a duplication monitor node on the check of a single host.
+ * While the lease is held, no other node checks the host; once the check
+ * completes the lease is released and the time of the check is recorded, so
+ * that a host which has not been checked recently can be picked up by
+ * another node.
+ */
+@Entity
+public class DuplicationLease extends BaseEntity {
+
+    @Column(nullable = false, unique = true)
+    private String host;
+
+    private String owner;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date expires;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date lastChecked;
+
+    public String getHost() {
+        return host;
+    }
+
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public Date getExpires() {
+        return expires;
+    }
+
+    public void setExpires(Date expires) {
+        this.expires = expires;
+    }
+
+    public Date getLastChecked() {
+        return lastChecked;
+    }
+
+    public void setLastChecked(Date lastChecked) {
+        this.lastChecked = lastChecked;
+    }
+
+}
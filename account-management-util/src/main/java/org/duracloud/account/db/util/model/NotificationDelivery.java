@@ -0,0 +1,132 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.model;
+
+import java.util.Date;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import org.duracloud.account.db.model.BaseEntity;
+
+/**
+ * A record of a single attempt to deliver a notification to one recipient.
+ * Records are only ever appended.
+ */
+@Entity
+public class NotificationDelivery extends BaseEntity {
+
+    public enum Status {
+        SENT, FAILED;
+    }
+
+    /**
+     * Name of the email template, or of the event monitor for notifications
+     * which are not template based
+     */
+    @Column(nullable = false)
+    private String template;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(length = 1000)
+    private String subject;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date sentDate;
+
+    private long latencyMillis;
+
+    @Column(length = 1000)
+    private String error;
+
+    public NotificationDelivery() {
+    }
+
+    public NotificationDelivery(String template,
+                                String recipient,
+                                String subject,
+                                Status status,
+                                Date sentDate,
+                                long latencyMillis,
+                                String error) {
+        this.template = template;
+        this.recipient = recipient;
+        this.subject = subject;
+        this.status = status;
+        this.sentDate = sentDate;
+        this.latencyMillis = latencyMillis;
+        this.error = error;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public void setTemplate(String template) {
+        this.template = template;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Date getSentDate() {
+        return sentDate;
+    }
+
+    public void setSentDate(Date sentDate) {
+        this.sentDate = sentDate;
+    }
+
+    public long getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    public void setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+}
@@ -0,0 +1,44 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.notification;
+
+import java.util.List;
+
+import org.duracloud.account.db.util.model.NotificationDelivery;
+
+/**
+ * An append-only log of notification delivery attempts.
+ */
+public interface NotificationDeliveryLog {
+
+    /**
+     * Records the outcome of delivering a notification to a recipient. The
+     * record is written asynchronously.
+     *
+     * @param delivery
+     */
+    public void record(NotificationDelivery delivery);
+
+    /**
+     * Lists recorded deliveries, newest first.
+     *
+     * @param beforeId  only deliveries with a lower id are listed; null to
+     *                  start with the newest
+     * @param template  null for any template
+     * @param recipient null for any recipient
+     * @param status    null for any status
+     * @param pageSize  maximum number of deliveries to list
+     * @return deliveries
+     */
+    public List<NotificationDelivery> list(Long beforeId,
+                                           String template,
+                                           String recipient,
+                                           NotificationDelivery.Status status,
+                                           int pageSize);
+
+}
@@ -0,0 +1,119 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.notification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.lang.StringUtils;
+import org.duracloud.account.db.util.model.NotificationDelivery;
+import org.duracloud.account.db.util.repo.NotificationDeliveryRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+/**
+ * Queues delivery records in memory and writes them in batches, either when
+ * a batch fills or every few seconds. If the queue is full, records are
+ * dropped (and logged) rather than holding up the sender.
+ */
+@Component("notificationDeliveryLog")
+public class NotificationDeliveryLogImpl implements NotificationDeliveryLog {
+
+    protected static final int BATCH_SIZE = 100;
+    private static final int QUEUE_CAPACITY = 10000;
+    private static final long FLUSH_INTERVAL_SECONDS = 5;
+
+    private Logger log = LoggerFactory.getLogger(NotificationDeliveryLogImpl.class);
+
+    private NotificationDeliveryRepo deliveryRepo;
+    private BlockingQueue<NotificationDelivery> queue =
+        new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private ScheduledExecutorService flusher;
+
+    @Autowired
+    public NotificationDeliveryLogImpl(NotificationDeliveryRepo deliveryRepo) {
+        this.deliveryRepo = deliveryRepo;
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "notification-delivery-log");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flush,
+                                       FLUSH_INTERVAL_SECONDS,
+                                       FLUSH_INTERVAL_SECONDS,
+                                       TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        flush();
+    }
+
+    @Override
+    public void record(NotificationDelivery delivery) {
+        delivery.setError(StringUtils.abbreviate(delivery.getError(), 1000));
+        delivery.setSubject(StringUtils.abbreviate(delivery.getSubject(), 1000));
+
+        if (!queue.offer(delivery)) {
+            log.warn("Delivery log queue is full, dropping record of {} to {}: {}",
+                     delivery.getTemplate(), delivery.getRecipient(), delivery.getStatus());
+            return;
+        }
+
+        if (queue.size() >= BATCH_SIZE && flusher != null) {
+            flusher.execute(this::flush);
+        }
+    }
+
+    /**
+     * Writes all queued records, one batch at a time.
+     */
+    protected synchronized void flush() {
+        List<NotificationDelivery> batch = new ArrayList<>(BATCH_SIZE);
+        while (queue.drainTo(batch, BATCH_SIZE) > 0) {
+            try {
+                deliveryRepo.save(batch);
+            } catch (Exception e) {
+                log.error("Unable to write " + batch.size() + " delivery records: " +
+                          e.getMessage(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    @Override
+    public List<NotificationDelivery> list(Long beforeId,
+                                           String template,
+                                           String recipient,
+                                           NotificationDelivery.Status status,
+                                           int pageSize) {
+        return deliveryRepo.findPage(null == beforeId ? Long.MAX_VALUE : beforeId,
+                                     StringUtils.trimToNull(template),
+                                     StringUtils.trimToNull(recipient),
+                                     status,
+                                     new PageRequest(0, pageSize));
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.notification;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends notifications off of the calling thread. When called within a
+ * transaction, the notifications are only handed to the worker threads once
+ * the transaction commits, so recipients never receive links to data which
+ * was rolled back.
+ */
+@Component("notificationExecutor")
+public class NotificationExecutor {
+
+    private static final int THREADS = 4;
+    private static final int QUEUE_CAPACITY = 10000;
+
+    private Logger log = LoggerFactory.getLogger(NotificationExecutor.class);
+
+    private ThreadPoolExecutor executor;
+
+    public NotificationExecutor() {
+        this(THREADS, QUEUE_CAPACITY);
+    }
+
+    public NotificationExecutor(int threads, int queueCapacity) {
+        final AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads,
+                                               threads,
+                                               60,
+                                               TimeUnit.SECONDS,
+                                               new ArrayBlockingQueue<Runnable>(queueCapacity),
+                                               r -> {
+                                                   Thread t = new Thread(r, "notification-" +
+                                                                            count.incrementAndGet());
+                                                   t.setDaemon(true);
+                                                   return t;
+                                               });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Queues a notification for delivery. A notification which cannot be
+     * queued is logged and dropped.
+     *
+     * @param description of the notification, used for logging
+     * @param notification the work which sends the notification
+     */
+    public void execute(String description, Runnable notification) {
+        execute(description, notification, null);
+    }
+
+    /**
+     * Queues a notification for delivery. Failures are logged; they are not
+     * reported back to the caller.
+     *
+     * @param description of the notification, used for logging
+     * @param notification the work which sends the notification
+     * @param rejected run instead of the notification if it cannot be queued
+     *                 because the queue is full or the executor has shut
+     *                 down; may be null
+     */
+    public void execute(final String description,
+                        final Runnable notification,
+                        final Runnable rejected) {
+        final Runnable task = () -> {
+            try {
+                notification.run();
+                log.debug("Sent notification: {}", description);
+            } catch (Exception e) {
+                log.error("Unable to send notification: " + description, e);
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCommit() {
+                        submit(description, task, rejected);
+                    }
+                });
+        } else {
+            submit(description, task, rejected);
+        }
+    }
+
+    private void submit(String description, Runnable task, Runnable rejected) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.error("Unable to queue notification: " + description, e);
+            if (null != rejected) {
+                try {
+                    rejected.run();
+                } catch (Exception re) {
+                    log.error("Unable to handle rejected notification: " + description, re);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+}
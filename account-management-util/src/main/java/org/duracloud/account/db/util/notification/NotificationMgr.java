@@ -31,4 +31,12 @@ public interface NotificationMgr {
      */
     public NotificationMgrConfig getConfig();
 
+    /**
+     * This method returns the log in which notification deliveries are
+     * recorded, or null if deliveries are not recorded
+     *
+     * @return delivery log
+     */
+    public NotificationDeliveryLog getDeliveryLog();
+
 }
@@ -24,6 +24,7 @@ public class NotificationMgrImpl implements NotificationMgr {
     private NotificationFactory factory;
     private McConfig mcConfig;
     private NotificationMgrConfig mgrConfig;
+    private NotificationDeliveryLog deliveryLog;
 
     public NotificationMgrImpl(NotificationFactory factory,
                                McConfig mcConfig) {
@@ -59,4 +60,13 @@ public class NotificationMgrImpl implements NotificationMgr {
     public NotificationMgrConfig getConfig() {
         return mgrConfig;
     }
+
+    @Override
+    public NotificationDeliveryLog getDeliveryLog() {
+        return deliveryLog;
+    }
+
+    public void setDeliveryLog(NotificationDeliveryLog deliveryLog) {
+        this.deliveryLog = deliveryLog;
+    }
 }
@@ -26,6 +26,8 @@ import org.duracloud.account.db.model.EmailTemplate;
 import org.duracloud.account.db.model.UserInvitation;
 import org.duracloud.account.db.util.EmailTemplateService;
 import org.duracloud.account.db.util.error.UnsentEmailException;
+import org.duracloud.account.db.util.model.NotificationDelivery;
+import org.duracloud.account.db.util.model.NotificationDelivery.Status;
 import org.duracloud.notification.Emailer;
 
 /**
@@ -35,11 +37,20 @@ import org.duracloud.notification.Emailer;
 public class Notifier {
 
     private Emailer emailer;
+    private NotificationDeliveryLog deliveryLog;
     private AmaEndpoint amaEndpoint;
     private EmailTemplateService emailTemplateService;
 
     public Notifier(Emailer emailer, AmaEndpoint amaEndpoint, EmailTemplateService emailTemplateService) {
+        this(emailer, null, amaEndpoint, emailTemplateService);
+    }
+
+    public Notifier(Emailer emailer,
+                    NotificationDeliveryLog deliveryLog,
+                    AmaEndpoint amaEndpoint,
+                    EmailTemplateService emailTemplateService) {
         this.emailer = emailer;
+        this.deliveryLog = deliveryLog;
         this.amaEndpoint = amaEndpoint;
         this.emailTemplateService = emailTemplateService;
     }
@@ -61,7 +72,10 @@ public class Notifier {
     }
 
     private void sendEmail(EmailTemplate template, Map<String, String> parameters, String recipientEmail) {
-        sendEmail(format(parameters, template.getSubject()), format(parameters, template.getBody()), recipientEmail);
+        sendEmail(template.getTemplate().name(),
+                  format(parameters, template.getSubject()),
+                  format(parameters, template.getBody()),
+                  recipientEmail);
     }
 
     public void sendNotificationCreateNewUser(DuracloudUser user) {
@@ -95,24 +109,62 @@ public class Notifier {
         sendEmail(template, parameters, user.getEmail());
     }
 
-    private void sendEmail(String subject, String message, String emailAddr) {
+    private void sendEmail(String templateName, String subject, String message, String emailAddr) {
+        long start = System.currentTimeMillis();
+        Exception error = null;
         try {
             emailer.send(subject, message, emailAddr);
         } catch (Exception e) {
+            error = e;
+        }
+
+        if (deliveryLog != null) {
+            deliveryLog.record(new NotificationDelivery(templateName,
+                                                        emailAddr,
+                                                        subject,
+                                                        null == error ? Status.SENT : Status.FAILED,
+                                                        new Date(),
+                                                        System.currentTimeMillis() - start,
+                                                        null == error ? null : error.getMessage()));
+        }
+
+        if (error != null) {
             String msg =
                 "Error: Unable to send email with subject: " + subject +
                 " to address: " + emailAddr;
-            throw new UnsentEmailException(msg, e);
+            throw new UnsentEmailException(msg, error);
         }
     }
 
     public void sendNotificationUserInvitation(UserInvitation invitation) {
         final EmailTemplate template = emailTemplateService.getTemplate(USER_INVITATION);
+        sendEmail(template, createParameters(invitation), invitation.getUserEmail());
+    }
+
+    /**
+     * Records an invitation email which was never sent as a failed delivery,
+     * so that the invitation can be found and sent again.
+     */
+    public void recordUnsentUserInvitation(UserInvitation invitation, String error) {
+        if (deliveryLog != null) {
+            final EmailTemplate template = emailTemplateService.getTemplate(USER_INVITATION);
+            deliveryLog.record(new NotificationDelivery(template.getTemplate().name(),
+                                                        invitation.getUserEmail(),
+                                                        format(createParameters(invitation),
+                                                               template.getSubject()),
+                                                        Status.FAILED,
+                                                        new Date(),
+                                                        0,
+                                                        error));
+        }
+    }
+
+    private Map<String,String> createParameters(UserInvitation invitation) {
         final Map<String,String> parameters = createParameters(amaEndpoint);
         parameters.putAll(createParameters(invitation.getAccount()));
         parameters.put("redemptionUrl",  amaEndpoint.getUrl() + "/users/redeem/" + invitation.getRedemptionCode());
         parameters.put("createUserProfileUrl", amaEndpoint.getUrl() + "/users/new");
-        sendEmail(template, parameters, invitation.getUserEmail());
+        return parameters;
     }
 
     private Map<String,String> createParameters(AccountInfo accountInfo) {
@@ -0,0 +1,111 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.repo;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.duracloud.account.db.model.AccountInfo;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Set-based deletes of an account and the rows which depend on it. Each
+ * statement deletes every matching row at once, without loading entities,
+ * so the statements must be issued in dependency order: roles, rights,
+ * group memberships, groups, invitations, storage provider properties,
+ * secondary storage providers, the account and finally its primary storage
+ * provider.
+ */
+public interface AccountDeletionRepo extends Repository<AccountInfo, Long> {
+
+    /**
+     * @return the account subdomain, or null if the account does not exist
+     */
+    @Query("select a.subdomain from AccountInfo a where a.id = :accountId")
+    public String findSubdomain(@Param("accountId") Long accountId);
+
+    /**
+     * @return ids of the primary and secondary storage provider accounts of
+     *         the account
+     */
+    @Query(value = "select primary_storage_provider_account_id from account_info" +
+                   " where id = :accountId" +
+                   " union select id from storage_provider_account" +
+                   " where account_info_id = :accountId",
+           nativeQuery = true)
+    public List<Number> findStorageProviderIds(@Param("accountId") Long accountId);
+
+    /**
+     * @return ids of the account's rights, in id order
+     */
+    @Query("select r.id from AccountRights r where r.account.id = :accountId order by r.id")
+    public List<Long> findRightsIds(@Param("accountId") Long accountId, Pageable pageable);
+
+    @Modifying
+    @Query(value = "delete from account_rights_role where account_rights_id in" +
+                   " (select id from account_rights where account_id = :accountId)",
+           nativeQuery = true)
+    public int deleteRoles(@Param("accountId") Long accountId);
+
+    @Modifying
+    @Query(value = "delete from account_rights_role where account_rights_id in :rightsIds",
+           nativeQuery = true)
+    public int deleteRolesByRightsIds(@Param("rightsIds") Collection<Long> rightsIds);
+
+    @Modifying
+    @Query(value = "delete from account_rights where account_id = :accountId", nativeQuery = true)
+    public int deleteRights(@Param("accountId") Long accountId);
+
+    @Modifying
+    @Query(value = "delete from account_rights where id in :rightsIds", nativeQuery = true)
+    public int deleteRightsByIds(@Param("rightsIds") Collection<Long> rightsIds);
+
+    @Modifying
+    @Query(value = "delete from group_user where group_id in" +
+                   " (select id from duracloud_group where account_id = :accountId)",
+           nativeQuery = true)
+    public int deleteGroupMembers(@Param("accountId") Long accountId);
+
+    @Modifying
+    @Query(value = "delete from duracloud_group where account_id = :accountId", nativeQuery = true)
+    public int deleteGroups(@Param("accountId") Long accountId);
+
+    @Modifying
+    @Query(value = "delete from user_invitation where account_id = :accountId", nativeQuery = true)
+    public int deleteInvitations(@Param("accountId") Long accountId);
+
+    @Modifying
+    @Query(value = "delete from storage_provider_account_properties" +
+                   " where storage_provider_account_id in :providerIds",
+           nativeQuery = true)
+    public int deleteStorageProviderProperties(@Param("providerIds") Collection<Long> providerIds);
+
+    @Modifying
+    @Query(value = "delete from storage_provider_account where account_info_id = :accountId",
+           nativeQuery = true)
+    public int deleteSecondaryStorageProviders(@Param("accountId") Long accountId);
+
+    @Modifying
+    @Query(value = "delete from account_info where id = :accountId", nativeQuery = true)
+    public int deleteAccount(@Param("accountId") Long accountId);
+
+    /**
+     * Deletes storage provider accounts by id. Clears the persistence
+     * context, as it is the last statement of an account deletion and the
+     * entities read before the deletion are then stale.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "delete from storage_provider_account where id in :providerIds",
+           nativeQuery = true)
+    public int deleteStorageProviders(@Param("providerIds") Collection<Long> providerIds);
+
+}
@@ -0,0 +1,68 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.repo;
+
+import java.util.List;
+
+import org.duracloud.account.db.model.AccountInfo;
+import org.duracloud.account.db.model.AccountInfo.AccountStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Keyset-paged account listings, ordered by account name and id, along with
+ * aggregate counts. Null filter arguments match all accounts; prefixes must
+ * end with '%' and escape wildcards with '!'.
+ */
+public interface AccountSearchRepo extends JpaRepository<AccountInfo, Long> {
+
+    @Query("select a from AccountInfo a" +
+           " where (a.acctName > :afterName or (a.acctName = :afterName and a.id > :afterId))" +
+           " and (:status is null or a.status = :status)" +
+           " and (:orgPrefix is null or a.orgName like :orgPrefix escape '!')" +
+           " and (:subdomainPrefix is null or a.subdomain like :subdomainPrefix escape '!')" +
+           " order by a.acctName, a.id")
+    public List<AccountInfo> findPage(@Param("afterName") String afterName,
+                                      @Param("afterId") Long afterId,
+                                      @Param("status") AccountStatus status,
+                                      @Param("orgPrefix") String orgPrefix,
+                                      @Param("subdomainPrefix") String subdomainPrefix,
+                                      Pageable pageable);
+
+    /**
+     * @return rows of [AccountStatus, Long count]
+     */
+    @Query("select a.status, count(a) from AccountInfo a group by a.status")
+    public List<Object[]> countByStatus();
+
+    /**
+     * Same ordering as {@link #findPage}, restricted to the accounts on
+     * which the user has rights.
+     */
+    @Query("select a from AccountRights r join r.account a" +
+           " where r.user.id = :userId" +
+           " and (a.acctName > :afterName or (a.acctName = :afterName and a.id > :afterId))" +
+           " and a.status = :status" +
+           " order by a.acctName, a.id")
+    public List<AccountInfo> findPageByUserId(@Param("userId") Long userId,
+                                              @Param("afterName") String afterName,
+                                              @Param("afterId") Long afterId,
+                                              @Param("status") AccountStatus status,
+                                              Pageable pageable);
+
+    /**
+     * @return rows of [AccountStatus, Long count] of the accounts on which
+     *         the user has rights
+     */
+    @Query("select a.status, count(a) from AccountRights r join r.account a" +
+           " where r.user.id = :userId group by a.status")
+    public List<Object[]> countByStatusAndUserId(@Param("userId") Long userId);
+
+}
@@ -0,0 +1,95 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.repo;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import org.duracloud.account.db.util.model.BackgroundJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Job records are written by the job threads with single-row updates, so
+ * that a checkpoint never rewrites fields changed by another thread, such as
+ * a cancellation request.
+ */
+public interface BackgroundJobRepo extends JpaRepository<BackgroundJob, Long> {
+
+    /**
+     * Keyset paged listing of jobs, newest first.
+     *
+     * @param beforeId only jobs with an id lower than this are returned
+     * @param page     limits the number of results; the page number is ignored
+     *                 in favor of beforeId
+     * @return jobs
+     */
+    @Query("select j from BackgroundJob j where j.id < :beforeId order by j.id desc")
+    public List<BackgroundJob> findPage(@Param("beforeId") Long beforeId, Pageable page);
+
+    @Query("select j.cancelRequested from BackgroundJob j where j.id = :id")
+    public Boolean isCancelRequested(@Param("id") Long id);
+
+    /**
+     * @return 1 if the job has not finished and cancellation was requested,
+     *         otherwise 0
+     */
+    @Modifying
+    @Transactional
+    @Query("update BackgroundJob j set j.cancelRequested = true" +
+           " where j.id = :id and j.status in :statuses")
+    public int requestCancel(@Param("id") Long id,
+                             @Param("statuses") Collection<BackgroundJob.Status> statuses);
+
+    @Modifying
+    @Transactional
+    @Query("update BackgroundJob j set j.status = :status, j.startDate = :startDate" +
+           " where j.id = :id")
+    public int start(@Param("id") Long id,
+                     @Param("status") BackgroundJob.Status status,
+                     @Param("startDate") Date startDate);
+
+    @Modifying
+    @Transactional
+    @Query("update BackgroundJob j set j.progress = :progress, j.total = :total," +
+           " j.checkpoint = :checkpoint where j.id = :id")
+    public int checkpoint(@Param("id") Long id,
+                          @Param("progress") long progress,
+                          @Param("total") long total,
+                          @Param("checkpoint") String checkpoint);
+
+    @Modifying
+    @Transactional
+    @Query("update BackgroundJob j set j.status = :status, j.endDate = :endDate," +
+           " j.error = :error where j.id = :id")
+    public int finish(@Param("id") Long id,
+                      @Param("status") BackgroundJob.Status status,
+                      @Param("endDate") Date endDate,
+                      @Param("error") String error);
+
+    /**
+     * Marks the jobs which were queued or running when the application
+     * stopped as failed.
+     *
+     * @return number of jobs marked
+     */
+    @Modifying
+    @Transactional
+    @Query("update BackgroundJob j set j.status = :failed, j.endDate = :endDate," +
+           " j.error = :error where j.status in :statuses")
+    public int failUnfinished(@Param("statuses") Collection<BackgroundJob.Status> statuses,
+                              @Param("failed") BackgroundJob.Status failed,
+                              @Param("endDate") Date endDate,
+                              @Param("error") String error);
+
+}
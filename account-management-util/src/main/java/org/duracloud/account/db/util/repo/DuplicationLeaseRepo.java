@@ -0,0 +1,82 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.repo;
+
+import java.util.Date;
+
+import org.duracloud.account.db.util.model.DuplicationLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Leases are taken and released with conditional single-row updates, so
+ * that when several monitor nodes try to take the lease of a host at the
+ * same time, only one of them succeeds.
+ */
+public interface DuplicationLeaseRepo extends JpaRepository<DuplicationLease, Long> {
+
+    public DuplicationLease findByHost(String host);
+
+    /**
+     * Takes the lease of a host, if it is not held by another node and the
+     * host has not been checked since the given time.
+     *
+     * @param host          to lease
+     * @param owner         node taking the lease
+     * @param expires       time after which the lease may be taken by another
+     *                      node, whether or not it was released
+     * @param now           current time
+     * @param checkedBefore time before which the host must have last been
+     *                      checked
+     * @return 1 if the lease was taken, otherwise 0
+     */
+    @Modifying
+    @Transactional
+    @Query("update DuplicationLease l set l.owner = :owner, l.expires = :expires" +
+           " where l.host = :host" +
+           " and (l.owner is null or l.owner = :owner or l.expires < :now)" +
+           " and (l.lastChecked is null or l.lastChecked < :checkedBefore)")
+    public int acquire(@Param("host") String host,
+                       @Param("owner") String owner,
+                       @Param("expires") Date expires,
+                       @Param("now") Date now,
+                       @Param("checkedBefore") Date checkedBefore);
+
+    /**
+     * Releases the lease of a host held by the given node, recording when
+     * the host was checked.
+     *
+     * @return 1 if the lease was released, or 0 if it was not held by the
+     *         node
+     */
+    @Modifying
+    @Transactional
+    @Query("update DuplicationLease l set l.owner = null, l.expires = null," +
+           " l.lastChecked = :checked where l.host = :host and l.owner = :owner")
+    public int release(@Param("host") String host,
+                       @Param("owner") String owner,
+                       @Param("checked") Date checked);
+
+    /**
+     * Releases the lease of a host held by the given node without recording
+     * a check, so that the host is checked again in the next round.
+     *
+     * @return 1 if the lease was released, or 0 if it was not held by the
+     *         node
+     */
+    @Modifying
+    @Transactional
+    @Query("update DuplicationLease l set l.owner = null, l.expires = null" +
+           " where l.host = :host and l.owner = :owner")
+    public int abandon(@Param("host") String host,
+                       @Param("owner") String owner);
+
+}
@@ -0,0 +1,79 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.repo;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.duracloud.account.db.model.DuracloudGroup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Reads and writes group memberships as rows of the group_user table,
+ * without loading groups or their users as entities.
+ */
+public interface GroupMembershipRepo extends Repository<DuracloudGroup, Long> {
+
+    /**
+     * Keyset-paged listing of the memberships of an account's groups.
+     *
+     * @return rows of [group name, username, first name, last name, email],
+     *         ordered by group name and username
+     */
+    @Query("select g.name, u.username, u.firstName, u.lastName, u.email" +
+           " from DuracloudGroup g join g.users u" +
+           " where g.account.id = :accountId" +
+           " and (g.name > :afterGroup or (g.name = :afterGroup and u.username > :afterUsername))" +
+           " order by g.name, u.username")
+    public List<Object[]> findPage(@Param("accountId") Long accountId,
+                                   @Param("afterGroup") String afterGroup,
+                                   @Param("afterUsername") String afterUsername,
+                                   Pageable pageable);
+
+    /**
+     * @return rows of [group name, group id] of the account's groups
+     */
+    @Query("select g.name, g.id from DuracloudGroup g where g.account.id = :accountId")
+    public List<Object[]> findGroupIds(@Param("accountId") Long accountId);
+
+    /**
+     * Only users with rights on the account, who are not root users, may be
+     * added to its groups.
+     *
+     * @return rows of [username, user id] of the users found
+     */
+    @Query("select u.username, u.id from AccountRights r join r.user u" +
+           " where r.account.id = :accountId and u.root = false" +
+           " and u.username in :usernames")
+    public List<Object[]> findMemberIds(@Param("accountId") Long accountId,
+                                        @Param("usernames") Collection<String> usernames);
+
+    /**
+     * @return number of users added, excluding those already in the group
+     */
+    @Modifying
+    @Query(value = "insert into group_user (group_id, user_id)" +
+                   " select :groupId, u.id from duracloud_user u" +
+                   " where u.id in :userIds and not exists" +
+                   " (select 1 from group_user gu where gu.group_id = :groupId and gu.user_id = u.id)",
+           nativeQuery = true)
+    public int addMembers(@Param("groupId") Long groupId,
+                          @Param("userIds") Collection<Long> userIds);
+
+    /**
+     * @return number of users removed from the group
+     */
+    @Modifying
+    @Query(value = "delete from group_user where group_id = :groupId", nativeQuery = true)
+    public int removeAllMembers(@Param("groupId") Long groupId);
+
+}
@@ -0,0 +1,43 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.repo;
+
+import java.util.List;
+
+import org.duracloud.account.db.util.model.NotificationDelivery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface NotificationDeliveryRepo extends JpaRepository<NotificationDelivery, Long> {
+
+    /**
+     * Keyset paged listing of deliveries, newest first. Null filter values
+     * match all deliveries.
+     *
+     * @param beforeId only deliveries with an id lower than this are returned
+     * @param template
+     * @param recipient
+     * @param status
+     * @param page     limits the number of results; the page number is ignored
+     *                 in favor of beforeId
+     * @return deliveries
+     */
+    @Query("select d from NotificationDelivery d where d.id < :beforeId"
+           + " and (:template is null or d.template = :template)"
+           + " and (:recipient is null or d.recipient = :recipient)"
+           + " and (:status is null or d.status = :status)"
+           + " order by d.id desc")
+    public List<NotificationDelivery> findPage(@Param("beforeId") Long beforeId,
+                                               @Param("template") String template,
+                                               @Param("recipient") String recipient,
+                                               @Param("status") NotificationDelivery.Status status,
+                                               Pageable page);
+
+}
@@ -0,0 +1,54 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.repo;
+
+import java.util.Date;
+import java.util.List;
+
+import org.duracloud.account.db.model.UserInvitation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Expiration-aware access to user invitations. Expired invitations are
+ * excluded by the queries themselves and are removed in bulk by
+ * {@link #deleteExpired(Date)}.
+ */
+public interface PendingInvitationRepo extends JpaRepository<UserInvitation, Long> {
+
+    /**
+     * @param accountId
+     * @param now
+     * @return invitations to the account which expire after the given date
+     */
+    public List<UserInvitation> findByAccountIdAndExpirationDateAfter(Long accountId,
+                                                                      Date now);
+
+    /**
+     * @param redemptionCode
+     * @param now
+     * @return the invitation, or null if it does not exist or has expired
+     */
+    public UserInvitation findByRedemptionCodeAndExpirationDateAfter(String redemptionCode,
+                                                                     Date now);
+
+    /**
+     * Deletes all invitations which expired before the given date.
+     *
+     * @param now
+     * @return number of invitations deleted
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from UserInvitation ui where ui.expirationDate < :now")
+    public int deleteExpired(@Param("now") Date now);
+
+}
@@ -0,0 +1,43 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.repo;
+
+import java.util.List;
+
+import org.duracloud.account.db.model.DuracloudUser;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Reads the searchable fields of users and accounts, keyset-paged by id,
+ * for loading the search index.
+ */
+public interface SearchEntryRepo extends Repository<DuracloudUser, Long> {
+
+    String USER = "select u.id, u.username, u.firstName, u.lastName, u.email from DuracloudUser u";
+
+    String ACCOUNT = "select a.id, a.acctName, a.orgName, a.subdomain from AccountInfo a";
+
+    /**
+     * @return rows of id, username, first name, last name and email
+     */
+    @Query(USER + " where u.id > :after order by u.id")
+    public List<Object[]> findUsers(@Param("after") Long after, Pageable pageable);
+
+    /**
+     * @return rows of id, account name, organization and subdomain
+     */
+    @Query(ACCOUNT + " where a.id > :after order by a.id")
+    public List<Object[]> findAccounts(@Param("after") Long after, Pageable pageable);
+
+    @Query(ACCOUNT + " where a.id = :id")
+    public List<Object[]> findAccount(@Param("id") Long id);
+
+}
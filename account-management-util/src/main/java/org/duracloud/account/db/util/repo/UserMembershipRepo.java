@@ -0,0 +1,43 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.repo;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.duracloud.account.db.model.DuracloudUser;
+import org.duracloud.account.db.util.UserMembership;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Reads users along with their accounts and roles as flat rows in a single
+ * statement, rather than walking the (eagerly fetched) entity graph.
+ */
+public interface UserMembershipRepo extends Repository<DuracloudUser, Long> {
+
+    String MEMBERSHIP =
+        "new org.duracloud.account.db.util.UserMembership(" +
+        "u.id, u.username, u.firstName, u.lastName, u.email, u.allowableIPAddressRange, u.root, " +
+        "a.id, a.acctName, a.subdomain, r)";
+
+    @Query("select " + MEMBERSHIP + " from DuracloudUser u left join u.accountRights ar" +
+           " left join ar.account a left join ar.roles r" +
+           " where u.username in :usernames order by u.username, a.id")
+    public List<UserMembership> findByUsernames(@Param("usernames") Collection<String> usernames);
+
+    /**
+     * Reads the members of a single account, without reading the members'
+     * rights on any other account.
+     */
+    @Query("select " + MEMBERSHIP + " from AccountRights ar join ar.user u join ar.account a" +
+           " left join ar.roles r where a.id = :accountId order by u.username")
+    public List<UserMembership> findByAccountId(@Param("accountId") Long accountId);
+
+}
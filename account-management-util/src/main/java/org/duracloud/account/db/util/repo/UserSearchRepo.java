@@ -0,0 +1,64 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.repo;
+
+import java.util.List;
+
+import org.duracloud.account.db.model.DuracloudUser;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Keyset-paged user listings, ordered by username. Only usernames are
+ * selected, so each page can be read from an index without loading the
+ * users' (eagerly fetched) account rights; see {@link UserMembershipRepo}
+ * for reading the users on a page. Each prefix search matches a single
+ * column so that it can be served by that column's index; callers merge the
+ * results. Prefixes must end with '%' and escape wildcards with '!'.
+ */
+public interface UserSearchRepo extends JpaRepository<DuracloudUser, Long> {
+
+    String AFTER = "u.username > :after and (:rootOnly = false or u.root = true)";
+
+    @Query("select u.username from DuracloudUser u where " + AFTER +
+           " order by u.username")
+    public List<String> findPage(@Param("after") String after,
+                                 @Param("rootOnly") boolean rootOnly,
+                                 Pageable pageable);
+
+    @Query("select u.username from DuracloudUser u where u.username like :prefix escape '!' and " +
+           AFTER + " order by u.username")
+    public List<String> findPageByUsername(@Param("prefix") String prefix,
+                                           @Param("after") String after,
+                                           @Param("rootOnly") boolean rootOnly,
+                                           Pageable pageable);
+
+    @Query("select u.username from DuracloudUser u where u.firstName like :prefix escape '!' and " +
+           AFTER + " order by u.username")
+    public List<String> findPageByFirstName(@Param("prefix") String prefix,
+                                            @Param("after") String after,
+                                            @Param("rootOnly") boolean rootOnly,
+                                            Pageable pageable);
+
+    @Query("select u.username from DuracloudUser u where u.lastName like :prefix escape '!' and " +
+           AFTER + " order by u.username")
+    public List<String> findPageByLastName(@Param("prefix") String prefix,
+                                           @Param("after") String after,
+                                           @Param("rootOnly") boolean rootOnly,
+                                           Pageable pageable);
+
+    @Query("select u.username from DuracloudUser u where u.email like :prefix escape '!' and " +
+           AFTER + " order by u.username")
+    public List<String> findPageByEmail(@Param("prefix") String prefix,
+                                        @Param("after") String after,
+                                        @Param("rootOnly") boolean rootOnly,
+                                        Pageable pageable);
+
+}
@@ -0,0 +1,82 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.sys;
+
+import org.duracloud.account.db.model.util.AccountCreationInfo;
+
+/**
+ * An event which affects a DuraCloud account as a whole.
+ */
+public class AccountEvent extends DomainEvent {
+
+    public enum Type {
+        CREATED,
+        ACTIVATED,
+        DEACTIVATED,
+        DELETED,
+        /**
+         * The account name, organization or department changed
+         */
+        UPDATED,
+        /**
+         * A storage provider was removed, configured or made primary
+         */
+        PROVIDERS_CHANGED,
+        /**
+         * The users or groups which have access to the account changed
+         */
+        USERS_CHANGED;
+    }
+
+    private Type type;
+    private Long accountId;
+    private String subdomain;
+    private AccountCreationInfo creationInfo;
+
+    public AccountEvent(Type type, Long accountId, String subdomain) {
+        this.type = type;
+        this.accountId = accountId;
+        this.subdomain = subdomain;
+    }
+
+    /**
+     * Creates an event describing a newly created account.
+     */
+    public static AccountEvent created(Long accountId,
+                                       AccountCreationInfo creationInfo) {
+        AccountEvent event =
+            new AccountEvent(Type.CREATED, accountId, creationInfo.getSubdomain());
+        event.creationInfo = creationInfo;
+        return event;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public String getSubdomain() {
+        return subdomain;
+    }
+
+    /**
+     * @return the details of the new account for CREATED events, null otherwise
+     */
+    public AccountCreationInfo getCreationInfo() {
+        return creationInfo;
+    }
+
+    @Override
+    public String toString() {
+        return "AccountEvent[" + type + ", " + subdomain + "]";
+    }
+
+}
@@ -0,0 +1,26 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.sys;
+
+import java.util.Date;
+
+/**
+ * Base class of all events published on the {@link EventBus}.
+ */
+public abstract class DomainEvent {
+
+    private Date timestamp = new Date();
+
+    /**
+     * @return the time at which the event occurred
+     */
+    public Date getTimestamp() {
+        return timestamp;
+    }
+
+}
@@ -0,0 +1,24 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.sys;
+
+/**
+ * Delivers domain events to their subscribers asynchronously, so that
+ * subscribers add no latency to the request which raised the event.
+ */
+public interface EventBus {
+
+    /**
+     * Publishes an event to all subscribers of its type. When called within
+     * a transaction, the event is only delivered once the transaction commits.
+     *
+     * @param event to publish
+     */
+    public void publish(DomainEvent event);
+
+}
@@ -0,0 +1,29 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.sys;
+
+/**
+ * Receives events of a given type from the {@link EventBus}. Each subscriber
+ * is called from its own worker thread, one event at a time, in the order in
+ * which the events were published.
+ */
+public interface EventSubscriber<E extends DomainEvent> {
+
+    /**
+     * @return the type of event (including subtypes) this subscriber receives
+     */
+    public Class<E> getEventType();
+
+    /**
+     * Handles a single event. Exceptions are logged by the bus.
+     *
+     * @param event published on the bus
+     */
+    public void onEvent(E event);
+
+}
@@ -0,0 +1,90 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.sys;
+
+import org.duracloud.account.db.model.AccountInfo;
+import org.duracloud.account.db.model.DuracloudUser;
+
+/**
+ * An event which affects a single user, optionally within the context of
+ * one account.
+ */
+public class UserEvent extends DomainEvent {
+
+    public enum Type {
+        CREATED,
+        /**
+         * The user was given access to an account
+         */
+        ADDED,
+        /**
+         * The user's access to an account was revoked
+         */
+        REMOVED,
+        RIGHTS_CHANGED,
+        /**
+         * Details of the user changed; published once per change, without
+         * an account
+         */
+        UPDATED,
+        /**
+         * Details used by DuraCloud to authenticate the user (such as the
+         * email address, password or allowable IP range) changed; published
+         * for each account of the user, or once without an account for root
+         * users
+         */
+        CREDENTIALS_CHANGED,
+        DELETED,
+        /**
+         * The user was granted or lost root privileges
+         */
+        ROOT_CHANGED;
+    }
+
+    private Type type;
+    private DuracloudUser user;
+    private AccountInfo account;
+
+    /**
+     * @param type of event
+     * @param user affected by the event
+     * @param account in which the event occurred, may be null
+     */
+    public UserEvent(Type type, DuracloudUser user, AccountInfo account) {
+        this.type = type;
+        this.user = user;
+        this.account = account;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public DuracloudUser getUser() {
+        return user;
+    }
+
+    public AccountInfo getAccount() {
+        return account;
+    }
+
+    /**
+     * @return the subdomain of the account, or null if the event is not
+     *         specific to an account
+     */
+    public String getSubdomain() {
+        return null == account ? null : account.getSubdomain();
+    }
+
+    @Override
+    public String toString() {
+        return "UserEvent[" + type + ", " + user.getUsername() +
+               (null == account ? "" : ", " + account.getSubdomain()) + "]";
+    }
+
+}
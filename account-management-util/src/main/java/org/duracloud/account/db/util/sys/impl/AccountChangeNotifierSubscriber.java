@@ -0,0 +1,99 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.sys.impl;
+
+import org.duracloud.account.db.util.sys.AccountEvent;
+import org.duracloud.account.db.util.sys.DomainEvent;
+import org.duracloud.account.db.util.sys.EventSubscriber;
+import org.duracloud.account.db.util.sys.UserEvent;
+import org.duracloud.common.sns.AccountChangeNotifier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Propagates account and user changes to DuraCloud instances by way of the
+ * {@link AccountChangeNotifier}.
+ */
+@Component("accountChangeNotifierSubscriber")
+public class AccountChangeNotifierSubscriber implements EventSubscriber<DomainEvent> {
+
+    private AccountChangeNotifier accountChangeNotifier;
+
+    @Autowired
+    public AccountChangeNotifierSubscriber(AccountChangeNotifier accountChangeNotifier) {
+        this.accountChangeNotifier = accountChangeNotifier;
+    }
+
+    @Override
+    public Class<DomainEvent> getEventType() {
+        return DomainEvent.class;
+    }
+
+    @Override
+    public void onEvent(DomainEvent event) {
+        if (event instanceof AccountEvent) {
+            onAccountEvent((AccountEvent) event);
+        } else if (event instanceof UserEvent) {
+            onUserEvent((UserEvent) event);
+        }
+    }
+
+    private void onAccountEvent(AccountEvent event) {
+        String subdomain = event.getSubdomain();
+        switch (event.getType()) {
+            case ACTIVATED:
+            case DEACTIVATED:
+            case DELETED:
+                accountChangeNotifier.accountChanged(subdomain);
+                break;
+            case PROVIDERS_CHANGED:
+                accountChangeNotifier.storageProvidersChanged(subdomain);
+                break;
+            case USERS_CHANGED:
+                accountChangeNotifier.userStoreChanged(subdomain);
+                break;
+            case UPDATED:
+                // Account details are only used by the management console
+                break;
+            default:
+                // The account is not yet in use by DuraCloud
+                break;
+        }
+    }
+
+    private void onUserEvent(UserEvent event) {
+        boolean root = event.getUser().isRoot();
+        String subdomain = event.getSubdomain();
+        switch (event.getType()) {
+            case ADDED:
+            case REMOVED:
+            case RIGHTS_CHANGED:
+                accountChangeNotifier.accountChanged(subdomain);
+                break;
+            case CREDENTIALS_CHANGED:
+            case DELETED:
+                if (root) {
+                    accountChangeNotifier.rootUsersChanged();
+                } else if (null != subdomain) {
+                    accountChangeNotifier.userStoreChanged(subdomain);
+                }
+                break;
+            case ROOT_CHANGED:
+                accountChangeNotifier.rootUsersChanged();
+                break;
+            case CREATED:
+                if (root) {
+                    accountChangeNotifier.rootUsersChanged();
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+}
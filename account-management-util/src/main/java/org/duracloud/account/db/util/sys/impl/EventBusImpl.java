@@ -0,0 +1,175 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.sys.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PreDestroy;
+
+import org.duracloud.account.db.util.sys.DomainEvent;
+import org.duracloud.account.db.util.sys.EventBus;
+import org.duracloud.account.db.util.sys.EventSubscriber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Dispatches events to every subscriber bean in the application context.
+ * Each subscriber has a single worker thread and a bounded queue. When a
+ * subscriber's queue is full, publishers wait for room (back-pressure) for
+ * up to a fixed timeout, after which the event is dropped for that
+ * subscriber and counted.
+ */
+@Component("eventBus")
+@ManagedResource(objectName = "org.duracloud.account:name=EventBus")
+public class EventBusImpl implements EventBus {
+
+    private static final int QUEUE_CAPACITY = 1000;
+    private static final long OFFER_TIMEOUT_MILLIS = 5000;
+
+    private Logger log = LoggerFactory.getLogger(EventBusImpl.class);
+
+    private List<Dispatcher> dispatchers = new ArrayList<>();
+    private AtomicLong dropped = new AtomicLong();
+
+    @Autowired
+    public EventBusImpl(List<EventSubscriber<?>> subscribers) {
+        this(subscribers, QUEUE_CAPACITY, OFFER_TIMEOUT_MILLIS);
+    }
+
+    public EventBusImpl(List<EventSubscriber<?>> subscribers,
+                        int queueCapacity,
+                        long offerTimeoutMillis) {
+        if (null == subscribers) {
+            subscribers = Collections.emptyList();
+        }
+        for (EventSubscriber<?> subscriber : subscribers) {
+            dispatchers.add(new Dispatcher(subscriber, queueCapacity, offerTimeoutMillis));
+            log.info("Registered event subscriber {} for {}",
+                     subscriber.getClass().getSimpleName(),
+                     subscriber.getEventType().getSimpleName());
+        }
+    }
+
+    @Override
+    public void publish(final DomainEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCommit() {
+                        dispatch(event);
+                    }
+                });
+        } else {
+            dispatch(event);
+        }
+    }
+
+    private void dispatch(DomainEvent event) {
+        log.debug("Publishing {}", event);
+        for (Dispatcher dispatcher : dispatchers) {
+            dispatcher.dispatch(event);
+        }
+    }
+
+    @ManagedAttribute(description = "Events dropped because a subscriber queue stayed full")
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    @ManagedAttribute(description = "Events waiting to be handled, across all subscribers")
+    public int getPending() {
+        int pending = 0;
+        for (Dispatcher dispatcher : dispatchers) {
+            pending += dispatcher.executor.getQueue().size() +
+                       dispatcher.executor.getActiveCount();
+        }
+        return pending;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Dispatcher dispatcher : dispatchers) {
+            dispatcher.executor.shutdown();
+        }
+    }
+
+    /**
+     * Feeds the events of one subscriber to its worker thread.
+     */
+    private class Dispatcher {
+
+        private EventSubscriber<DomainEvent> subscriber;
+        private String name;
+        private ThreadPoolExecutor executor;
+
+        @SuppressWarnings("unchecked")
+        Dispatcher(EventSubscriber<?> subscriber,
+                   int queueCapacity,
+                   final long offerTimeoutMillis) {
+            this.subscriber = (EventSubscriber<DomainEvent>) subscriber;
+            this.name = subscriber.getClass().getSimpleName();
+
+            RejectedExecutionHandler backPressure = (task, pool) -> {
+                if (pool.isShutdown()) {
+                    log.warn("Event bus is shut down, dropping event for {}", name);
+                    return;
+                }
+                try {
+                    if (!pool.getQueue().offer(task, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                        dropped.incrementAndGet();
+                        log.error("Event queue for {} is full, dropping event", name);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped.incrementAndGet();
+                    log.error("Interrupted while queuing event for {}", name);
+                }
+            };
+
+            this.executor = new ThreadPoolExecutor(1,
+                                                   1,
+                                                   60,
+                                                   TimeUnit.SECONDS,
+                                                   new ArrayBlockingQueue<Runnable>(queueCapacity),
+                                                   r -> {
+                                                       Thread t = new Thread(r, "event-" + name);
+                                                       t.setDaemon(true);
+                                                       return t;
+                                                   },
+                                                   backPressure);
+            this.executor.allowCoreThreadTimeOut(true);
+        }
+
+        void dispatch(final DomainEvent event) {
+            if (!subscriber.getEventType().isInstance(event)) {
+                return;
+            }
+            executor.execute(() -> {
+                try {
+                    subscriber.onEvent(event);
+                } catch (Exception e) {
+                    log.error(name + " failed to handle " + event + ": " + e.getMessage(), e);
+                }
+            });
+        }
+    }
+
+}
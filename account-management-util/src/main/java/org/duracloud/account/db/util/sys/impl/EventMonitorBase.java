@@ -7,18 +7,28 @@
  */
 package org.duracloud.account.db.util.sys.impl;
 
+import java.util.Date;
+
 import org.duracloud.account.db.model.util.AccountCreationInfo;
+import org.duracloud.account.db.util.model.NotificationDelivery;
+import org.duracloud.account.db.util.model.NotificationDelivery.Status;
+import org.duracloud.account.db.util.notification.NotificationDeliveryLog;
 import org.duracloud.account.db.util.notification.NotificationMgr;
+import org.duracloud.account.db.util.sys.AccountEvent;
 import org.duracloud.account.db.util.sys.EventMonitor;
+import org.duracloud.account.db.util.sys.EventSubscriber;
 import org.duracloud.notification.Emailer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Subscribes to account events on the event bus, relaying account creation
+ * to the monitor.
+ *
  * @author Andrew Woods
  * Date: 3/22/11
  */
-public abstract class EventMonitorBase implements EventMonitor {
+public abstract class EventMonitorBase implements EventMonitor, EventSubscriber<AccountEvent> {
 
     private Logger log = LoggerFactory.getLogger(SystemMonitorImpl.class);
 
@@ -28,6 +38,18 @@ public abstract class EventMonitorBase implements EventMonitor {
         this.notificationMgr = notificationMgr;
     }
 
+    @Override
+    public Class<AccountEvent> getEventType() {
+        return AccountEvent.class;
+    }
+
+    @Override
+    public void onEvent(AccountEvent event) {
+        if (event.getType() == AccountEvent.Type.CREATED) {
+            accountCreated(event.getCreationInfo());
+        }
+    }
+
     @Override
     public void accountCreated(AccountCreationInfo acctInfo) {
         log.debug("Acct created for acct:{}",
@@ -39,7 +61,39 @@ public abstract class EventMonitorBase implements EventMonitor {
         String body = buildBody(acctInfo);
         String[] recipients = buildRecipients();
 
-        emailer.send(subj, body, recipients);
+        long start = System.currentTimeMillis();
+        Exception error = null;
+        try {
+            emailer.send(subj, body, recipients);
+        } catch (RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            recordDelivery(subj, recipients, start, error);
+        }
+    }
+
+    private void recordDelivery(String subj,
+                                String[] recipients,
+                                long start,
+                                Exception error) {
+        NotificationDeliveryLog deliveryLog = notificationMgr.getDeliveryLog();
+        if (null == deliveryLog) {
+            return;
+        }
+
+        long latency = System.currentTimeMillis() - start;
+        Status status = null == error ? Status.SENT : Status.FAILED;
+        String message = null == error ? null : error.getMessage();
+        for (String recipient : recipients) {
+            deliveryLog.record(new NotificationDelivery(getClass().getSimpleName(),
+                                                        recipient,
+                                                        subj,
+                                                        status,
+                                                        new Date(),
+                                                        latency,
+                                                        message));
+        }
     }
 
     protected abstract String buildSubj(AccountCreationInfo acctInfo);
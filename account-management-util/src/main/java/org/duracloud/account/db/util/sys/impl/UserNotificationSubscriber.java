@@ -0,0 +1,70 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.sys.impl;
+
+import org.duracloud.account.config.AmaEndpoint;
+import org.duracloud.account.db.util.EmailTemplateService;
+import org.duracloud.account.db.util.notification.NotificationMgr;
+import org.duracloud.account.db.util.notification.Notifier;
+import org.duracloud.account.db.util.sys.EventSubscriber;
+import org.duracloud.account.db.util.sys.UserEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Emails users about changes made to their own accounts: the welcome
+ * message for new users and notice of being added to an account.
+ */
+@Component("userNotificationSubscriber")
+public class UserNotificationSubscriber implements EventSubscriber<UserEvent> {
+
+    private NotificationMgr notificationMgr;
+    private AmaEndpoint amaEndpoint;
+    private EmailTemplateService emailTemplateService;
+    private Notifier notifier;
+
+    @Autowired
+    public UserNotificationSubscriber(NotificationMgr notificationMgr,
+                                      AmaEndpoint amaEndpoint,
+                                      EmailTemplateService emailTemplateService) {
+        this.notificationMgr = notificationMgr;
+        this.amaEndpoint = amaEndpoint;
+        this.emailTemplateService = emailTemplateService;
+    }
+
+    @Override
+    public Class<UserEvent> getEventType() {
+        return UserEvent.class;
+    }
+
+    @Override
+    public void onEvent(UserEvent event) {
+        switch (event.getType()) {
+            case CREATED:
+                getNotifier().sendNotificationCreateNewUser(event.getUser());
+                break;
+            case ADDED:
+                getNotifier().sendNotificationUserAddedToAccount(event.getUser(),
+                                                                 event.getAccount());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private Notifier getNotifier() {
+        if (null == notifier) {
+            notifier = new Notifier(notificationMgr.getEmailer(),
+                                    notificationMgr.getDeliveryLog(),
+                                    amaEndpoint,
+                                    emailTemplateService);
+        }
+        return notifier;
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes single lines of comma separated values. Values which
+ * contain a comma, a quote or leading or trailing spaces are quoted, with
+ * quotes doubled. Unquoted values are trimmed. Values may not span lines.
+ */
+public class CsvUtil {
+
+    private CsvUtil() {
+        // Ensures no instances are made of this class, as there are only static members.
+    }
+
+    /**
+     * @param line of comma separated values
+     * @return the values of the line, unquoted
+     * @throws IllegalArgumentException if a quoted value is not terminated
+     */
+    public static List<String> parseLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        int i = 0;
+        while (i < line.length()) {
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i < line.length() && line.charAt(i) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == ',') {
+                values.add(wasQuoted ? value.toString() : value.toString().trim());
+                value.setLength(0);
+                wasQuoted = false;
+            } else if (c == '"' && !wasQuoted && value.toString().trim().isEmpty()) {
+                // Spaces before the opening quote are not part of the value
+                value.setLength(0);
+                quoted = true;
+                wasQuoted = true;
+            } else if (!wasQuoted || !Character.isWhitespace(c)) {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted value");
+        }
+        values.add(wasQuoted ? value.toString() : value.toString().trim());
+        return values;
+    }
+
+    /**
+     * @param values to write, null values are written as empty values
+     * @return a line of comma separated values, without a line terminator
+     */
+    public static String formatLine(String... values) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            String value = null == values[i] ? "" : values[i];
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 ||
+                !value.equals(value.trim())) {
+                line.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(value);
+            }
+        }
+        return line.toString();
+    }
+
+}
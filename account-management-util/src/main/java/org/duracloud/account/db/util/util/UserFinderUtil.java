@@ -7,50 +7,66 @@
  */
 package org.duracloud.account.db.util.util;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
 
-import org.duracloud.account.db.model.AccountInfo;
-import org.duracloud.account.db.model.AccountRights;
-import org.duracloud.account.db.model.DuracloudUser;
-import org.duracloud.account.db.repo.DuracloudRepoMgr;
-import org.duracloud.account.db.repo.DuracloudRightsRepo;
+import org.duracloud.account.db.model.Role;
+import org.duracloud.account.db.util.AccountMember;
+import org.duracloud.account.db.util.UserMembership;
+import org.duracloud.account.db.util.repo.UserMembershipRepo;
 
 /**
  * @author: Bill Branan Date: 2/17/12
  */
 public class UserFinderUtil {
 
-    private DuracloudRepoMgr repoMgr;
+    private UserMembershipRepo membershipRepo;
 
-    public UserFinderUtil(DuracloudRepoMgr repoMgr) {
-        this.repoMgr = repoMgr;
+    public UserFinderUtil(UserMembershipRepo membershipRepo) {
+        this.membershipRepo = membershipRepo;
     }
 
     /**
-     * Retrieves the users associated with the account
+     * Retrieves the users associated with the account, using a single query.
+     * Only the users' rights on this account are read.
      *
-     * @param account for which users should be gathered
-     * @return the set of users associated with an account
+     * @param accountId of the account for which users should be gathered
+     * @return the members of the account, ordered by username
      */
-    public Set<DuracloudUser> getAccountUsers(AccountInfo account) {
+    public List<AccountMember> getAccountMembers(Long accountId) {
+        List<AccountMember> members = new ArrayList<>();
 
-        DuracloudRightsRepo rightsRepo = repoMgr.getRightsRepo();
-        List<AccountRights> acctRights =
-            rightsRepo.findByAccountId(account.getId());
-
-        Set<DuracloudUser> users = new HashSet<>();
-        for (AccountRights rights : acctRights) {
-            DuracloudUser user = rights.getUser();
-
-            // make sure only the rights for this account are set
-            user.getAccountRights().clear();
-            user.getAccountRights().add(rights);
-
-            users.add(user);
+        // Rows are ordered by username, one row per role held
+        UserMembership user = null;
+        Set<Role> roles = EnumSet.noneOf(Role.class);
+        for (UserMembership row : membershipRepo.findByAccountId(accountId)) {
+            if (null != user && !user.getUserId().equals(row.getUserId())) {
+                members.add(toMember(user, roles));
+                roles = EnumSet.noneOf(Role.class);
+            }
+            user = row;
+            if (null != row.getRole()) {
+                roles.add(row.getRole());
+            }
         }
-        return users;
+        if (null != user) {
+            members.add(toMember(user, roles));
+        }
+        return members;
+    }
+
+    private AccountMember toMember(UserMembership user, Set<Role> roles) {
+        Role role = user.isRoot() ? Role.ROLE_ROOT : Role.highestRole(roles);
+        return new AccountMember(user.getUserId(),
+                                 user.getUsername(),
+                                 user.getFirstName(),
+                                 user.getLastName(),
+                                 user.getEmail(),
+                                 user.getAllowableIPAddressRange(),
+                                 user.isRoot(),
+                                 role);
     }
 
 }
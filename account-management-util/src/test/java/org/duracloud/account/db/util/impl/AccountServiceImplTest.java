@@ -11,25 +11,49 @@ import static org.easymock.EasyMock.eq;
 import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.expectLastCall;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.duracloud.account.config.AmaEndpoint;
 import org.duracloud.account.db.model.AccountInfo;
+import org.duracloud.account.db.model.AccountRights;
+import org.duracloud.account.db.model.DuracloudUser;
+import org.duracloud.account.db.model.Role;
 import org.duracloud.account.db.model.StorageProviderAccount;
+import org.duracloud.account.db.model.UserInvitation;
 import org.duracloud.account.db.repo.DuracloudAccountRepo;
 import org.duracloud.account.db.repo.DuracloudRepoMgr;
+import org.duracloud.account.db.repo.DuracloudRightsRepo;
 import org.duracloud.account.db.repo.DuracloudStorageProviderAccountRepo;
+import org.duracloud.account.db.repo.DuracloudUserInvitationRepo;
+import org.duracloud.account.db.util.AccountMember;
 import org.duracloud.account.db.util.AccountService;
 import org.duracloud.account.db.util.EmailTemplateService;
+import org.duracloud.account.db.util.RedemptionCodeService;
+import org.duracloud.account.db.util.UserInvitationReport;
+import org.duracloud.account.db.util.UserInvitationReport.AddressOutcome;
+import org.duracloud.account.db.util.UserInvitationReport.Outcome;
+import org.duracloud.account.db.util.notification.NotificationExecutor;
 import org.duracloud.account.db.util.notification.NotificationMgr;
-import org.duracloud.common.sns.AccountChangeNotifier;
+import org.duracloud.account.db.util.repo.PendingInvitationRepo;
+import org.duracloud.account.db.util.sys.AccountEvent;
+import org.duracloud.account.db.util.sys.EventBus;
+import org.duracloud.account.db.util.util.UserFinderUtil;
 import org.duracloud.notification.Emailer;
 import org.duracloud.storage.domain.StorageProviderType;
+import org.easymock.Capture;
+import org.easymock.CaptureType;
+import org.easymock.EasyMock;
 import org.easymock.EasyMockRunner;
 import org.easymock.EasyMockSupport;
 import org.easymock.Mock;
 import org.junit.After;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -48,17 +72,26 @@ public class AccountServiceImplTest extends EasyMockSupport {
     @Mock
     private DuracloudAccountRepo accountRepo;
     @Mock
-    private AccountChangeNotifier accountChangeNotifier;
+    private EventBus eventBus;
     @Mock
     private NotificationMgr notificationMgr;
     @Mock
     private EmailTemplateService emailTemplateService;
     @Mock
     private Emailer emailer;
+    @Mock
+    private NotificationExecutor notificationExecutor;
+    @Mock
+    private PendingInvitationRepo pendingInvitationRepo;
+    @Mock
+    private RedemptionCodeService redemptionCodeService;
+    @Mock
+    private UserFinderUtil userFinderUtil;
 
     @Before
     public void setup() {
         expect(notificationMgr.getEmailer()).andReturn(emailer);
+        expect(notificationMgr.getDeliveryLog()).andReturn(null);
     }
 
     @After
@@ -86,9 +119,46 @@ public class AccountServiceImplTest extends EasyMockSupport {
         service.addStorageProvider(StorageProviderType.AMAZON_S3);
     }
 
+    @Test
+    public void testStoreAccountStatus() {
+        expect(acct.getId()).andReturn(1L).anyTimes();
+        expect(acct.getSubdomain()).andReturn("test").anyTimes();
+        acct.setStatus(EasyMock.isA(AccountInfo.AccountStatus.class));
+        expectLastCall().times(3);
+        expect(repoMgr.getAccountRepo()).andReturn(accountRepo).times(3);
+        expect(accountRepo.save(acct)).andReturn(null).times(3);
+
+        Capture<AccountEvent> events = Capture.newInstance(CaptureType.ALL);
+        eventBus.publish(EasyMock.capture(events));
+        expectLastCall().times(2);
+        replayAll();
+
+        AccountService service = createTestObject();
+        service.storeAccountStatus(AccountInfo.AccountStatus.ACTIVE);
+        service.storeAccountStatus(AccountInfo.AccountStatus.INACTIVE);
+        service.storeAccountStatus(AccountInfo.AccountStatus.PENDING);
+
+        Assert.assertEquals(AccountEvent.Type.ACTIVATED, events.getValues().get(0).getType());
+        Assert.assertEquals(AccountEvent.Type.DEACTIVATED, events.getValues().get(1).getType());
+        Assert.assertEquals("test", events.getValues().get(1).getSubdomain());
+    }
+
+    @Test
+    public void testGetMembers() {
+        List<AccountMember> members = Collections.singletonList(
+            new AccountMember(2L, "user", null, null, null, null, false, Role.ROLE_ADMIN));
+        expect(acct.getId()).andReturn(1L);
+        expect(userFinderUtil.getAccountMembers(1L)).andReturn(members);
+        replayAll();
+
+        AccountService service = createTestObject();
+        Assert.assertSame(members, service.getMembers());
+    }
+
     private AccountService createTestObject() {
-        return new AccountServiceImpl(amaEndpoint, acct, repoMgr, accountChangeNotifier, notificationMgr,
-                                      emailTemplateService);
+        return new AccountServiceImpl(amaEndpoint, acct, repoMgr, eventBus, notificationMgr,
+                                      emailTemplateService, notificationExecutor, pendingInvitationRepo,
+                                      redemptionCodeService, userFinderUtil);
     }
 
     @Test
@@ -99,7 +169,8 @@ public class AccountServiceImplTest extends EasyMockSupport {
         StorageProviderAccount providerAccount = createMock(StorageProviderAccount.class);
 
         String subdomain = "test";
-        expect(acct.getSubdomain()).andReturn(subdomain);
+        expect(acct.getSubdomain()).andReturn(subdomain).times(2);
+        expect(acct.getId()).andReturn(1L);
 
         expect(repoMgr.getStorageProviderAccountRepo())
             .andReturn(providerAccountRepo)
@@ -120,13 +191,14 @@ public class AccountServiceImplTest extends EasyMockSupport {
         providerAccountRepo.delete(storageProviderId);
         expectLastCall();
 
-        accountChangeNotifier.storageProvidersChanged(subdomain);
-        expectLastCall();
+        Capture<AccountEvent> event = expectProvidersChanged();
 
         replayAll();
 
         AccountService service = createTestObject();
         service.removeStorageProvider(storageProviderId);
+        Assert.assertEquals(AccountEvent.Type.PROVIDERS_CHANGED, event.getValue().getType());
+        Assert.assertEquals(subdomain, event.getValue().getSubdomain());
     }
 
     @Test
@@ -152,15 +224,92 @@ public class AccountServiceImplTest extends EasyMockSupport {
         expectLastCall();
 
         String subdomain = "test";
-        expect(acct.getSubdomain()).andReturn(subdomain);
+        expect(acct.getSubdomain()).andReturn(subdomain).times(2);
+        expect(acct.getId()).andReturn(1L);
 
-        accountChangeNotifier.storageProvidersChanged(subdomain);
-        expectLastCall();
+        Capture<AccountEvent> event = expectProvidersChanged();
 
         replayAll();
         AccountService service = createTestObject();
 
         service.changePrimaryStorageProvider(storageProviderId);
+        Assert.assertEquals(AccountEvent.Type.PROVIDERS_CHANGED, event.getValue().getType());
+        Assert.assertEquals(subdomain, event.getValue().getSubdomain());
+    }
+
+    private Capture<AccountEvent> expectProvidersChanged() {
+        Capture<AccountEvent> event = Capture.newInstance();
+        eventBus.publish(EasyMock.capture(event));
+        expectLastCall();
+        return event;
+    }
+
+    @Test
+    public void testInviteUsers() {
+        Long accountId = 5L;
+        expect(acct.getId()).andReturn(accountId).anyTimes();
+        expect(acct.getSubdomain()).andReturn("test").anyTimes();
+        expect(acct.getAcctName()).andReturn("name").anyTimes();
+        expect(acct.getOrgName()).andReturn("org").anyTimes();
+        expect(acct.getDepartment()).andReturn("dept").anyTimes();
+
+        DuracloudUserInvitationRepo invitationRepo = createMock(DuracloudUserInvitationRepo.class);
+        DuracloudRightsRepo rightsRepo = createMock(DuracloudRightsRepo.class);
+        expect(repoMgr.getUserInvitationRepo()).andReturn(invitationRepo).anyTimes();
+        expect(repoMgr.getRightsRepo()).andReturn(rightsRepo);
+
+        UserInvitation pending = new UserInvitation(1L, acct, "name", "org", "dept", "test",
+                                                    "admin", "pending@example.com", 14, "abc");
+        expect(pendingInvitationRepo.findByAccountIdAndExpirationDateAfter(EasyMock.eq(accountId),
+                                                                           EasyMock.isA(Date.class)))
+            .andReturn(Arrays.asList(pending));
+
+        DuracloudUser member = new DuracloudUser();
+        member.setEmail("Member@example.com");
+        AccountRights rights = new AccountRights();
+        rights.setUser(member);
+        expect(rightsRepo.findByAccountId(accountId)).andReturn(Arrays.asList(rights));
+
+        expect(redemptionCodeService.generateCode()).andReturn("code1");
+        expect(redemptionCodeService.generateCode()).andReturn("code2");
+
+        Capture<List<UserInvitation>> saved = Capture.newInstance();
+        expect(invitationRepo.save(EasyMock.capture(saved)))
+            .andAnswer(() -> saved.getValue());
+        redemptionCodeService.codeIssued("code1");
+        redemptionCodeService.codeIssued("code2");
+
+        notificationExecutor.execute(EasyMock.isA(String.class),
+                                     EasyMock.isA(Runnable.class),
+                                     EasyMock.isA(Runnable.class));
+        expectLastCall().times(2);
+
+        replayAll();
+
+        List<String> addresses = new ArrayList<>();
+        addresses.add("new1@example.com");
+        addresses.add("member@example.com");
+        addresses.add("pending@example.com");
+        addresses.add("new2@example.com");
+        addresses.add("NEW1@example.com");
+        addresses.add("new2@example.com");
+
+        UserInvitationReport report = createTestObject().inviteUsers(addresses, "admin");
+
+        Assert.assertEquals(2, saved.getValue().size());
+        Assert.assertEquals(2, report.getInvitations().size());
+        Assert.assertEquals(Outcome.INVITED, report.getOutcome("new1@example.com"));
+        Assert.assertEquals(Outcome.ALREADY_MEMBER, report.getOutcome("member@example.com"));
+        Assert.assertEquals(Outcome.ALREADY_INVITED, report.getOutcome("pending@example.com"));
+        Assert.assertEquals(Outcome.INVITED, report.getOutcome("new2@example.com"));
+        Assert.assertEquals(Outcome.DUPLICATE, report.getOutcome("NEW1@example.com"));
+
+        List<AddressOutcome> outcomes = report.getOutcomes();
+        Assert.assertEquals(addresses.size(), outcomes.size());
+        for (int i = 0; i < addresses.size(); i++) {
+            Assert.assertEquals(addresses.get(i), outcomes.get(i).getEmailAddress());
+        }
+        Assert.assertEquals(Outcome.DUPLICATE, outcomes.get(5).getOutcome());
     }
 
     private StorageProviderAccount createStorageProviderAccount(Long storageProviderId,
@@ -8,21 +8,34 @@
 package org.duracloud.account.db.util.impl;
 
 import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
+
+import java.util.Arrays;
+import java.util.List;
 
 import org.duracloud.account.config.AmaEndpoint;
+import org.duracloud.account.db.model.AccountInfo;
+import org.duracloud.account.db.model.AccountRights;
 import org.duracloud.account.db.model.DuracloudUser;
 import org.duracloud.account.db.repo.DuracloudRepoMgr;
+import org.duracloud.account.db.repo.DuracloudRightsRepo;
 import org.duracloud.account.db.repo.DuracloudUserRepo;
 import org.duracloud.account.db.util.EmailTemplateService;
+import org.duracloud.account.db.util.RedemptionCodeService;
 import org.duracloud.account.db.util.error.InvalidUsernameException;
 import org.duracloud.account.db.util.error.ReservedPrefixException;
 import org.duracloud.account.db.util.error.UserAlreadyExistsException;
 import org.duracloud.account.db.util.notification.NotificationMgr;
-import org.duracloud.common.sns.AccountChangeNotifier;
+import org.duracloud.account.db.util.sys.EventBus;
+import org.duracloud.account.db.util.sys.UserEvent;
+import org.easymock.Capture;
+import org.easymock.CaptureType;
+import org.easymock.EasyMock;
 import org.easymock.EasyMockRunner;
 import org.easymock.EasyMockSupport;
 import org.easymock.Mock;
 import org.junit.After;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -45,17 +58,23 @@ public class DuracloudUserServiceImplTest extends EasyMockSupport {
     private AmaEndpoint endpoint;
 
     @Mock
-    private AccountChangeNotifier notifier;
+    private EventBus eventBus;
 
     @Mock
     private DuracloudUserRepo userRepo;
 
+    @Mock
+    private DuracloudRightsRepo rightsRepo;
+
     @Mock
     private EmailTemplateService emailTemplateService;
 
     @Mock
     private DuracloudUser user;
 
+    @Mock
+    private RedemptionCodeService redemptionCodeService;
+
     private DuracloudUserServiceImpl service;
 
     @Before
@@ -127,7 +146,47 @@ public class DuracloudUserServiceImplTest extends EasyMockSupport {
         service.checkUsername("user");
     }
 
+    @Test
+    public void testStoreUserDetails() throws Exception {
+        DuracloudUser storedUser = new DuracloudUser();
+        storedUser.setId(1L);
+        storedUser.setEmail("old@example.com");
+        expect(duracloudRepoMgr.getUserRepo()).andReturn(userRepo).times(2);
+        expect(userRepo.findOne(1L)).andReturn(storedUser);
+        expect(userRepo.save(storedUser)).andReturn(storedUser);
+
+        expect(duracloudRepoMgr.getRightsRepo()).andReturn(rightsRepo);
+        expect(rightsRepo.findByUserId(1L))
+            .andReturn(Arrays.asList(createRights("one"), createRights("two")));
+
+        Capture<UserEvent> events = Capture.newInstance(CaptureType.ALL);
+        eventBus.publish(EasyMock.capture(events));
+        expectLastCall().times(3);
+        replayAll();
+
+        service.storeUserDetails(1L, "first", "last", "new@example.com",
+                                 "question", "answer", null);
+
+        // One update of the user, and the new email for each of its accounts
+        List<UserEvent> published = events.getValues();
+        Assert.assertEquals(UserEvent.Type.UPDATED, published.get(0).getType());
+        Assert.assertNull(published.get(0).getAccount());
+        Assert.assertEquals(UserEvent.Type.CREDENTIALS_CHANGED, published.get(1).getType());
+        Assert.assertEquals("one", published.get(1).getSubdomain());
+        Assert.assertEquals(UserEvent.Type.CREDENTIALS_CHANGED, published.get(2).getType());
+        Assert.assertEquals("two", published.get(2).getSubdomain());
+    }
+
+    private AccountRights createRights(String subdomain) {
+        AccountInfo account = new AccountInfo();
+        account.setSubdomain(subdomain);
+        AccountRights rights = new AccountRights();
+        rights.setAccount(account);
+        return rights;
+    }
+
     private DuracloudUserServiceImpl getDuracloudUserService() {
-        return new DuracloudUserServiceImpl(duracloudRepoMgr, notificationMgr, endpoint, notifier, emailTemplateService);
+        return new DuracloudUserServiceImpl(duracloudRepoMgr, notificationMgr, endpoint, eventBus, emailTemplateService,
+                                            redemptionCodeService);
     }
 }
@@ -0,0 +1,51 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.impl;
+
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.isA;
+
+import java.util.Date;
+
+import org.duracloud.account.db.util.repo.PendingInvitationRepo;
+import org.easymock.EasyMockRunner;
+import org.easymock.EasyMockSupport;
+import org.easymock.Mock;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(EasyMockRunner.class)
+public class ExpiredInvitationReaperTest extends EasyMockSupport {
+
+    @Mock
+    private PendingInvitationRepo invitationRepo;
+
+    @After
+    public void tearDown() {
+        verifyAll();
+    }
+
+    @Test
+    public void testPurge() {
+        expect(invitationRepo.deleteExpired(isA(Date.class))).andReturn(3);
+        expect(invitationRepo.deleteExpired(isA(Date.class))).andReturn(2);
+        replayAll();
+
+        ExpiredInvitationReaper reaper = new ExpiredInvitationReaper(invitationRepo);
+        Assert.assertNull(reaper.getLastRun());
+
+        Assert.assertEquals(3, reaper.purge());
+        Assert.assertEquals(2, reaper.purge());
+        Assert.assertEquals(2, reaper.getLastPurged());
+        Assert.assertEquals(5, reaper.getTotalPurged());
+        Assert.assertNotNull(reaper.getLastRun());
+    }
+
+}
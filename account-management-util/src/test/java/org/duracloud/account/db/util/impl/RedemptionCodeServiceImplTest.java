@@ -0,0 +1,105 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.impl;
+
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.isA;
+
+import java.util.Date;
+
+import org.duracloud.account.db.model.UserInvitation;
+import org.duracloud.account.db.util.RedemptionCodeService;
+import org.duracloud.account.db.util.repo.PendingInvitationRepo;
+import org.easymock.EasyMockRunner;
+import org.easymock.EasyMockSupport;
+import org.easymock.Mock;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(EasyMockRunner.class)
+public class RedemptionCodeServiceImplTest extends EasyMockSupport {
+
+    @Mock
+    private PendingInvitationRepo invitationRepo;
+
+    @After
+    public void tearDown() {
+        verifyAll();
+    }
+
+    @Test
+    public void testGenerateCode() {
+        replayAll();
+        RedemptionCodeService service = new RedemptionCodeServiceImpl(invitationRepo);
+
+        String code = service.generateCode();
+        Assert.assertEquals(RedemptionCodeService.CODE_LENGTH, code.length());
+        Assert.assertTrue(code.matches("[0-9a-f]+"));
+        Assert.assertFalse(code.equals(service.generateCode()));
+    }
+
+    @Test
+    public void testMalformedCodeIsNotLookedUp() {
+        replayAll();
+        RedemptionCodeService service = new RedemptionCodeServiceImpl(invitationRepo);
+
+        Assert.assertNull(service.findPendingInvitation(null));
+        Assert.assertNull(service.findPendingInvitation("short"));
+        Assert.assertNull(service.findPendingInvitation("zzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzz"));
+        Assert.assertNull(service.findPendingInvitation("0123456789ABCDEF0123456789ABCDEF"));
+        Assert.assertNull(service.findPendingInvitation("\u0660123456789abcdef0123456789abcdef"));
+    }
+
+    @Test
+    public void testUnknownCodeIsLookedUpOnce() {
+        String code = "0123456789abcdef0123456789abcdef";
+        expect(invitationRepo.findByRedemptionCodeAndExpirationDateAfter(eq(code), isA(Date.class)))
+            .andReturn(null)
+            .once();
+        replayAll();
+        RedemptionCodeService service = new RedemptionCodeServiceImpl(invitationRepo);
+
+        Assert.assertNull(service.findPendingInvitation(code));
+        Assert.assertNull(service.findPendingInvitation(code));
+    }
+
+    @Test
+    public void testIssuedCodeIsLookedUpAgain() {
+        String code = "0123456789abcdef0123456789abcdef";
+        UserInvitation invitation = createMock(UserInvitation.class);
+        expect(invitationRepo.findByRedemptionCodeAndExpirationDateAfter(eq(code), isA(Date.class)))
+            .andReturn(null);
+        expect(invitationRepo.findByRedemptionCodeAndExpirationDateAfter(eq(code), isA(Date.class)))
+            .andReturn(invitation);
+        replayAll();
+        RedemptionCodeService service = new RedemptionCodeServiceImpl(invitationRepo);
+
+        Assert.assertNull(service.findPendingInvitation(code));
+        service.codeIssued(code);
+        Assert.assertSame(invitation, service.findPendingInvitation(code));
+    }
+
+    @Test
+    public void testRedeemedCode() {
+        String code = "0123456789abcdef0123456789abcdef";
+        UserInvitation invitation = createMock(UserInvitation.class);
+        expect(invitationRepo.findByRedemptionCodeAndExpirationDateAfter(eq(code), isA(Date.class)))
+            .andReturn(invitation)
+            .once();
+        replayAll();
+        RedemptionCodeService service = new RedemptionCodeServiceImpl(invitationRepo);
+
+        Assert.assertSame(invitation, service.findPendingInvitation(code));
+        service.codeRedeemed(code);
+        Assert.assertNull(service.findPendingInvitation(code));
+    }
+
+}
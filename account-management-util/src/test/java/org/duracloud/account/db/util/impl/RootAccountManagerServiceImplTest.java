@@ -0,0 +1,217 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.impl;
+
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.isA;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.duracloud.account.db.model.AccountInfo;
+import org.duracloud.account.db.model.AccountInfo.AccountStatus;
+import org.duracloud.account.db.repo.DuracloudRepoMgr;
+import org.duracloud.account.db.util.DuracloudUserService;
+import org.duracloud.account.db.util.ResultPage;
+import org.duracloud.account.db.util.UserMembership;
+import org.duracloud.account.db.util.repo.AccountDeletionRepo;
+import org.duracloud.account.db.util.repo.AccountSearchRepo;
+import org.duracloud.account.db.util.repo.UserMembershipRepo;
+import org.duracloud.account.db.util.repo.UserSearchRepo;
+import org.duracloud.account.db.util.sys.EventBus;
+import org.easymock.EasyMockRunner;
+import org.easymock.EasyMockSupport;
+import org.easymock.Mock;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+@RunWith(EasyMockRunner.class)
+public class RootAccountManagerServiceImplTest extends EasyMockSupport {
+
+    @Mock
+    private DuracloudRepoMgr repoMgr;
+    @Mock
+    private DuracloudUserService userService;
+    @Mock
+    private UserSearchRepo userSearchRepo;
+    @Mock
+    private UserMembershipRepo userMembershipRepo;
+    @Mock
+    private AccountSearchRepo accountSearchRepo;
+    @Mock
+    private AccountDeletionRepo accountDeletionRepo;
+    @Mock
+    private EventBus eventBus;
+
+    private RootAccountManagerServiceImpl service;
+
+    @Before
+    public void setup() {
+        service = new RootAccountManagerServiceImpl(repoMgr, userService, userSearchRepo,
+                                                    userMembershipRepo, accountSearchRepo,
+                                                    accountDeletionRepo,
+                                                    eventBus);
+    }
+
+    @After
+    public void tearDown() {
+        verifyAll();
+    }
+
+    @Test
+    public void testSearchUsersFirstPage() {
+        expect(userSearchRepo.findPage(eq(""), eq(false), eq(new PageRequest(0, 3))))
+            .andReturn(Arrays.asList("a", "b", "c"));
+        expect(userMembershipRepo.findByUsernames(Arrays.asList("a", "b")))
+            .andReturn(memberships("a", "a", "b"));
+        replayAll();
+
+        ResultPage<UserMembership> page = service.searchUsers(null, null, 2);
+        Assert.assertEquals(Arrays.asList("a", "a", "b"), usernames(page.getItems()));
+        Assert.assertEquals("b", page.getNextCursor());
+    }
+
+    @Test
+    public void testSearchRootUsersLastPage() {
+        expect(userSearchRepo.findPage(eq("b"), eq(true), eq(new PageRequest(0, 3))))
+            .andReturn(Collections.singletonList("c"));
+        expect(userMembershipRepo.findByUsernames(Collections.singletonList("c")))
+            .andReturn(memberships("c"));
+        replayAll();
+
+        ResultPage<UserMembership> page = service.searchRootUsers(" ", "b", 2);
+        Assert.assertEquals(Collections.singletonList("c"), usernames(page.getItems()));
+        Assert.assertFalse(page.hasNext());
+    }
+
+    @Test
+    public void testSearchUsersMergesPrefixMatches() {
+        String like = "j!_s%";
+        expect(userSearchRepo.findPageByUsername(eq(like), eq("a"), eq(false), isA(Pageable.class)))
+            .andReturn(Collections.singletonList("j_smith"));
+        expect(userSearchRepo.findPageByFirstName(eq(like), eq("a"), eq(false), isA(Pageable.class)))
+            .andReturn(Arrays.asList("bob", "dave"));
+        expect(userSearchRepo.findPageByLastName(eq(like), eq("a"), eq(false), isA(Pageable.class)))
+            .andReturn(Collections.singletonList("carol"));
+        expect(userSearchRepo.findPageByEmail(eq(like), eq("a"), eq(false), isA(Pageable.class)))
+            .andReturn(Arrays.asList("bob", "carol"));
+        expect(userMembershipRepo.findByUsernames(Arrays.asList("bob", "carol")))
+            .andReturn(memberships("bob", "carol"));
+        replayAll();
+
+        ResultPage<UserMembership> page = service.searchUsers("j_s", "a", 2);
+        Assert.assertEquals(Arrays.asList("bob", "carol"), usernames(page.getItems()));
+        Assert.assertEquals("carol", page.getNextCursor());
+    }
+
+    @Test
+    public void testSearchUsersEmptyPage() {
+        expect(userSearchRepo.findPage(eq("z"), eq(false), isA(Pageable.class)))
+            .andReturn(Collections.<String>emptyList());
+        replayAll();
+
+        ResultPage<UserMembership> page = service.searchUsers(null, "z", 2);
+        Assert.assertTrue(page.getItems().isEmpty());
+        Assert.assertFalse(page.hasNext());
+    }
+
+    @Test
+    public void testSearchAccounts() {
+        expect(accountSearchRepo.findPage(eq("beta"),
+                                          eq(7L),
+                                          eq(AccountStatus.ACTIVE),
+                                          eq("org!%%"),
+                                          eq((String) null),
+                                          eq(new PageRequest(0, 3))))
+            .andReturn(Arrays.asList(account(9L, "gamma"),
+                                     account(3L, "gamma: two"),
+                                     account(4L, "zeta")));
+        replayAll();
+
+        ResultPage<AccountInfo> page =
+            service.searchAccounts(AccountStatus.ACTIVE, "org%", " ", "7:beta", 2);
+        Assert.assertEquals(2, page.getItems().size());
+        Assert.assertEquals("3:gamma: two", page.getNextCursor());
+    }
+
+    @Test
+    public void testSearchAccountsFirstPage() {
+        expect(accountSearchRepo.findPage(eq(""),
+                                          eq(0L),
+                                          eq((AccountStatus) null),
+                                          eq((String) null),
+                                          eq("test%"),
+                                          isA(Pageable.class)))
+            .andReturn(Collections.singletonList(account(1L, "alpha")));
+        replayAll();
+
+        ResultPage<AccountInfo> page = service.searchAccounts(null, null, "test", null, 2);
+        Assert.assertEquals(1, page.getItems().size());
+        Assert.assertFalse(page.hasNext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSearchAccountsInvalidCursor() {
+        replayAll();
+        service.searchAccounts(null, null, null, "alpha", 2);
+    }
+
+    @Test
+    public void testCountAccountsByStatus() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] {AccountStatus.ACTIVE, 12L});
+        rows.add(new Object[] {AccountStatus.PENDING, 3L});
+        expect(accountSearchRepo.countByStatus()).andReturn(rows);
+        replayAll();
+
+        Map<AccountStatus, Long> counts = service.countAccountsByStatus();
+        Assert.assertEquals(Long.valueOf(3), counts.get(AccountStatus.PENDING));
+        Assert.assertEquals(Long.valueOf(12), counts.get(AccountStatus.ACTIVE));
+        Assert.assertEquals(Long.valueOf(0), counts.get(AccountStatus.INACTIVE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSearchUsersPageSize() {
+        replayAll();
+        service.searchUsers(null, null, 0);
+    }
+
+    private List<UserMembership> memberships(String... usernames) {
+        List<UserMembership> memberships = new ArrayList<>();
+        for (String username : usernames) {
+            memberships.add(new UserMembership(1L, username, null, null, null, null, false,
+                                               null, null, null, null));
+        }
+        return memberships;
+    }
+
+    private AccountInfo account(Long id, String name) {
+        AccountInfo account = new AccountInfo();
+        account.setId(id);
+        account.setAcctName(name);
+        return account;
+    }
+
+    private List<String> usernames(List<UserMembership> users) {
+        List<String> usernames = new ArrayList<>();
+        for (UserMembership user : users) {
+            usernames.add(user.getUsername());
+        }
+        return usernames;
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.impl;
+
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.isA;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.duracloud.account.db.model.AccountInfo;
+import org.duracloud.account.db.model.DuracloudUser;
+import org.duracloud.account.db.util.SearchHit;
+import org.duracloud.account.db.util.repo.SearchEntryRepo;
+import org.duracloud.account.db.util.sys.AccountEvent;
+import org.duracloud.account.db.util.sys.UserEvent;
+import org.easymock.EasyMockRunner;
+import org.easymock.EasyMockSupport;
+import org.easymock.Mock;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.data.domain.Pageable;
+
+@RunWith(EasyMockRunner.class)
+public class SearchIndexImplTest extends EasyMockSupport {
+
+    @Mock
+    private SearchEntryRepo searchEntryRepo;
+
+    @After
+    public void tearDown() {
+        verifyAll();
+    }
+
+    private SearchIndexImpl load() {
+        List<Object[]> users = new ArrayList<>();
+        users.add(new Object[] {1L, "jsmith", "John", "Smith", "john@example.org"});
+        users.add(new Object[] {2L, "bob", "Bob", "Jones", "bob@example.org"});
+        expect(searchEntryRepo.findUsers(eq(0L), isA(Pageable.class))).andReturn(users);
+
+        List<Object[]> accounts = new ArrayList<>();
+        accounts.add(new Object[] {5L, "Smith Lab", "Example University", "smithlab"});
+        expect(searchEntryRepo.findAccounts(eq(0L), isA(Pageable.class))).andReturn(accounts);
+        return new SearchIndexImpl(searchEntryRepo);
+    }
+
+    @Test
+    public void testReload() {
+        SearchIndexImpl index = load();
+        replayAll();
+
+        Assert.assertFalse(index.isReady());
+        index.reload();
+        Assert.assertTrue(index.isReady());
+        Assert.assertEquals(3, index.getSize());
+
+        List<SearchHit> hits = index.search("smith", 10);
+        Assert.assertEquals(2, hits.size());
+        Assert.assertEquals("jsmith", hits.get(0).getLabel());
+        Assert.assertEquals("John Smith <john@example.org>", hits.get(0).getDetail());
+        Assert.assertEquals(SearchHit.Type.ACCOUNT, hits.get(1).getType());
+        Assert.assertEquals("smithlab - Example University", hits.get(1).getDetail());
+    }
+
+    @Test
+    public void testUserEvents() {
+        SearchIndexImpl index = load();
+        replayAll();
+        index.reload();
+
+        DuracloudUser user = new DuracloudUser();
+        user.setId(3L);
+        user.setUsername("carol");
+        user.setFirstName("Carol");
+        user.setLastName("Smithson");
+        index.onEvent(new UserEvent(UserEvent.Type.CREATED, user, null));
+        Assert.assertEquals("carol", index.search("smithson", 10).get(0).getLabel());
+
+        user.setLastName("Jones");
+        index.onEvent(new UserEvent(UserEvent.Type.UPDATED, user, null));
+        Assert.assertTrue(index.search("smithson", 10).isEmpty());
+        Assert.assertEquals(2, index.search("jones", 10).size());
+
+        // The user is only removed by the event which is not for an account
+        index.onEvent(new UserEvent(UserEvent.Type.DELETED, user, new AccountInfo()));
+        Assert.assertEquals(2, index.search("jones", 10).size());
+        index.onEvent(new UserEvent(UserEvent.Type.DELETED, user, null));
+        Assert.assertEquals(1, index.search("jones", 10).size());
+    }
+
+    @Test
+    public void testAccountEvents() {
+        SearchIndexImpl index = load();
+        expect(searchEntryRepo.findAccount(5L)).andReturn(
+            Collections.singletonList(new Object[] {5L, "Jones Lab", "Example University", "joneslab"}));
+        replayAll();
+        index.reload();
+
+        index.onEvent(new AccountEvent(AccountEvent.Type.UPDATED, 5L, "joneslab"));
+        Assert.assertEquals(1, index.search("smith", 10).size());
+        Assert.assertEquals("Jones Lab", index.search("joneslab", 10).get(0).getLabel());
+
+        index.onEvent(new AccountEvent(AccountEvent.Type.USERS_CHANGED, 5L, "joneslab"));
+        index.onEvent(new AccountEvent(AccountEvent.Type.DELETED, 5L, "joneslab"));
+        Assert.assertTrue(index.search("joneslab", 10).isEmpty());
+        Assert.assertEquals(2, index.getSize());
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.duracloud.account.db.util.SearchHit;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @Before
+    public void setup() {
+        index = new TrigramIndex();
+        putUser(1L, "jsmith", "John", "Smith", "john.smith@example.org");
+        putUser(2L, "asmithers", "Anna", "Smithers", "anna@smithers.net");
+        putUser(3L, "bob", "Bob", "Jones", "bob@example.org");
+        index.put(SearchHit.Type.ACCOUNT, 1L, "Smith Lab", "smithlab",
+                  "smithlab", "Smith Lab", "University of Example");
+    }
+
+    private void putUser(Long id, String username, String first, String last, String email) {
+        index.put(SearchHit.Type.USER, id, username, first + " " + last,
+                  username, email, first, last);
+    }
+
+    @Test
+    public void testSubstring() {
+        Assert.assertEquals(Arrays.asList("bob", "jsmith"), labels(index.search("example.org", 10)));
+        Assert.assertEquals(Arrays.asList("bob"), labels(index.search("ONE", 10)));
+        Assert.assertTrue(index.search("xyz", 10).isEmpty());
+    }
+
+    @Test
+    public void testRanking() {
+        // An exact last name, then a prefix of the identifying field, then a
+        // prefix of another field
+        List<SearchHit> hits = index.search("smith", 10);
+        Assert.assertEquals(Arrays.asList("jsmith", "Smith Lab", "asmithers"), labels(hits));
+        Assert.assertEquals(SearchHit.Type.ACCOUNT, hits.get(1).getType());
+        Assert.assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+        Assert.assertTrue(hits.get(1).getScore() > hits.get(2).getScore());
+
+        Assert.assertEquals(Arrays.asList("jsmith"), labels(index.search("smith", 1)));
+    }
+
+    @Test
+    public void testShortTermsMatchWordStarts() {
+        Assert.assertEquals(Arrays.asList("bob", "jsmith"), labels(index.search("jo", 10)));
+        Assert.assertTrue(index.search("mi", 10).isEmpty());
+        Assert.assertTrue(index.search("j", 10).isEmpty());
+    }
+
+    @Test
+    public void testAllTermsMustMatch() {
+        Assert.assertEquals(Arrays.asList("jsmith"), labels(index.search("john smi", 10)));
+        Assert.assertEquals(Arrays.asList("asmithers"), labels(index.search("an smith", 10)));
+        Assert.assertTrue(index.search("bob smith", 10).isEmpty());
+    }
+
+    @Test
+    public void testReplaceAndRemove() {
+        putUser(3L, "bob", "Robert", "Jones", "robert@example.org");
+        Assert.assertEquals(Arrays.asList("bob"), labels(index.search("robert", 10)));
+        Assert.assertTrue(index.search("bob@", 10).isEmpty());
+
+        index.remove(SearchHit.Type.USER, 1L);
+        Assert.assertEquals(Arrays.asList("Smith Lab", "asmithers"), labels(index.search("smith", 10)));
+        Assert.assertEquals(3, index.size());
+        Assert.assertEquals(2, index.getRemovedCount());
+
+        TrigramIndex compacted = index.compact();
+        Assert.assertEquals(0, compacted.getRemovedCount());
+        Assert.assertEquals(3, compacted.size());
+        Assert.assertEquals(Arrays.asList("Smith Lab", "asmithers"), labels(compacted.search("smith", 10)));
+    }
+
+    /**
+     * Typeahead queries against 100,000 entities should take well under
+     * 10 ms each.
+     */
+    @Test
+    public void testLargeIndex() {
+        String[] names = {"smith", "jones", "garcia", "miller", "davis", "wilson", "taylor",
+                          "anderson", "thomas", "moore", "martin", "jackson", "white", "harris"};
+        String[] domains = {"example.org", "example.edu", "univ.edu", "lib.org", "gmail.com"};
+        Random random = new Random(42);
+        TrigramIndex large = new TrigramIndex();
+        for (long id = 0; id < 100000; id++) {
+            String first = names[random.nextInt(names.length)];
+            String last = names[random.nextInt(names.length)] + id;
+            String username = first.charAt(0) + last;
+            String email = first + "." + last + "@" + domains[random.nextInt(domains.length)];
+            large.put(SearchHit.Type.USER, id, username, null, username, email, first, last);
+        }
+        Assert.assertEquals(100000, large.size());
+
+        String[] queries = {"smith12", "jon", "gmail.com", "miller99", "4567", "edu", "ha", "da univ"};
+        for (int i = 0; i < 20; i++) {
+            for (String query : queries) {
+                large.search(query, 10);
+            }
+        }
+
+        long start = System.nanoTime();
+        int runs = 0;
+        for (int i = 0; i < 10; i++) {
+            for (String query : queries) {
+                Assert.assertFalse(query, large.search(query, 10).isEmpty());
+                runs++;
+            }
+        }
+        long averageMillis = (System.nanoTime() - start) / runs / 1000000;
+        Assert.assertTrue("Average query took " + averageMillis + " ms", averageMillis < 10);
+    }
+
+    private List<String> labels(List<SearchHit> hits) {
+        List<String> labels = new ArrayList<>();
+        for (SearchHit hit : hits) {
+            labels.add(hit.getLabel());
+        }
+        return labels;
+    }
+
+}
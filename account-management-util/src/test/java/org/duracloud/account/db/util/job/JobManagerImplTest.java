@@ -0,0 +1,190 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.job;
+
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.getCurrentArguments;
+import static org.easymock.EasyMock.isA;
+import static org.easymock.EasyMock.isNull;
+
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.duracloud.account.db.util.model.BackgroundJob;
+import org.duracloud.account.db.util.model.BackgroundJob.Status;
+import org.duracloud.account.db.util.repo.BackgroundJobRepo;
+import org.easymock.EasyMockRunner;
+import org.easymock.EasyMockSupport;
+import org.easymock.Mock;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(EasyMockRunner.class)
+public class JobManagerImplTest extends EasyMockSupport {
+
+    @Mock
+    private BackgroundJobRepo jobRepo;
+
+    private JobManagerImpl jobManager;
+    private CountDownLatch finished = new CountDownLatch(1);
+
+    @After
+    public void tearDown() throws Exception {
+        Assert.assertTrue(finished.await(10, TimeUnit.SECONDS));
+        jobManager.stop();
+        verifyAll();
+    }
+
+    private void expectSave(final long id) {
+        expect(jobRepo.save(isA(BackgroundJob.class))).andAnswer(() -> {
+            BackgroundJob job = (BackgroundJob) getCurrentArguments()[0];
+            Assert.assertEquals(Status.QUEUED, job.getStatus());
+            job.setId(id);
+            return job;
+        });
+    }
+
+    private void expectFinish(long id, Status status, String error) {
+        expect(jobRepo.finish(eq(id), eq(status), isA(Date.class),
+                              null == error ? isNull(String.class) : eq(error)))
+            .andAnswer(() -> {
+                finished.countDown();
+                return 1;
+            });
+    }
+
+    private Job createJob(final int chunks, final Exception failure) {
+        return new Job() {
+            @Override
+            public String getType() {
+                return "test";
+            }
+
+            @Override
+            public String getDescription() {
+                return "Test job";
+            }
+
+            @Override
+            public void run(JobContext context) throws Exception {
+                for (int i = 1; i <= chunks; i++) {
+                    context.checkpoint(i, chunks, "chunk " + i);
+                }
+                if (null != failure) {
+                    throw failure;
+                }
+            }
+        };
+    }
+
+    @Test
+    public void testRun() throws Exception {
+        expectSave(1L);
+        expect(jobRepo.isCancelRequested(1L)).andReturn(false).times(3);
+        expect(jobRepo.start(eq(1L), eq(Status.RUNNING), isA(Date.class))).andReturn(1);
+        expect(jobRepo.checkpoint(1L, 1, 2, "chunk 1")).andReturn(1);
+        expect(jobRepo.checkpoint(1L, 2, 2, "chunk 2")).andReturn(1);
+        expectFinish(1L, Status.SUCCEEDED, null);
+        replayAll();
+
+        jobManager = new JobManagerImpl(jobRepo, 1, 1);
+        BackgroundJob record = jobManager.submit(createJob(2, null));
+        Assert.assertEquals("test", record.getType());
+        Assert.assertEquals("Test job", record.getDescription());
+    }
+
+    @Test
+    public void testCancelAtCheckpoint() throws Exception {
+        expectSave(2L);
+        expect(jobRepo.isCancelRequested(2L)).andReturn(false);
+        expect(jobRepo.start(eq(2L), eq(Status.RUNNING), isA(Date.class))).andReturn(1);
+        expect(jobRepo.checkpoint(2L, 1, 3, "chunk 1")).andReturn(1);
+        expect(jobRepo.isCancelRequested(2L)).andReturn(true);
+        expectFinish(2L, Status.CANCELLED, null);
+        replayAll();
+
+        jobManager = new JobManagerImpl(jobRepo, 1, 1);
+        jobManager.submit(createJob(3, null));
+    }
+
+    @Test
+    public void testCancelledBeforeStart() throws Exception {
+        expectSave(3L);
+        expect(jobRepo.isCancelRequested(3L)).andReturn(true);
+        expectFinish(3L, Status.CANCELLED, null);
+        replayAll();
+
+        jobManager = new JobManagerImpl(jobRepo, 1, 1);
+        jobManager.submit(createJob(1, null));
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        expectSave(4L);
+        expect(jobRepo.isCancelRequested(4L)).andReturn(false);
+        expect(jobRepo.start(eq(4L), eq(Status.RUNNING), isA(Date.class))).andReturn(1);
+        expectFinish(4L, Status.FAILED, "broken");
+        replayAll();
+
+        jobManager = new JobManagerImpl(jobRepo, 1, 1);
+        jobManager.submit(createJob(0, new RuntimeException("broken")));
+    }
+
+    @Test
+    public void testQueueFull() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        Job blocking = new Job() {
+            @Override
+            public String getType() {
+                return "test";
+            }
+
+            @Override
+            public String getDescription() {
+                return "Blocking job";
+            }
+
+            @Override
+            public void run(JobContext context) throws Exception {
+                started.countDown();
+                release.await(10, TimeUnit.SECONDS);
+            }
+        };
+
+        expect(jobRepo.save(isA(BackgroundJob.class))).andAnswer(() -> {
+            BackgroundJob job = (BackgroundJob) getCurrentArguments()[0];
+            job.setId(5L);
+            return job;
+        }).times(3);
+        expect(jobRepo.isCancelRequested(5L)).andReturn(false).times(2);
+        expect(jobRepo.start(eq(5L), eq(Status.RUNNING), isA(Date.class))).andReturn(1).times(2);
+        expect(jobRepo.finish(eq(5L), eq(Status.FAILED), isA(Date.class),
+                              eq("Too many jobs are queued"))).andReturn(1);
+        finished = new CountDownLatch(2);
+        expect(jobRepo.finish(eq(5L), eq(Status.SUCCEEDED), isA(Date.class),
+                              isNull(String.class))).andAnswer(() -> {
+                                  finished.countDown();
+                                  return 1;
+                              }).times(2);
+        replayAll();
+
+        // One job running, one queued and no room for a third
+        jobManager = new JobManagerImpl(jobRepo, 1, 1);
+        jobManager.submit(blocking);
+        Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+        jobManager.submit(blocking);
+        jobManager.submit(blocking);
+        release.countDown();
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.notification;
+
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.isA;
+import static org.easymock.EasyMock.isNull;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.duracloud.account.db.util.model.NotificationDelivery;
+import org.duracloud.account.db.util.model.NotificationDelivery.Status;
+import org.duracloud.account.db.util.repo.NotificationDeliveryRepo;
+import org.easymock.EasyMock;
+import org.easymock.EasyMockRunner;
+import org.easymock.EasyMockSupport;
+import org.easymock.Mock;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.data.domain.Pageable;
+
+@RunWith(EasyMockRunner.class)
+public class NotificationDeliveryLogImplTest extends EasyMockSupport {
+
+    @Mock
+    private NotificationDeliveryRepo deliveryRepo;
+
+    @After
+    public void tearDown() {
+        verifyAll();
+    }
+
+    @Test
+    public void testFlushWritesInBatches() {
+        int count = NotificationDeliveryLogImpl.BATCH_SIZE + 1;
+        List<Integer> sizes = new ArrayList<>();
+        expect(deliveryRepo.save(isA(List.class))).andAnswer(() -> {
+            sizes.add(((List<?>) EasyMock.getCurrentArguments()[0]).size());
+            return null;
+        }).times(2);
+        replayAll();
+
+        NotificationDeliveryLogImpl deliveryLog = new NotificationDeliveryLogImpl(deliveryRepo);
+        for (int i = 0; i < count; i++) {
+            deliveryLog.record(createDelivery("user" + i + "@example.com"));
+        }
+        deliveryLog.flush();
+
+        Assert.assertEquals(NotificationDeliveryLogImpl.BATCH_SIZE, sizes.get(0).intValue());
+        Assert.assertEquals(1, sizes.get(1).intValue());
+    }
+
+    @Test
+    public void testList() {
+        List<NotificationDelivery> page = new ArrayList<>();
+        expect(deliveryRepo.findPage(eq(Long.MAX_VALUE),
+                                     eq("USER_INVITATION"),
+                                     isNull(String.class),
+                                     eq(Status.FAILED),
+                                     isA(Pageable.class))).andReturn(page);
+        replayAll();
+
+        NotificationDeliveryLogImpl deliveryLog = new NotificationDeliveryLogImpl(deliveryRepo);
+        Assert.assertSame(page, deliveryLog.list(null, "USER_INVITATION", " ", Status.FAILED, 10));
+    }
+
+    private NotificationDelivery createDelivery(String recipient) {
+        return new NotificationDelivery("USER_INVITATION", recipient, "subject",
+                                        Status.SENT, new Date(), 10, null);
+    }
+
+}
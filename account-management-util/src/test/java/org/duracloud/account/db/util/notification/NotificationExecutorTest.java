@@ -0,0 +1,55 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.notification;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class NotificationExecutorTest {
+
+    private NotificationExecutor executor = new NotificationExecutor(1, 1);
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testRejected() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger rejected = new AtomicInteger();
+        Runnable blocking = () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        // The only thread is busy and the queue holds one notification
+        executor.execute("first", blocking, rejected::incrementAndGet);
+        Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+        executor.execute("second", () -> { }, rejected::incrementAndGet);
+        Assert.assertEquals(0, rejected.get());
+
+        executor.execute("third", () -> { }, rejected::incrementAndGet);
+        Assert.assertEquals(1, rejected.get());
+
+        // A notification without a handler is dropped
+        executor.execute("fourth", () -> { });
+        release.countDown();
+    }
+
+}
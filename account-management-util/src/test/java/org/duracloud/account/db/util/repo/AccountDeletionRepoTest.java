@@ -0,0 +1,201 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.repo;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+import org.duracloud.account.db.model.AccountInfo;
+import org.duracloud.account.db.model.AccountRights;
+import org.duracloud.account.db.model.DuracloudGroup;
+import org.duracloud.account.db.model.DuracloudUser;
+import org.duracloud.account.db.model.Role;
+import org.duracloud.account.db.model.StorageProviderAccount;
+import org.duracloud.account.db.model.UserInvitation;
+import org.duracloud.account.db.util.impl.RootAccountManagerServiceImpl;
+import org.duracloud.account.db.util.sys.AccountEvent;
+import org.duracloud.account.db.util.sys.EventBus;
+import org.duracloud.storage.domain.StorageProviderType;
+import org.easymock.Capture;
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Runs account deletion against an in-memory database.
+ */
+public class AccountDeletionRepoTest extends InMemoryDatabaseTestBase {
+
+    private static final int USERS = 20;
+
+    private RootAccountManagerServiceImpl service;
+    private EventBus eventBus;
+    private Long deletedId;
+    private Long keptId;
+
+    @Before
+    public void setup() {
+        openDatabase("deletion");
+        eventBus = EasyMock.createMock(EventBus.class);
+        service = new RootAccountManagerServiceImpl(null,
+                                                    null,
+                                                    null,
+                                                    null,
+                                                    null,
+                                                    factory.getRepository(AccountDeletionRepo.class),
+                                                    eventBus);
+        populate();
+    }
+
+    @After
+    public void tearDown() {
+        EasyMock.verify(eventBus);
+        closeDatabase();
+    }
+
+    private void populate() {
+        em.getTransaction().begin();
+        AccountInfo deleted = createAccount("deleted");
+        AccountInfo kept = createAccount("kept");
+        deletedId = deleted.getId();
+        keptId = kept.getId();
+
+        StorageProviderAccount secondary = createStorage();
+        deleted.setSecondaryStorageProviderAccounts(
+            new HashSet<>(Collections.singleton(secondary)));
+
+        DuracloudGroup deletedGroup = createGroup("deleted", deleted);
+        DuracloudGroup keptGroup = createGroup("kept", kept);
+        for (int i = 0; i < USERS; i++) {
+            DuracloudUser user = new DuracloudUser();
+            user.setUsername("user" + i);
+            user.setPassword("password");
+            user.setAccountRights(new LinkedHashSet<AccountRights>());
+            em.persist(user);
+            createRights(user, deleted);
+            deletedGroup.getUsers().add(user);
+            if (i % 2 == 0) {
+                createRights(user, kept);
+                keptGroup.getUsers().add(user);
+            }
+        }
+
+        createInvitation(deleted, "code-deleted");
+        createInvitation(kept, "code-kept");
+        em.getTransaction().commit();
+        em.clear();
+    }
+
+    private AccountInfo createAccount(String subdomain) {
+        AccountInfo account = new AccountInfo();
+        account.setAcctName(subdomain);
+        account.setSubdomain(subdomain);
+        account.setStatus(AccountInfo.AccountStatus.ACTIVE);
+        account.setPrimaryStorageProviderAccount(createStorage());
+        em.persist(account);
+        return account;
+    }
+
+    private StorageProviderAccount createStorage() {
+        StorageProviderAccount storage = new StorageProviderAccount();
+        storage.setProviderType(StorageProviderType.AMAZON_S3);
+        Map<String, String> properties = new HashMap<>();
+        properties.put("key", "value");
+        storage.setProperties(properties);
+        em.persist(storage);
+        return storage;
+    }
+
+    private DuracloudGroup createGroup(String name, AccountInfo account) {
+        DuracloudGroup group = new DuracloudGroup();
+        group.setName(DuracloudGroup.PREFIX + name);
+        group.setAccount(account);
+        group.setUsers(new HashSet<DuracloudUser>());
+        em.persist(group);
+        return group;
+    }
+
+    private void createRights(DuracloudUser user, AccountInfo account) {
+        AccountRights rights = new AccountRights();
+        rights.setUser(user);
+        rights.setAccount(account);
+        rights.setRoles(EnumSet.copyOf(Role.ROLE_ADMIN.getRoleHierarchy()));
+        em.persist(rights);
+        user.getAccountRights().add(rights);
+    }
+
+    private void createInvitation(AccountInfo account, String redemptionCode) {
+        UserInvitation invitation = new UserInvitation();
+        invitation.setAccount(account);
+        invitation.setUserEmail("invited@example.org");
+        invitation.setRedemptionCode(redemptionCode);
+        em.persist(invitation);
+    }
+
+    private long count(String sql) {
+        return ((Number) em.createNativeQuery(sql).getSingleResult()).longValue();
+    }
+
+    @Test
+    public void testDeleteAccount() {
+        Capture<AccountEvent> event = new Capture<>();
+        eventBus.publish(EasyMock.capture(event));
+        EasyMock.expectLastCall().once();
+        EasyMock.replay(eventBus);
+
+        em.getTransaction().begin();
+        statistics.clear();
+        service.deleteAccount(deletedId);
+        // Two reads and one statement per table, whatever the number of users
+        Assert.assertTrue(statistics.getPrepareStatementCount() <= 12);
+        em.getTransaction().commit();
+
+        Assert.assertEquals(AccountEvent.Type.DELETED, event.getValue().getType());
+        Assert.assertEquals("deleted", event.getValue().getSubdomain());
+        Assert.assertEquals(0, count("select count(*) from account_info where id = " + deletedId));
+        Assert.assertEquals(1, count("select count(*) from account_info"));
+        Assert.assertEquals(USERS / 2, count("select count(*) from account_rights"));
+        Assert.assertEquals(USERS / 2 * Role.ROLE_ADMIN.getRoleHierarchy().size(),
+                            count("select count(*) from account_rights_role"));
+        Assert.assertEquals(1, count("select count(*) from duracloud_group"));
+        Assert.assertEquals(USERS / 2, count("select count(*) from group_user"));
+        Assert.assertEquals(1, count("select count(*) from user_invitation"));
+        Assert.assertEquals(1, count("select count(*) from storage_provider_account"));
+        Assert.assertEquals(1, count("select count(*) from storage_provider_account_properties"));
+        Assert.assertEquals(USERS, count("select count(*) from duracloud_user"));
+    }
+
+    @Test
+    public void testDeleteAccountMembers() {
+        EasyMock.replay(eventBus);
+
+        int removed = 0;
+        for (int chunk : Arrays.asList(8, 8, 4, 0)) {
+            em.getTransaction().begin();
+            Assert.assertEquals(chunk, service.deleteAccountMembers(deletedId, 8));
+            em.getTransaction().commit();
+            removed += chunk;
+            Assert.assertEquals(USERS - removed,
+                                count("select count(*) from account_rights where account_id = " +
+                                      deletedId));
+        }
+        Assert.assertEquals(USERS / 2,
+                            count("select count(*) from account_rights where account_id = " +
+                                  keptId));
+        Assert.assertEquals(USERS / 2 * Role.ROLE_ADMIN.getRoleHierarchy().size(),
+                            count("select count(*) from account_rights_role"));
+    }
+
+}
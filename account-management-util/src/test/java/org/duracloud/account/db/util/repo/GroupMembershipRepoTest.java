@@ -0,0 +1,214 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.repo;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.duracloud.account.db.model.AccountInfo;
+import org.duracloud.account.db.model.AccountRights;
+import org.duracloud.account.db.model.DuracloudGroup;
+import org.duracloud.account.db.model.DuracloudUser;
+import org.duracloud.account.db.model.Role;
+import org.duracloud.account.db.model.StorageProviderAccount;
+import org.duracloud.account.db.repo.DuracloudAccountRepo;
+import org.duracloud.account.db.repo.DuracloudGroupRepo;
+import org.duracloud.account.db.repo.DuracloudRepoMgr;
+import org.duracloud.account.db.util.GroupImportReport;
+import org.duracloud.account.db.util.impl.DuracloudGroupServiceImpl;
+import org.duracloud.account.db.util.sys.AccountEvent;
+import org.duracloud.account.db.util.sys.EventBus;
+import org.duracloud.storage.domain.StorageProviderType;
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Runs the group membership import and export against an in-memory
+ * database.
+ */
+public class GroupMembershipRepoTest extends InMemoryDatabaseTestBase {
+
+    private DuracloudGroupServiceImpl groupService;
+    private EventBus eventBus;
+    private Long accountId;
+
+    @Before
+    public void setup() {
+        openDatabase("groups");
+
+        DuracloudRepoMgr repoMgr = EasyMock.createMock(DuracloudRepoMgr.class);
+        EasyMock.expect(repoMgr.getGroupRepo())
+                .andReturn(factory.getRepository(DuracloudGroupRepo.class))
+                .anyTimes();
+        EasyMock.expect(repoMgr.getAccountRepo())
+                .andReturn(factory.getRepository(DuracloudAccountRepo.class))
+                .anyTimes();
+        eventBus = EasyMock.createMock(EventBus.class);
+        EasyMock.replay(repoMgr);
+
+        groupService = new DuracloudGroupServiceImpl(repoMgr,
+                                                     factory.getRepository(GroupMembershipRepo.class),
+                                                     eventBus);
+        populate();
+    }
+
+    @After
+    public void tearDown() {
+        EasyMock.verify(eventBus);
+        closeDatabase();
+    }
+
+    private void populate() {
+        em.getTransaction().begin();
+        StorageProviderAccount storage = new StorageProviderAccount();
+        storage.setProviderType(StorageProviderType.AMAZON_S3);
+        em.persist(storage);
+
+        AccountInfo account = new AccountInfo();
+        account.setAcctName("account");
+        account.setSubdomain("sub");
+        account.setStatus(AccountInfo.AccountStatus.ACTIVE);
+        account.setPrimaryStorageProviderAccount(storage);
+        em.persist(account);
+        accountId = account.getId();
+
+        DuracloudUser alice = createUser("alice", "Smith, Jr.", account);
+        createUser("bob", "Jones", account);
+        createUser("carol", "Brown", account);
+        createUser("dave", "Green", null);
+
+        DuracloudGroup staff = new DuracloudGroup();
+        staff.setName(DuracloudGroup.PREFIX + "staff");
+        staff.setAccount(account);
+        staff.setUsers(new HashSet<>(Arrays.asList(alice)));
+        em.persist(staff);
+
+        em.getTransaction().commit();
+        em.clear();
+    }
+
+    private DuracloudUser createUser(String username, String lastName, AccountInfo account) {
+        DuracloudUser user = new DuracloudUser();
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setFirstName(username.substring(0, 1).toUpperCase() + username.substring(1));
+        user.setLastName(lastName);
+        user.setEmail(username + "@example.org");
+        user.setAccountRights(new LinkedHashSet<AccountRights>());
+        em.persist(user);
+
+        if (null != account) {
+            AccountRights rights = new AccountRights();
+            rights.setUser(user);
+            rights.setAccount(account);
+            rights.setRoles(EnumSet.of(Role.ROLE_USER));
+            em.persist(rights);
+            user.getAccountRights().add(rights);
+        }
+        return user;
+    }
+
+    private GroupImportReport importCsv(String csv, boolean replace) throws Exception {
+        eventBus.publish(EasyMock.isA(AccountEvent.class));
+        EasyMock.expectLastCall().once();
+        EasyMock.replay(eventBus);
+
+        em.getTransaction().begin();
+        GroupImportReport report =
+            groupService.importGroupMembers(new StringReader(csv), replace, accountId);
+        em.getTransaction().commit();
+        em.clear();
+        return report;
+    }
+
+    private List<String> getUsernames(String groupName) {
+        return em.createQuery("select u.username from DuracloudGroup g join g.users u" +
+                              " where g.name = :name order by u.username", String.class)
+                 .setParameter("name", groupName)
+                 .getResultList();
+    }
+
+    @Test
+    public void testImport() throws Exception {
+        GroupImportReport report = importCsv("group,username\n" +
+                                             "staff,bob\n" +
+                                             "group-staff,alice\n" +
+                                             "new,carol\n" +
+                                             "staff,dave\n" +
+                                             "Bad Name,alice\n" +
+                                             "\n" +
+                                             "staff\n", false);
+
+        Assert.assertEquals(6, report.getLines());
+        Assert.assertEquals(1, report.getGroupsCreated());
+        // alice was already in the group
+        Assert.assertEquals(2, report.getMembersAdded());
+        Assert.assertEquals(0, report.getMembersRemoved());
+        Assert.assertEquals(3, report.getRejectedLines());
+        Assert.assertTrue(report.getRejections()
+                                .contains("Line 5: Not a user of this account: dave"));
+
+        Assert.assertEquals(Arrays.asList("alice", "bob"),
+                            getUsernames(DuracloudGroup.PREFIX + "staff"));
+        Assert.assertEquals(Arrays.asList("carol"),
+                            getUsernames(DuracloudGroup.PREFIX + "new"));
+    }
+
+    @Test
+    public void testImportStatementCount() throws Exception {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            csv.append(i % 2 == 0 ? "staff,bob\n" : "staff,carol\n");
+        }
+
+        statistics.clear();
+        GroupImportReport report = importCsv(csv.toString(), false);
+        Assert.assertEquals(2, report.getMembersAdded());
+        // The groups, the users of the batch, one insert for the group and
+        // the account looked up for the event; not one per line
+        Assert.assertTrue(statistics.getPrepareStatementCount() <= 4);
+    }
+
+    @Test
+    public void testImportReplace() throws Exception {
+        GroupImportReport report = importCsv("staff,carol\n", true);
+
+        Assert.assertEquals(1, report.getMembersRemoved());
+        Assert.assertEquals(1, report.getMembersAdded());
+        Assert.assertEquals(Arrays.asList("carol"),
+                            getUsernames(DuracloudGroup.PREFIX + "staff"));
+    }
+
+    @Test
+    public void testExport() throws Exception {
+        EasyMock.replay(eventBus);
+
+        StringWriter writer = new StringWriter();
+        groupService.exportGroupMembers(writer, accountId);
+
+        Assert.assertEquals("group,username,first_name,last_name,email\n" +
+                            "group-staff,alice,Alice,\"Smith, Jr.\",alice@example.org\n",
+                            writer.toString());
+
+        // An export imports back without changes
+        EasyMock.reset(eventBus);
+        GroupImportReport report = importCsv(writer.toString(), true);
+        Assert.assertEquals(0, report.getRejectedLines());
+        Assert.assertEquals(Arrays.asList("alice"),
+                            getUsernames(DuracloudGroup.PREFIX + "staff"));
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.repo;
+
+import java.util.Properties;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+/**
+ * Creates the schema of the account model in an in-memory database, with
+ * statistics enabled so that tests can count the SQL statements issued.
+ */
+public abstract class InMemoryDatabaseTestBase {
+
+    private LocalContainerEntityManagerFactoryBean emfBean;
+    protected EntityManager em;
+    protected Statistics statistics;
+    protected JpaRepositoryFactory factory;
+
+    protected void openDatabase(String name) {
+        DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        dataSource.setDriverClassName("org.h2.Driver");
+
+        Properties properties = new Properties();
+        properties.setProperty("hibernate.hbm2ddl.auto", "create-drop");
+        properties.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.setProperty("hibernate.generate_statistics", "true");
+        // Same table names as the deployed schema, for native queries
+        properties.setProperty("hibernate.physical_naming_strategy",
+                               "org.duracloud.common.db.hibernate.PhysicalNamingStrategyImpl");
+        properties.setProperty("hibernate.implicit_naming_strategy",
+                               "org.hibernate.boot.model.naming.ImplicitNamingStrategyLegacyHbmImpl");
+
+        emfBean = new LocalContainerEntityManagerFactoryBean();
+        emfBean.setDataSource(dataSource);
+        emfBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        emfBean.setPackagesToScan("org.duracloud.account.db.model");
+        emfBean.setJpaProperties(properties);
+        emfBean.afterPropertiesSet();
+
+        EntityManagerFactory emf = emfBean.getObject();
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        em = emf.createEntityManager();
+        factory = new JpaRepositoryFactory(em);
+    }
+
+    protected void closeDatabase() {
+        em.close();
+        emfBean.destroy();
+    }
+
+}
@@ -0,0 +1,237 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.repo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.duracloud.account.db.model.AccountInfo;
+import org.duracloud.account.db.model.AccountRights;
+import org.duracloud.account.db.model.DuracloudUser;
+import org.duracloud.account.db.model.Role;
+import org.duracloud.account.db.model.StorageProviderAccount;
+import org.duracloud.account.db.util.AccountMember;
+import org.duracloud.account.db.util.ResultPage;
+import org.duracloud.account.db.util.UserMembership;
+import org.duracloud.account.db.util.impl.RootAccountManagerServiceImpl;
+import org.duracloud.account.db.util.util.UserFinderUtil;
+import org.duracloud.storage.domain.StorageProviderType;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.domain.PageRequest;
+
+/**
+ * Runs the user listing queries against an in-memory database and checks
+ * the number of SQL statements issued, which must not grow with the number
+ * of users or accounts listed.
+ */
+public class UserMembershipRepoTest extends InMemoryDatabaseTestBase {
+
+    private static final int USERS = 12;
+    private static final int ACCOUNTS = 3;
+
+    private UserMembershipRepo membershipRepo;
+    private AccountSearchRepo accountSearchRepo;
+    private RootAccountManagerServiceImpl service;
+
+    @Before
+    public void setup() {
+        openDatabase("users");
+        membershipRepo = factory.getRepository(UserMembershipRepo.class);
+        accountSearchRepo = factory.getRepository(AccountSearchRepo.class);
+        service = new RootAccountManagerServiceImpl(null,
+                                                    null,
+                                                    factory.getRepository(UserSearchRepo.class),
+                                                    membershipRepo,
+                                                    null,
+                                                    null,
+                                                    null);
+        populate();
+    }
+
+    @After
+    public void tearDown() {
+        closeDatabase();
+    }
+
+    private void populate() {
+        em.getTransaction().begin();
+        List<AccountInfo> accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            AccountInfo account = new AccountInfo();
+            account.setAcctName("account" + i);
+            account.setSubdomain("sub" + i);
+            account.setStatus(AccountInfo.AccountStatus.ACTIVE);
+            StorageProviderAccount storage = new StorageProviderAccount();
+            storage.setProviderType(StorageProviderType.AMAZON_S3);
+            em.persist(storage);
+            account.setPrimaryStorageProviderAccount(storage);
+            em.persist(account);
+            accounts.add(account);
+        }
+
+        for (int i = 0; i < USERS; i++) {
+            DuracloudUser user = new DuracloudUser();
+            user.setUsername(String.format("user%02d", i));
+            user.setPassword("password");
+            user.setFirstName("First" + i);
+            user.setLastName("Last" + i);
+            user.setEmail("user" + i + "@example.org");
+            user.setRoot(i == 0);
+            user.setAccountRights(new LinkedHashSet<AccountRights>());
+            em.persist(user);
+
+            // The first user of each group of four has no accounts
+            for (int a = 0; a < i % 4; a++) {
+                AccountRights rights = new AccountRights();
+                rights.setUser(user);
+                rights.setAccount(accounts.get(a));
+                Set<Role> roles = a == 0 ? Role.ROLE_OWNER.getRoleHierarchy()
+                                         : EnumSet.of(Role.ROLE_USER);
+                rights.setRoles(EnumSet.copyOf(roles));
+                em.persist(rights);
+                user.getAccountRights().add(rights);
+            }
+        }
+        em.getTransaction().commit();
+        em.clear();
+    }
+
+    @Test
+    public void testPageStatementCount() {
+        List<String> usernames = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            statistics.clear();
+            ResultPage<UserMembership> page = service.searchUsers(null, cursor, 5);
+            // One keyset query for the usernames, one for their memberships
+            Assert.assertEquals(2, statistics.getPrepareStatementCount());
+            for (UserMembership row : page.getItems()) {
+                if (!usernames.contains(row.getUsername())) {
+                    usernames.add(row.getUsername());
+                }
+            }
+            cursor = page.getNextCursor();
+            pages++;
+        } while (null != cursor);
+
+        Assert.assertEquals(3, pages);
+        Assert.assertEquals(USERS, usernames.size());
+        Assert.assertEquals("user00", usernames.get(0));
+        Assert.assertEquals("user11", usernames.get(USERS - 1));
+    }
+
+    @Test
+    public void testFilteredPageStatementCount() {
+        statistics.clear();
+        ResultPage<UserMembership> page = service.searchUsers("First1", null, 50);
+        // One query per searched column, one for the memberships
+        Assert.assertEquals(5, statistics.getPrepareStatementCount());
+
+        List<String> usernames = new ArrayList<>();
+        for (UserMembership row : page.getItems()) {
+            if (!usernames.contains(row.getUsername())) {
+                usernames.add(row.getUsername());
+            }
+        }
+        Assert.assertEquals(Arrays.asList("user01", "user10", "user11"), usernames);
+    }
+
+    @Test
+    public void testAccountMembers() {
+        UserFinderUtil finder = new UserFinderUtil(membershipRepo);
+        Long accountId = em.createQuery("select a.id from AccountInfo a where a.acctName = 'account1'",
+                                        Long.class).getSingleResult();
+
+        statistics.clear();
+        List<AccountMember> members = finder.getAccountMembers(accountId);
+        // A single statement, whatever the number of members or their
+        // rights on other accounts
+        Assert.assertEquals(1, statistics.getPrepareStatementCount());
+        Assert.assertEquals(0, statistics.getEntityLoadCount());
+
+        // Users 2, 3, 6, 7, 10 and 11 have rights on account1, as users only
+        List<String> usernames = new ArrayList<>();
+        for (AccountMember member : members) {
+            usernames.add(member.getUsername());
+            Assert.assertEquals(Role.ROLE_USER, member.getRole());
+        }
+        Assert.assertEquals(Arrays.asList("user02", "user03", "user06",
+                                          "user07", "user10", "user11"), usernames);
+    }
+
+    @Test
+    public void testUserAccountPages() {
+        Long userId = em.createQuery("select u.id from DuracloudUser u where u.username = 'user03'",
+                                     Long.class).getSingleResult();
+
+        statistics.clear();
+        List<Object[]> counts = accountSearchRepo.countByStatusAndUserId(userId);
+        Assert.assertEquals(1, statistics.getPrepareStatementCount());
+        Assert.assertEquals(1, counts.size());
+        Assert.assertEquals(AccountInfo.AccountStatus.ACTIVE, counts.get(0)[0]);
+        Assert.assertEquals(3L, counts.get(0)[1]);
+
+        // user03 has rights on all three accounts
+        statistics.clear();
+        List<AccountInfo> first =
+            accountSearchRepo.findPageByUserId(userId, "", 0L, AccountInfo.AccountStatus.ACTIVE,
+                                               new PageRequest(0, 2));
+        Assert.assertEquals(1, statistics.getPrepareStatementCount());
+        Assert.assertEquals(2, first.size());
+        Assert.assertEquals("account0", first.get(0).getAcctName());
+        Assert.assertEquals("account1", first.get(1).getAcctName());
+
+        AccountInfo last = first.get(1);
+        List<AccountInfo> next =
+            accountSearchRepo.findPageByUserId(userId, last.getAcctName(), last.getId(),
+                                               AccountInfo.AccountStatus.ACTIVE,
+                                               new PageRequest(0, 2));
+        Assert.assertEquals(1, next.size());
+        Assert.assertEquals("account2", next.get(0).getAcctName());
+
+        Assert.assertTrue(accountSearchRepo.findPageByUserId(userId, "", 0L,
+                                                             AccountInfo.AccountStatus.PENDING,
+                                                             new PageRequest(0, 2)).isEmpty());
+    }
+
+    @Test
+    public void testMembershipRows() {
+        List<UserMembership> rows =
+            membershipRepo.findByUsernames(Arrays.asList("user03", "user00"));
+
+        // user00 has no accounts: a single row without an account
+        Assert.assertEquals("user00", rows.get(0).getUsername());
+        Assert.assertTrue(rows.get(0).isRoot());
+        Assert.assertNull(rows.get(0).getAccountId());
+        Assert.assertNull(rows.get(0).getRole());
+
+        // user03 is owner of account0 (one row per role in the hierarchy)
+        // and user of account1 and account2
+        int owner = Role.ROLE_OWNER.getRoleHierarchy().size();
+        List<UserMembership> user03 = rows.subList(1, rows.size());
+        Assert.assertEquals(owner + 2, user03.size());
+        Set<Role> account0Roles = EnumSet.noneOf(Role.class);
+        for (UserMembership row : user03.subList(0, owner)) {
+            Assert.assertEquals("sub0", row.getSubdomain());
+            account0Roles.add(row.getRole());
+        }
+        Assert.assertEquals(Role.ROLE_OWNER.getRoleHierarchy(), account0Roles);
+        Assert.assertEquals("sub1", user03.get(owner).getSubdomain());
+        Assert.assertEquals("account2", user03.get(owner + 1).getAcctName());
+        Assert.assertEquals(Role.ROLE_USER, user03.get(owner + 1).getRole());
+    }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.sys.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.duracloud.account.db.util.sys.AccountEvent;
+import org.duracloud.account.db.util.sys.DomainEvent;
+import org.duracloud.account.db.util.sys.EventSubscriber;
+import org.junit.After;
+import org.junit.Test;
+
+public class EventBusImplTest {
+
+    private EventBusImpl eventBus;
+
+    @After
+    public void tearDown() {
+        if (null != eventBus) {
+            eventBus.shutdown();
+        }
+    }
+
+    @Test
+    public void testPublishByType() throws Exception {
+        RecordingSubscriber<AccountEvent> accounts =
+            new RecordingSubscriber<>(AccountEvent.class, 2);
+        RecordingSubscriber<DomainEvent> all =
+            new RecordingSubscriber<>(DomainEvent.class, 3);
+        RecordingSubscriber<OtherEvent> others =
+            new RecordingSubscriber<>(OtherEvent.class, 1);
+
+        eventBus = new EventBusImpl(Arrays.<EventSubscriber<?>>asList(accounts, all, others), 10, 100);
+
+        AccountEvent activated = new AccountEvent(AccountEvent.Type.ACTIVATED, 1L, "one");
+        OtherEvent other = new OtherEvent();
+        AccountEvent deleted = new AccountEvent(AccountEvent.Type.DELETED, 2L, "two");
+        eventBus.publish(activated);
+        eventBus.publish(other);
+        eventBus.publish(deleted);
+
+        accounts.await();
+        all.await();
+        others.await();
+
+        assertEquals(Arrays.asList(activated, deleted), accounts.events);
+        assertEquals(Arrays.asList(activated, other, deleted), all.events);
+        assertEquals(Collections.singletonList(other), others.events);
+        assertEquals(0, eventBus.getDropped());
+    }
+
+    @Test
+    public void testSubscriberFailure() throws Exception {
+        RecordingSubscriber<AccountEvent> subscriber =
+            new RecordingSubscriber<AccountEvent>(AccountEvent.class, 2) {
+                @Override
+                public void onEvent(AccountEvent event) {
+                    super.onEvent(event);
+                    throw new RuntimeException("expected");
+                }
+            };
+        eventBus = new EventBusImpl(Collections.<EventSubscriber<?>>singletonList(subscriber), 10, 100);
+
+        eventBus.publish(new AccountEvent(AccountEvent.Type.ACTIVATED, 1L, "one"));
+        eventBus.publish(new AccountEvent(AccountEvent.Type.ACTIVATED, 2L, "two"));
+
+        subscriber.await();
+        assertEquals(2, subscriber.events.size());
+    }
+
+    @Test
+    public void testBackPressure() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        RecordingSubscriber<AccountEvent> blocked =
+            new RecordingSubscriber<AccountEvent>(AccountEvent.class, 2) {
+                @Override
+                public void onEvent(AccountEvent event) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    super.onEvent(event);
+                }
+            };
+        long offerTimeout = 100;
+        eventBus = new EventBusImpl(Collections.<EventSubscriber<?>>singletonList(blocked), 1, offerTimeout);
+
+        // The first event occupies the worker, the second fills the queue
+        eventBus.publish(new AccountEvent(AccountEvent.Type.ACTIVATED, 1L, "one"));
+        eventBus.publish(new AccountEvent(AccountEvent.Type.ACTIVATED, 2L, "two"));
+
+        // The third must wait for room, then is dropped
+        long start = System.currentTimeMillis();
+        eventBus.publish(new AccountEvent(AccountEvent.Type.ACTIVATED, 3L, "three"));
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertTrue("publisher should have waited: " + elapsed, elapsed >= offerTimeout);
+        assertEquals(1, eventBus.getDropped());
+
+        release.countDown();
+        blocked.await();
+        assertEquals(2, blocked.events.size());
+    }
+
+    private static class OtherEvent extends DomainEvent {
+    }
+
+    private static class RecordingSubscriber<E extends DomainEvent> implements EventSubscriber<E> {
+
+        private Class<E> type;
+        private CountDownLatch latch;
+        private List<DomainEvent> events = Collections.synchronizedList(new ArrayList<>());
+
+        RecordingSubscriber(Class<E> type, int expected) {
+            this.type = type;
+            this.latch = new CountDownLatch(expected);
+        }
+
+        @Override
+        public Class<E> getEventType() {
+            return type;
+        }
+
+        @Override
+        public void onEvent(E event) {
+            events.add(event);
+            latch.countDown();
+        }
+
+        void await() throws InterruptedException {
+            assertTrue("timed out waiting for events", latch.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+}
@@ -0,0 +1,40 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.util;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CsvUtilTest {
+
+    @Test
+    public void testRoundTrip() {
+        String[] values = {"plain", "with, comma", "with \"quotes\"", "", " padded "};
+        String line = CsvUtil.formatLine(values);
+        Assert.assertEquals("plain,\"with, comma\",\"with \"\"quotes\"\"\",,\" padded \"", line);
+        // Unquoted values are trimmed, quoted values are kept as they are
+        Assert.assertEquals(Arrays.asList("plain", "with, comma", "with \"quotes\"", "", " padded "),
+                            CsvUtil.parseLine(line));
+    }
+
+    @Test
+    public void testParseLine() {
+        Assert.assertEquals(Arrays.asList("a", "b"), CsvUtil.parseLine(" a , b "));
+        Assert.assertEquals(Arrays.asList("a"), CsvUtil.parseLine("a"));
+        Assert.assertEquals(Arrays.asList("", ""), CsvUtil.parseLine(","));
+        Assert.assertEquals(Arrays.asList("a,b", "c"), CsvUtil.parseLine(" \"a,b\" ,c"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnterminatedQuote() {
+        CsvUtil.parseLine("a,\"b");
+    }
+
+}
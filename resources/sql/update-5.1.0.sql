@@ -0,0 +1,86 @@
+-- Supports expiration-filtered invitation lookups and the bulk purge of
+-- expired invitations.
+CREATE INDEX `idx_user_invitation_expiration_date` ON `user_invitation` (`expiration_date`);
+CREATE INDEX `idx_user_invitation_account_expiration` ON `user_invitation` (`account_id`, `expiration_date`);
+
+-- Redemption codes are looked up on every invitation and password change
+-- request and must never collide. Codes issued before this release may be
+-- shared by several invitations: expired invitations sharing a code are
+-- removed, and of the remaining ones only the newest keeps the code.
+DELETE i FROM `user_invitation` i
+  JOIN (SELECT `redemption_code` FROM `user_invitation`
+         GROUP BY `redemption_code` HAVING COUNT(*) > 1) d
+    ON d.`redemption_code` = i.`redemption_code`
+ WHERE i.`expiration_date` < NOW();
+UPDATE `user_invitation` i
+  JOIN (SELECT `redemption_code`, MAX(`id`) AS `keep_id` FROM `user_invitation`
+         GROUP BY `redemption_code` HAVING COUNT(*) > 1) d
+    ON d.`redemption_code` = i.`redemption_code` AND i.`id` <> d.`keep_id`
+   SET i.`redemption_code` = MD5(CONCAT(i.`id`, '-', UUID()));
+CREATE UNIQUE INDEX `idx_user_invitation_redemption_code` ON `user_invitation` (`redemption_code`);
+
+-- Append-only log of notification deliveries, paged by descending id.
+CREATE TABLE `notification_delivery` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT,
+  `modified` datetime DEFAULT NULL,
+  `template` varchar(255) NOT NULL,
+  `recipient` varchar(255) NOT NULL,
+  `subject` varchar(1000) DEFAULT NULL,
+  `status` varchar(255) NOT NULL,
+  `sent_date` datetime NOT NULL,
+  `latency_millis` bigint(20) NOT NULL,
+  `error` varchar(1000) DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_notification_delivery_template` (`template`, `id`),
+  KEY `idx_notification_delivery_recipient` (`recipient`, `id`),
+  KEY `idx_notification_delivery_status` (`status`, `id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+-- Keyset-paged user listings walk usernames in order; each column matched
+-- by the user search prefix filter has its own index.
+CREATE INDEX `idx_duracloud_user_username` ON `duracloud_user` (`username`);
+CREATE INDEX `idx_duracloud_user_root_username` ON `duracloud_user` (`root`, `username`);
+CREATE INDEX `idx_duracloud_user_first_name` ON `duracloud_user` (`first_name`);
+CREATE INDEX `idx_duracloud_user_last_name` ON `duracloud_user` (`last_name`);
+CREATE INDEX `idx_duracloud_user_email` ON `duracloud_user` (`email`);
+
+-- Keyset-paged account listings walk (acct_name, id), optionally within a
+-- status; status counts are served from the status index.
+CREATE INDEX `idx_account_info_name_id` ON `account_info` (`acct_name`, `id`);
+CREATE INDEX `idx_account_info_status_name_id` ON `account_info` (`status`, `acct_name`, `id`);
+CREATE INDEX `idx_account_info_org_name` ON `account_info` (`org_name`);
+CREATE INDEX `idx_account_info_subdomain` ON `account_info` (`subdomain`);
+
+-- Records of long-running root operations run off of the request thread,
+-- paged by descending id on the jobs page.
+CREATE TABLE `background_job` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT,
+  `modified` datetime DEFAULT NULL,
+  `type` varchar(255) NOT NULL,
+  `description` varchar(1000) DEFAULT NULL,
+  `status` varchar(255) NOT NULL,
+  `submitted_by` varchar(255) DEFAULT NULL,
+  `submitted_date` datetime NOT NULL,
+  `start_date` datetime DEFAULT NULL,
+  `end_date` datetime DEFAULT NULL,
+  `progress` bigint(20) NOT NULL,
+  `total` bigint(20) NOT NULL,
+  `checkpoint` varchar(1000) DEFAULT NULL,
+  `cancel_requested` tinyint(1) NOT NULL,
+  `error` varchar(1000) DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_background_job_status` (`status`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+-- Leases which keep duplication monitor nodes from checking the same host;
+-- taken and released with conditional updates by host.
+CREATE TABLE `duplication_lease` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT,
+  `modified` datetime DEFAULT NULL,
+  `host` varchar(255) NOT NULL,
+  `owner` varchar(255) DEFAULT NULL,
+  `expires` datetime DEFAULT NULL,
+  `last_checked` datetime DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_duplication_lease_host` (`host`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;